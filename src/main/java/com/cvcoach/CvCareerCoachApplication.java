@@ -2,6 +2,7 @@ package com.cvcoach;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 
 /**
  * CV Career Coach - AI-powered CV analysis and job matching application
@@ -16,6 +17,7 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
  * @version 1.0.0
  */
 @SpringBootApplication
+@ConfigurationPropertiesScan
 public class CvCareerCoachApplication {
 
     public static void main(String[] args) {
@@ -31,9 +33,15 @@ public class CvCareerCoachApplication {
             
             API Endpoints:
             - POST /api/cv/upload (Upload PDF)
-            - GET  /api/cv/data (Get CV data)
-            - GET  /api/cv/jobs/matching (Matching jobs)
-            - GET  /api/cv/jobs/alternative (Alternative jobs)
+            - POST /api/cv/upload/async (Upload PDF, analyze in background)
+            - POST /api/cv/batch (Upload many PDFs or a ZIP, NDJSON report)
+            - GET  /api/cv/analysis/{id} (Background analysis status)
+            - GET  /api/cv/analysis/{id}/events (Status as Server-Sent Events)
+            - GET  /api/cv/{userId}/data (Get the user's latest CV data; userId is issued in X-User-Id on upload)
+            - GET  /api/cv/{userId}/jobs (Matching and alternative jobs in parallel)
+            - GET  /api/cv/{userId}/jobs/matching (Matching jobs)
+            - GET  /api/cv/{userId}/jobs/alternative (Alternative jobs)
+            - GET  /api/cv/{userId}/jobs/{matching|alternative}/stream (Jobs as NDJSON stream)
             - GET  /api/cv/health (Health check)
             
             ========================================
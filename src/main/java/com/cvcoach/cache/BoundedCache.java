@@ -0,0 +1,174 @@
+package com.cvcoach.cache;
+
+import java.lang.ref.SoftReference;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Thread-safe in-memory cache with LRU eviction and a time-to-live per entry.
+ * Values can optionally be held through soft references, so the garbage collector
+ * may reclaim them under memory pressure.
+ * Guarded by a {@link ReentrantLock} rather than synchronized, so virtual threads
+ * do not pin their carrier while waiting on it.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+public class BoundedCache<K, V> {
+
+    private final int maxSize;
+    private final Duration ttl;
+    private final boolean softValues;
+    private final Clock clock;
+
+    private final LinkedHashMap<K, Entry<V>> entries;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public BoundedCache(int maxSize, Duration ttl, boolean softValues) {
+        this(maxSize, ttl, softValues, Clock.systemUTC());
+    }
+
+    BoundedCache(int maxSize, Duration ttl, boolean softValues, Clock clock) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive: " + maxSize);
+        }
+        this.maxSize = maxSize;
+        this.ttl = ttl;
+        this.softValues = softValues;
+        this.clock = clock;
+        // Access-ordered map: iteration starts at the least recently used entry
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Get a live value, counting a hit or a miss
+     *
+     * @param key cache key
+     * @return Optional containing the value or empty if absent, expired or reclaimed
+     */
+    public Optional<V> get(K key) {
+        lock.lock();
+        try {
+            Entry<V> entry = entries.get(key);
+            V value = entry != null ? entry.value() : null;
+
+            if (value == null || entry.isExpired(clock.instant())) {
+                if (entry != null) {
+                    entries.remove(key);
+                }
+                misses.incrementAndGet();
+                return Optional.empty();
+            }
+
+            hits.incrementAndGet();
+            return Optional.of(value);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Store a value, evicting the least recently used entries when the cache is full
+     */
+    public void put(K key, V value) {
+        Instant expiresAt = clock.instant().plus(ttl);
+        Entry<V> entry = softValues
+                ? new Entry<>(null, new SoftReference<>(value), expiresAt)
+                : new Entry<>(value, null, expiresAt);
+
+        lock.lock();
+        try {
+            entries.put(key, entry);
+
+            if (entries.size() > maxSize) {
+                purgeReclaimed();
+            }
+
+            Iterator<K> eldest = entries.keySet().iterator();
+            while (entries.size() > maxSize && eldest.hasNext()) {
+                eldest.next();
+                eldest.remove();
+                evictions.incrementAndGet();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void invalidate(K key) {
+        lock.lock();
+        try {
+            entries.remove(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void invalidateAll() {
+        lock.lock();
+        try {
+            entries.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long hitCount() {
+        return hits.get();
+    }
+
+    public long missCount() {
+        return misses.get();
+    }
+
+    public long evictionCount() {
+        return evictions.get();
+    }
+
+    /**
+     * Drop entries whose soft value was already reclaimed or that have expired,
+     * so live entries are not evicted in their place. Caller must hold the lock.
+     */
+    private void purgeReclaimed() {
+        Instant now = clock.instant();
+        Iterator<Map.Entry<K, Entry<V>>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            Entry<V> entry = it.next().getValue();
+            if (entry.value() == null || entry.isExpired(now)) {
+                it.remove();
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    private record Entry<V>(V strongValue, SoftReference<V> softValue, Instant expiresAt) {
+
+        V value() {
+            return strongValue != null ? strongValue : softValue.get();
+        }
+
+        boolean isExpired(Instant now) {
+            return !now.isBefore(expiresAt);
+        }
+    }
+}
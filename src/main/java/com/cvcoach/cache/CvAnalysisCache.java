@@ -0,0 +1,122 @@
+package com.cvcoach.cache;
+
+import com.cvcoach.config.CvCoachProperties;
+import com.cvcoach.model.CvData;
+import com.cvcoach.model.CvDataEntity;
+import com.cvcoach.repository.CvDataRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Content-addressed cache of CV analysis results.
+ * Entries are keyed by a SHA-256 hash of the normalized CV text, so uploading the
+ * same PDF again skips the OpenAI call. A bounded in-memory tier is backed by an
+ * optional persistent tier that reuses rows already saved in the cv_data table.
+ */
+@Component
+@Slf4j
+public class CvAnalysisCache {
+
+    private final CvDataRepository cvDataRepository;
+    private final CvCoachProperties.AnalysisCache properties;
+    private final BoundedCache<String, CvData> memory;
+
+    private final AtomicLong memoryHits = new AtomicLong();
+    private final AtomicLong persistentHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong bypasses = new AtomicLong();
+
+    public CvAnalysisCache(CvDataRepository cvDataRepository, CvCoachProperties properties) {
+        this.cvDataRepository = cvDataRepository;
+        this.properties = properties.getCache().getAnalysis();
+        this.memory = new BoundedCache<>(
+                this.properties.getMaxSize(),
+                this.properties.getTtl(),
+                this.properties.isSoftValues());
+    }
+
+    /**
+     * Compute the cache key for extracted CV text.
+     * Whitespace runs are collapsed first, so layout-only differences map to the same key.
+     *
+     * @param cvText Text extracted from the CV
+     * @return Lowercase hex SHA-256 hash
+     */
+    public static String contentHash(String cvText) {
+        String normalized = cvText.trim().replaceAll("\\s+", " ");
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(normalized.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Look up a previous analysis, first in memory and then in the database
+     *
+     * @param contentHash Hash returned by {@link #contentHash(String)}
+     * @return Optional containing the cached analysis or empty on a miss
+     */
+    public Optional<CvData> get(String contentHash) {
+        Optional<CvData> cached = memory.get(contentHash);
+        if (cached.isPresent()) {
+            memoryHits.incrementAndGet();
+            log.info("Analysis cache hit (memory) for {}", contentHash);
+            return cached;
+        }
+
+        if (properties.isPersistent()) {
+            LocalDateTime cutoff = LocalDateTime.now().minus(properties.getPersistentTtl());
+            Optional<CvData> stored = cvDataRepository
+                    .findFirstByContentHashAndCreatedAtAfterOrderByCreatedAtDesc(contentHash, cutoff)
+                    .map(CvDataEntity::toDto);
+
+            if (stored.isPresent()) {
+                persistentHits.incrementAndGet();
+                memory.put(contentHash, stored.get());
+                log.info("Analysis cache hit (database) for {}", contentHash);
+                return stored;
+            }
+        }
+
+        misses.incrementAndGet();
+        return Optional.empty();
+    }
+
+    public void put(String contentHash, CvData cvData) {
+        memory.put(contentHash, cvData);
+    }
+
+    public void recordBypass() {
+        bypasses.incrementAndGet();
+    }
+
+    public CacheStats stats() {
+        return new CacheStats(
+                memoryHits.get(),
+                persistentHits.get(),
+                misses.get(),
+                bypasses.get(),
+                memory.size(),
+                memory.evictionCount());
+    }
+
+    /**
+     * Snapshot of cache counters
+     */
+    public record CacheStats(long memoryHits,
+                             long persistentHits,
+                             long misses,
+                             long bypasses,
+                             int memorySize,
+                             long evictions) {}
+}
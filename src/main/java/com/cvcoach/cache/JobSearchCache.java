@@ -0,0 +1,107 @@
+package com.cvcoach.cache;
+
+import com.cvcoach.config.CvCoachProperties;
+import com.cvcoach.model.CvData;
+import com.cvcoach.model.CvDataSavedEvent;
+import com.cvcoach.model.JobPosition;
+import com.cvcoach.model.JobSearchMode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Cache of job suggestions, so repeated searches for an unchanged CV cost no tokens.
+ * Entries are keyed by a canonical fingerprint of the CV profile and the search mode.
+ * Saving a CV clears the entries of its own profile, so re-uploading a CV gives fresh
+ * suggestions, while the searches of other users stay cached.
+ * A longer-lived copy of the last suggestions per profile is kept as a fallback
+ * for when OpenAI is unavailable.
+ */
+@Component
+@Slf4j
+public class JobSearchCache {
+
+    private final BoundedCache<Key, List<JobPosition>> cache;
+    private final BoundedCache<Key, List<JobPosition>> fallback;
+
+    public JobSearchCache(CvCoachProperties properties) {
+        CvCoachProperties.JobsCache jobs = properties.getCache().getJobs();
+        this.cache = new BoundedCache<>(jobs.getMaxSize(), jobs.getTtl(), false);
+        this.fallback = new BoundedCache<>(jobs.getMaxSize(), jobs.getFallbackTtl(), false);
+    }
+
+    /**
+     * Compute a canonical fingerprint of the CV fields used in job search prompts.
+     * Case and surrounding whitespace of text fields are ignored.
+     *
+     * @param cvData Structured CV information
+     * @return Lowercase hex SHA-256 hash
+     */
+    public static String fingerprint(CvData cvData) {
+        String canonical = Stream.of(
+                        cvData.getLocation(),
+                        cvData.getJobBranch(),
+                        cvData.getHardSkills(),
+                        cvData.getSoftSkills(),
+                        cvData.getEducation(),
+                        cvData.getTotalExperienceYears(),
+                        cvData.getBranchExperienceYears())
+                .map(value -> Objects.toString(value, "").trim().toLowerCase(Locale.ROOT))
+                .collect(Collectors.joining("\u001f"));
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(canonical.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public Optional<List<JobPosition>> get(CvData cvData, JobSearchMode mode) {
+        Optional<List<JobPosition>> cached = cache.get(new Key(fingerprint(cvData), mode));
+        cached.ifPresent(jobs -> log.info("Job search cache hit for {} search", mode));
+        return cached;
+    }
+
+    /**
+     * Last suggestions for a CV profile, also after the regular entry expired or was cleared
+     */
+    public Optional<List<JobPosition>> getFallback(CvData cvData, JobSearchMode mode) {
+        return fallback.get(new Key(fingerprint(cvData), mode));
+    }
+
+    /**
+     * Store suggestions for a CV profile
+     *
+     * @return The stored, unmodifiable list
+     */
+    public List<JobPosition> put(CvData cvData, JobSearchMode mode, List<JobPosition> jobs) {
+        List<JobPosition> copy = List.copyOf(jobs);
+        Key key = new Key(fingerprint(cvData), mode);
+        cache.put(key, copy);
+        fallback.put(key, copy);
+        return copy;
+    }
+
+    @EventListener
+    public void onCvDataSaved(CvDataSavedEvent event) {
+        log.debug("New CV data saved (ID: {}) for user {}, clearing its job search cache entries",
+                event.id(), event.ownerId());
+        String fingerprint = fingerprint(event.cvData());
+        for (JobSearchMode mode : JobSearchMode.values()) {
+            cache.invalidate(new Key(fingerprint, mode));
+        }
+    }
+
+    private record Key(String fingerprint, JobSearchMode mode) {}
+}
@@ -0,0 +1,77 @@
+package com.cvcoach.cache;
+
+import com.cvcoach.config.CvCoachProperties;
+import com.cvcoach.model.CvData;
+import com.cvcoach.model.CvDataEntity;
+import com.cvcoach.model.CvDataSavedEvent;
+import com.cvcoach.repository.CvDataRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Optional;
+
+/**
+ * Keeps each user's most recently saved CV in memory, so the read endpoints do not
+ * query the database on every request. Updated after each committed save and re-read
+ * from the database once the refresh interval has passed, to pick up rows written by
+ * other instances.
+ */
+@Component
+@Slf4j
+public class LatestCvHolder {
+
+    private final CvDataRepository cvDataRepository;
+    private final BoundedCache<String, Snapshot> snapshots;
+
+    public LatestCvHolder(CvDataRepository cvDataRepository, CvCoachProperties properties) {
+        this.cvDataRepository = cvDataRepository;
+
+        CvCoachProperties.LatestCvCache latestCv = properties.getCache().getLatestCv();
+        this.snapshots = new BoundedCache<>(latestCv.getMaxUsers(), latestCv.getRefreshInterval(), false);
+    }
+
+    /**
+     * Get the most recently saved CV of a user
+     *
+     * @param ownerId User ID
+     * @return Optional containing the user's latest CV or empty if the user has not saved one yet
+     */
+    public Optional<LatestCv> get(String ownerId) {
+        Snapshot current = snapshots.get(ownerId).orElseGet(() -> load(ownerId));
+        return Optional.ofNullable(current.latest());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCvDataSaved(CvDataSavedEvent event) {
+        if (event.ownerId() != null) {
+            snapshots.put(event.ownerId(), new Snapshot(new LatestCv(event.id(), event.cvData())));
+        }
+    }
+
+    private Snapshot load(String ownerId) {
+        LatestCv latest = cvDataRepository.findFirstByOwnerIdOrderByCreatedAtDesc(ownerId)
+                .map(LatestCv::of)
+                .orElse(null);
+        log.debug("Loaded latest CV of user {} from database: {}", ownerId, latest != null ? latest.id() : "none");
+
+        Snapshot loaded = new Snapshot(latest);
+        snapshots.put(ownerId, loaded);
+        return loaded;
+    }
+
+    /**
+     * Latest CV and its database ID
+     */
+    public record LatestCv(Long id, CvData cvData) {
+
+        public static LatestCv of(CvDataEntity entity) {
+            return new LatestCv(entity.getId(), entity.toDto());
+        }
+    }
+
+    /**
+     * Cached lookup result; {@code latest} is null for users without a saved CV
+     */
+    private record Snapshot(LatestCv latest) {}
+}
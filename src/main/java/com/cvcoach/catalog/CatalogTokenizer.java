@@ -0,0 +1,56 @@
+package com.cvcoach.catalog;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Splits job and CV text into lower-case terms for the keyword and vector indexes.
+ * Keeps technology names such as "c++", "c#" and "node.js" in one piece.
+ */
+public final class CatalogTokenizer {
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "or", "the", "of", "in", "on", "at", "to", "for", "with", "by", "as", "is",
+            "are", "be", "from", "years", "year", "experience", "knowledge", "good", "strong", "plus",
+            "etc", "i", "w", "z", "oraz", "und", "mit");
+
+    private CatalogTokenizer() {
+    }
+
+    /**
+     * @param text Free text, may be null
+     * @return Terms in order of appearance, duplicates included
+     */
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+
+        int length = text.length();
+        int start = -1;
+        for (int i = 0; i <= length; i++) {
+            char c = i < length ? text.charAt(i) : ' ';
+            boolean part = Character.isLetterOrDigit(c) || c == '+' || c == '#'
+                    || (c == '.' && start >= 0 && i + 1 < length && Character.isLetterOrDigit(text.charAt(i + 1)));
+            if (part) {
+                if (start < 0) {
+                    start = i;
+                }
+            } else if (start >= 0) {
+                add(tokens, text.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private static void add(List<String> tokens, String token) {
+        String term = token.toLowerCase(Locale.ROOT);
+        if (!STOP_WORDS.contains(term) && !(term.length() == 1 && Character.isDigit(term.charAt(0)))) {
+            tokens.add(term);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.cvcoach.catalog;
+
+/**
+ * Turns text into a vector for the semantic part of the job catalog search.
+ * The default is {@link HashingEmbeddingProvider}; declare another bean of this type
+ * to use a model-based embedding instead.
+ */
+public interface EmbeddingProvider {
+
+    /**
+     * @param text Text to embed, may be empty
+     * @return Vector of {@link #dimensions()} values with unit length, or all zeros for text without terms
+     */
+    float[] embed(String text);
+
+    int dimensions();
+}
@@ -0,0 +1,84 @@
+package com.cvcoach.catalog;
+
+import java.util.List;
+
+/**
+ * Deterministic local embedding: terms, adjacent term pairs and character trigrams are
+ * hashed into a fixed number of signed buckets. Needs no model or network, gives the same
+ * vector on every machine, and still places "postgres" near "postgresql" and
+ * "spring boot" near "spring".
+ */
+public class HashingEmbeddingProvider implements EmbeddingProvider {
+
+    private static final float TERM_WEIGHT = 1.0f;
+    private static final float PAIR_WEIGHT = 0.5f;
+    private static final float TRIGRAM_WEIGHT = 0.25f;
+
+    private final int dimensions;
+
+    public HashingEmbeddingProvider(int dimensions) {
+        if (dimensions <= 0) {
+            throw new IllegalArgumentException("dimensions must be positive");
+        }
+        this.dimensions = dimensions;
+    }
+
+    @Override
+    public float[] embed(String text) {
+        float[] vector = new float[dimensions];
+        List<String> terms = CatalogTokenizer.tokenize(text);
+
+        for (int i = 0; i < terms.size(); i++) {
+            String term = terms.get(i);
+            add(vector, term.hashCode(), TERM_WEIGHT);
+            if (i + 1 < terms.size()) {
+                add(vector, (term + ' ' + terms.get(i + 1)).hashCode(), PAIR_WEIGHT);
+            }
+            String padded = '^' + term + '$';
+            for (int j = 0; j + 3 <= padded.length(); j++) {
+                add(vector, padded.substring(j, j + 3).hashCode() * 31 + 7, TRIGRAM_WEIGHT);
+            }
+        }
+
+        normalize(vector);
+        return vector;
+    }
+
+    @Override
+    public int dimensions() {
+        return dimensions;
+    }
+
+    private void add(float[] vector, int hash, float weight) {
+        int mixed = mix(hash);
+        int bucket = Math.floorMod(mixed, dimensions);
+        vector[bucket] += (mixed & 0x40000000) == 0 ? weight : -weight;
+    }
+
+    /**
+     * Murmur3 finalizer, so that similar strings do not land in neighbouring buckets
+     */
+    private static int mix(int hash) {
+        int h = hash;
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    static void normalize(float[] vector) {
+        double norm = 0;
+        for (float value : vector) {
+            norm += value * value;
+        }
+        if (norm == 0) {
+            return;
+        }
+        float scale = (float) (1 / Math.sqrt(norm));
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] *= scale;
+        }
+    }
+}
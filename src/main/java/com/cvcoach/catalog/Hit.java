@@ -0,0 +1,7 @@
+package com.cvcoach.catalog;
+
+/**
+ * Document of an index with its score; higher is better
+ */
+record Hit(int doc, double score) {
+}
@@ -0,0 +1,183 @@
+package com.cvcoach.catalog;
+
+import com.cvcoach.model.CvData;
+import com.cvcoach.model.JobPosting;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Immutable snapshot of job postings with a hybrid index.
+ *
+ * A CV profile is matched two ways: BM25 over the posting's position and requirements
+ * finds exact skill names, and the vector index finds postings with related wording.
+ * The two rankings are fused by reciprocal rank, and postings in the candidate's city
+ * or open to remote work get a small bonus.
+ */
+public final class JobCatalog {
+
+    /** Damping constant of reciprocal rank fusion; 60 is the usual choice */
+    private static final int RRF_K = 60;
+
+    /** Worth about one and a half places near the top of both rankings, so location only reorders near ties */
+    private static final double LOCATION_BONUS = 3.0 / ((RRF_K + 1) * (RRF_K + 2));
+
+    /** Vector hits below this cosine similarity share only a few hashed features with the profile */
+    private static final double MIN_SIMILARITY = 0.2;
+
+    private static final String REMOTE = "remote";
+
+    public record Match(JobPosting posting, double score, List<String> matchedSkills) {
+    }
+
+    private final List<JobPosting> postings;
+    private final Map<String, JobPosting> postingsById;
+    private final List<Set<String>> postingTerms;
+    private final EmbeddingProvider embeddingProvider;
+    private final KeywordIndex keywordIndex;
+    private final VectorIndex vectorIndex;
+
+    private JobCatalog(List<JobPosting> postings, EmbeddingProvider embeddingProvider, int probes) {
+        this.postings = List.copyOf(postings);
+        this.postingsById = new HashMap<>();
+        this.embeddingProvider = embeddingProvider;
+
+        List<List<String>> documents = new ArrayList<>(postings.size());
+        List<Set<String>> terms = new ArrayList<>(postings.size());
+        float[][] vectors = new float[postings.size()][];
+        for (int doc = 0; doc < postings.size(); doc++) {
+            JobPosting posting = postings.get(doc);
+            if (posting.getId() != null) {
+                postingsById.putIfAbsent(posting.getId(), posting);
+            }
+            String text = posting.getPosition() + "\n" + posting.getRequirements();
+            List<String> tokens = CatalogTokenizer.tokenize(text);
+            documents.add(tokens);
+            terms.add(new HashSet<>(tokens));
+            vectors[doc] = embeddingProvider.embed(text);
+        }
+
+        this.postingTerms = terms;
+        this.keywordIndex = new KeywordIndex(documents);
+        this.vectorIndex = new VectorIndex(vectors, embeddingProvider.dimensions(), probes);
+    }
+
+    /**
+     * @param postings Postings to index; position and requirements must be set
+     * @param embeddingProvider Embedding used for postings and queries
+     * @param probes Number of vector index lists scored per query
+     */
+    public static JobCatalog build(List<JobPosting> postings, EmbeddingProvider embeddingProvider, int probes) {
+        return new JobCatalog(postings, embeddingProvider, probes);
+    }
+
+    public int size() {
+        return postings.size();
+    }
+
+    /**
+     * @param id Posting ID
+     * @return Optional containing the posting or empty if the catalog has no posting with this ID
+     */
+    public Optional<JobPosting> find(String id) {
+        return Optional.ofNullable(postingsById.get(id));
+    }
+
+    /**
+     * Rank postings against a CV profile
+     *
+     * @param cvData Profile with hard skills, and optionally job branch and location
+     * @param limit Number of matches to return
+     * @param candidates Number of hits taken from each index before fusion
+     * @return Best matches first; empty if nothing in the catalog relates to the profile
+     */
+    public List<Match> search(CvData cvData, int limit, int candidates) {
+        String query = joinNonBlank(cvData.getHardSkills(), cvData.getJobBranch());
+        List<String> queryTerms = CatalogTokenizer.tokenize(query);
+        if (queryTerms.isEmpty() || postings.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Integer, Double> fused = new HashMap<>();
+        fuse(fused, keywordIndex.search(queryTerms, candidates));
+        fuse(fused, vectorIndex.search(embeddingProvider.embed(query), candidates).stream()
+                .filter(hit -> hit.score() >= MIN_SIMILARITY)
+                .toList());
+
+        Set<String> locationTerms = new HashSet<>(CatalogTokenizer.tokenize(cvData.getLocation()));
+        fused.replaceAll((doc, score) -> score + locationBonus(postings.get(doc), locationTerms));
+
+        List<Map.Entry<Integer, Double>> ranked = new ArrayList<>(fused.entrySet());
+        ranked.sort(Map.Entry.<Integer, Double>comparingByValue().reversed()
+                .thenComparing(Map.Entry.comparingByKey()));
+
+        List<String> skills = skills(cvData.getHardSkills());
+        List<Match> matches = new ArrayList<>(Math.min(limit, ranked.size()));
+        for (Map.Entry<Integer, Double> entry : ranked.subList(0, Math.min(limit, ranked.size()))) {
+            int doc = entry.getKey();
+            matches.add(new Match(postings.get(doc), entry.getValue(), matchedSkills(skills, postingTerms.get(doc))));
+        }
+        return matches;
+    }
+
+    private static void fuse(Map<Integer, Double> fused, List<Hit> hits) {
+        for (int rank = 0; rank < hits.size(); rank++) {
+            fused.merge(hits.get(rank).doc(), 1.0 / (RRF_K + rank + 1), Double::sum);
+        }
+    }
+
+    private static double locationBonus(JobPosting posting, Set<String> cvLocationTerms) {
+        List<String> terms = CatalogTokenizer.tokenize(posting.getLocation());
+        if (terms.contains(REMOTE)) {
+            return LOCATION_BONUS;
+        }
+        return !Collections.disjoint(terms, cvLocationTerms) ? LOCATION_BONUS : 0;
+    }
+
+    /**
+     * @return Comma, semicolon or line separated skills of the CV, as written
+     */
+    private static List<String> skills(String hardSkills) {
+        if (hardSkills == null) {
+            return List.of();
+        }
+        Set<String> skills = new LinkedHashSet<>();
+        for (String skill : hardSkills.split("[,;\\n]")) {
+            if (!skill.isBlank()) {
+                skills.add(skill.strip());
+            }
+        }
+        return List.copyOf(skills);
+    }
+
+    private static List<String> matchedSkills(List<String> skills, Set<String> postingTerms) {
+        List<String> matched = new ArrayList<>();
+        for (String skill : skills) {
+            List<String> terms = CatalogTokenizer.tokenize(skill);
+            if (!terms.isEmpty() && postingTerms.containsAll(terms)) {
+                matched.add(skill);
+            }
+        }
+        return matched;
+    }
+
+    private static String joinNonBlank(String... parts) {
+        StringBuilder joined = new StringBuilder();
+        for (String part : parts) {
+            if (part != null && !part.isBlank()) {
+                if (!joined.isEmpty()) {
+                    joined.append('\n');
+                }
+                joined.append(part);
+            }
+        }
+        return joined.toString();
+    }
+}
@@ -0,0 +1,97 @@
+package com.cvcoach.catalog;
+
+import com.cvcoach.model.JobPosting;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.opencsv.bean.CsvToBeanBuilder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.core.io.support.ResourcePatternResolver;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Reads job postings from CSV files with a header row and from JSON files holding an array.
+ * Postings without position or requirements are skipped; postings without an id get
+ * one made of the file name and row number.
+ */
+@Slf4j
+public class JobCatalogLoader {
+
+    private static final TypeReference<List<JobPosting>> POSTING_LIST = new TypeReference<>() {
+    };
+
+    private final ResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+    private final ObjectMapper objectMapper;
+
+    public JobCatalogLoader(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * @param locations Resource patterns such as "classpath*:catalog/*.csv" or "file:/data/jobs/*.json"
+     * @return Postings of all matching files
+     * @throws IOException if a file cannot be read or parsed
+     */
+    public List<JobPosting> load(List<String> locations) throws IOException {
+        List<JobPosting> postings = new ArrayList<>();
+        for (String location : locations) {
+            for (Resource resource : resolver.getResources(location)) {
+                if (resource.isReadable()) {
+                    List<JobPosting> loaded = load(resource);
+                    log.info("Loaded {} job postings from {}", loaded.size(), resource.getDescription());
+                    postings.addAll(loaded);
+                }
+            }
+        }
+        return postings;
+    }
+
+    List<JobPosting> load(Resource resource) throws IOException {
+        String name = resource.getFilename() == null ? "catalog" : resource.getFilename();
+        List<JobPosting> parsed;
+        try (InputStream input = resource.getInputStream()) {
+            parsed = name.toLowerCase(Locale.ROOT).endsWith(".json")
+                    ? objectMapper.readValue(input, POSTING_LIST)
+                    : readCsv(new InputStreamReader(input, StandardCharsets.UTF_8));
+        } catch (RuntimeException e) {
+            // opencsv reports malformed rows as unchecked exceptions
+            throw new IOException("Failed to parse job catalog " + name + ": " + e.getMessage(), e);
+        }
+
+        List<JobPosting> postings = new ArrayList<>(parsed.size());
+        for (int row = 0; row < parsed.size(); row++) {
+            JobPosting posting = parsed.get(row);
+            if (isBlank(posting.getPosition()) || isBlank(posting.getRequirements())) {
+                log.warn("Skipping job posting {} of {} without position or requirements", row + 1, name);
+                continue;
+            }
+            if (isBlank(posting.getId())) {
+                posting.setId(name + "#" + (row + 1));
+            }
+            postings.add(posting);
+        }
+        return postings;
+    }
+
+    private static List<JobPosting> readCsv(Reader reader) {
+        return new CsvToBeanBuilder<JobPosting>(reader)
+                .withType(JobPosting.class)
+                .withIgnoreEmptyLine(true)
+                .withIgnoreLeadingWhiteSpace(true)
+                .build()
+                .parse();
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
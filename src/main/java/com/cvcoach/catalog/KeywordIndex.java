@@ -0,0 +1,109 @@
+package com.cvcoach.catalog;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Inverted index with BM25 ranking. Immutable after construction and safe to share.
+ */
+final class KeywordIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    /** Per term: documents containing it and the term frequency in each, ordered by document */
+    private final Map<String, int[][]> postings;
+    private final int[] documentLengths;
+    private final double averageLength;
+
+    /**
+     * @param documents Terms of each document, indexed by position
+     */
+    KeywordIndex(List<List<String>> documents) {
+        Map<String, List<int[]>> building = new HashMap<>();
+        documentLengths = new int[documents.size()];
+        long totalLength = 0;
+
+        for (int doc = 0; doc < documents.size(); doc++) {
+            List<String> terms = documents.get(doc);
+            documentLengths[doc] = terms.size();
+            totalLength += terms.size();
+
+            Map<String, Integer> frequencies = new HashMap<>();
+            terms.forEach(term -> frequencies.merge(term, 1, Integer::sum));
+            int docId = doc;
+            frequencies.forEach((term, frequency) ->
+                    building.computeIfAbsent(term, key -> new ArrayList<>()).add(new int[]{docId, frequency}));
+        }
+
+        postings = new HashMap<>(building.size() * 2);
+        building.forEach((term, list) -> {
+            int[][] columns = new int[2][list.size()];
+            for (int i = 0; i < list.size(); i++) {
+                columns[0][i] = list.get(i)[0];
+                columns[1][i] = list.get(i)[1];
+            }
+            postings.put(term, columns);
+        });
+        averageLength = documents.isEmpty() ? 0 : (double) totalLength / documents.size();
+    }
+
+    /**
+     * @param queryTerms Terms to look for; repeated terms count once
+     * @param limit Maximum number of hits
+     * @return Documents containing at least one term, best first
+     */
+    List<Hit> search(Collection<String> queryTerms, int limit) {
+        int documents = documentLengths.length;
+        double[] scores = new double[documents];
+        boolean[] matched = new boolean[documents];
+        List<Integer> candidates = new ArrayList<>();
+
+        Set<String> unique = new LinkedHashSet<>(queryTerms);
+        for (String term : unique) {
+            int[][] posting = postings.get(term);
+            if (posting == null) {
+                continue;
+            }
+            int[] docs = posting[0];
+            int[] frequencies = posting[1];
+            double idf = Math.log(1 + (documents - docs.length + 0.5) / (docs.length + 0.5));
+
+            for (int i = 0; i < docs.length; i++) {
+                int doc = docs[i];
+                double tf = frequencies[i];
+                double norm = K1 * (1 - B + B * documentLengths[doc] / averageLength);
+                scores[doc] += idf * tf * (K1 + 1) / (tf + norm);
+                if (!matched[doc]) {
+                    matched[doc] = true;
+                    candidates.add(doc);
+                }
+            }
+        }
+
+        return top(candidates, scores, limit);
+    }
+
+    static List<Hit> top(List<Integer> candidates, double[] scores, int limit) {
+        PriorityQueue<Hit> best = new PriorityQueue<>(Math.max(1, limit),
+                (a, b) -> Double.compare(a.score(), b.score()));
+        for (int doc : candidates) {
+            if (best.size() < limit) {
+                best.add(new Hit(doc, scores[doc]));
+            } else if (scores[doc] > best.peek().score()) {
+                best.poll();
+                best.add(new Hit(doc, scores[doc]));
+            }
+        }
+
+        List<Hit> hits = new ArrayList<>(best);
+        hits.sort((a, b) -> Double.compare(b.score(), a.score()));
+        return hits;
+    }
+}
@@ -0,0 +1,169 @@
+package com.cvcoach.catalog;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Approximate nearest neighbour index over unit vectors (inverted file, IVF).
+ *
+ * Vectors are clustered with a few rounds of k-means into about sqrt(n) lists. A query
+ * scores only the vectors in the lists of its closest centroids, so search cost grows
+ * with sqrt(n) instead of n. Centroids are seeded from evenly spaced documents, which
+ * keeps the index and its results deterministic. Immutable after construction.
+ */
+final class VectorIndex {
+
+    private static final int KMEANS_ITERATIONS = 5;
+
+    /** Below this size the clustering costs more than it saves and every vector is scored */
+    private static final int MIN_CLUSTERED_SIZE = 64;
+
+    private final int dimensions;
+    private final float[][] vectors;
+    private final float[][] centroids;
+    private final int[][] lists;
+    private final int probes;
+
+    /**
+     * @param vectors Unit vectors of each document, indexed by position
+     * @param dimensions Length of every vector
+     * @param probes Number of closest lists scored per query
+     */
+    VectorIndex(float[][] vectors, int dimensions, int probes) {
+        this.dimensions = dimensions;
+        this.vectors = vectors;
+        this.probes = Math.max(1, probes);
+
+        int listCount = vectors.length < MIN_CLUSTERED_SIZE ? 1 : (int) Math.ceil(Math.sqrt(vectors.length));
+        this.centroids = new float[listCount][];
+        for (int c = 0; c < listCount; c++) {
+            centroids[c] = vectors.length == 0 ? new float[dimensions]
+                    : vectors[(int) ((long) c * vectors.length / listCount)].clone();
+        }
+
+        int[] assignment = new int[vectors.length];
+        if (listCount > 1) {
+            for (int iteration = 0; iteration < KMEANS_ITERATIONS; iteration++) {
+                assign(assignment);
+                recomputeCentroids(assignment);
+            }
+            assign(assignment);
+        }
+        this.lists = buildLists(assignment, listCount);
+    }
+
+    /**
+     * @param query Unit vector
+     * @param limit Maximum number of hits
+     * @return Documents by cosine similarity, best first; only positive similarities
+     */
+    List<Hit> search(float[] query, int limit) {
+        int[] probed = closestCentroids(query, Math.min(probes, centroids.length));
+
+        double[] scores = new double[vectors.length];
+        List<Integer> candidates = new ArrayList<>();
+        for (int list : probed) {
+            for (int doc : lists[list]) {
+                double score = dot(query, vectors[doc]);
+                if (score > 0) {
+                    scores[doc] = score;
+                    candidates.add(doc);
+                }
+            }
+        }
+        return KeywordIndex.top(candidates, scores, limit);
+    }
+
+    /**
+     * Exact search over every vector, the reference for measuring recall
+     */
+    List<Hit> exactSearch(float[] query, int limit) {
+        double[] scores = new double[vectors.length];
+        List<Integer> candidates = new ArrayList<>();
+        for (int doc = 0; doc < vectors.length; doc++) {
+            scores[doc] = dot(query, vectors[doc]);
+            if (scores[doc] > 0) {
+                candidates.add(doc);
+            }
+        }
+        return KeywordIndex.top(candidates, scores, limit);
+    }
+
+    int listCount() {
+        return centroids.length;
+    }
+
+    private int[] closestCentroids(float[] query, int count) {
+        int[] best = new int[count];
+        double[] bestScores = new double[count];
+        Arrays.fill(bestScores, Double.NEGATIVE_INFINITY);
+
+        for (int c = 0; c < centroids.length; c++) {
+            double score = dot(query, centroids[c]);
+            if (score <= bestScores[count - 1]) {
+                continue;
+            }
+            int position = count - 1;
+            while (position > 0 && bestScores[position - 1] < score) {
+                bestScores[position] = bestScores[position - 1];
+                best[position] = best[position - 1];
+                position--;
+            }
+            bestScores[position] = score;
+            best[position] = c;
+        }
+        return best;
+    }
+
+    private void assign(int[] assignment) {
+        for (int doc = 0; doc < vectors.length; doc++) {
+            assignment[doc] = closestCentroids(vectors[doc], 1)[0];
+        }
+    }
+
+    private void recomputeCentroids(int[] assignment) {
+        float[][] sums = new float[centroids.length][dimensions];
+        int[] sizes = new int[centroids.length];
+        for (int doc = 0; doc < vectors.length; doc++) {
+            float[] sum = sums[assignment[doc]];
+            float[] vector = vectors[doc];
+            for (int d = 0; d < dimensions; d++) {
+                sum[d] += vector[d];
+            }
+            sizes[assignment[doc]]++;
+        }
+        for (int c = 0; c < centroids.length; c++) {
+            // An empty list keeps its old centroid
+            if (sizes[c] > 0) {
+                HashingEmbeddingProvider.normalize(sums[c]);
+                centroids[c] = sums[c];
+            }
+        }
+    }
+
+    private static int[][] buildLists(int[] assignment, int listCount) {
+        int[] sizes = new int[listCount];
+        for (int list : assignment) {
+            sizes[list]++;
+        }
+        int[][] lists = new int[listCount][];
+        for (int c = 0; c < listCount; c++) {
+            lists[c] = new int[sizes[c]];
+            sizes[c] = 0;
+        }
+        for (int doc = 0; doc < assignment.length; doc++) {
+            int list = assignment[doc];
+            lists[list][sizes[list]++] = doc;
+        }
+        return lists;
+    }
+
+    private static double dot(float[] a, float[] b) {
+        double sum = 0;
+        for (int i = 0; i < a.length; i++) {
+            sum += a[i] * b[i];
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,80 @@
+package com.cvcoach.config;
+
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.boot.web.client.RestClientCustomizer;
+import org.springframework.boot.web.reactive.function.client.WebClientCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.JdkClientHttpConnector;
+import org.springframework.retry.support.RetryTemplate;
+import org.springframework.web.client.ResponseErrorHandler;
+
+import java.net.http.HttpClient;
+
+/**
+ * Shared OpenAI client and the HTTP transport underneath it
+ */
+@Configuration
+public class AiConfiguration {
+
+    /**
+     * Single ChatClient used by all services. ChatClient is immutable and thread-safe,
+     * so there is no need to build one per call.
+     */
+    @Bean
+    public ChatClient chatClient(ChatClient.Builder chatClientBuilder) {
+        return chatClientBuilder.build();
+    }
+
+    /**
+     * Keeps the wait time of 429 responses for the {@link com.cvcoach.service.OpenAiGovernor}
+     */
+    @Bean
+    public ResponseErrorHandler openAiErrorHandler() {
+        return new OpenAiErrorHandler();
+    }
+
+    /**
+     * Single attempt per call: retries, hedging and the circuit breaker live in
+     * {@link com.cvcoach.service.OpenAiResilience}, so Spring AI must not retry underneath it
+     */
+    @Bean
+    public RetryTemplate openAiRetryTemplate() {
+        return RetryTemplate.builder()
+                .maxAttempts(1)
+                .build();
+    }
+
+    /**
+     * Connection pool for OpenAI calls. Idle connections are kept alive and reused,
+     * and HTTP/2 multiplexes concurrent calls over one TLS connection.
+     */
+    @Bean
+    public HttpClient openAiHttpClient(CvCoachProperties properties) {
+        CvCoachProperties.Ai ai = properties.getAi();
+
+        return HttpClient.newBuilder()
+                .version(ai.getHttpVersion())
+                .connectTimeout(ai.getConnectTimeout())
+                .build();
+    }
+
+    /**
+     * Blocking calls (RestClient) go through the shared pool with per-operation read timeouts
+     */
+    @Bean
+    public RestClientCustomizer openAiRestClientCustomizer(HttpClient openAiHttpClient, CvCoachProperties properties) {
+        OpenAiRequestFactory requestFactory =
+                new OpenAiRequestFactory(openAiHttpClient, properties.getAi().getReadTimeout());
+        return builder -> builder.requestFactory(requestFactory);
+    }
+
+    /**
+     * Streaming calls (WebClient) go through the same pool
+     */
+    @Bean
+    public WebClientCustomizer openAiWebClientCustomizer(HttpClient openAiHttpClient) {
+        JdkClientHttpConnector connector = new JdkClientHttpConnector(openAiHttpClient);
+        return builder -> builder.clientConnector(connector);
+    }
+}
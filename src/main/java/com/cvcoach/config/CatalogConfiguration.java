@@ -0,0 +1,23 @@
+package com.cvcoach.config;
+
+import com.cvcoach.catalog.EmbeddingProvider;
+import com.cvcoach.catalog.HashingEmbeddingProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Job catalog search components
+ */
+@Configuration
+public class CatalogConfiguration {
+
+    /**
+     * Deterministic local embedding, used unless the application defines another EmbeddingProvider
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public EmbeddingProvider embeddingProvider(CvCoachProperties properties) {
+        return new HashingEmbeddingProvider(properties.getCatalog().getEmbeddingDimensions());
+    }
+}
@@ -0,0 +1,422 @@
+package com.cvcoach.config;
+
+import com.knuddels.jtokkit.api.EncodingType;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Application specific configuration bound from the "cvcoach.*" properties
+ */
+@Data
+@ConfigurationProperties(prefix = "cvcoach")
+public class CvCoachProperties {
+
+    private final Cache cache = new Cache();
+
+    private final Async async = new Async();
+
+    private final Execution execution = new Execution();
+
+    private final JobSearch jobSearch = new JobSearch();
+
+    private final Batch batch = new Batch();
+
+    private final Export export = new Export();
+
+    private final Pdf pdf = new Pdf();
+
+    private final Compaction compaction = new Compaction();
+
+    private final Catalog catalog = new Catalog();
+
+    private final Skills skills = new Skills();
+
+    private final Ai ai = new Ai();
+
+    private final Owner owner = new Owner();
+
+    private final InternalApi internalApi = new InternalApi();
+
+    @Data
+    public static class Cache {
+
+        private final AnalysisCache analysis = new AnalysisCache();
+
+        private final JobsCache jobs = new JobsCache();
+
+        private final LatestCvCache latestCv = new LatestCvCache();
+    }
+
+    /**
+     * Cache of CV analysis results keyed by a hash of the extracted CV text
+     */
+    @Data
+    public static class AnalysisCache {
+
+        /** Maximum number of analyses kept in memory */
+        private int maxSize = 500;
+
+        /** How long an in-memory entry stays valid */
+        private Duration ttl = Duration.ofHours(24);
+
+        /** Hold values through soft references so they can be reclaimed under memory pressure */
+        private boolean softValues = true;
+
+        /** Fall back to previously saved rows in the cv_data table */
+        private boolean persistent = true;
+
+        /** Maximum age of a cv_data row reused by the persistent tier */
+        private Duration persistentTtl = Duration.ofDays(30);
+    }
+
+    /**
+     * Cache of job suggestions keyed by CV profile fingerprint and search mode
+     */
+    @Data
+    public static class JobsCache {
+
+        /** Maximum number of cached suggestion lists */
+        private int maxSize = 200;
+
+        /** How long cached suggestions stay valid */
+        private Duration ttl = Duration.ofHours(1);
+
+        /** How long the last suggestions of a profile are kept to answer while OpenAI is unavailable */
+        private Duration fallbackTtl = Duration.ofDays(7);
+    }
+
+    /**
+     * In-memory copy of the most recently saved CV
+     */
+    @Data
+    public static class LatestCvCache {
+
+        /** Maximum number of users whose latest CV is kept in memory */
+        private int maxUsers = 10_000;
+
+        /** Re-read a user's latest CV from the database after this long, to see saves from other instances */
+        private Duration refreshInterval = Duration.ofSeconds(30);
+    }
+
+    /**
+     * Asynchronous upload pipeline
+     */
+    @Data
+    public static class Async {
+
+        /** Number of analyses processed in parallel */
+        private int workers = 4;
+
+        /** Accepted uploads waiting for a worker; further uploads are rejected with 429 */
+        private int queueCapacity = 50;
+
+        /** Maximum number of finished analysis statuses kept for polling; queued and running ones are always kept */
+        private int retainedJobs = 1000;
+
+        /** How long a finished analysis status stays available for polling */
+        private Duration retention = Duration.ofHours(1);
+
+        /** Timeout of a Server-Sent Events status subscription */
+        private Duration sseTimeout = Duration.ofMinutes(5);
+    }
+
+    /**
+     * Concurrency limits for blocking OpenAI, PDF and JDBC calls.
+     * Virtual threads themselves are switched on with spring.threads.virtual.enabled.
+     */
+    @Data
+    public static class Execution {
+
+        /** Background analyses running at once on virtual threads (replaces async.workers) */
+        private int virtualMaxConcurrency = 10_000;
+
+        /** Platform threads available for concurrent OpenAI calls fanned out from one request */
+        private int aiCallThreads = 16;
+    }
+
+    /**
+     * Job search settings
+     */
+    @Data
+    public static class JobSearch {
+
+        /** Overall deadline for the combined matching + alternative search */
+        private Duration combinedTimeout = Duration.ofSeconds(45);
+    }
+
+    /**
+     * Bulk CV ingestion (POST /api/cv/batch)
+     */
+    @Data
+    public static class Batch {
+
+        /** Maximum number of PDFs in one batch, including files inside ZIP archives */
+        private int maxFiles = 200;
+
+        /** Uncompressed size of all PDFs in one batch, including files inside ZIP archives */
+        private DataSize maxUnpackedSize = DataSize.ofMegabytes(200);
+
+        /** OpenAI analyses running at once across all batches, each on a thread of a dedicated pool */
+        private int maxConcurrentAnalyses = 4;
+
+        /** Analyzed CVs collected before they are written with batched inserts */
+        private int saveBatchSize = 50;
+    }
+
+    /**
+     * Streaming export of the cv_data table
+     */
+    @Data
+    public static class Export {
+
+        /** Rows read per keyset page; also how often the response is flushed to the client */
+        private int pageSize = 1000;
+
+        /**
+         * Rows updated this recently are left to the next export, as their transactions may not
+         * have committed yet; must exceed the longest transaction that saves CV data
+         */
+        private Duration safetyLag = Duration.ofMinutes(1);
+    }
+
+    /**
+     * Owner IDs issued to clients that upload CVs
+     */
+    @Data
+    public static class Owner {
+
+        /** Key the issued owner IDs are signed with; a random key is used when unset */
+        private String tokenSecret;
+    }
+
+    /**
+     * Endpoints that read across all owners (export, skill search)
+     */
+    @Data
+    public static class InternalApi {
+
+        /** Serve them under /internal/cv; keep this behind a network boundary, they are not authenticated */
+        private boolean enabled = false;
+    }
+
+    /**
+     * PDF text extraction
+     */
+    @Data
+    public static class Pdf {
+
+        /** Parse uploads from a scratch file instead of a heap copy of the whole PDF */
+        private boolean fileBacked = true;
+
+        /** Decoded PDF stream data kept on the heap per document before spilling to scratch files */
+        private DataSize maxHeapPerDocument = DataSize.ofMegabytes(2);
+
+        /**
+         * Directory for upload and PDFBox scratch files; defaults to java.io.tmpdir. Uploads are moved here
+         * without a copy only if it is on the same file system as spring.servlet.multipart.location.
+         */
+        private String scratchDirectory;
+
+        /** Documents with at least this many pages are extracted in parallel page ranges */
+        private int parallelPageThreshold = 20;
+
+        /** Pages extracted by a single fork-join task */
+        private int pagesPerTask = 8;
+
+        /** Threads of the page extraction pool */
+        private int parallelism = Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Shortening of extracted CV text before it goes into the analysis prompt
+     */
+    @Data
+    public static class Compaction {
+
+        /** Drop page furniture and boilerplate, and trim low-value sections over the token budget */
+        private boolean enabled = true;
+
+        /** Tokens of CV text the analysis prompt may contain */
+        private int tokenBudget = 3000;
+
+        /** A short line seen this many times is treated as a page header or footer and kept once */
+        private int repeatedLineThreshold = 3;
+    }
+
+    /**
+     * Local job catalog that matching job searches rank instead of asking OpenAI for positions
+     */
+    @Data
+    public static class Catalog {
+
+        /** Rank real postings for matching searches; alternative searches always use OpenAI */
+        private boolean enabled = false;
+
+        /** CSV (with header row) and JSON files with job postings, e.g. file:/data/jobs/*.csv */
+        private List<String> locations = new ArrayList<>();
+
+        /** Postings returned by a matching search */
+        private int results = 3;
+
+        /** Hits taken from each of the keyword and vector indexes before they are fused */
+        private int candidates = 50;
+
+        /** Length of the local hashing embedding */
+        private int embeddingDimensions = 256;
+
+        /** Vector index lists scored per query; more improves recall and costs time */
+        private int probes = 8;
+
+        /** Let OpenAI write the match reasons of the top postings; otherwise they list the matched skills */
+        private boolean llmMatchReasons = true;
+    }
+
+    /**
+     * Dictionary-based skill extraction from CV text
+     */
+    @Data
+    public static class Skills {
+
+        /** Skill dictionary CSV (name, type, branch, aliases, case_sensitive) */
+        private String dictionary = "classpath:skills/skills.csv";
+
+        /** Pick up changes of the dictionary file without a restart */
+        private boolean hotReload = true;
+
+        /** How often the dictionary file is checked for changes; 0 checks on every extraction */
+        private Duration reloadInterval = Duration.ofSeconds(30);
+
+        /** How the dictionary results are used in CV analysis */
+        private AnalysisMode analysisMode = AnalysisMode.PREFILL;
+
+        /** Hard skills the dictionary must find, together with a job branch, before the prompt is shortened */
+        private int minPrefillSkills = 3;
+
+        /** Saved CVs whose skills are linked to the skill table per transaction when older rows are backfilled at startup */
+        private int backfillBatchSize = 500;
+
+        /** Most CVs a skill search returns */
+        private int maxSearchResults = 1000;
+    }
+
+    public enum AnalysisMode {
+        /** Ask OpenAI for every field */
+        LLM,
+        /** Fill hard skills and job branch from the dictionary, ask OpenAI only for the other fields */
+        PREFILL,
+        /** No OpenAI call: hard skills, soft skills and job branch from the dictionary only */
+        FAST
+    }
+
+    /**
+     * OpenAI HTTP client
+     */
+    @Data
+    public static class Ai {
+
+        /** Preferred HTTP version; HTTP/2 multiplexes concurrent calls over one connection */
+        private HttpClient.Version httpVersion = HttpClient.Version.HTTP_2;
+
+        /** Time allowed to open a connection to the API */
+        private Duration connectTimeout = Duration.ofSeconds(5);
+
+        /** Response timeout of calls without an operation specific timeout */
+        private Duration readTimeout = Duration.ofSeconds(60);
+
+        /** Response timeout of a CV analysis */
+        private Duration analysisTimeout = Duration.ofSeconds(60);
+
+        /** Response timeout of a matching or alternative job search */
+        private Duration jobSearchTimeout = Duration.ofSeconds(40);
+
+        /** Longest wait for the next chunk of a streamed job search */
+        private Duration streamIdleTimeout = Duration.ofSeconds(20);
+
+        /** Requests per minute allowed by the OpenAI account tier */
+        private int requestsPerMinute = 500;
+
+        /** Tokens per minute (prompt + completion) allowed by the OpenAI account tier */
+        private int tokensPerMinute = 200_000;
+
+        /** OpenAI calls in progress at once across the application */
+        private int maxConcurrentCalls = 32;
+
+        /** Tokenizer of the chat model, used for prompt budgets; O200K_BASE for the gpt-4o family */
+        private EncodingType encoding = EncodingType.O200K_BASE;
+
+        /** Completion tokens reserved per call until the actual usage is known */
+        private int expectedCompletionTokens = 1000;
+
+        /** Longest time a call waits in the governor queue before failing */
+        private Duration maxQueueWait = Duration.ofMinutes(2);
+
+        /** Times a call answered with 429 is queued again before the error is returned */
+        private int maxRateLimitRetries = 3;
+
+        /** First backoff after a 429 without a retry-after header; doubles on each further 429 */
+        private Duration rateLimitBackoff = Duration.ofSeconds(1);
+
+        /** Longest backoff after a 429 */
+        private Duration maxRateLimitBackoff = Duration.ofSeconds(60);
+
+        /** Request JSON-schema constrained responses; turn off for models without structured output */
+        private boolean structuredOutput = true;
+
+        /** New OpenAI calls made when a response cannot be decoded even after repair */
+        private int maxParseRetries = 1;
+
+        private final Resilience resilience = new Resilience();
+    }
+
+    /**
+     * Retries, hedged requests and circuit breaker around OpenAI calls
+     */
+    @Data
+    public static class Resilience {
+
+        /** Attempts per call, including the first, for transient errors (I/O, timeouts, 5xx) */
+        private int maxAttempts = 3;
+
+        /** Backoff before the first retry; doubles per retry, with jitter */
+        private Duration initialBackoff = Duration.ofMillis(500);
+
+        /** Longest backoff between retries */
+        private Duration maxBackoff = Duration.ofSeconds(5);
+
+        /** Overall time for a call including all retries */
+        private Duration callDeadline = Duration.ofSeconds(90);
+
+        /** Fire a second request for interactive calls slower than the hedge percentile */
+        private boolean hedging = true;
+
+        /** Latency percentile of recent calls after which a hedged request is sent */
+        private double hedgePercentile = 95;
+
+        /** Shortest wait before a hedged request */
+        private Duration minHedgeDelay = Duration.ofSeconds(1);
+
+        /** Successful calls of an operation needed before hedging starts */
+        private int hedgeMinSamples = 20;
+
+        /** Number of most recent calls the circuit breaker failure rate is computed over */
+        private int slidingWindowSize = 20;
+
+        /** Calls needed in the window before the circuit breaker may open */
+        private int minimumCalls = 10;
+
+        /** Failure rate in percent that opens the circuit breaker */
+        private double failureRateThreshold = 50;
+
+        /** How long the open circuit breaker rejects calls before letting trial calls through */
+        private Duration openDuration = Duration.ofSeconds(30);
+
+        /** Trial calls that must succeed to close the circuit breaker */
+        private int halfOpenCalls = 3;
+    }
+}
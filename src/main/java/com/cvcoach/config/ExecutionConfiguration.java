@@ -0,0 +1,32 @@
+package com.cvcoach.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Executors shared by services that run blocking calls concurrently
+ */
+@Configuration
+public class ExecutionConfiguration {
+
+    /**
+     * Executor for OpenAI calls fanned out from a single request.
+     * Uses a virtual thread per call when spring.threads.virtual.enabled is set,
+     * otherwise a fixed platform pool.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService aiCallExecutor(CvCoachProperties properties,
+                                          @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        CvCoachProperties.Execution execution = properties.getExecution();
+
+        if (virtualThreads) {
+            return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("ai-call-", 0).factory());
+        }
+        return Executors.newFixedThreadPool(execution.getAiCallThreads(), new CustomizableThreadFactory("ai-call-"));
+    }
+}
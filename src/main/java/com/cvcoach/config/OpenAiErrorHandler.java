@@ -0,0 +1,39 @@
+package com.cvcoach.config;
+
+import com.cvcoach.service.OpenAiRateLimitException;
+import org.springframework.ai.retry.NonTransientAiException;
+import org.springframework.ai.retry.TransientAiException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.client.ResponseErrorHandler;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Error handler of the blocking OpenAI client. Works like Spring AI's default
+ * (4xx is not retried, other errors are), but turns 429 into an
+ * {@link OpenAiRateLimitException} that keeps the rate limit headers' wait time.
+ */
+public class OpenAiErrorHandler implements ResponseErrorHandler {
+
+    @Override
+    public boolean hasError(ClientHttpResponse response) throws IOException {
+        return response.getStatusCode().isError();
+    }
+
+    @Override
+    public void handleError(ClientHttpResponse response) throws IOException {
+        String error = StreamUtils.copyToString(response.getBody(), StandardCharsets.UTF_8);
+        String message = String.format("%s - %s", response.getStatusCode().value(), error);
+
+        if (response.getStatusCode().value() == HttpStatus.TOO_MANY_REQUESTS.value()) {
+            throw new OpenAiRateLimitException(message, OpenAiRateLimitException.retryAfter(response.getHeaders()));
+        }
+        if (response.getStatusCode().is4xxClientError()) {
+            throw new NonTransientAiException(message);
+        }
+        throw new TransientAiException(message);
+    }
+}
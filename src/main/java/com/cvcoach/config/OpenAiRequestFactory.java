@@ -0,0 +1,69 @@
+package com.cvcoach.config;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Request factory of the blocking OpenAI client. All requests share one pooled
+ * {@link HttpClient}; the read timeout can be narrowed for the calls made by the
+ * current thread with {@link #withReadTimeout}.
+ */
+public class OpenAiRequestFactory implements ClientHttpRequestFactory {
+
+    private static final ThreadLocal<Duration> READ_TIMEOUT = new ThreadLocal<>();
+
+    private final HttpClient httpClient;
+    private final Duration defaultReadTimeout;
+    private final Map<Duration, JdkClientHttpRequestFactory> factories = new ConcurrentHashMap<>();
+
+    public OpenAiRequestFactory(HttpClient httpClient, Duration defaultReadTimeout) {
+        this.httpClient = httpClient;
+        this.defaultReadTimeout = defaultReadTimeout;
+    }
+
+    /**
+     * Run an OpenAI call with its own read timeout
+     *
+     * @param readTimeout Time allowed until the response arrives
+     * @param call Blocking call on the current thread
+     * @return Result of the call
+     */
+    public static <T> T withReadTimeout(Duration readTimeout, Supplier<T> call) {
+        Duration previous = READ_TIMEOUT.get();
+        READ_TIMEOUT.set(readTimeout);
+        try {
+            return call.get();
+        } finally {
+            if (previous == null) {
+                READ_TIMEOUT.remove();
+            } else {
+                READ_TIMEOUT.set(previous);
+            }
+        }
+    }
+
+    @Override
+    public ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod) throws IOException {
+        Duration readTimeout = READ_TIMEOUT.get();
+        if (readTimeout == null) {
+            readTimeout = defaultReadTimeout;
+        }
+        return factories.computeIfAbsent(readTimeout, this::createFactory).createRequest(uri, httpMethod);
+    }
+
+    private JdkClientHttpRequestFactory createFactory(Duration readTimeout) {
+        JdkClientHttpRequestFactory factory = new JdkClientHttpRequestFactory(httpClient);
+        factory.setReadTimeout(readTimeout);
+        return factory;
+    }
+}
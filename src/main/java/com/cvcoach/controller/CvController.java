@@ -1,23 +1,49 @@
 package com.cvcoach.controller;
 
+import com.cvcoach.cache.CvAnalysisCache;
+import com.cvcoach.cache.LatestCvHolder;
+import com.cvcoach.metrics.CvMetrics;
+import com.cvcoach.model.AnalysisStatus;
+import com.cvcoach.model.BatchSummary;
 import com.cvcoach.model.CvData;
 import com.cvcoach.model.CvDataEntity;
 import com.cvcoach.model.JobPosition;
+import com.cvcoach.model.JobSearchMode;
+import com.cvcoach.model.JobSuggestions;
 import com.cvcoach.repository.CvDataRepository;
+import com.cvcoach.service.AsyncAnalysisService;
+import com.cvcoach.service.BatchIngestionService;
+import com.cvcoach.service.BatchTooLargeException;
 import com.cvcoach.service.CvAnalysisService;
+import com.cvcoach.service.JobCatalogService;
 import com.cvcoach.service.JobSearchService;
+import com.cvcoach.service.OpenAiUnavailableException;
+import com.cvcoach.service.OwnerTokenService;
 import com.cvcoach.service.PdfParserService;
+import com.cvcoach.service.SkillIndexService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Flux;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * REST Controller for CV analysis and job search operations
@@ -26,50 +52,57 @@ import java.util.Optional;
 @RequestMapping("/api/cv")
 @RequiredArgsConstructor
 @Slf4j
-@CrossOrigin(origins = "*") // Allow all origins for development
+@CrossOrigin(origins = "*", // Allow all origins for development
+        exposedHeaders = CvController.USER_ID_HEADER)
 public class CvController {
 
+    /**
+     * Header with the owner ID of uploaded CVs, issued by the server on the first upload.
+     * The owner ID (in this header or the path) is a bearer token, not access control:
+     * anyone holding it can read and overwrite that user's CVs, and there is no authentication.
+     */
+    public static final String USER_ID_HEADER = "X-User-Id";
+
     private final PdfParserService pdfParserService;
     private final CvAnalysisService cvAnalysisService;
     private final CvDataRepository cvDataRepository;
     private final JobSearchService jobSearchService;
+    private final CvAnalysisCache cvAnalysisCache;
+    private final LatestCvHolder latestCvHolder;
+    private final AsyncAnalysisService asyncAnalysisService;
+    private final BatchIngestionService batchIngestionService;
+    private final JobCatalogService jobCatalogService;
+    private final SkillIndexService skillIndexService;
+    private final OwnerTokenService ownerTokenService;
+    private final ObjectMapper objectMapper;
+    private final CvMetrics cvMetrics;
 
     /**
      * Upload and analyze CV from PDF file
      *
      * @param file PDF file containing CV
+     * @param bypassCache Force a fresh OpenAI analysis even if this CV was analyzed before
+     * @param userId Owner ID issued by an earlier upload; a new one is issued and returned in the X-User-Id header if absent or not issued by this server
      * @return Analyzed CV data
      */
     @PostMapping(value = "/upload", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
-    public ResponseEntity<?> uploadAndAnalyzeCv(@RequestParam("file") MultipartFile file) {
+    public ResponseEntity<?> uploadAndAnalyzeCv(@RequestParam("file") MultipartFile file,
+                                                @RequestParam(value = "bypassCache", defaultValue = "false") boolean bypassCache,
+                                                @RequestHeader(value = USER_ID_HEADER, required = false) String userId) {
 
         log.info("Received CV upload request. File: {}, Size: {} bytes",
                 file.getOriginalFilename(), file.getSize());
 
         try {
             // Validate file
-            if (file.isEmpty()) {
-                log.warn("Empty file received");
-                return ResponseEntity.badRequest()
-                        .body(new ErrorResponse("File is empty"));
-            }
-
-            if (!isValidPdf(file)) {
-                log.warn("Invalid file type: {}", file.getContentType());
-                return ResponseEntity.status(HttpStatus.UNSUPPORTED_MEDIA_TYPE)
-                        .body(new ErrorResponse("Only PDF files are supported"));
-            }
-
-            // Check file size (5MB limit)
-            if (file.getSize() > 5 * 1024 * 1024) {
-                log.warn("File too large: {} bytes", file.getSize());
-                return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE)
-                        .body(new ErrorResponse("File size exceeds 5MB limit"));
+            Optional<ResponseEntity<?>> invalid = validateUpload(file);
+            if (invalid.isPresent()) {
+                return invalid.get();
             }
 
             // Extract text from PDF
             log.info("Extracting text from PDF...");
-            String cvText = pdfParserService.extractText(file.getInputStream());
+            String cvText = pdfParserService.extractText(file);
 
             if (cvText == null || cvText.trim().isEmpty()) {
                 log.warn("No text extracted from PDF");
@@ -81,16 +114,23 @@ public class CvController {
 
             // Analyze CV using AI
             log.info("Analyzing CV with OpenAI...");
-            CvData cvData = cvAnalysisService.analyzeCv(cvText);
+            CvData cvData = cvAnalysisService.analyzeCv(cvText, bypassCache);
 
             // Save to database
             CvDataEntity entity = CvDataEntity.fromDto(cvData);
-            CvDataEntity saved = cvDataRepository.save(entity);
+            entity.setContentHash(CvAnalysisCache.contentHash(cvText));
+            entity.setOwnerId(ownerIdOrNew(userId));
+            CvDataEntity saved = cvMetrics.time(CvMetrics.Stage.PERSIST, CvMetrics.UPLOAD,
+                    () -> cvDataRepository.save(entity));
 
-            log.info("CV data saved to database with ID: {}", saved.getId());
+            log.info("CV data saved to database with ID: {} for user {}", saved.getId(), saved.getOwnerId());
 
-            return ResponseEntity.ok(cvData);
+            return ResponseEntity.ok()
+                    .header(USER_ID_HEADER, saved.getOwnerId())
+                    .body(cvData);
 
+        } catch (OpenAiUnavailableException e) {
+            return unavailable(e);
         } catch (IOException e) {
             log.error("Error processing PDF file", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -103,36 +143,164 @@ public class CvController {
     }
 
     /**
-     * Get the most recent CV data
+     * Accept a CV for background analysis
+     *
+     * @param file PDF file containing CV
+     * @param bypassCache Force a fresh OpenAI analysis even if this CV was analyzed before
+     * @param userId Owner ID issued by an earlier upload; a new one is issued if absent or not issued by this server
+     * @return 202 with the analysis ID, or 429 if the analysis queue is full
+     */
+    @PostMapping(value = "/upload/async", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<?> uploadCvAsync(@RequestParam("file") MultipartFile file,
+                                           @RequestParam(value = "bypassCache", defaultValue = "false") boolean bypassCache,
+                                           @RequestHeader(value = USER_ID_HEADER, required = false) String userId) {
+
+        log.info("Received async CV upload request. File: {}, Size: {} bytes",
+                file.getOriginalFilename(), file.getSize());
+
+        Optional<ResponseEntity<?>> invalid = validateUpload(file);
+        if (invalid.isPresent()) {
+            return invalid.get();
+        }
+
+        try {
+            String ownerId = ownerIdOrNew(userId);
+            String analysisId = asyncAnalysisService.submit(pdfParserService.spool(file), ownerId, bypassCache);
+
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/cv/analysis/" + analysisId))
+                    .header(USER_ID_HEADER, ownerId)
+                    .body(asyncAnalysisService.getStatus(analysisId).orElseThrow());
+
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, "10")
+                    .body(new ErrorResponse("Too many CVs are being analyzed right now. Please try again shortly."));
+        } catch (IOException e) {
+            log.error("Error reading uploaded PDF file", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ErrorResponse("Error processing PDF file: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Poll the status of a background analysis
+     *
+     * @param id Analysis ID returned by the async upload
+     * @return Current analysis stage, including the result once completed
+     */
+    @GetMapping("/analysis/{id}")
+    public ResponseEntity<?> getAnalysisStatus(@PathVariable String id) {
+        Optional<AnalysisStatus> status = asyncAnalysisService.getStatus(id);
+
+        if (status.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(new ErrorResponse("Analysis not found or expired: " + id));
+        }
+
+        return ResponseEntity.ok(status.get());
+    }
+
+    /**
+     * Stream stage transitions of a background analysis as Server-Sent Events
+     *
+     * @param id Analysis ID returned by the async upload
+     * @return Event stream that completes after the analysis finishes
+     */
+    @GetMapping(value = "/analysis/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamAnalysisStatus(@PathVariable String id) {
+        return asyncAnalysisService.subscribe(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
+                        "Analysis not found or expired: " + id));
+    }
+
+    /**
+     * Analyze many CVs in one request.
+     * Accepts PDF files and ZIP archives of PDFs. The response is streamed as
+     * newline-delimited JSON: one result per file as soon as it is saved or fails,
+     * followed by a summary line.
+     *
+     * @param files PDF files and/or ZIP archives
+     * @param bypassCache Force fresh OpenAI analyses even for previously analyzed CVs
+     * @param userId Owner ID issued by an earlier upload; a new one is issued if absent or not issued by this server
+     * @return Streamed per-file report
+     */
+    @PostMapping(value = "/batch", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<?> uploadBatch(@RequestParam("files") List<MultipartFile> files,
+                                         @RequestParam(value = "bypassCache", defaultValue = "false") boolean bypassCache,
+                                         @RequestHeader(value = USER_ID_HEADER, required = false) String userId) {
+
+        log.info("Received batch upload request with {} files", files.size());
+
+        // Spool everything up front - multipart temp files do not outlive the request thread
+        List<BatchIngestionService.BatchFile> batch;
+        try {
+            batch = batchIngestionService.unpack(files);
+        } catch (BatchTooLargeException e) {
+            log.warn("Batch upload rejected: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE)
+                    .body(new ErrorResponse(e.getMessage()));
+        } catch (IOException e) {
+            log.warn("Could not read batch upload", e);
+            return ResponseEntity.badRequest()
+                    .body(new ErrorResponse("Could not read uploaded files: " + e.getMessage()));
+        }
+
+        if (batch.isEmpty()) {
+            return ResponseEntity.badRequest()
+                    .body(new ErrorResponse("No PDF files found in upload"));
+        }
+
+        String ownerId = ownerIdOrNew(userId);
+        StreamingResponseBody report = out -> {
+            BatchSummary summary = batchIngestionService.ingest(batch, ownerId, bypassCache,
+                    result -> writeLine(out, result));
+            writeLine(out, Map.of("summary", summary));
+        };
+
+        return ResponseEntity.ok()
+                .header(USER_ID_HEADER, ownerId)
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(report);
+    }
+
+    /**
+     * Get the user's most recent CV data
      *
-     * @return Latest CV data from database
+     * @param ownerId User ID from the path; the X-User-Id header is used for the legacy path
+     * @param userId User ID header
+     * @return Latest CV data of the user
      */
-    @GetMapping("/data")
-    public ResponseEntity<?> getCvData() {
+    @GetMapping({"/{ownerId}/data", "/data"})
+    public ResponseEntity<?> getCvData(@PathVariable(required = false) String ownerId,
+                                       @RequestHeader(value = USER_ID_HEADER, required = false) String userId) {
         log.info("Fetching latest CV data");
 
-        Optional<CvDataEntity> entity = cvDataRepository.findTopByOrderByCreatedAtDesc();
+        Optional<LatestCvHolder.LatestCv> latest = latestCvHolder.get(requireOwnerId(ownerId, userId));
 
-        if (entity.isEmpty()) {
+        if (latest.isEmpty()) {
             log.warn("No CV data found in database");
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(new ErrorResponse("No CV data found. Please upload a CV first."));
         }
 
-        log.info("Found CV data with ID: {}", entity.get().getId());
-        return ResponseEntity.ok(entity.get().toDto());
+        log.info("Found CV data with ID: {}", latest.get().id());
+        return ResponseEntity.ok(latest.get().cvData());
     }
 
     /**
      * Find job positions matching the CV profile
      *
+     * @param ownerId User ID from the path; the X-User-Id header is used for the legacy path
+     * @param userId User ID header
      * @return List of matching job positions
      */
-    @GetMapping("/jobs/matching")
-    public ResponseEntity<?> getMatchingJobs() {
+    @GetMapping({"/{ownerId}/jobs/matching", "/jobs/matching"})
+    public ResponseEntity<?> getMatchingJobs(@PathVariable(required = false) String ownerId,
+                                             @RequestHeader(value = USER_ID_HEADER, required = false) String userId) {
         log.info("Searching for matching jobs");
 
-        Optional<CvDataEntity> cvData = cvDataRepository.findTopByOrderByCreatedAtDesc();
+        Optional<LatestCvHolder.LatestCv> cvData = latestCvHolder.get(requireOwnerId(ownerId, userId));
 
         if (cvData.isEmpty()) {
             log.warn("No CV data available for job search");
@@ -141,9 +309,11 @@ public class CvController {
         }
 
         try {
-            List<JobPosition> jobs = jobSearchService.findMatchingJobs(cvData.get().toDto());
+            List<JobPosition> jobs = jobSearchService.findMatchingJobs(cvData.get().cvData());
             log.info("Found {} matching job positions", jobs.size());
             return ResponseEntity.ok(jobs);
+        } catch (OpenAiUnavailableException e) {
+            return unavailable(e);
         } catch (Exception e) {
             log.error("Error finding matching jobs", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -154,13 +324,16 @@ public class CvController {
     /**
      * Find alternative job positions (different field/location)
      *
+     * @param ownerId User ID from the path; the X-User-Id header is used for the legacy path
+     * @param userId User ID header
      * @return List of alternative job positions
      */
-    @GetMapping("/jobs/alternative")
-    public ResponseEntity<?> getAlternativeJobs() {
+    @GetMapping({"/{ownerId}/jobs/alternative", "/jobs/alternative"})
+    public ResponseEntity<?> getAlternativeJobs(@PathVariable(required = false) String ownerId,
+                                                @RequestHeader(value = USER_ID_HEADER, required = false) String userId) {
         log.info("Searching for alternative jobs");
 
-        Optional<CvDataEntity> cvData = cvDataRepository.findTopByOrderByCreatedAtDesc();
+        Optional<LatestCvHolder.LatestCv> cvData = latestCvHolder.get(requireOwnerId(ownerId, userId));
 
         if (cvData.isEmpty()) {
             log.warn("No CV data available for job search");
@@ -169,9 +342,11 @@ public class CvController {
         }
 
         try {
-            List<JobPosition> jobs = jobSearchService.findAlternativeJobs(cvData.get().toDto());
+            List<JobPosition> jobs = jobSearchService.findAlternativeJobs(cvData.get().cvData());
             log.info("Found {} alternative job positions", jobs.size());
             return ResponseEntity.ok(jobs);
+        } catch (OpenAiUnavailableException e) {
+            return unavailable(e);
         } catch (Exception e) {
             log.error("Error finding alternative jobs", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -179,6 +354,114 @@ public class CvController {
         }
     }
 
+    /**
+     * Find matching and alternative job positions in one request.
+     * Both searches run in parallel; if one fails or times out the other is still returned.
+     *
+     * @param ownerId User ID from the path; the X-User-Id header is used for the legacy path
+     * @param userId User ID header
+     * @return Both lists of job positions and per-search errors
+     */
+    @GetMapping({"/{ownerId}/jobs", "/jobs"})
+    public ResponseEntity<?> getAllJobs(@PathVariable(required = false) String ownerId,
+                                        @RequestHeader(value = USER_ID_HEADER, required = false) String userId) {
+        log.info("Searching for matching and alternative jobs");
+
+        Optional<LatestCvHolder.LatestCv> cvData = latestCvHolder.get(requireOwnerId(ownerId, userId));
+
+        if (cvData.isEmpty()) {
+            log.warn("No CV data available for job search");
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(new ErrorResponse("No CV data found. Please upload a CV first."));
+        }
+
+        JobSuggestions suggestions = jobSearchService.findAllJobs(cvData.get().cvData());
+
+        if (suggestions.errors().size() == JobSearchMode.values().length) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ErrorResponse("Failed to find jobs: " + suggestions.errors()));
+        }
+
+        log.info("Found {} matching and {} alternative job positions",
+                suggestions.matching().size(), suggestions.alternative().size());
+        return ResponseEntity.ok(suggestions);
+    }
+
+    /**
+     * Stream matching job positions as newline-delimited JSON, one position per line
+     *
+     * @param ownerId User ID from the path; the X-User-Id header is used for the legacy path
+     * @param userId User ID header
+     * @return Job positions emitted as soon as each one is generated
+     */
+    @GetMapping(value = {"/{ownerId}/jobs/matching/stream", "/jobs/matching/stream"}, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<JobPosition> streamMatchingJobs(@PathVariable(required = false) String ownerId,
+                                                @RequestHeader(value = USER_ID_HEADER, required = false) String userId) {
+        log.info("Streaming matching jobs");
+        return jobSearchService.streamJobs(requireLatestCvData(requireOwnerId(ownerId, userId)), JobSearchMode.MATCHING);
+    }
+
+    /**
+     * Stream alternative job positions as newline-delimited JSON, one position per line
+     *
+     * @param ownerId User ID from the path; the X-User-Id header is used for the legacy path
+     * @param userId User ID header
+     * @return Job positions emitted as soon as each one is generated
+     */
+    @GetMapping(value = {"/{ownerId}/jobs/alternative/stream", "/jobs/alternative/stream"}, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<JobPosition> streamAlternativeJobs(@PathVariable(required = false) String ownerId,
+                                                   @RequestHeader(value = USER_ID_HEADER, required = false) String userId) {
+        log.info("Streaming alternative jobs");
+        return jobSearchService.streamJobs(requireLatestCvData(requireOwnerId(ownerId, userId)), JobSearchMode.ALTERNATIVE);
+    }
+
+    /**
+     * Compare the skills of the user's latest CV with a job
+     *
+     * @param ownerId User ID from the path; the X-User-Id header is used for the legacy path
+     * @param jobId ID of a posting in the job catalog
+     * @param skills Skills of a job not in the catalog, comma or semicolon separated; used instead of jobId
+     * @param userId User ID header
+     * @return Common and missing skills
+     */
+    @GetMapping({"/{ownerId}/skills/overlap", "/skills/overlap"})
+    public ResponseEntity<?> getSkillOverlap(@PathVariable(required = false) String ownerId,
+                                             @RequestParam(value = "jobId", required = false) String jobId,
+                                             @RequestParam(value = "skills", required = false) List<String> skills,
+                                             @RequestHeader(value = USER_ID_HEADER, required = false) String userId) {
+        if ((jobId == null) == (skills == null)) {
+            return ResponseEntity.badRequest()
+                    .body(new ErrorResponse("Pass either jobId or skills."));
+        }
+
+        Optional<LatestCvHolder.LatestCv> latest = latestCvHolder.get(requireOwnerId(ownerId, userId));
+        if (latest.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(new ErrorResponse("No CV data found. Please upload a CV first."));
+        }
+        if (!skillIndexService.isReady()) {
+            return skillIndexLoading();
+        }
+
+        LatestCvHolder.LatestCv cv = latest.get();
+        if (skills != null) {
+            return ResponseEntity.ok(skillIndexService.overlap(cv.id(), cv.cvData(), skills));
+        }
+        return jobCatalogService.find(jobId)
+                .<ResponseEntity<?>>map(posting -> ResponseEntity.ok(
+                        skillIndexService.overlap(cv.id(), cv.cvData(), posting)))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(new ErrorResponse("No job posting with ID " + jobId + " in the catalog.")));
+    }
+
+    /**
+     * CV analysis cache hit/miss counters
+     */
+    @GetMapping("/cache/stats")
+    public ResponseEntity<CvAnalysisCache.CacheStats> getCacheStats() {
+        return ResponseEntity.ok(cvAnalysisCache.stats());
+    }
+
     /**
      * Health check endpoint
      */
@@ -187,6 +470,102 @@ public class CvController {
         return ResponseEntity.ok("CV Career Coach API is running");
     }
 
+    /**
+     * Load the user's latest CV data for streaming endpoints, which cannot return an error body
+     */
+    private CvData requireLatestCvData(String ownerId) {
+        return latestCvHolder.get(ownerId)
+                .map(LatestCvHolder.LatestCv::cvData)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
+                        "No CV data found. Please upload a CV first."));
+    }
+
+    /**
+     * Determine the owner for reads from the path variable or the X-User-Id header.
+     * Only owner IDs issued by this server are accepted.
+     */
+    private String requireOwnerId(String ownerId, String userId) {
+        String owner = ownerId != null ? ownerId : userId;
+
+        if (!ownerTokenService.isIssued(owner)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Missing or invalid user ID. Pass the ID from the " + USER_ID_HEADER
+                            + " header of your upload in the path or the header.");
+        }
+        return owner;
+    }
+
+    /**
+     * Use the caller's user ID for uploads if this server issued it, otherwise issue a new one,
+     * so clients cannot choose (or guess) the owner their CVs are saved under
+     */
+    private String ownerIdOrNew(String userId) {
+        return ownerTokenService.isIssued(userId) ? userId : ownerTokenService.issue();
+    }
+
+    /**
+     * 503 while the skill index is built at startup
+     */
+    private ResponseEntity<?> skillIndexLoading() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "5")
+                .body(new ErrorResponse("Skill index is loading. Please try again shortly."));
+    }
+
+    /**
+     * 503 with a Retry-After hint when OpenAI is unavailable and nothing cached could be served
+     */
+    private ResponseEntity<?> unavailable(OpenAiUnavailableException e) {
+        log.warn("OpenAI unavailable: {}", e.getMessage());
+        long retryAfterSeconds = Math.max(1, (e.getRetryAfter().toMillis() + 999) / 1000);
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds))
+                .body(new ErrorResponse("The AI service is temporarily unavailable. Please try again shortly."));
+    }
+
+    /**
+     * Write one NDJSON line and flush it to the client
+     */
+    private void writeLine(OutputStream out, Object value) {
+        try {
+            out.write(objectMapper.writer()
+                    .without(SerializationFeature.INDENT_OUTPUT)
+                    .writeValueAsBytes(value));
+            out.write('\n');
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Validate an uploaded CV file
+     *
+     * @return Optional containing the error response or empty if the file is acceptable
+     */
+    private Optional<ResponseEntity<?>> validateUpload(MultipartFile file) {
+        if (file.isEmpty()) {
+            log.warn("Empty file received");
+            return Optional.of(ResponseEntity.badRequest()
+                    .body(new ErrorResponse("File is empty")));
+        }
+
+        if (!isValidPdf(file)) {
+            log.warn("Invalid file type: {}", file.getContentType());
+            return Optional.of(ResponseEntity.status(HttpStatus.UNSUPPORTED_MEDIA_TYPE)
+                    .body(new ErrorResponse("Only PDF files are supported")));
+        }
+
+        // Check file size (5MB limit)
+        if (file.getSize() > 5 * 1024 * 1024) {
+            log.warn("File too large: {} bytes", file.getSize());
+            return Optional.of(ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE)
+                    .body(new ErrorResponse("File size exceeds 5MB limit")));
+        }
+
+        return Optional.empty();
+    }
+
     /**
      * Validate if file is a PDF
      */
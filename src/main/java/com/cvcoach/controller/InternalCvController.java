@@ -0,0 +1,114 @@
+package com.cvcoach.controller;
+
+import com.cvcoach.model.ExportFormat;
+import com.cvcoach.model.SkillSearchResult;
+import com.cvcoach.service.CvDataExportService;
+import com.cvcoach.service.SkillIndexService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * REST Controller for operations across the CVs of all owners.
+ * Registered only with cvcoach.internal-api.enabled=true, and not authenticated:
+ * /internal/cv must not be reachable from the public internet.
+ */
+@RestController
+@RequestMapping("/internal/cv")
+@ConditionalOnProperty(name = "cvcoach.internal-api.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class InternalCvController {
+
+    /**
+     * Header with the upper bound of the update time included in an export
+     */
+    public static final String EXPORT_UNTIL_HEADER = "X-Export-Until";
+
+    private final CvDataExportService cvDataExportService;
+    private final SkillIndexService skillIndexService;
+
+    /**
+     * Export saved CV data for analysis, streamed page by page
+     *
+     * @param format csv or ndjson
+     * @param since Only rows updated at or after this time (ISO date-time), for incremental exports
+     * @param afterId Resume an interrupted export after the last received row: rows updated exactly
+     *                at since must have a greater ID
+     * @param gzip Compress the file
+     * @return Rows ordered by update time and ID; the X-Export-Until header is the since of the next export.
+     *         Rows updated within cvcoach.export.safety-lag are left to that next export.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<?> exportCvData(@RequestParam(value = "format", defaultValue = "csv") String format,
+                                          @RequestParam(value = "since", required = false)
+                                          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+                                          @RequestParam(value = "afterId", required = false) Long afterId,
+                                          @RequestParam(value = "gzip", defaultValue = "false") boolean gzip) {
+        ExportFormat exportFormat = ExportFormat.parse(format);
+        if (exportFormat == null) {
+            return ResponseEntity.badRequest()
+                    .body(new ErrorResponse("Unsupported export format " + format + ". Use csv or ndjson."));
+        }
+        if (afterId != null && since == null) {
+            return ResponseEntity.badRequest()
+                    .body(new ErrorResponse("afterId needs since."));
+        }
+
+        LocalDateTime until = cvDataExportService.until(since);
+        String fileName = "cv_data." + exportFormat.getExtension() + (gzip ? ".gz" : "");
+        StreamingResponseBody body = out -> cvDataExportService.export(exportFormat, since, afterId, until, gzip, out);
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .header(EXPORT_UNTIL_HEADER, until.toString())
+                .contentType(MediaType.parseMediaType(gzip ? "application/gzip" : exportFormat.getContentType()))
+                .body(body);
+    }
+
+    /**
+     * Find saved CVs that have at least a number of the given skills
+     *
+     * @param skills Skill names, comma or semicolon separated
+     * @param min Minimum number of the skills a CV must have; all of them if absent
+     * @param limit Maximum number of CVs returned
+     * @return IDs of matching CVs with the number of skills they have, best first
+     */
+    @GetMapping("/skills/search")
+    public ResponseEntity<?> searchBySkills(@RequestParam("skills") List<String> skills,
+                                            @RequestParam(value = "min", required = false) Integer min,
+                                            @RequestParam(value = "limit", defaultValue = "50") int limit) {
+        if (skills.stream().allMatch(String::isBlank) || (min != null && min < 1) || limit < 1) {
+            return ResponseEntity.badRequest()
+                    .body(new ErrorResponse("Pass at least one skill, and min and limit of at least 1."));
+        }
+        if (!skillIndexService.isReady()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "5")
+                    .body(new ErrorResponse("Skill index is loading. Please try again shortly."));
+        }
+
+        SkillSearchResult result = skillIndexService.search(skills, min, limit);
+        log.info("Found {} CVs with at least {} of the skills {}", result.matches().size(), result.minMatched(),
+                result.skills());
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * Error response DTO
+     */
+    private record ErrorResponse(String message) {}
+}
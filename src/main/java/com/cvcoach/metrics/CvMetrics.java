@@ -0,0 +1,214 @@
+package com.cvcoach.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.ai.chat.metadata.Usage;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Micrometer instrumentation of the CV pipeline, exposed at /actuator/prometheus:
+ * - cvcoach.stage: duration of each stage, tagged with stage and operation
+ * - cvcoach.llm.tokens: prompt and completion tokens per OpenAI call
+ * - cvcoach.pdf.pages / cvcoach.pdf.characters: size of each parsed document
+ * - cvcoach.llm.rate_limited: OpenAI calls answered with 429
+ * - cvcoach.llm.resilience: retries, hedged requests, short-circuited calls and cache fallbacks
+ * - cvcoach.compaction.tokens / cvcoach.compaction.tokens_saved: CV text tokens before and after compaction
+ * - cvcoach.catalog.postings: job postings in the local catalog
+ * - cvcoach.analysis.mode: CV analyses by how much of the profile came from the skill dictionary
+ * - cvcoach.skills.indexed_cvs: saved CVs in the in-memory skill index
+ * - cvcoach.export.rows: cv_data rows streamed by exports, tagged with the format
+ */
+@Component
+public class CvMetrics {
+
+    /** Operation tag for the upload stages that are not tied to an OpenAI call */
+    public static final String UPLOAD = "upload";
+
+    /** Operation tag for bulk ingestion stages */
+    public static final String BATCH = "batch";
+
+    /** Operation tag for CV analysis */
+    public static final String ANALYSIS = "analysis";
+
+    private final MeterRegistry registry;
+
+    public CvMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Pipeline stages
+     */
+    public enum Stage {
+        RECEIVE,
+        EXTRACT_TEXT,
+        COMPACT,
+        EXTRACT_SKILLS,
+        CATALOG_SEARCH,
+        PROMPT_BUILD,
+        LLM_QUEUE,
+        LLM_CALL,
+        JSON_PARSE,
+        PERSIST;
+
+        String tag() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /**
+     * Work that may throw a checked exception
+     */
+    @FunctionalInterface
+    public interface StageWork<T, E extends Exception> {
+        T run() throws E;
+    }
+
+    /**
+     * Run and time a stage
+     *
+     * @return Result of the work
+     */
+    public <T> T time(Stage stage, String operation, Supplier<T> work) {
+        return timer(stage, operation).record(work);
+    }
+
+    /**
+     * Run and time a stage that may throw a checked exception
+     *
+     * @return Result of the work
+     */
+    public <T, E extends Exception> T timeChecked(Stage stage, String operation, StageWork<T, E> work) throws E {
+        long start = System.nanoTime();
+        try {
+            return work.run();
+        } finally {
+            record(stage, operation, System.nanoTime() - start);
+        }
+    }
+
+    public void record(Stage stage, String operation, long nanos) {
+        timer(stage, operation).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Record token usage reported in the chat response metadata; missing counts are skipped
+     */
+    public void recordTokens(String operation, Usage usage) {
+        if (usage == null) {
+            return;
+        }
+        recordTokens(operation, "prompt", usage.getPromptTokens());
+        recordTokens(operation, "completion", usage.getGenerationTokens());
+    }
+
+    public void recordRateLimited(String operation) {
+        Counter.builder("cvcoach.llm.rate_limited")
+                .description("OpenAI calls rejected with 429 Too Many Requests")
+                .tag("operation", operation)
+                .register(registry)
+                .increment();
+    }
+
+    public void recordExportedRows(String format, long rows) {
+        Counter.builder("cvcoach.export.rows")
+                .description("cv_data rows streamed by exports")
+                .tag("format", format)
+                .register(registry)
+                .increment(rows);
+    }
+
+    /**
+     * Count a resilience event of an OpenAI call, e.g. "retry" or "hedge"
+     */
+    public void recordResilienceEvent(String operation, String event) {
+        Counter.builder("cvcoach.llm.resilience")
+                .description("Retries, hedged requests, short-circuited calls and cache fallbacks of OpenAI calls")
+                .tag("operation", operation)
+                .tag("event", event)
+                .register(registry)
+                .increment();
+    }
+
+    /**
+     * Expose a live value of an object, e.g. a queue length
+     */
+    public <T> void gauge(String name, String description, T object, ToDoubleFunction<T> value) {
+        Gauge.builder(name, object, value)
+                .description(description)
+                .register(registry);
+    }
+
+    /**
+     * Record the size of a CV text before and after compaction, in tokens
+     */
+    public void recordCompaction(int originalTokens, int compactedTokens) {
+        DistributionSummary.builder("cvcoach.compaction.tokens")
+                .description("Tokens of CV text before and after compaction")
+                .tag("text", "original")
+                .register(registry)
+                .record(originalTokens);
+        DistributionSummary.builder("cvcoach.compaction.tokens")
+                .description("Tokens of CV text before and after compaction")
+                .tag("text", "compacted")
+                .register(registry)
+                .record(compactedTokens);
+        Counter.builder("cvcoach.compaction.tokens_saved")
+                .description("Prompt tokens removed from CV texts by compaction")
+                .register(registry)
+                .increment(originalTokens - compactedTokens);
+    }
+
+    /**
+     * Count a CV analysis by how it was answered: "llm", "prefill" or "fast"
+     */
+    public void recordAnalysisMode(String mode) {
+        Counter.builder("cvcoach.analysis.mode")
+                .description("CV analyses by OpenAI alone, prefilled from the skill dictionary, or without OpenAI")
+                .tag("mode", mode)
+                .register(registry)
+                .increment();
+    }
+
+    public void recordDocument(int pages, int characters) {
+        DistributionSummary.builder("cvcoach.pdf.pages")
+                .description("Pages per parsed PDF")
+                .register(registry)
+                .record(pages);
+        DistributionSummary.builder("cvcoach.pdf.characters")
+                .description("Characters extracted per PDF")
+                .baseUnit("characters")
+                .register(registry)
+                .record(characters);
+    }
+
+    private void recordTokens(String operation, String type, Long tokens) {
+        if (tokens == null || tokens <= 0) {
+            return;
+        }
+        DistributionSummary.builder("cvcoach.llm.tokens")
+                .description("Tokens per OpenAI call")
+                .baseUnit("tokens")
+                .tag("operation", operation)
+                .tag("type", type)
+                .register(registry)
+                .record(tokens);
+    }
+
+    private Timer timer(Stage stage, String operation) {
+        return Timer.builder("cvcoach.stage")
+                .description("Duration of a CV pipeline stage")
+                .tag("stage", stage.tag())
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+}
@@ -0,0 +1,43 @@
+package com.cvcoach.metrics;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Times how long it takes to receive and store multipart uploads.
+ * The container parses the parts once and caches them, so reading them here
+ * adds no work for the multipart resolver later in the chain.
+ */
+@Component
+@RequiredArgsConstructor
+public class MultipartReceiveFilter extends OncePerRequestFilter {
+
+    private final CvMetrics cvMetrics;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String contentType = request.getContentType();
+        return contentType == null || !contentType.startsWith(MediaType.MULTIPART_FORM_DATA_VALUE);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        try {
+            request.getParts();
+            cvMetrics.record(CvMetrics.Stage.RECEIVE, CvMetrics.UPLOAD, System.nanoTime() - start);
+        } catch (IOException | ServletException | IllegalStateException e) {
+            // Oversized or malformed uploads are rejected by the multipart resolver with a proper response
+        }
+        chain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,18 @@
+package com.cvcoach.model;
+
+/**
+ * Stages of the asynchronous CV upload pipeline
+ */
+public enum AnalysisStage {
+
+    QUEUED,
+    PARSING,
+    ANALYZING,
+    PERSISTING,
+    COMPLETED,
+    FAILED;
+
+    public boolean isTerminal() {
+        return this == COMPLETED || this == FAILED;
+    }
+}
@@ -0,0 +1,20 @@
+package com.cvcoach.model;
+
+import java.time.Instant;
+
+/**
+ * Snapshot of an asynchronous CV analysis
+ *
+ * @param analysisId ID returned when the upload was accepted
+ * @param stage Current pipeline stage
+ * @param cvId Database ID of the saved CV data, set once completed
+ * @param result Analyzed CV data, set once completed
+ * @param error Failure message, set if the analysis failed
+ * @param updatedAt Time of the last stage transition
+ */
+public record AnalysisStatus(String analysisId,
+                             AnalysisStage stage,
+                             Long cvId,
+                             CvData result,
+                             String error,
+                             Instant updatedAt) {}
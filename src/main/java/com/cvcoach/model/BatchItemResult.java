@@ -0,0 +1,25 @@
+package com.cvcoach.model;
+
+/**
+ * Outcome of a single file in a batch CV ingestion
+ *
+ * @param file File name, including the archive path for files inside a ZIP
+ * @param success Whether the CV was analyzed and saved
+ * @param cvId Database ID of the saved CV data
+ * @param cvData Analyzed CV data
+ * @param error Failure message if the file could not be processed
+ */
+public record BatchItemResult(String file,
+                              boolean success,
+                              Long cvId,
+                              CvData cvData,
+                              String error) {
+
+    public static BatchItemResult saved(String file, Long cvId, CvData cvData) {
+        return new BatchItemResult(file, true, cvId, cvData, null);
+    }
+
+    public static BatchItemResult failed(String file, String error) {
+        return new BatchItemResult(file, false, null, null, error);
+    }
+}
@@ -0,0 +1,11 @@
+package com.cvcoach.model;
+
+/**
+ * Totals reported at the end of a batch CV ingestion
+ *
+ * @param total Number of files in the batch
+ * @param saved Files analyzed and saved
+ * @param failed Files that could not be processed
+ * @param elapsedMillis Wall-clock duration of the batch
+ */
+public record BatchSummary(int total, int saved, int failed, long elapsedMillis) {}
@@ -12,18 +12,33 @@ import java.time.LocalDateTime;
  * JPA Entity for storing CV data in MySQL database
  */
 @Entity
-@Table(name = "cv_data")
+@EntityListeners(CvDataEntityListener.class)
+@Table(name = "cv_data", indexes = {
+        @Index(name = "idx_cv_data_content_hash", columnList = "content_hash"),
+        @Index(name = "idx_cv_data_owner_created_at", columnList = "owner_id, created_at"),
+        @Index(name = "idx_cv_data_created_at", columnList = "created_at"),
+        @Index(name = "idx_cv_data_updated_at", columnList = "updated_at")
+})
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class CvDataEntity {
 
+    /**
+     * Sequence-based ID, so Hibernate can batch inserts (IDENTITY disables JDBC batching).
+     * IDs are allocated in blocks of 50 by the pooled optimizer. On MySQL, which has no
+     * sequences, Hibernate emulates the sequence with a single-row cv_data_seq table.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cv_data_seq")
+    @SequenceGenerator(name = "cv_data_seq", sequenceName = "cv_data_seq", allocationSize = 50)
     private Long id;
 
-    @Column(nullable = false, length = 500)
+    /**
+     * Null for CVs analyzed in fast mode, as are education and both experience fields
+     */
+    @Column(length = 500)
     private String location;
 
     @Column(nullable = false, columnDefinition = "TEXT")
@@ -32,18 +47,28 @@ public class CvDataEntity {
     @Column(nullable = false, columnDefinition = "TEXT")
     private String softSkills;
 
-    @Column(nullable = false, length = 500)
+    @Column(length = 500)
     private String education;
 
-    @Column(nullable = false)
     private Integer totalExperienceYears;
 
     @Column(nullable = false, length = 200)
     private String jobBranch;
 
-    @Column(nullable = false)
     private Integer branchExperienceYears;
 
+    /**
+     * ID of the user who uploaded the CV (X-User-Id header)
+     */
+    @Column(length = 64)
+    private String ownerId;
+
+    /**
+     * SHA-256 hash of the normalized CV text this analysis was produced from
+     */
+    @Column(length = 64)
+    private String contentHash;
+
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
@@ -0,0 +1,22 @@
+package com.cvcoach.model;
+
+import jakarta.persistence.PostPersist;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA entity listener that announces newly saved CV data to the rest of the application.
+ * Instantiated by Hibernate through the Spring bean container.
+ */
+@Component
+@RequiredArgsConstructor
+public class CvDataEntityListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    public void onPersist(CvDataEntity entity) {
+        eventPublisher.publishEvent(new CvDataSavedEvent(entity.getId(), entity.getOwnerId(), entity.toDto()));
+    }
+}
@@ -0,0 +1,42 @@
+package com.cvcoach.model;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * One cv_data row as written by the export.
+ * The owner ID is left out: it is the token its owner reads and overwrites their CVs with.
+ */
+public record CvDataExportRow(Long id, String location, String hardSkills, String softSkills,
+                              String education, Integer totalExperienceYears, String jobBranch,
+                              Integer branchExperienceYears, LocalDateTime createdAt, LocalDateTime updatedAt) {
+
+    /**
+     * Column names of the CSV export, in the style of data/cv_data.csv
+     */
+    public static final String[] CSV_HEADER = {"Id", "Location", "Hard Skills", "Soft Skills",
+            "Education", "Total Experience (Years)", "Job Branch", "Branch Experience (Years)", "Created At",
+            "Updated At"};
+
+    public static CvDataExportRow of(CvDataEntity entity) {
+        return new CvDataExportRow(entity.getId(), entity.getLocation(),
+                entity.getHardSkills(), entity.getSoftSkills(), entity.getEducation(),
+                entity.getTotalExperienceYears(), entity.getJobBranch(), entity.getBranchExperienceYears(),
+                entity.getCreatedAt(), entity.getUpdatedAt());
+    }
+
+    /**
+     * @return Values in the order of {@link #CSV_HEADER}; missing values are empty
+     */
+    public String[] toCsv() {
+        return new String[]{
+                text(id), text(location), text(hardSkills), text(softSkills), text(education),
+                text(totalExperienceYears), text(jobBranch), text(branchExperienceYears), text(createdAt),
+                text(updatedAt)
+        };
+    }
+
+    private static String text(Object value) {
+        return Objects.toString(value, "");
+    }
+}
@@ -0,0 +1,10 @@
+package com.cvcoach.model;
+
+/**
+ * Application event published after a new CV data row has been persisted
+ *
+ * @param id Database ID of the saved row
+ * @param ownerId User who uploaded the CV
+ * @param cvData Saved CV data
+ */
+public record CvDataSavedEvent(Long id, String ownerId, CvData cvData) {}
@@ -0,0 +1,56 @@
+package com.cvcoach.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+import java.io.Serializable;
+
+/**
+ * JPA Entity linking a CV data row to one of its skills.
+ * Links are only ever inserted, so they are always new to Spring Data and saved
+ * with a batched persist instead of a merge that selects each row first.
+ */
+@Entity
+@IdClass(CvDataSkillEntity.Key.class)
+@Table(name = "cv_data_skill", indexes = {
+        @Index(name = "idx_cv_data_skill_skill_id", columnList = "skill_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CvDataSkillEntity implements Persistable<CvDataSkillEntity.Key> {
+
+    @Id
+    @Column(name = "cv_data_id")
+    private Long cvDataId;
+
+    @Id
+    @Column(name = "skill_id")
+    private Integer skillId;
+
+    @Override
+    public Key getId() {
+        return new Key(cvDataId, skillId);
+    }
+
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+
+    /**
+     * Composite primary key
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+
+        private Long cvDataId;
+
+        private Integer skillId;
+    }
+}
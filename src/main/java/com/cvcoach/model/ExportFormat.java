@@ -0,0 +1,44 @@
+package com.cvcoach.model;
+
+import java.util.Locale;
+
+/**
+ * File format of a cv_data export
+ */
+public enum ExportFormat {
+
+    /** Comma-separated values with a header row */
+    CSV("text/csv", "csv"),
+
+    /** One JSON object per line */
+    NDJSON("application/x-ndjson", "ndjson");
+
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * @param value Format name, case-insensitive
+     * @return Format, or null if the name is unknown
+     */
+    public static ExportFormat parse(String value) {
+        for (ExportFormat format : values()) {
+            if (format.name().equals(value.toUpperCase(Locale.ROOT))) {
+                return format;
+            }
+        }
+        return null;
+    }
+}
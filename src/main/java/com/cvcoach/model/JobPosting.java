@@ -0,0 +1,53 @@
+package com.cvcoach.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.opencsv.bean.CsvBindByName;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Real job listing from the local job catalog.
+ * Loaded from CSV files (header row with the column names below) or JSON arrays.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobPosting {
+
+    @CsvBindByName(column = "id")
+    @JsonProperty("id")
+    private String id;
+
+    @CsvBindByName(column = "position", required = true)
+    @JsonProperty("position")
+    private String position;
+
+    @CsvBindByName(column = "company")
+    @JsonProperty("company")
+    private String company;
+
+    @CsvBindByName(column = "location")
+    @JsonProperty("location")
+    private String location;
+
+    @CsvBindByName(column = "requirements", required = true)
+    @JsonProperty("requirements")
+    private String requirements;
+
+    @CsvBindByName(column = "description")
+    @JsonProperty("description")
+    private String description;
+
+    @CsvBindByName(column = "url")
+    @JsonProperty("url")
+    private String url;
+
+    @Override
+    public String toString() {
+        return String.format("JobPosting{id='%s', position='%s', company='%s', location='%s'}",
+                id, position, company, location);
+    }
+}
@@ -0,0 +1,13 @@
+package com.cvcoach.model;
+
+/**
+ * Kind of job search performed for a CV profile
+ */
+public enum JobSearchMode {
+
+    /** Positions matching the current field and location */
+    MATCHING,
+
+    /** Career paths in different fields or locations */
+    ALTERNATIVE
+}
@@ -0,0 +1,20 @@
+package com.cvcoach.model;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Matching and alternative job positions found in one combined search
+ *
+ * @param matching Positions matching the current profile, empty if that search failed
+ * @param alternative Alternative career paths, empty if that search failed
+ * @param errors Failure message per search mode that did not finish in time or failed
+ */
+public record JobSuggestions(List<JobPosition> matching,
+                             List<JobPosition> alternative,
+                             Map<JobSearchMode, String> errors) {
+
+    public boolean isComplete() {
+        return errors.isEmpty();
+    }
+}
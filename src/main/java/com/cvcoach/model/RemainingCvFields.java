@@ -0,0 +1,37 @@
+package com.cvcoach.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * CV fields OpenAI is asked for when hard skills and job branch were already found
+ * by the skill dictionary. Merged with the dictionary results into CvData.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RemainingCvFields {
+
+    @JsonProperty("location")
+    private String location;
+
+    /** Technical skills the dictionary did not know, semicolon-separated */
+    @JsonProperty("additionalHardSkills")
+    private String additionalHardSkills;
+
+    @JsonProperty("softSkills")
+    private String softSkills;
+
+    @JsonProperty("education")
+    private String education;
+
+    @JsonProperty("totalExperienceYears")
+    private Integer totalExperienceYears;
+
+    @JsonProperty("branchExperienceYears")
+    private Integer branchExperienceYears;
+}
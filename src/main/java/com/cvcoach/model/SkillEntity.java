@@ -0,0 +1,41 @@
+package com.cvcoach.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * JPA Entity for one interned skill name.
+ * The ID is also the skill's bit position in the in-memory skill bitsets.
+ */
+@Entity
+@Table(name = "skill", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_skill_normalized_name", columnNames = "normalized_name")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SkillEntity {
+
+    /** Longest skill name that is interned; longer list items are sentences, not skills */
+    public static final int MAX_NAME_LENGTH = 100;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    /**
+     * Skill name as first seen in a CV
+     */
+    @Column(nullable = false, length = MAX_NAME_LENGTH)
+    private String name;
+
+    /**
+     * Lower case name with collapsed whitespace; spellings that differ only in case or spacing share one skill
+     */
+    @Column(nullable = false, length = MAX_NAME_LENGTH)
+    private String normalizedName;
+}
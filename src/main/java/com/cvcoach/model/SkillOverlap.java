@@ -0,0 +1,17 @@
+package com.cvcoach.model;
+
+import java.util.List;
+
+/**
+ * Skills a CV shares with a job
+ *
+ * @param cvId CV data row ID
+ * @param jobId Catalog posting ID, null for a job given as a list of skills
+ * @param cvSkillCount Number of skills in the CV
+ * @param jobSkillCount Number of skills the job asks for
+ * @param commonSkills Job skills the CV has
+ * @param missingSkills Job skills the CV lacks
+ * @param coverage Share of job skills the CV has, 0 to 1
+ */
+public record SkillOverlap(Long cvId, String jobId, int cvSkillCount, int jobSkillCount,
+                           List<String> commonSkills, List<String> missingSkills, double coverage) {}
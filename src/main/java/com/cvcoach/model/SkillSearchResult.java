@@ -0,0 +1,16 @@
+package com.cvcoach.model;
+
+import com.cvcoach.skills.CvSkillIndex;
+
+import java.util.List;
+
+/**
+ * CVs found by a search for several skills
+ *
+ * @param skills Searched skills that appear in at least one CV
+ * @param unknownSkills Searched skills no CV has
+ * @param minMatched Minimum number of searched skills each CV has
+ * @param matches CV data row IDs with the number of searched skills they have, best first
+ */
+public record SkillSearchResult(List<String> skills, List<String> unknownSkills, int minMatched,
+                                List<CvSkillIndex.Match> matches) {}
@@ -1,28 +1,57 @@
 package com.cvcoach.repository;
 
 import com.cvcoach.model.CvDataEntity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 /**
  * Repository for CV data persistence
  */
 @Repository
-public interface CvDataRepository extends JpaRepository<CvDataEntity, Long> {
+public interface CvDataRepository extends JpaRepository<CvDataEntity, Long>, CvDataRepositoryCustom {
 
     /**
-     * Find the most recently created CV data entry
+     * Find the most recently created CV data entry of a user
      *
-     * @return Optional containing the latest CV data or empty if none exists
+     * @param ownerId User ID
+     * @return Optional containing the user's latest CV data or empty if none exists
      */
-    Optional<CvDataEntity> findTopByOrderByCreatedAtDesc();
+    Optional<CvDataEntity> findFirstByOwnerIdOrderByCreatedAtDesc(String ownerId);
 
     /**
-     * Find the most recently updated CV data entry
+     * Find the most recent analysis of the same CV content
      *
-     * @return Optional containing the latest CV data or empty if none exists
+     * @param contentHash Hash of the normalized CV text
+     * @param cutoff Only rows created after this moment are considered
+     * @return Optional containing the matching CV data or empty if none exists
      */
-    Optional<CvDataEntity> findTopByOrderByUpdatedAtDesc();
-}
\ No newline at end of file
+    Optional<CvDataEntity> findFirstByContentHashAndCreatedAtAfterOrderByCreatedAtDesc(String contentHash,
+                                                                                      LocalDateTime cutoff);
+
+    /**
+     * One keyset page of rows in (updatedAt, id) order, for exports.
+     * Rows come after the position (since, afterId) and were updated no later than until.
+     *
+     * @param since Update time of the last row already read
+     * @param afterId ID of the last row already read; 0 to include all rows updated at since
+     * @param until Upper bound of the update time, fixed for the whole export
+     * @param page Page size; the offset must be zero
+     * @return Rows as read-only entities
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("select e from CvDataEntity e where e.updatedAt >= :since and e.updatedAt <= :until"
+            + " and (e.updatedAt > :since or e.id > :afterId)"
+            + " order by e.updatedAt, e.id")
+    List<CvDataEntity> findExportPage(@Param("since") LocalDateTime since, @Param("afterId") long afterId,
+                                      @Param("until") LocalDateTime until, Pageable page);
+}
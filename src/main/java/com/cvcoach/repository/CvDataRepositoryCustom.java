@@ -0,0 +1,21 @@
+package com.cvcoach.repository;
+
+import com.cvcoach.model.CvDataEntity;
+
+import java.util.List;
+
+/**
+ * Bulk write operations for CV data
+ */
+public interface CvDataRepositoryCustom {
+
+    /**
+     * Insert many new CV data rows using JDBC batching.
+     * The persistence context is flushed and cleared after every JDBC batch,
+     * so memory use does not grow with the number of rows.
+     *
+     * @param entities New entities without IDs
+     * @return The same entities with generated IDs (detached)
+     */
+    List<CvDataEntity> saveAllInBatches(List<CvDataEntity> entities);
+}
@@ -0,0 +1,40 @@
+package com.cvcoach.repository;
+
+import com.cvcoach.model.CvDataEntity;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Implementation of bulk write operations, picked up by Spring Data by its Impl suffix
+ */
+public class CvDataRepositoryCustomImpl implements CvDataRepositoryCustom {
+
+    private final EntityManager entityManager;
+    private final int batchSize;
+
+    public CvDataRepositoryCustomImpl(EntityManager entityManager,
+                                      @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int batchSize) {
+        this.entityManager = entityManager;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    @Transactional
+    public List<CvDataEntity> saveAllInBatches(List<CvDataEntity> entities) {
+        for (int i = 0; i < entities.size(); i++) {
+            entityManager.persist(entities.get(i));
+
+            if ((i + 1) % batchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+        return entities;
+    }
+}
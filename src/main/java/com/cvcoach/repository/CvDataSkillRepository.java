@@ -0,0 +1,43 @@
+package com.cvcoach.repository;
+
+import com.cvcoach.model.CvDataEntity;
+import com.cvcoach.model.CvDataSkillEntity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Repository for the links between CV data rows and interned skills
+ */
+@Repository
+public interface CvDataSkillRepository extends JpaRepository<CvDataSkillEntity, CvDataSkillEntity.Key> {
+
+    /**
+     * Stream all links ordered by CV, for building the in-memory skill index.
+     * Must be consumed inside a transaction and closed.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new com.cvcoach.repository.SkillLink(l.cvDataId, l.skillId) from CvDataSkillEntity l"
+            + " order by l.cvDataId")
+    Stream<SkillLink> streamAllLinks();
+
+    /**
+     * Find CV data rows that have no skill links yet, e.g. rows saved before skills were normalized
+     *
+     * @param afterId Only rows with a greater ID are returned (keyset pagination)
+     * @param page Page size; the offset must be zero
+     * @return Rows ordered by ID
+     */
+    @Query("select e from CvDataEntity e where e.id > :afterId"
+            + " and not exists (select 1 from CvDataSkillEntity l where l.cvDataId = e.id)"
+            + " order by e.id")
+    List<CvDataEntity> findUnlinked(@Param("afterId") Long afterId, Pageable page);
+}
@@ -0,0 +1,9 @@
+package com.cvcoach.repository;
+
+/**
+ * Projection of one cv_data_skill row; read without loading entities into the persistence context
+ *
+ * @param cvDataId CV data row ID
+ * @param skillId Interned skill ID
+ */
+public record SkillLink(Long cvDataId, Integer skillId) {}
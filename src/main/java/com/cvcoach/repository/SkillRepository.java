@@ -0,0 +1,20 @@
+package com.cvcoach.repository;
+
+import com.cvcoach.model.SkillEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * Repository for the interned skill dictionary
+ */
+@Repository
+public interface SkillRepository extends JpaRepository<SkillEntity, Integer> {
+
+    /**
+     * @param normalizedName Lower case skill name with collapsed whitespace
+     * @return Optional containing the interned skill or empty if the name was never seen
+     */
+    Optional<SkillEntity> findByNormalizedName(String normalizedName);
+}
@@ -0,0 +1,11 @@
+package com.cvcoach.service;
+
+/**
+ * An OpenAI response could not be decoded into the expected JSON, even after repair
+ */
+public class AiResponseParseException extends RuntimeException {
+
+    public AiResponseParseException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,269 @@
+package com.cvcoach.service;
+
+import com.cvcoach.cache.BoundedCache;
+import com.cvcoach.cache.CvAnalysisCache;
+import com.cvcoach.config.CvCoachProperties;
+import com.cvcoach.metrics.CvMetrics;
+import com.cvcoach.model.AnalysisStage;
+import com.cvcoach.model.AnalysisStatus;
+import com.cvcoach.model.CvData;
+import com.cvcoach.model.CvDataEntity;
+import com.cvcoach.repository.CvDataRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the CV upload pipeline (parse, analyze, persist) in the background.
+ * Work is executed on a bounded pool with a bounded queue, so a burst of uploads
+ * is rejected instead of exhausting the web server threads.
+ * Statuses of queued and running analyses are kept until they finish (the pool and
+ * queue bound their number); only finished ones are evicted from the retained set.
+ */
+@Service
+@Slf4j
+public class AsyncAnalysisService {
+
+    private final PdfParserService pdfParserService;
+    private final CvAnalysisService cvAnalysisService;
+    private final CvDataRepository cvDataRepository;
+    private final CvMetrics cvMetrics;
+    private final CvCoachProperties.Async properties;
+
+    private final ThreadPoolExecutor executor;
+    private final Map<String, AnalysisJob> activeJobs = new ConcurrentHashMap<>();
+    private final BoundedCache<String, AnalysisJob> finishedJobs;
+
+    public AsyncAnalysisService(PdfParserService pdfParserService,
+                                CvAnalysisService cvAnalysisService,
+                                CvDataRepository cvDataRepository,
+                                CvMetrics cvMetrics,
+                                CvCoachProperties properties,
+                                @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.pdfParserService = pdfParserService;
+        this.cvAnalysisService = cvAnalysisService;
+        this.cvDataRepository = cvDataRepository;
+        this.cvMetrics = cvMetrics;
+        this.properties = properties.getAsync();
+
+        this.executor = createExecutor(properties, virtualThreads);
+        this.finishedJobs = new BoundedCache<>(this.properties.getRetainedJobs(), this.properties.getRetention(), false);
+    }
+
+    /**
+     * Queue a PDF for analysis
+     *
+     * @param pdf Scratch file with the uploaded PDF; deleted once the analysis finishes
+     * @param ownerId User who uploaded the CV
+     * @param bypassCache Force a fresh OpenAI analysis
+     * @return Analysis ID used for polling
+     * @throws RejectedExecutionException if the queue is full
+     */
+    public String submit(Path pdf, String ownerId, boolean bypassCache) {
+        AnalysisJob job = new AnalysisJob(UUID.randomUUID().toString());
+        activeJobs.put(job.id, job);
+
+        try {
+            executor.execute(() -> runPipeline(job, pdf, ownerId, bypassCache));
+        } catch (RejectedExecutionException e) {
+            activeJobs.remove(job.id);
+            deleteQuietly(pdf);
+            log.warn("Analysis queue is full ({} waiting), rejecting upload", executor.getQueue().size());
+            throw e;
+        }
+
+        log.info("Queued analysis {} ({} in queue, {} running)",
+                job.id, executor.getQueue().size(), executor.getActiveCount());
+        return job.id;
+    }
+
+    /**
+     * Get the current status of an analysis
+     *
+     * @param analysisId ID returned by {@link #submit(Path, String, boolean)}
+     * @return Optional containing the status or empty if unknown or expired
+     */
+    public Optional<AnalysisStatus> getStatus(String analysisId) {
+        return findJob(analysisId).map(AnalysisJob::snapshot);
+    }
+
+    /**
+     * Subscribe to stage transitions of an analysis.
+     * The current stage is sent immediately; the stream completes after a terminal stage.
+     *
+     * @param analysisId ID returned by {@link #submit(Path, String, boolean)}
+     * @return Optional containing the emitter or empty if the analysis is unknown
+     */
+    public Optional<SseEmitter> subscribe(String analysisId) {
+        return findJob(analysisId).map(job -> {
+            SseEmitter emitter = new SseEmitter(properties.getSseTimeout().toMillis());
+            job.addSubscriber(emitter);
+            return emitter;
+        });
+    }
+
+    private Optional<AnalysisJob> findJob(String analysisId) {
+        AnalysisJob job = activeJobs.get(analysisId);
+        return job != null ? Optional.of(job) : finishedJobs.get(analysisId);
+    }
+
+    /**
+     * Bounded pool for the pipeline. With spring.threads.virtual.enabled every worker is a
+     * virtual thread, so thousands of analyses can wait on OpenAI without pinning platform threads.
+     */
+    private static ThreadPoolExecutor createExecutor(CvCoachProperties properties, boolean virtual) {
+
+        int workers = virtual
+                ? properties.getExecution().getVirtualMaxConcurrency()
+                : properties.getAsync().getWorkers();
+        ThreadFactory threadFactory = virtual
+                ? Thread.ofVirtual().name("cv-analysis-", 0).factory()
+                : new CustomizableThreadFactory("cv-analysis-");
+
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                workers,
+                workers,
+                60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(properties.getAsync().getQueueCapacity()),
+                threadFactory,
+                new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+
+        log.info("Analysis pipeline running on {} threads, max {} concurrent",
+                virtual ? "virtual" : "platform", workers);
+        return executor;
+    }
+
+    private void runPipeline(AnalysisJob job, Path pdf, String ownerId, boolean bypassCache) {
+        try {
+            job.transition(AnalysisStage.PARSING);
+            String cvText = pdfParserService.extractText(pdf);
+
+            if (cvText == null || cvText.trim().isEmpty()) {
+                job.fail("Could not extract text from PDF. Make sure it's not an image-only PDF.");
+                return;
+            }
+
+            job.transition(AnalysisStage.ANALYZING);
+            CvData cvData = cvAnalysisService.analyzeCv(cvText, bypassCache);
+
+            job.transition(AnalysisStage.PERSISTING);
+            CvDataEntity entity = CvDataEntity.fromDto(cvData);
+            entity.setContentHash(CvAnalysisCache.contentHash(cvText));
+            entity.setOwnerId(ownerId);
+            CvDataEntity saved = cvMetrics.time(CvMetrics.Stage.PERSIST, CvMetrics.UPLOAD,
+                    () -> cvDataRepository.save(entity));
+
+            log.info("Analysis {} saved to database with ID: {}", job.id, saved.getId());
+            job.complete(saved.getId(), cvData);
+
+        } catch (IOException e) {
+            log.error("Error processing PDF file for analysis {}", job.id, e);
+            job.fail("Error processing PDF file: " + e.getMessage());
+        } catch (Exception e) {
+            log.error("Unexpected error during analysis {}", job.id, e);
+            job.fail("Failed to analyze CV: " + e.getMessage());
+        } finally {
+            deleteQuietly(pdf);
+            // Retained before it leaves the active jobs, so polling never sees it missing
+            finishedJobs.put(job.id, job);
+            activeJobs.remove(job.id);
+        }
+    }
+
+    private static void deleteQuietly(Path pdf) {
+        try {
+            Files.deleteIfExists(pdf);
+        } catch (IOException e) {
+            log.warn("Failed to delete scratch file {}", pdf, e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Mutable state of a single analysis and its SSE subscribers
+     */
+    private static class AnalysisJob {
+
+        private final String id;
+        private final List<SseEmitter> subscribers = new CopyOnWriteArrayList<>();
+
+        private volatile AnalysisStage stage = AnalysisStage.QUEUED;
+        private volatile Long cvId;
+        private volatile CvData result;
+        private volatile String error;
+        private volatile Instant updatedAt = Instant.now();
+
+        AnalysisJob(String id) {
+            this.id = id;
+        }
+
+        AnalysisStatus snapshot() {
+            return new AnalysisStatus(id, stage, cvId, result, error, updatedAt);
+        }
+
+        void transition(AnalysisStage next) {
+            stage = next;
+            updatedAt = Instant.now();
+            publish();
+        }
+
+        void complete(Long savedId, CvData cvData) {
+            cvId = savedId;
+            result = cvData;
+            transition(AnalysisStage.COMPLETED);
+        }
+
+        void fail(String message) {
+            error = message;
+            transition(AnalysisStage.FAILED);
+        }
+
+        void addSubscriber(SseEmitter emitter) {
+            subscribers.add(emitter);
+            emitter.onCompletion(() -> subscribers.remove(emitter));
+            emitter.onTimeout(() -> subscribers.remove(emitter));
+            emitter.onError(e -> subscribers.remove(emitter));
+            send(emitter, snapshot());
+        }
+
+        private void publish() {
+            AnalysisStatus status = snapshot();
+            subscribers.forEach(emitter -> send(emitter, status));
+        }
+
+        private void send(SseEmitter emitter, AnalysisStatus status) {
+            try {
+                emitter.send(SseEmitter.event().name("stage").data(status));
+                if (status.stage().isTerminal()) {
+                    emitter.complete();
+                }
+            } catch (IOException | IllegalStateException e) {
+                subscribers.remove(emitter);
+            }
+        }
+    }
+}
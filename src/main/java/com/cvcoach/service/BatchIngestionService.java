@@ -0,0 +1,383 @@
+package com.cvcoach.service;
+
+import com.cvcoach.cache.CvAnalysisCache;
+import com.cvcoach.config.CvCoachProperties;
+import com.cvcoach.metrics.CvMetrics;
+import com.cvcoach.model.BatchItemResult;
+import com.cvcoach.model.BatchSummary;
+import com.cvcoach.model.CvData;
+import com.cvcoach.model.CvDataEntity;
+import com.cvcoach.repository.CvDataRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Bulk CV ingestion.
+ * Text is extracted in parallel across CPU cores, OpenAI analyses run on their own pool
+ * of max-concurrent-analyses threads at batch priority in the shared {@link OpenAiGovernor},
+ * so interactive uploads are served first, and the results are saved with JDBC batch inserts.
+ * Batch analyses never hold threads of the shared aiCallExecutor the job searches fan out on.
+ */
+@Service
+@Slf4j
+public class BatchIngestionService {
+
+    private static final int MAX_PDF_SIZE = 5 * 1024 * 1024;
+
+    private final PdfParserService pdfParserService;
+    private final CvAnalysisService cvAnalysisService;
+    private final CvDataRepository cvDataRepository;
+    private final CvMetrics cvMetrics;
+    private final CvCoachProperties.Batch properties;
+
+    private final ExecutorService parseExecutor;
+    private final ExecutorService analysisExecutor;
+
+    public BatchIngestionService(PdfParserService pdfParserService,
+                                 CvAnalysisService cvAnalysisService,
+                                 CvDataRepository cvDataRepository,
+                                 CvMetrics cvMetrics,
+                                 CvCoachProperties properties) {
+        this.pdfParserService = pdfParserService;
+        this.cvAnalysisService = cvAnalysisService;
+        this.cvDataRepository = cvDataRepository;
+        this.cvMetrics = cvMetrics;
+        this.properties = properties.getBatch();
+
+        this.parseExecutor = Executors.newFixedThreadPool(
+                Runtime.getRuntime().availableProcessors(), new CustomizableThreadFactory("cv-parse-"));
+        // Limits analyses across all running batches; waiting files queue here, not on a blocked thread
+        this.analysisExecutor = Executors.newFixedThreadPool(
+                this.properties.getMaxConcurrentAnalyses(), new CustomizableThreadFactory("cv-batch-analysis-"));
+    }
+
+    /**
+     * A single file of a batch
+     *
+     * @param name File name
+     * @param path Scratch file with the PDF content, deleted once its text is extracted;
+     *             null for uploads that are not PDFs
+     */
+    public record BatchFile(String name, Path path) {}
+
+    /**
+     * Turn uploaded files into batch entries; ZIP archives are expanded to the PDFs they contain.
+     * Archives are streamed from the upload and every PDF is written to a scratch file, so nothing is
+     * held on the heap. Each PDF is limited to 5MB and all PDFs together to max-unpacked-size, so a
+     * ZIP bomb is rejected after inflating at most that much.
+     *
+     * @param uploads Uploaded PDF files and ZIP archives
+     * @return Batch entries; pass them to {@link #ingest} or delete them with {@link #discard}
+     * @throws BatchTooLargeException if the upload holds more PDFs or more data than the batch limits
+     * @throws IOException if an upload cannot be read or a PDF in a ZIP archive exceeds 5MB
+     */
+    public List<BatchFile> unpack(List<MultipartFile> uploads) throws IOException {
+        List<BatchFile> files = new ArrayList<>();
+        UnpackedSize unpacked = new UnpackedSize(properties.getMaxUnpackedSize().toBytes());
+
+        try {
+            for (MultipartFile upload : uploads) {
+                String name = upload.getOriginalFilename() != null ? upload.getOriginalFilename() : "upload.pdf";
+
+                if (name.toLowerCase(Locale.ROOT).endsWith(".zip")) {
+                    unpackZip(upload, name, files, unpacked);
+                    continue;
+                }
+                checkFileCount(files);
+                unpacked.add(upload.getSize());
+                files.add(new BatchFile(name, isPdfName(name) ? pdfParserService.spool(upload) : null));
+            }
+        } catch (IOException | RuntimeException e) {
+            discard(files);
+            throw e;
+        }
+
+        log.info("Unpacked {} files, {} bytes", files.size(), unpacked.total);
+        return files;
+    }
+
+    private void unpackZip(MultipartFile upload, String name, List<BatchFile> files, UnpackedSize unpacked)
+            throws IOException {
+        try (ZipInputStream zip = new ZipInputStream(upload.getInputStream())) {
+            InputStream inflated = new CountingInputStream(zip, unpacked);
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                if (entry.isDirectory() || !isPdfName(entry.getName())) {
+                    continue;
+                }
+                checkFileCount(files);
+                String file = name + "/" + entry.getName();
+                try {
+                    files.add(new BatchFile(file, pdfParserService.spool(inflated, MAX_PDF_SIZE)));
+                } catch (BatchTooLargeException e) {
+                    throw e;
+                } catch (IOException e) {
+                    throw new IOException(file + ": " + e.getMessage(), e);
+                }
+            }
+        }
+    }
+
+    private void checkFileCount(List<BatchFile> files) throws BatchTooLargeException {
+        if (files.size() >= properties.getMaxFiles()) {
+            throw new BatchTooLargeException("Batch contains more than " + properties.getMaxFiles() + " PDF files");
+        }
+    }
+
+    /**
+     * Delete the scratch files of batch entries that will not be ingested
+     *
+     * @param files Entries returned by {@link #unpack}
+     */
+    public void discard(List<BatchFile> files) {
+        files.forEach(BatchIngestionService::delete);
+    }
+
+    /**
+     * Analyze and save a batch of CVs, reporting each file as soon as it is done
+     *
+     * @param files PDFs to ingest, from {@link #unpack}; their scratch files are deleted
+     * @param ownerId User who uploaded the batch
+     * @param bypassCache Force fresh OpenAI analyses
+     * @param listener Receives a result per file, in completion order, on the calling thread. If it
+     *                 throws, e.g. because the client disconnected, files not yet analyzed are cancelled,
+     *                 analyzed ones are still saved and the exception is rethrown.
+     * @return Totals for the batch
+     */
+    public BatchSummary ingest(List<BatchFile> files, String ownerId, boolean bypassCache,
+                               Consumer<BatchItemResult> listener) {
+        log.info("Starting batch ingestion of {} files", files.size());
+        long start = System.nanoTime();
+
+        BlockingQueue<Outcome> completed = new LinkedBlockingQueue<>();
+        List<CompletableFuture<?>> stages = new ArrayList<>(2 * files.size());
+        for (BatchFile file : files) {
+            CompletableFuture<String> text = CompletableFuture.supplyAsync(() -> extractText(file), parseExecutor);
+            CompletableFuture<Analyzed> analyzed = text.thenApplyAsync(
+                    cvText -> analyze(file.name(), cvText, bypassCache), analysisExecutor);
+            analyzed.whenComplete((result, error) -> completed.add(new Outcome(file.name(), result, error)));
+            stages.add(text);
+            stages.add(analyzed);
+        }
+
+        List<Analyzed> pending = new ArrayList<>();
+        int received = 0;
+        int saved = 0;
+        int failed = 0;
+
+        try {
+            for (; received < files.size(); received++) {
+                Outcome outcome = completed.take();
+
+                if (outcome.error() != null) {
+                    failed++;
+                    listener.accept(BatchItemResult.failed(outcome.file(), errorMessage(outcome.error())));
+                    continue;
+                }
+
+                pending.add(outcome.analyzed());
+                if (pending.size() >= properties.getSaveBatchSize()) {
+                    int flushing = pending.size();
+                    int flushed = flush(pending, ownerId, listener);
+                    saved += flushed;
+                    failed += flushing - flushed;
+                }
+            }
+
+            int flushing = pending.size();
+            int flushed = flush(pending, ownerId, listener);
+            saved += flushed;
+            failed += flushing - flushed;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Batch ingestion interrupted after {} saved files", saved);
+        } finally {
+            if (received < files.size()) {
+                // Stages already running finish, but their results are dropped
+                stages.forEach(stage -> stage.cancel(false));
+                discard(files);
+                int flushed = flush(pending, ownerId, result -> { });
+                saved += flushed;
+                log.warn("Batch ingestion stopped, {} of {} files saved, the rest cancelled", saved, files.size());
+            }
+        }
+
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        log.info("Batch ingestion finished: {} saved, {} failed in {} ms", saved, failed, elapsedMillis);
+        return new BatchSummary(files.size(), saved, failed, elapsedMillis);
+    }
+
+    private String extractText(BatchFile file) {
+        try {
+            if (!isPdfName(file.name())) {
+                throw new IllegalArgumentException("Only PDF files are supported");
+            }
+            if (Files.size(file.path()) > MAX_PDF_SIZE) {
+                throw new IllegalArgumentException("File size exceeds 5MB limit");
+            }
+
+            String cvText = pdfParserService.extractText(file.path());
+            if (cvText == null || cvText.trim().isEmpty()) {
+                throw new IllegalArgumentException("Could not extract text from PDF. Make sure it's not an image-only PDF.");
+            }
+            return cvText;
+        } catch (IOException e) {
+            throw new CompletionException(e);
+        } finally {
+            delete(file);
+        }
+    }
+
+    private Analyzed analyze(String file, String cvText, boolean bypassCache) {
+        CvData cvData = cvAnalysisService.analyzeCv(cvText, bypassCache, OpenAiGovernor.Priority.BATCH);
+        return new Analyzed(file, cvData, CvAnalysisCache.contentHash(cvText));
+    }
+
+    /**
+     * Save analyzed CVs with batched inserts, clear them from the pending list and report them
+     *
+     * @return Number of saved rows
+     */
+    private int flush(List<Analyzed> pending, String ownerId, Consumer<BatchItemResult> listener) {
+        if (pending.isEmpty()) {
+            return 0;
+        }
+        // Cleared before reporting, so a failing listener cannot get the same CVs saved twice
+        List<Analyzed> flushing = List.copyOf(pending);
+        pending.clear();
+
+        List<CvDataEntity> entities = new ArrayList<>(flushing.size());
+        for (Analyzed analyzed : flushing) {
+            CvDataEntity entity = CvDataEntity.fromDto(analyzed.cvData());
+            entity.setContentHash(analyzed.contentHash());
+            entity.setOwnerId(ownerId);
+            entities.add(entity);
+        }
+
+        List<CvDataEntity> saved;
+        try {
+            saved = cvMetrics.time(CvMetrics.Stage.PERSIST, CvMetrics.BATCH,
+                    () -> cvDataRepository.saveAllInBatches(entities));
+        } catch (RuntimeException e) {
+            log.error("Failed to save batch of {} CVs", flushing.size(), e);
+            flushing.forEach(analyzed ->
+                    listener.accept(BatchItemResult.failed(analyzed.file(), "Failed to save CV data: " + e.getMessage())));
+            return 0;
+        }
+
+        log.debug("Saved {} CVs in one batch", saved.size());
+        for (int i = 0; i < flushing.size(); i++) {
+            listener.accept(BatchItemResult.saved(flushing.get(i).file(), saved.get(i).getId(), flushing.get(i).cvData()));
+        }
+        return saved.size();
+    }
+
+    private static void delete(BatchFile file) {
+        if (file.path() == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file.path());
+        } catch (IOException e) {
+            log.warn("Could not delete scratch file {}", file.path(), e);
+        }
+    }
+
+    private static boolean isPdfName(String name) {
+        return name.toLowerCase(Locale.ROOT).endsWith(".pdf");
+    }
+
+    private static String errorMessage(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        return cause.getMessage();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        parseExecutor.shutdown();
+        analysisExecutor.shutdown();
+    }
+
+    private record Analyzed(String file, CvData cvData, String contentHash) {}
+
+    private record Outcome(String file, Analyzed analyzed, Throwable error) {}
+
+    /**
+     * Inflated bytes of one upload request, across all its files
+     */
+    private static final class UnpackedSize {
+
+        private final long limit;
+        private long total;
+
+        UnpackedSize(long limit) {
+            this.limit = limit;
+        }
+
+        void add(long bytes) throws BatchTooLargeException {
+            total += bytes;
+            if (total > limit) {
+                throw new BatchTooLargeException("Batch exceeds " + DataSize.ofBytes(limit).toMegabytes()
+                        + "MB of uncompressed PDFs");
+            }
+        }
+    }
+
+    /**
+     * Adds every byte read from a ZIP archive to the inflated size of the request.
+     * Closing it leaves the archive open.
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+
+        private final UnpackedSize unpacked;
+
+        CountingInputStream(InputStream in, UnpackedSize unpacked) {
+            super(in);
+            this.unpacked = unpacked;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                unpacked.add(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                unpacked.add(read);
+            }
+            return read;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.cvcoach.service;
+
+import java.io.IOException;
+
+/**
+ * An upload holds more PDFs, or more uncompressed data, than a single batch may contain
+ */
+public class BatchTooLargeException extends IOException {
+
+    public BatchTooLargeException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,50 @@
+package com.cvcoach.service;
+
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.stringtemplate.v4.ST;
+
+import java.util.Map;
+
+/**
+ * Prompt template parsed once and rendered many times.
+ *
+ * Renders like Spring AI's PromptTemplate ({name} placeholders), but a PromptTemplate
+ * compiles its text on construction and is not safe to share between threads.
+ * Here the compiled template is kept as a prototype and each render works on a cheap copy.
+ */
+final class CompiledPromptTemplate {
+
+    private final ST prototype;
+
+    CompiledPromptTemplate(String template) {
+        this.prototype = new ST(template, '{', '}');
+    }
+
+    /**
+     * Render the template into a user prompt
+     *
+     * @param model Values for the template placeholders
+     * @return Prompt with a single user message
+     */
+    Prompt create(Map<String, Object> model) {
+        return new Prompt(render(model));
+    }
+
+    /**
+     * Render the template into a user prompt with per-call chat options
+     *
+     * @param model Values for the template placeholders
+     * @param options Options such as the response format, or null for the defaults
+     * @return Prompt with a single user message
+     */
+    Prompt create(Map<String, Object> model, ChatOptions options) {
+        return new Prompt(render(model), options);
+    }
+
+    private String render(Map<String, Object> model) {
+        ST template = new ST(prototype);
+        model.forEach(template::add);
+        return template.render();
+    }
+}
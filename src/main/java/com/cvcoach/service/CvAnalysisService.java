@@ -1,30 +1,154 @@
 package com.cvcoach.service;
 
+import com.cvcoach.cache.CvAnalysisCache;
+import com.cvcoach.config.CvCoachProperties;
+import com.cvcoach.config.OpenAiRequestFactory;
+import com.cvcoach.metrics.CvMetrics;
 import com.cvcoach.model.CvData;
-import com.fasterxml.jackson.core.JsonProcessingException;
+import com.cvcoach.model.RemainingCvFields;
+import com.cvcoach.skills.SkillExtraction;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.model.ChatResponse;
 import org.springframework.ai.chat.prompt.Prompt;
-import org.springframework.ai.chat.prompt.PromptTemplate;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 /**
- * Service for analyzing CV content using OpenAI
+ * Service for analyzing CV content using OpenAI.
+ * Hard skills and job branch found by the skill dictionary can shorten the prompt
+ * or, in fast mode, replace the OpenAI call.
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class CvAnalysisService {
 
-    private final ChatClient.Builder chatClientBuilder;
+    private static final String ANALYSIS_PROMPT = """
+            Analyze the following CV and extract information in JSON format.
+            
+            Required fields:
+            - location: string (city and country)
+            - hardSkills: string (semicolon-separated list of technical skills)
+            - softSkills: string (semicolon-separated list of soft skills)
+            - education: string (highest degree and field)
+            - totalExperienceYears: integer (total years of work experience)
+            - jobBranch: string (main professional field/industry)
+            - branchExperienceYears: integer (years in the main field)
+            
+            CV Content:
+            {cvContent}
+            
+            Respond ONLY with valid JSON, no additional text or markdown formatting.
+            """;
+
+    private static final String PREFILLED_ANALYSIS_PROMPT = """
+            Analyze the following CV and extract information in JSON format.
+            
+            Already extracted from the CV:
+            - Hard skills: {hardSkills}
+            - Job branch: {jobBranch}
+            
+            Required fields:
+            - location: string (city and country)
+            - additionalHardSkills: string (semicolon-separated technical skills not listed above, empty if none)
+            - softSkills: string (semicolon-separated list of soft skills)
+            - education: string (highest degree and field)
+            - totalExperienceYears: integer (total years of work experience)
+            - branchExperienceYears: integer (years in {jobBranch})
+            
+            CV Content:
+            {cvContent}
+            
+            Respond ONLY with valid JSON, no additional text or markdown formatting.
+            """;
+
+    private static final CompiledPromptTemplate ANALYSIS_TEMPLATE = new CompiledPromptTemplate(ANALYSIS_PROMPT);
+
+    private static final CompiledPromptTemplate PREFILLED_ANALYSIS_TEMPLATE =
+            new CompiledPromptTemplate(PREFILLED_ANALYSIS_PROMPT);
+
+    private static final StructuredOutput<CvData> ANALYSIS_OUTPUT = StructuredOutput.of("cv_analysis", CvData.class);
+
+    private static final StructuredOutput<RemainingCvFields> REMAINING_OUTPUT =
+            StructuredOutput.of("cv_analysis_remaining", RemainingCvFields.class);
+
+    private final ChatClient chatClient;
+    private final OpenAiResilience resilience;
+    private final CvTextCompactor textCompactor;
+    private final SkillExtractor skillExtractor;
     private final ObjectMapper objectMapper;
+    private final CvAnalysisCache analysisCache;
+    private final CvCoachProperties properties;
+    private final CvMetrics cvMetrics;
+
+    /**
+     * Analyze CV text, reusing a previous result for identical content
+     *
+     * @param cvText Raw text extracted from CV
+     * @param bypassCache Skip the cache lookup and always call OpenAI
+     * @return Structured CV data
+     */
+    public CvData analyzeCv(String cvText, boolean bypassCache) {
+        return analyzeCv(cvText, bypassCache, OpenAiGovernor.Priority.INTERACTIVE);
+    }
+
+    /**
+     * Analyze CV text, reusing a previous result for identical content
+     *
+     * @param cvText Raw text extracted from CV
+     * @param bypassCache Skip the cache lookup and always analyze the text
+     * @param priority Queue order of the OpenAI call
+     * @return Structured CV data
+     */
+    public CvData analyzeCv(String cvText, boolean bypassCache, OpenAiGovernor.Priority priority) {
+        String contentHash = CvAnalysisCache.contentHash(cvText);
+
+        if (bypassCache) {
+            analysisCache.recordBypass();
+        } else {
+            Optional<CvData> cached = analysisCache.get(contentHash);
+            if (cached.isPresent()) {
+                return cached.get();
+            }
+        }
+
+        if (properties.getSkills().getAnalysisMode() == CvCoachProperties.AnalysisMode.FAST) {
+            // Not cached, so that a later full analysis of the same CV is not shadowed
+            Optional<CvData> fast = fastAnalysis(cvText);
+            if (fast.isPresent()) {
+                return fast.get();
+            }
+        }
+
+        CvData cvData;
+        try {
+            cvData = analyzeCv(cvText, priority);
+        } catch (OpenAiUnavailableException e) {
+            // A bypassed cache entry is still better than no answer
+            Optional<CvData> cached = bypassCache ? analysisCache.get(contentHash) : Optional.empty();
+            if (cached.isEmpty()) {
+                throw e;
+            }
+            log.warn("OpenAI unavailable, returning the cached analysis: {}", e.getMessage());
+            cvMetrics.recordResilienceEvent(CvMetrics.ANALYSIS, "fallback");
+            return cached.get();
+        }
+        analysisCache.put(contentHash, cvData);
+        return cvData;
+    }
 
     /**
      * Analyze CV text and extract structured information using AI
@@ -33,42 +157,62 @@ public class CvAnalysisService {
      * @return Structured CV data
      */
     public CvData analyzeCv(String cvText) {
+        return analyzeCv(cvText, OpenAiGovernor.Priority.INTERACTIVE);
+    }
+
+    /**
+     * Analyze CV text and extract structured information using AI
+     *
+     * @param cvText Raw text extracted from CV
+     * @param priority Queue order of the OpenAI call
+     * @return Structured CV data
+     */
+    public CvData analyzeCv(String cvText, OpenAiGovernor.Priority priority) {
         log.info("Starting CV analysis with OpenAI");
 
         try {
-            String promptText = """
-                    Analyze the following CV and extract information in JSON format.
-                    
-                    Required fields:
-                    - location: string (city and country)
-                    - hardSkills: string (semicolon-separated list of technical skills)
-                    - softSkills: string (semicolon-separated list of soft skills)
-                    - education: string (highest degree and field)
-                    - totalExperienceYears: integer (total years of work experience)
-                    - jobBranch: string (main professional field/industry)
-                    - branchExperienceYears: integer (years in the main field)
-                    
-                    CV Content:
-                    {cvContent}
-                    
-                    Respond ONLY with valid JSON, no additional text or markdown formatting.
-                    """;
-
-            PromptTemplate promptTemplate = new PromptTemplate(promptText);
-            Prompt prompt = promptTemplate.create(Map.of("cvContent", cvText));
-
-            ChatClient chatClient = chatClientBuilder.build();
-
-            log.debug("Sending request to OpenAI API...");
-
-            String response = chatClient.prompt(prompt)
-                    .call()
-                    .content();
-
-            log.debug("OpenAI raw response: {}", response);
-
-            return parseAiResponse(response);
+            SkillExtraction prefill = prefill(cvText);
+            CvTextCompactor.Compacted cvContent = textCompactor.compactCounted(cvText);
+            Prompt prompt = cvMetrics.time(CvMetrics.Stage.PROMPT_BUILD, CvMetrics.ANALYSIS, () -> prefill != null
+                    ? createPrefilledPrompt(cvContent.text(), prefill)
+                    : createPrompt(cvContent.text()));
+            // The compactor counted the CV text already, only the template is left
+            int promptTokens = cvContent.tokens() + textCompactor.countTokens(prefill != null
+                    ? PREFILLED_ANALYSIS_PROMPT + prefill.hardSkillsText()
+                    : ANALYSIS_PROMPT);
+            cvMetrics.recordAnalysisMode(prefill != null ? "prefill" : "llm");
+
+            for (int attempt = 0; ; attempt++) {
+                log.debug("Sending request to OpenAI API...");
+
+                ChatResponse chatResponse = resilience.call(priority, CvMetrics.ANALYSIS, promptTokens,
+                        () -> cvMetrics.time(CvMetrics.Stage.LLM_CALL, CvMetrics.ANALYSIS,
+                                () -> OpenAiRequestFactory.withReadTimeout(properties.getAi().getAnalysisTimeout(),
+                                        () -> chatClient.prompt(prompt)
+                                                .call()
+                                                .chatResponse())));
+                cvMetrics.recordTokens(CvMetrics.ANALYSIS, chatResponse.getMetadata().getUsage());
+
+                String response = chatResponse.getResult().getOutput().getContent();
 
+                log.debug("OpenAI raw response: {}", response);
+
+                try {
+                    return cvMetrics.time(CvMetrics.Stage.JSON_PARSE, CvMetrics.ANALYSIS, () -> prefill != null
+                            ? parsePrefilledResponse(response, prefill)
+                            : parseAiResponse(response));
+                } catch (AiResponseParseException e) {
+                    if (attempt >= properties.getAi().getMaxParseRetries()) {
+                        throw e;
+                    }
+                    log.warn("Unusable CV analysis response, asking OpenAI again: {}", e.getMessage());
+                    cvMetrics.recordResilienceEvent(CvMetrics.ANALYSIS, "parse_retry");
+                }
+            }
+
+        } catch (OpenAiUnavailableException e) {
+            log.error("OpenAI unavailable for CV analysis: {}", e.getMessage());
+            throw e;
         } catch (Exception e) {
             log.error("Failed to analyze CV with OpenAI", e);
 
@@ -76,7 +220,7 @@ public class CvAnalysisService {
             if (e.getMessage().contains("401") || e.getMessage().contains("Unauthorized")) {
                 throw new RuntimeException("Invalid OpenAI API key. Please check your OPENAI_API_KEY environment variable.", e);
             }
-            if (e.getMessage().contains("429") || e.getMessage().contains("quota")) {
+            if (OpenAiGovernor.rateLimitDelay(e).isPresent() || e.getMessage().contains("quota")) {
                 throw new RuntimeException("OpenAI API quota exceeded. Please check your account at https://platform.openai.com/usage", e);
             }
             if (e.getMessage().contains("timeout")) {
@@ -104,39 +248,107 @@ public class CvAnalysisService {
     }
 
     /**
-     * Parse AI response into CvData object
-     * Handles both plain JSON and markdown-wrapped JSON
+     * CV data from the skill dictionary alone; empty if it found no hard skills or no job branch.
+     * Location, education and experience are left null, the dictionary cannot tell them.
      */
-    private CvData parseAiResponse(String response) {
-        try {
-            // Clean response - remove markdown code blocks if present
-            String cleanJson = response.trim();
+    private Optional<CvData> fastAnalysis(String cvText) {
+        SkillExtraction extraction = skillExtractor.extract(cvText);
+        if (extraction.hardSkills().isEmpty() || extraction.jobBranch() == null) {
+            log.info("Skill dictionary found no hard skills or no job branch, analyzing the CV with OpenAI");
+            return Optional.empty();
+        }
 
-            if (cleanJson.startsWith("```json")) {
-                cleanJson = cleanJson.substring(7);
-            } else if (cleanJson.startsWith("```")) {
-                cleanJson = cleanJson.substring(3);
-            }
+        log.info("Analyzed CV without OpenAI: {} hard skills, branch={}",
+                extraction.hardSkills().size(), extraction.jobBranch());
+        cvMetrics.recordAnalysisMode("fast");
+        return Optional.of(CvData.builder()
+                .hardSkills(extraction.hardSkillsText())
+                .softSkills(extraction.softSkillsText())
+                .jobBranch(extraction.jobBranch())
+                .build());
+    }
 
-            if (cleanJson.endsWith("```")) {
-                cleanJson = cleanJson.substring(0, cleanJson.length() - 3);
-            }
+    /**
+     * Dictionary results to put into the prompt, or null if the full prompt is needed
+     */
+    private SkillExtraction prefill(String cvText) {
+        if (properties.getSkills().getAnalysisMode() == CvCoachProperties.AnalysisMode.LLM) {
+            return null;
+        }
+        SkillExtraction extraction = skillExtractor.extract(cvText);
+        boolean enough = extraction.jobBranch() != null
+                && extraction.hardSkills().size() >= properties.getSkills().getMinPrefillSkills();
+        return enough ? extraction : null;
+    }
+
+    /**
+     * Fill the analysis prompt with the CV text
+     *
+     * @param cvContent CV text compacted to the token budget
+     */
+    Prompt createPrompt(String cvContent) {
+        Map<String, Object> model = Map.of("cvContent", cvContent);
+        return properties.getAi().isStructuredOutput()
+                ? ANALYSIS_TEMPLATE.create(model, ANALYSIS_OUTPUT.getOptions())
+                : ANALYSIS_TEMPLATE.create(model);
+    }
+
+    /**
+     * Fill the shortened analysis prompt with the dictionary results and the CV text
+     *
+     * @param cvContent CV text compacted to the token budget
+     */
+    Prompt createPrefilledPrompt(String cvContent, SkillExtraction prefill) {
+        Map<String, Object> model = Map.of(
+                "hardSkills", prefill.hardSkillsText(),
+                "jobBranch", prefill.jobBranch(),
+                "cvContent", cvContent);
+        return properties.getAi().isStructuredOutput()
+                ? PREFILLED_ANALYSIS_TEMPLATE.create(model, REMAINING_OUTPUT.getOptions())
+                : PREFILLED_ANALYSIS_TEMPLATE.create(model);
+    }
 
-            cleanJson = cleanJson.trim();
+    /**
+     * Parse the answer to the shortened prompt and merge it with the dictionary results
+     */
+    CvData parsePrefilledResponse(String response, SkillExtraction prefill) {
+        RemainingCvFields remaining = REMAINING_OUTPUT.decode(objectMapper, response);
 
-            log.debug("Cleaned JSON: {}", cleanJson);
+        List<String> hardSkills = new ArrayList<>(prefill.hardSkills());
+        Set<String> known = new HashSet<>();
+        hardSkills.forEach(skill -> known.add(skill.toLowerCase(Locale.ROOT)));
+        if (remaining.getAdditionalHardSkills() != null) {
+            for (String skill : remaining.getAdditionalHardSkills().split("[;,]")) {
+                if (!skill.isBlank() && known.add(skill.strip().toLowerCase(Locale.ROOT))) {
+                    hardSkills.add(skill.strip());
+                }
+            }
+        }
 
-            // Parse JSON to CvData
-            CvData cvData = objectMapper.readValue(cleanJson, CvData.class);
+        log.info("Successfully parsed prefilled CV data: location={}, branch={}, {} additional hard skills",
+                remaining.getLocation(), prefill.jobBranch(), hardSkills.size() - prefill.hardSkills().size());
 
-            log.info("Successfully parsed CV data: location={}, branch={}",
-                    cvData.getLocation(), cvData.getJobBranch());
+        return CvData.builder()
+                .location(remaining.getLocation())
+                .hardSkills(String.join("; ", hardSkills))
+                .softSkills(remaining.getSoftSkills())
+                .education(remaining.getEducation())
+                .totalExperienceYears(remaining.getTotalExperienceYears())
+                .jobBranch(prefill.jobBranch())
+                .branchExperienceYears(remaining.getBranchExperienceYears())
+                .build();
+    }
 
-            return cvData;
+    /**
+     * Parse AI response into CvData object.
+     * Handles plain, schema-constrained and markdown-wrapped JSON, and repairs near misses.
+     */
+    CvData parseAiResponse(String response) {
+        CvData cvData = ANALYSIS_OUTPUT.decode(objectMapper, response);
 
-        } catch (JsonProcessingException e) {
-            log.error("Failed to parse AI response as JSON: {}", response, e);
-            throw new RuntimeException("Failed to parse AI response: " + e.getMessage(), e);
-        }
+        log.info("Successfully parsed CV data: location={}, branch={}",
+                cvData.getLocation(), cvData.getJobBranch());
+
+        return cvData;
     }
-}
\ No newline at end of file
+}
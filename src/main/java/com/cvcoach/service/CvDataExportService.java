@@ -0,0 +1,140 @@
+package com.cvcoach.service;
+
+import com.cvcoach.config.CvCoachProperties;
+import com.cvcoach.metrics.CvMetrics;
+import com.cvcoach.model.CvDataEntity;
+import com.cvcoach.model.CvDataExportRow;
+import com.cvcoach.model.ExportFormat;
+import com.cvcoach.repository.CvDataRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.opencsv.CSVWriterBuilder;
+import com.opencsv.ICSVWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams the cv_data table as CSV or NDJSON.
+ *
+ * Rows are read in keyset pages ordered by (updatedAt, id), each page in its own short
+ * read-only query, so neither memory nor a database connection is held in proportion to
+ * the table size or to how fast the client downloads. Every page is flushed to the client
+ * before the next one is read. The upper bound of the update time is fixed when the export
+ * starts, so rows updated meanwhile do not keep it running; they are in the next
+ * incremental export.
+ *
+ * updatedAt is stamped before the saving transaction commits, so a row can become visible
+ * after rows with a later stamp were exported. The upper bound therefore trails the clock
+ * by a safety lag: every row stamped up to it has committed, the exported set does not
+ * change under the keyset, and an export resumed from (updatedAt, id) misses nothing.
+ */
+@Service
+@Slf4j
+public class CvDataExportService {
+
+    /** Lower bound of full exports, before any row */
+    private static final LocalDateTime BEGINNING = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final CvDataRepository cvDataRepository;
+    private final ObjectWriter jsonWriter;
+    private final CvCoachProperties.Export properties;
+    private final CvMetrics cvMetrics;
+
+    public CvDataExportService(CvDataRepository cvDataRepository, ObjectMapper objectMapper,
+                               CvCoachProperties properties, CvMetrics cvMetrics) {
+        this.cvDataRepository = cvDataRepository;
+        this.jsonWriter = objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+        this.properties = properties.getExport();
+        this.cvMetrics = cvMetrics;
+    }
+
+    /**
+     * Upper bound of the update time for an export starting now
+     *
+     * @param since Lower bound of the export, or null for a full export
+     * @return Current time minus the safety lag, but not before since
+     */
+    public LocalDateTime until(LocalDateTime since) {
+        LocalDateTime until = LocalDateTime.now().minus(properties.getSafetyLag());
+        return since != null && since.isAfter(until) ? since : until;
+    }
+
+    /**
+     * Write rows updated in a time range
+     *
+     * @param format File format
+     * @param since Include rows updated at or after this time; null for all rows
+     * @param afterId Resume after this row: rows updated exactly at since are only included
+     *                if their ID is greater; null to include them all
+     * @param until Include rows updated at or before this time, see {@link #until(LocalDateTime)}
+     * @param gzip Compress the output
+     * @param out Response body; flushed after each page but not closed
+     * @return Number of rows written
+     */
+    public long export(ExportFormat format, LocalDateTime since, Long afterId, LocalDateTime until,
+                       boolean gzip, OutputStream out) throws IOException {
+        long start = System.nanoTime();
+        GZIPOutputStream compressed = gzip ? new GZIPOutputStream(out, BUFFER_SIZE, true) : null;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(compressed != null ? compressed : out,
+                StandardCharsets.UTF_8), BUFFER_SIZE);
+        ICSVWriter csvWriter = format == ExportFormat.CSV ? new CSVWriterBuilder(writer).build() : null;
+
+        if (csvWriter != null) {
+            csvWriter.writeNext(CvDataExportRow.CSV_HEADER, false);
+        }
+
+        LocalDateTime lastUpdatedAt = since != null ? since : BEGINNING;
+        long lastId = afterId != null ? afterId : 0;
+        long exported = 0;
+        List<CvDataEntity> page;
+        do {
+            page = cvDataRepository.findExportPage(lastUpdatedAt, lastId, until,
+                    PageRequest.of(0, properties.getPageSize()));
+            for (CvDataEntity entity : page) {
+                CvDataExportRow row = CvDataExportRow.of(entity);
+                if (csvWriter != null) {
+                    csvWriter.writeNext(row.toCsv(), false);
+                } else {
+                    writer.write(jsonWriter.writeValueAsString(row));
+                    writer.write('\n');
+                }
+            }
+            if (!page.isEmpty()) {
+                CvDataEntity last = page.get(page.size() - 1);
+                lastUpdatedAt = last.getUpdatedAt();
+                lastId = last.getId();
+                exported += page.size();
+            }
+            // Sends the page; a gzip stream is sync-flushed so the client can decompress what it got
+            writer.flush();
+        } while (page.size() == properties.getPageSize());
+
+        if (csvWriter != null && csvWriter.checkError()) {
+            throw new IOException("Failed to write CSV export", csvWriter.getException());
+        }
+        if (compressed != null) {
+            compressed.finish();
+        }
+        out.flush();
+
+        cvMetrics.recordExportedRows(format.name().toLowerCase(Locale.ROOT), exported);
+        log.info("Exported {} cv_data rows as {} in {} ms", exported, format,
+                (System.nanoTime() - start) / 1_000_000);
+        return exported;
+    }
+}
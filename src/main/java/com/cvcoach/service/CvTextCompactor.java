@@ -0,0 +1,309 @@
+package com.cvcoach.service;
+
+import com.cvcoach.config.CvCoachProperties;
+import com.cvcoach.metrics.CvMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Shortens extracted CV text before it goes into the analysis prompt.
+ *
+ * - Page numbers are dropped, and repeated page headers and footers are kept once.
+ * - Duplicate lines, reference lists and personal data consent clauses are dropped.
+ * - If the text is still over the token budget, sections are trimmed from their end in
+ *   order of priority: interests and publications first, work experience last. Text before
+ *   the first section heading (name, contact, location) is never trimmed.
+ *
+ * Tokens are counted locally with the shared {@link TokenCounter}.
+ */
+@Component
+@Slf4j
+public class CvTextCompactor {
+
+    /** Lines at least this long are kept once even if they repeat only twice, e.g. copied bullet points */
+    private static final int DUPLICATE_LINE_LENGTH = 40;
+
+    /** Longest line that can be a section heading */
+    private static final int MAX_HEADING_LENGTH = 40;
+
+    private static final Pattern PAGE_NUMBER = Pattern.compile(
+            "(?:(?:page|strona|seite|p\\.)\\s*)?-?\\s*\\d{1,3}\\s*(?:(?:/|of|z|von)\\s*\\d{1,3})?\\s*-?",
+            Pattern.CASE_INSENSITIVE);
+
+    /** Contact details and titles that page headers and footers repeat */
+    private static final Pattern PAGE_FURNITURE = Pattern.compile(
+            "@|https?://|www\\.|linkedin|curriculum vitae|\\+?(?:\\d[ ()-]{0,2}){9,}", Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern CONSENT = Pattern.compile(
+            "processing of my personal data|przetwarzanie moich danych|verarbeitung meiner (?:personenbezogenen )?daten",
+            Pattern.CASE_INSENSITIVE);
+
+    /**
+     * CV sections by how much they matter for the extracted profile; lower priority is trimmed first
+     */
+    enum Section {
+        HEADER(Integer.MAX_VALUE),
+        EXPERIENCE(90, "experience", "work experience", "professional experience", "employment",
+                "employment history", "work history", "career history", "doświadczenie", "doświadczenie zawodowe",
+                "berufserfahrung"),
+        SKILLS(80, "skills", "technical skills", "key skills", "core competencies", "competencies",
+                "technologies", "tech stack", "umiejętności", "kenntnisse"),
+        EDUCATION(70, "education", "academic background", "wykształcenie", "edukacja", "ausbildung"),
+        SUMMARY(60, "summary", "profile", "professional summary", "about me", "objective", "o mnie",
+                "podsumowanie", "profil"),
+        LANGUAGES(50, "languages", "języki", "języki obce", "sprachen"),
+        CERTIFICATIONS(40, "certifications", "certificates", "courses", "training", "certyfikaty", "kursy",
+                "szkolenia", "weiterbildung"),
+        PROJECTS(30, "projects", "personal projects", "side projects", "projekty", "projekte"),
+        PUBLICATIONS(20, "publications", "conferences", "talks", "publikacje"),
+        INTERESTS(10, "interests", "hobbies", "hobby", "zainteresowania", "interessen"),
+        REFERENCES(0, "references", "referees", "referencje", "referenzen");
+
+        private static final Map<String, Section> BY_HEADING = new HashMap<>();
+
+        static {
+            for (Section section : values()) {
+                for (String heading : section.headings) {
+                    BY_HEADING.put(heading, section);
+                }
+            }
+        }
+
+        final int priority;
+        private final String[] headings;
+
+        Section(int priority, String... headings) {
+            this.priority = priority;
+            this.headings = headings;
+        }
+
+        /**
+         * @return Section the line is the heading of, or null
+         */
+        static Section ofHeading(String line) {
+            if (line.length() > MAX_HEADING_LENGTH) {
+                return null;
+            }
+            String heading = line.toLowerCase(Locale.ROOT).replaceAll("[:\\s]+$", "").strip();
+            return BY_HEADING.get(heading);
+        }
+    }
+
+    /**
+     * Compacted CV text with its token count, so callers do not count it again
+     *
+     * @param text Text for the prompt
+     * @param tokens Tokens of the text
+     */
+    public record Compacted(String text, int tokens) {}
+
+    private final CvCoachProperties.Compaction properties;
+    private final TokenCounter tokenCounter;
+    private final CvMetrics cvMetrics;
+
+    public CvTextCompactor(CvCoachProperties properties, TokenCounter tokenCounter, CvMetrics cvMetrics) {
+        this.properties = properties.getCompaction();
+        this.tokenCounter = tokenCounter;
+        this.cvMetrics = cvMetrics;
+    }
+
+    /**
+     * Compact CV text for the analysis prompt
+     *
+     * @param cvText Normalized text extracted from the CV
+     * @return Text within the token budget where possible; unchanged if compaction is disabled
+     */
+    public String compact(String cvText) {
+        if (!properties.isEnabled()) {
+            return cvText;
+        }
+        return compactCounted(cvText).text();
+    }
+
+    /**
+     * Compact CV text for the analysis prompt and return its token count
+     *
+     * @param cvText Normalized text extracted from the CV
+     * @return Text within the token budget where possible, and its tokens
+     */
+    public Compacted compactCounted(String cvText) {
+        if (!properties.isEnabled() || cvText.isEmpty()) {
+            return new Compacted(cvText, countTokens(cvText));
+        }
+
+        return cvMetrics.time(CvMetrics.Stage.COMPACT, CvMetrics.ANALYSIS, () -> {
+            int originalTokens = countTokens(cvText);
+            String compacted = originalTokens <= properties.getTokenBudget()
+                    ? dropBoilerplateOnly(cvText)
+                    : compactToBudget(cvText);
+            // Nothing dropped: the text was counted already
+            int compactedTokens = compacted.equals(cvText) ? originalTokens : countTokens(compacted);
+
+            cvMetrics.recordCompaction(originalTokens, compactedTokens);
+            log.debug("Compacted CV text from {} to {} tokens", originalTokens, compactedTokens);
+            return new Compacted(compacted, compactedTokens);
+        });
+    }
+
+    public int countTokens(String text) {
+        return tokenCounter.count(text);
+    }
+
+    /**
+     * CVs within the budget: only page furniture and boilerplate are removed, no token counting per line
+     */
+    private String dropBoilerplateOnly(String cvText) {
+        return join(clean(cvText));
+    }
+
+    private String compactToBudget(String cvText) {
+        List<Line> lines = clean(cvText);
+
+        int total = 0;
+        for (Line line : lines) {
+            if (line.kept) {
+                line.tokens = countTokens(line.text) + 1;
+                total += line.tokens;
+            }
+        }
+
+        List<Section> trimOrder = lines.stream()
+                .map(line -> line.section)
+                .filter(section -> section != Section.HEADER)
+                .distinct()
+                .sorted(Comparator.comparingInt(section -> section.priority))
+                .toList();
+
+        for (Section section : trimOrder) {
+            for (int i = lines.size() - 1; i >= 0 && total > properties.getTokenBudget(); i--) {
+                Line line = lines.get(i);
+                if (line.section == section && line.kept) {
+                    line.kept = false;
+                    total -= line.tokens;
+                }
+            }
+            if (total <= properties.getTokenBudget()) {
+                break;
+            }
+        }
+
+        if (total > properties.getTokenBudget()) {
+            log.warn("CV text needs {} tokens after compaction, over the budget of {}",
+                    total, properties.getTokenBudget());
+        }
+        return join(lines);
+    }
+
+    /**
+     * Split into lines tagged with their section, marking page furniture, duplicates,
+     * references and consent clauses as dropped
+     */
+    private List<Line> clean(String cvText) {
+        String[] rawLines = cvText.split("\n", -1);
+
+        Map<String, Integer> occurrences = new HashMap<>();
+        for (String raw : rawLines) {
+            String key = key(raw);
+            if (!key.isEmpty()) {
+                occurrences.merge(key, 1, Integer::sum);
+            }
+        }
+
+        List<Line> lines = new ArrayList<>(rawLines.length);
+        Set<String> seen = new HashSet<>();
+        Section section = Section.HEADER;
+        boolean inConsent = false;
+
+        for (String raw : rawLines) {
+            String text = raw.strip();
+            Line line = new Line(raw, section);
+            lines.add(line);
+
+            if (text.isEmpty()) {
+                inConsent = false;
+                continue;
+            }
+
+            Section heading = Section.ofHeading(text);
+            if (heading != null) {
+                section = heading;
+                line.section = heading;
+                inConsent = false;
+            }
+
+            if (CONSENT.matcher(text).find()) {
+                // The clause runs until the next blank line
+                inConsent = true;
+            }
+            if (inConsent || section == Section.REFERENCES || PAGE_NUMBER.matcher(text).matches()) {
+                line.kept = false;
+                continue;
+            }
+
+            String key = key(text);
+            if (!seen.add(key) && isRepeatedNoise(text, occurrences.get(key))) {
+                line.kept = false;
+            }
+        }
+
+        return lines;
+    }
+
+    private boolean isRepeatedNoise(String text, int occurrences) {
+        return occurrences >= properties.getRepeatedLineThreshold()
+                || text.length() >= DUPLICATE_LINE_LENGTH
+                || PAGE_FURNITURE.matcher(text).find();
+    }
+
+    /**
+     * Join kept lines, collapsing the blank lines left around dropped ones
+     */
+    private static String join(List<Line> lines) {
+        StringBuilder text = new StringBuilder();
+        boolean blank = true;
+        for (Line line : lines) {
+            if (!line.kept) {
+                continue;
+            }
+            boolean lineBlank = line.text.isBlank();
+            if (lineBlank && blank) {
+                continue;
+            }
+            text.append(line.text).append('\n');
+            blank = lineBlank;
+        }
+        int end = text.length();
+        while (end > 0 && Character.isWhitespace(text.charAt(end - 1))) {
+            end--;
+        }
+        text.setLength(end);
+        return text.toString();
+    }
+
+    private static String key(String line) {
+        return line.strip().toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Line {
+
+        final String text;
+        Section section;
+        boolean kept = true;
+        int tokens;
+
+        Line(String text, Section section) {
+            this.text = text;
+            this.section = section;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.cvcoach.service;
+
+import com.cvcoach.catalog.EmbeddingProvider;
+import com.cvcoach.catalog.JobCatalog;
+import com.cvcoach.catalog.JobCatalogLoader;
+import com.cvcoach.config.CvCoachProperties;
+import com.cvcoach.metrics.CvMetrics;
+import com.cvcoach.model.CvData;
+import com.cvcoach.model.JobPosting;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Holds the local job catalog and ranks its postings against CV profiles.
+ * The catalog is loaded once the application is ready; until then, or when no
+ * postings are configured, matching searches keep asking OpenAI for positions.
+ */
+@Service
+@Slf4j
+public class JobCatalogService {
+
+    private static final String OPERATION = "job_catalog";
+
+    private final CvCoachProperties.Catalog properties;
+    private final EmbeddingProvider embeddingProvider;
+    private final JobCatalogLoader loader;
+    private final CvMetrics cvMetrics;
+
+    private volatile JobCatalog catalog;
+
+    public JobCatalogService(CvCoachProperties properties, EmbeddingProvider embeddingProvider,
+                             ObjectMapper objectMapper, CvMetrics cvMetrics) {
+        this.properties = properties.getCatalog();
+        this.embeddingProvider = embeddingProvider;
+        this.loader = new JobCatalogLoader(objectMapper);
+        this.cvMetrics = cvMetrics;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!properties.isEnabled()) {
+            log.info("Job catalog disabled, matching searches use OpenAI");
+            return;
+        }
+        if (properties.getLocations().isEmpty()) {
+            log.warn("Job catalog enabled without cvcoach.catalog.locations, matching searches use OpenAI");
+            return;
+        }
+        try {
+            long start = System.nanoTime();
+            List<JobPosting> postings = loader.load(properties.getLocations());
+            replace(postings);
+            log.info("Indexed {} job postings in {} ms", postings.size(), (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException e) {
+            log.error("Failed to load job catalog, matching searches use OpenAI", e);
+        }
+    }
+
+    /**
+     * Swap in a new set of postings; searches in progress finish on the old index
+     */
+    public void replace(List<JobPosting> postings) {
+        catalog = JobCatalog.build(postings, embeddingProvider, properties.getProbes());
+        cvMetrics.gauge("cvcoach.catalog.postings", "Job postings in the local catalog", this,
+                service -> service.catalog == null ? 0 : service.catalog.size());
+    }
+
+    /**
+     * @return true if matching searches can be answered from the catalog
+     */
+    public boolean isAvailable() {
+        JobCatalog current = catalog;
+        return properties.isEnabled() && current != null && current.size() > 0;
+    }
+
+    /**
+     * @param id Posting ID
+     * @return Optional containing the posting or empty if it is not in the catalog
+     */
+    public Optional<JobPosting> find(String id) {
+        JobCatalog current = catalog;
+        return current == null ? Optional.empty() : current.find(id);
+    }
+
+    /**
+     * Rank catalog postings against a CV profile
+     *
+     * @param cvData Structured CV information
+     * @return Up to cvcoach.catalog.results best postings; empty if none relate to the profile
+     */
+    public List<JobCatalog.Match> rank(CvData cvData) {
+        JobCatalog current = catalog;
+        if (current == null) {
+            return List.of();
+        }
+        return cvMetrics.time(CvMetrics.Stage.CATALOG_SEARCH, OPERATION,
+                () -> current.search(cvData, properties.getResults(), properties.getCandidates()));
+    }
+}
@@ -1,76 +1,164 @@
 package com.cvcoach.service;
 
+import com.cvcoach.cache.JobSearchCache;
+import com.cvcoach.catalog.JobCatalog;
+import com.cvcoach.config.CvCoachProperties;
+import com.cvcoach.config.OpenAiRequestFactory;
+import com.cvcoach.metrics.CvMetrics;
 import com.cvcoach.model.CvData;
 import com.cvcoach.model.JobPosition;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.type.TypeReference;
+import com.cvcoach.model.JobPosting;
+import com.cvcoach.model.JobSearchMode;
+import com.cvcoach.model.JobSuggestions;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.model.ChatResponse;
 import org.springframework.ai.chat.prompt.Prompt;
-import org.springframework.ai.chat.prompt.PromptTemplate;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
 
+import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
 
 /**
- * Service for finding job positions based on CV data using OpenAI
+ * Service for finding job positions based on CV data.
+ * Matching jobs are ranked from the local job catalog when it has postings, with OpenAI
+ * writing only the match reasons; otherwise, and for alternative paths, OpenAI suggests positions.
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class JobSearchService {
 
-    private final ChatClient.Builder chatClientBuilder;
+    private static final String MATCHING_PROMPT = """
+            Based on the following CV profile, suggest 3 job positions that match this person's skills and experience.
+            
+            CV Profile:
+            - Location: {location}
+            - Job Branch: {jobBranch}
+            - Hard Skills: {hardSkills}
+            - Soft Skills: {softSkills}
+            - Education: {education}
+            - Total Experience: {totalExperience} years
+            - Branch Experience: {branchExperience} years
+            
+            Requirements:
+            1. Jobs should match the current location and field
+            2. Jobs should align with experience level
+            3. Jobs should utilize existing skills
+            
+            Respond with a JSON object with a "jobs" array of 3 job positions. Each position must have:
+            - position: string (job title)
+            - company: string (company name, can be generic like "Tech Company")
+            - requirements: string (required skills and experience)
+            - matchReason: string (why this job matches the profile)
+            
+            Respond ONLY with valid JSON, no additional text or markdown formatting.
+            """;
+
+    private static final String ALTERNATIVE_PROMPT = """
+            Based on the following CV profile, suggest 3 ALTERNATIVE career paths in DIFFERENT fields or locations.
+            
+            CV Profile:
+            - Location: {location}
+            - Job Branch: {jobBranch}
+            - Hard Skills: {hardSkills}
+            - Soft Skills: {softSkills}
+            - Education: {education}
+            - Total Experience: {totalExperience} years
+            - Branch Experience: {branchExperience} years
+            
+            Requirements:
+            1. Suggest jobs in DIFFERENT industries or roles
+            2. Consider transferable skills
+            3. May be in different locations (remote or other cities)
+            4. Should still be realistic career transitions
+            
+            Respond with a JSON object with a "jobs" array of 3 job positions. Each position must have:
+            - position: string (job title)
+            - company: string (company name, can be generic)
+            - requirements: string (required skills and experience)
+            - matchReason: string (why this alternative path makes sense)
+            
+            Respond ONLY with valid JSON, no additional text or markdown formatting.
+            """;
+
+    private static final String MATCH_REASON_PROMPT = """
+            Explain in one short sentence per job posting why it matches the following CV profile.
+            Address the candidate directly and mention the skills or experience that fit.
+            
+            CV Profile:
+            - Location: {location}
+            - Job Branch: {jobBranch}
+            - Hard Skills: {hardSkills}
+            - Total Experience: {totalExperience} years
+            
+            Job postings:
+            {postings}
+            
+            Respond with a JSON object with a "reasons" array holding exactly one reason per job posting,
+            in the order of the postings.
+            """;
+
+    private static final String MATCH_REASON_OPERATION = "job_match_reason";
+
+    private static final CompiledPromptTemplate MATCHING_TEMPLATE = new CompiledPromptTemplate(MATCHING_PROMPT);
+
+    private static final CompiledPromptTemplate ALTERNATIVE_TEMPLATE = new CompiledPromptTemplate(ALTERNATIVE_PROMPT);
+
+    private static final CompiledPromptTemplate MATCH_REASON_TEMPLATE = new CompiledPromptTemplate(MATCH_REASON_PROMPT);
+
+    /** Property of the response object holding the job positions */
+    private static final String JOBS_PROPERTY = "jobs";
+
+    private static final StructuredOutput<List<JobPosition>> JOBS_OUTPUT =
+            StructuredOutput.listOf("job_positions", JOBS_PROPERTY, JobPosition.class);
+
+    private static final StructuredOutput<List<String>> REASONS_OUTPUT =
+            StructuredOutput.listOf("match_reasons", "reasons", String.class);
+
+    private final ChatClient chatClient;
+    private final OpenAiResilience resilience;
     private final ObjectMapper objectMapper;
+    private final JobSearchCache jobSearchCache;
+    private final JobCatalogService jobCatalogService;
+    private final ExecutorService aiCallExecutor;
+    private final CvCoachProperties properties;
+    private final CvMetrics cvMetrics;
 
     /**
-     * Find 3 job positions that match the CV profile
+     * Find job positions that match the CV profile: the best postings of the job catalog,
+     * or 3 positions suggested by OpenAI if the catalog is empty or has nothing related
      *
      * @param cvData Structured CV information
-     * @return List of 3 matching job positions
+     * @return List of matching job positions
      */
     public List<JobPosition> findMatchingJobs(CvData cvData) {
         log.info("Searching for matching jobs for: {} in {}", cvData.getJobBranch(), cvData.getLocation());
 
-        String promptText = """
-                Based on the following CV profile, suggest 3 job positions that match this person's skills and experience.
-                
-                CV Profile:
-                - Location: {location}
-                - Job Branch: {jobBranch}
-                - Hard Skills: {hardSkills}
-                - Soft Skills: {softSkills}
-                - Education: {education}
-                - Total Experience: {totalExperience} years
-                - Branch Experience: {branchExperience} years
-                
-                Requirements:
-                1. Jobs should match the current location and field
-                2. Jobs should align with experience level
-                3. Jobs should utilize existing skills
-                
-                Respond with a JSON array of 3 job positions. Each position must have:
-                - position: string (job title)
-                - company: string (company name, can be generic like "Tech Company")
-                - requirements: string (required skills and experience)
-                - matchReason: string (why this job matches the profile)
-                
-                Respond ONLY with valid JSON array, no additional text or markdown formatting.
-                Example format:
-                [
-                  {
-                    "position": "Senior Java Developer",
-                    "company": "Tech Solutions GmbH",
-                    "requirements": "5+ years Java, Spring Boot, MySQL",
-                    "matchReason": "Perfect match for your Java and Spring expertise"
-                  }
-                ]
-                """;
-
-        return searchJobs(cvData, promptText);
+        return cachedSearch(cvData, JobSearchMode.MATCHING, () -> {
+            if (jobCatalogService.isAvailable()) {
+                List<JobCatalog.Match> matches = jobCatalogService.rank(cvData);
+                if (!matches.isEmpty()) {
+                    return catalogJobs(cvData, matches);
+                }
+                log.info("No catalog posting relates to the profile, asking OpenAI for positions");
+            }
+            return searchJobs(cvData, JobSearchMode.MATCHING);
+        });
     }
 
     /**
@@ -82,99 +170,311 @@ public class JobSearchService {
     public List<JobPosition> findAlternativeJobs(CvData cvData) {
         log.info("Searching for alternative career paths for: {}", cvData.getJobBranch());
 
-        String promptText = """
-                Based on the following CV profile, suggest 3 ALTERNATIVE career paths in DIFFERENT fields or locations.
-                
-                CV Profile:
-                - Location: {location}
-                - Job Branch: {jobBranch}
-                - Hard Skills: {hardSkills}
-                - Soft Skills: {softSkills}
-                - Education: {education}
-                - Total Experience: {totalExperience} years
-                - Branch Experience: {branchExperience} years
-                
-                Requirements:
-                1. Suggest jobs in DIFFERENT industries or roles
-                2. Consider transferable skills
-                3. May be in different locations (remote or other cities)
-                4. Should still be realistic career transitions
-                
-                Respond with a JSON array of 3 job positions. Each position must have:
-                - position: string (job title)
-                - company: string (company name, can be generic)
-                - requirements: string (required skills and experience)
-                - matchReason: string (why this alternative path makes sense)
-                
-                Respond ONLY with valid JSON array, no additional text or markdown formatting.
-                """;
-
-        return searchJobs(cvData, promptText);
+        return cachedSearch(cvData, JobSearchMode.ALTERNATIVE, () -> searchJobs(cvData, JobSearchMode.ALTERNATIVE));
     }
 
     /**
-     * Common method for searching jobs using OpenAI
+     * Run the matching and alternative searches concurrently under one deadline.
+     * A search that fails or misses the deadline is reported in the errors map
+     * while the other one is still returned.
+     *
+     * @param cvData Structured CV information
+     * @return Both lists of job positions
      */
-    private List<JobPosition> searchJobs(CvData cvData, String promptText) {
-        PromptTemplate promptTemplate = new PromptTemplate(promptText);
+    public JobSuggestions findAllJobs(CvData cvData) {
+        log.info("Searching for matching and alternative jobs for: {}", cvData.getJobBranch());
 
-        Prompt prompt = promptTemplate.create(Map.of(
-                "location", cvData.getLocation(),
-                "jobBranch", cvData.getJobBranch(),
-                "hardSkills", cvData.getHardSkills(),
-                "softSkills", cvData.getSoftSkills(),
-                "education", cvData.getEducation(),
-                "totalExperience", cvData.getTotalExperienceYears().toString(),
-                "branchExperience", cvData.getBranchExperienceYears().toString()
-        ));
+        long deadline = System.nanoTime() + properties.getJobSearch().getCombinedTimeout().toNanos();
 
-        ChatClient chatClient = chatClientBuilder.build();
+        CompletableFuture<List<JobPosition>> matching =
+                CompletableFuture.supplyAsync(() -> findMatchingJobs(cvData), aiCallExecutor);
+        CompletableFuture<List<JobPosition>> alternative =
+                CompletableFuture.supplyAsync(() -> findAlternativeJobs(cvData), aiCallExecutor);
 
-        String response = chatClient.prompt(prompt)
-                .call()
-                .content();
+        Map<JobSearchMode, String> errors = new EnumMap<>(JobSearchMode.class);
+        List<JobPosition> matchingJobs = awaitJobs(matching, deadline, JobSearchMode.MATCHING, errors);
+        List<JobPosition> alternativeJobs = awaitJobs(alternative, deadline, JobSearchMode.ALTERNATIVE, errors);
 
-        log.debug("OpenAI raw response: {}", response);
-
-        return parseJobsResponse(response);
+        return new JobSuggestions(matchingJobs, alternativeJobs, errors);
     }
 
     /**
-     * Parse AI response into list of JobPosition objects
-     * Handles both plain JSON and markdown-wrapped JSON
+     * Wait for one branch of the combined search until the shared deadline.
+     * A timed out call keeps running in the background and still fills the cache.
      */
-    private List<JobPosition> parseJobsResponse(String response) {
+    private List<JobPosition> awaitJobs(CompletableFuture<List<JobPosition>> future,
+                                        long deadline,
+                                        JobSearchMode mode,
+                                        Map<JobSearchMode, String> errors) {
         try {
-            // Clean response - remove markdown code blocks if present
-            String cleanJson = response.trim();
+            return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            log.warn("{} job search did not finish before the deadline", mode);
+            errors.put(mode, "Job search timed out");
+        } catch (ExecutionException e) {
+            log.error("{} job search failed", mode, e.getCause());
+            errors.put(mode, "Job search failed: " + e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            errors.put(mode, "Job search interrupted");
+        }
+        return List.of();
+    }
 
-            if (cleanJson.startsWith("```json")) {
-                cleanJson = cleanJson.substring(7);
-            } else if (cleanJson.startsWith("```")) {
-                cleanJson = cleanJson.substring(3);
+    /**
+     * Return cached suggestions for an unchanged CV profile, otherwise run the search.
+     * While OpenAI is unavailable, the last suggestions for the profile are served.
+     */
+    private List<JobPosition> cachedSearch(CvData cvData, JobSearchMode mode, Supplier<List<JobPosition>> search) {
+        return jobSearchCache.get(cvData, mode).orElseGet(() -> {
+            try {
+                return jobSearchCache.put(cvData, mode, search.get());
+            } catch (OpenAiUnavailableException e) {
+                return fallback(cvData, mode, e);
             }
+        });
+    }
+
+    private List<JobPosition> fallback(CvData cvData, JobSearchMode mode, OpenAiUnavailableException e) {
+        List<JobPosition> stale = jobSearchCache.getFallback(cvData, mode).orElseThrow(() -> e);
+        log.warn("OpenAI unavailable, serving {} earlier {} job suggestions: {}", stale.size(), mode, e.getMessage());
+        cvMetrics.recordResilienceEvent(operation(mode), "fallback");
+        return stale;
+    }
+
+    /**
+     * Stream job positions one by one as the AI response arrives.
+     * Each position is emitted as soon as its JSON object is complete;
+     * cached suggestions for an unchanged CV are replayed immediately.
+     *
+     * @param cvData Structured CV information
+     * @param mode Matching or alternative search
+     * @return Stream of job positions
+     */
+    public Flux<JobPosition> streamJobs(CvData cvData, JobSearchMode mode) {
+        log.info("Streaming {} jobs for: {} in {}", mode, cvData.getJobBranch(), cvData.getLocation());
 
-            if (cleanJson.endsWith("```")) {
-                cleanJson = cleanJson.substring(0, cleanJson.length() - 3);
+        Optional<List<JobPosition>> cached = jobSearchCache.get(cvData, mode);
+        if (cached.isPresent()) {
+            return Flux.fromIterable(cached.get());
+        }
+        if (mode == JobSearchMode.MATCHING && jobCatalogService.isAvailable()) {
+            // Ranking takes milliseconds and the match reasons come in one short call, nothing to stream
+            return Flux.defer(() -> Flux.fromIterable(findMatchingJobs(cvData)))
+                    .subscribeOn(Schedulers.boundedElastic());
+        }
+
+        return Flux.defer(() -> {
+            String operation = operation(mode);
+            JsonArrayStreamParser<JobPosition> parser = new JsonArrayStreamParser<>(objectMapper, JobPosition.class, JOBS_PROPERTY);
+            List<JobPosition> received = new ArrayList<>();
+            Prompt prompt = cvMetrics.time(CvMetrics.Stage.PROMPT_BUILD, operation, () -> createPrompt(cvData, mode));
+
+            return resilience.stream(OpenAiGovernor.Priority.INTERACTIVE, operation, prompt, () -> {
+                        long start = System.nanoTime();
+                        return chatClient.prompt(prompt)
+                                .stream()
+                                .chatResponse()
+                                .timeout(properties.getAi().getStreamIdleTimeout())
+                                .doFinally(signal -> cvMetrics.record(CvMetrics.Stage.LLM_CALL, operation,
+                                        System.nanoTime() - start));
+                    })
+                    .doOnNext(chatResponse -> cvMetrics.recordTokens(operation, chatResponse.getMetadata().getUsage()))
+                    .mapNotNull(chatResponse -> chatResponse.getResult() != null
+                            ? chatResponse.getResult().getOutput().getContent()
+                            : null)
+                    .concatMapIterable(parser::feed)
+                    .doOnNext(received::add)
+                    .onErrorResume(OpenAiUnavailableException.class, e -> received.isEmpty()
+                            ? Flux.fromIterable(fallback(cvData, mode, e))
+                            : Flux.error(e))
+                    .doOnComplete(() -> {
+                        if (parser.isFinished()) {
+                            log.info("Streamed {} job positions", received.size());
+                            jobSearchCache.put(cvData, mode, received);
+                        } else {
+                            log.warn("AI response ended before the job array was closed ({} positions received)",
+                                    received.size());
+                        }
+                    });
+        });
+    }
+
+    /**
+     * Turn ranked catalog postings into job positions with match reasons
+     */
+    private List<JobPosition> catalogJobs(CvData cvData, List<JobCatalog.Match> matches) {
+        List<String> reasons = matchReasons(cvData, matches);
+
+        List<JobPosition> jobs = new ArrayList<>(matches.size());
+        for (int i = 0; i < matches.size(); i++) {
+            JobCatalog.Match match = matches.get(i);
+            String reason = reasons.get(i) == null || reasons.get(i).isBlank()
+                    ? defaultMatchReason(cvData, match)
+                    : reasons.get(i);
+            jobs.add(JobPosition.builder()
+                    .position(match.posting().getPosition())
+                    .company(match.posting().getCompany())
+                    .requirements(match.posting().getRequirements())
+                    .matchReason(reason)
+                    .build());
+        }
+        log.info("Ranked {} catalog postings", jobs.size());
+        return jobs;
+    }
+
+    /**
+     * Ask OpenAI for one match reason per posting. If OpenAI is unavailable or the answer
+     * does not fit the postings, the reasons list the matched skills instead.
+     */
+    private List<String> matchReasons(CvData cvData, List<JobCatalog.Match> matches) {
+        if (properties.getCatalog().isLlmMatchReasons()) {
+            try {
+                List<String> reasons = generateMatchReasons(cvData, matches);
+                if (reasons.size() == matches.size()) {
+                    return reasons;
+                }
+                log.warn("Got {} match reasons for {} postings, using matched skills",
+                        reasons.size(), matches.size());
+            } catch (OpenAiUnavailableException | AiResponseParseException e) {
+                log.warn("No match reasons from OpenAI, using matched skills: {}", e.getMessage());
             }
+            cvMetrics.recordResilienceEvent(MATCH_REASON_OPERATION, "fallback");
+        }
 
-            cleanJson = cleanJson.trim();
+        List<String> reasons = new ArrayList<>(matches.size());
+        matches.forEach(match -> reasons.add(defaultMatchReason(cvData, match)));
+        return reasons;
+    }
 
-            log.debug("Cleaned JSON: {}", cleanJson);
+    private List<String> generateMatchReasons(CvData cvData, List<JobCatalog.Match> matches) {
+        Prompt prompt = cvMetrics.time(CvMetrics.Stage.PROMPT_BUILD, MATCH_REASON_OPERATION,
+                () -> createMatchReasonPrompt(cvData, matches));
 
-            // Parse JSON array to List<JobPosition>
-            List<JobPosition> jobs = objectMapper.readValue(
-                    cleanJson,
-                    new TypeReference<List<JobPosition>>() {}
-            );
+        ChatResponse chatResponse = resilience.call(OpenAiGovernor.Priority.INTERACTIVE, MATCH_REASON_OPERATION,
+                prompt, () -> cvMetrics.time(CvMetrics.Stage.LLM_CALL, MATCH_REASON_OPERATION,
+                        () -> OpenAiRequestFactory.withReadTimeout(properties.getAi().getJobSearchTimeout(),
+                                () -> chatClient.prompt(prompt)
+                                        .call()
+                                        .chatResponse())));
+        cvMetrics.recordTokens(MATCH_REASON_OPERATION, chatResponse.getMetadata().getUsage());
 
-            log.info("Successfully parsed {} job positions", jobs.size());
+        String response = chatResponse.getResult().getOutput().getContent();
+        return cvMetrics.time(CvMetrics.Stage.JSON_PARSE, MATCH_REASON_OPERATION,
+                () -> REASONS_OUTPUT.decode(objectMapper, response));
+    }
 
-            return jobs;
+    /**
+     * Fill the match reason prompt with the CV profile and the numbered postings
+     */
+    Prompt createMatchReasonPrompt(CvData cvData, List<JobCatalog.Match> matches) {
+        StringBuilder postings = new StringBuilder();
+        for (int i = 0; i < matches.size(); i++) {
+            JobPosting posting = matches.get(i).posting();
+            postings.append(i + 1).append(". ").append(posting.getPosition());
+            if (posting.getCompany() != null) {
+                postings.append(" at ").append(posting.getCompany());
+            }
+            postings.append(" - requirements: ").append(posting.getRequirements()).append('\n');
+        }
 
-        } catch (JsonProcessingException e) {
-            log.error("Failed to parse AI response as JSON: {}", response, e);
-            throw new RuntimeException("Failed to parse job positions: " + e.getMessage(), e);
+        Map<String, Object> model = Map.of(
+                "location", orUnknown(cvData.getLocation()),
+                "jobBranch", orUnknown(cvData.getJobBranch()),
+                "hardSkills", orUnknown(cvData.getHardSkills()),
+                "totalExperience", orUnknown(cvData.getTotalExperienceYears()),
+                "postings", postings.toString().strip());
+
+        return properties.getAi().isStructuredOutput()
+                ? MATCH_REASON_TEMPLATE.create(model, REASONS_OUTPUT.getOptions())
+                : MATCH_REASON_TEMPLATE.create(model);
+    }
+
+    private static String defaultMatchReason(CvData cvData, JobCatalog.Match match) {
+        if (!match.matchedSkills().isEmpty()) {
+            return "Matches your skills: " + String.join(", ", match.matchedSkills());
+        }
+        if (cvData.getJobBranch() != null && !cvData.getJobBranch().isBlank()) {
+            return "Related to your experience in " + cvData.getJobBranch();
+        }
+        return "Related to your profile";
+    }
+
+    /**
+     * Common method for searching jobs using OpenAI
+     */
+    List<JobPosition> searchJobs(CvData cvData, JobSearchMode mode) {
+        String operation = operation(mode);
+        Prompt prompt = cvMetrics.time(CvMetrics.Stage.PROMPT_BUILD, operation, () -> createPrompt(cvData, mode));
+
+        for (int attempt = 0; ; attempt++) {
+            ChatResponse chatResponse = resilience.call(OpenAiGovernor.Priority.INTERACTIVE, operation, prompt,
+                    () -> cvMetrics.time(CvMetrics.Stage.LLM_CALL, operation,
+                            () -> OpenAiRequestFactory.withReadTimeout(properties.getAi().getJobSearchTimeout(),
+                                    () -> chatClient.prompt(prompt)
+                                            .call()
+                                            .chatResponse())));
+            cvMetrics.recordTokens(operation, chatResponse.getMetadata().getUsage());
+
+            String response = chatResponse.getResult().getOutput().getContent();
+
+            log.debug("OpenAI raw response: {}", response);
+
+            try {
+                return cvMetrics.time(CvMetrics.Stage.JSON_PARSE, operation, () -> parseJobsResponse(response));
+            } catch (AiResponseParseException e) {
+                if (attempt >= properties.getAi().getMaxParseRetries()) {
+                    throw e;
+                }
+                log.warn("Unusable {} job search response, asking OpenAI again: {}", mode, e.getMessage());
+                cvMetrics.recordResilienceEvent(operation, "parse_retry");
+            }
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Operation tag for metrics, e.g. "job_search_matching"
+     */
+    private static String operation(JobSearchMode mode) {
+        return "job_search_" + mode.name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Fill the search prompt for the given mode with CV profile data
+     */
+    Prompt createPrompt(CvData cvData, JobSearchMode mode) {
+        CompiledPromptTemplate template = mode == JobSearchMode.MATCHING ? MATCHING_TEMPLATE : ALTERNATIVE_TEMPLATE;
+
+        Map<String, Object> model = Map.of(
+                "location", orUnknown(cvData.getLocation()),
+                "jobBranch", orUnknown(cvData.getJobBranch()),
+                "hardSkills", orUnknown(cvData.getHardSkills()),
+                "softSkills", orUnknown(cvData.getSoftSkills()),
+                "education", orUnknown(cvData.getEducation()),
+                "totalExperience", orUnknown(cvData.getTotalExperienceYears()),
+                "branchExperience", orUnknown(cvData.getBranchExperienceYears()));
+
+        return properties.getAi().isStructuredOutput()
+                ? template.create(model, JOBS_OUTPUT.getOptions())
+                : template.create(model);
+    }
+
+    /**
+     * Prompt value of a CV field; fields can be missing, e.g. after a fast analysis without OpenAI
+     */
+    private static String orUnknown(Object value) {
+        return value == null || value.toString().isBlank() ? "unknown" : value.toString();
+    }
+
+    /**
+     * Parse AI response into list of JobPosition objects.
+     * Handles plain, schema-constrained and markdown-wrapped JSON, and repairs near misses.
+     */
+    List<JobPosition> parseJobsResponse(String response) {
+        List<JobPosition> jobs = JOBS_OUTPUT.decode(objectMapper, response);
+
+        log.info("Successfully parsed {} job positions", jobs.size());
+
+        return jobs;
+    }
+}
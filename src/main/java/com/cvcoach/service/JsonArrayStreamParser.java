@@ -0,0 +1,198 @@
+package com.cvcoach.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Incremental parser for a JSON array arriving in chunks, e.g. streamed LLM tokens.
+ * Each array element is decoded as soon as it closes, without waiting for the rest
+ * of the response.
+ *
+ * The array is either the root value or, as structured output requires an object at
+ * the root, the value of a named property of the root object such as {"jobs": [...]}.
+ * Other properties of that object are skipped. A bare array is still accepted when a
+ * property is named. Any text before the root value (such as a markdown fence) and
+ * after the array is ignored.
+ *
+ * Not thread-safe - use one instance per response.
+ *
+ * @param <T> element type
+ */
+public class JsonArrayStreamParser<T> {
+
+    private enum State {
+        /** Before the root value */
+        ROOT,
+        /** Between the properties of the root object */
+        PROPERTIES,
+        /** After the name of the array property */
+        PROPERTY_VALUE,
+        /** Inside the value of another property */
+        SKIPPED_VALUE,
+        /** Inside the array */
+        ARRAY,
+        /** After the array */
+        FINISHED
+    }
+
+    private final ObjectMapper objectMapper;
+    private final Class<T> elementType;
+    private final String property;
+    private final JsonParser parser;
+    private final ByteArrayFeeder feeder;
+
+    private boolean started;
+    private State state = State.ROOT;
+    private int depth;
+    private TokenBuffer element;
+
+    /**
+     * Parser for a response that is a JSON array
+     */
+    public JsonArrayStreamParser(ObjectMapper objectMapper, Class<T> elementType) {
+        this(objectMapper, elementType, null);
+    }
+
+    /**
+     * Parser for a response that is a JSON object holding the array in a property
+     *
+     * @param property Property of the root object holding the array, or null if the array is the root
+     */
+    public JsonArrayStreamParser(ObjectMapper objectMapper, Class<T> elementType, String property) {
+        this.objectMapper = objectMapper;
+        this.elementType = elementType;
+        this.property = property;
+        try {
+            this.parser = objectMapper.getFactory().createNonBlockingByteArrayParser();
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to create non-blocking JSON parser", e);
+        }
+        this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+    }
+
+    /**
+     * Feed the next chunk of the response
+     *
+     * @param chunk Next piece of response text
+     * @return Elements completed by this chunk, in order
+     */
+    public List<T> feed(String chunk) {
+        if (state == State.FINISHED || chunk == null || chunk.isEmpty()) {
+            return List.of();
+        }
+
+        String input = chunk;
+        if (!started) {
+            int rootStart = rootStart(chunk);
+            if (rootStart < 0) {
+                return List.of();
+            }
+            started = true;
+            input = chunk.substring(rootStart);
+        }
+
+        try {
+            byte[] bytes = input.getBytes(StandardCharsets.UTF_8);
+            feeder.feedInput(bytes, 0, bytes.length);
+            return readAvailable();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to parse streamed JSON array: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * @return true once the closing bracket of the array has been read
+     */
+    public boolean isFinished() {
+        return state == State.FINISHED;
+    }
+
+    private int rootStart(String chunk) {
+        for (int i = 0; i < chunk.length(); i++) {
+            char c = chunk.charAt(i);
+            if (c == '[' || (c == '{' && property != null)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private List<T> readAvailable() throws IOException {
+        List<T> completed = new ArrayList<>();
+        JsonToken token;
+
+        while (state != State.FINISHED && (token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+            switch (state) {
+                case ROOT -> {
+                    if (token == JsonToken.START_ARRAY) {
+                        state = State.ARRAY;
+                    } else if (token == JsonToken.START_OBJECT && property != null) {
+                        state = State.PROPERTIES;
+                    } else {
+                        throw new IOException("Expected JSON " + (property != null ? "object or " : "")
+                                + "array but found " + token);
+                    }
+                }
+                case PROPERTIES -> {
+                    if (token != JsonToken.FIELD_NAME) {
+                        throw new IOException("Missing \"" + property + "\" property");
+                    }
+                    state = property.equals(parser.currentName()) ? State.PROPERTY_VALUE : State.SKIPPED_VALUE;
+                }
+                case PROPERTY_VALUE -> {
+                    if (token != JsonToken.START_ARRAY) {
+                        throw new IOException("Expected \"" + property + "\" to be an array but found " + token);
+                    }
+                    state = State.ARRAY;
+                }
+                case SKIPPED_VALUE -> {
+                    depth += token.isStructStart() ? 1 : token.isStructEnd() ? -1 : 0;
+                    if (depth == 0) {
+                        state = State.PROPERTIES;
+                    }
+                }
+                case ARRAY -> readElementToken(token, completed);
+                default -> throw new IllegalStateException("Unexpected state " + state);
+            }
+        }
+
+        return completed;
+    }
+
+    /**
+     * Collect the tokens of the current array element and decode it once it closes
+     */
+    private void readElementToken(JsonToken token, List<T> completed) throws IOException {
+        if (depth == 0 && token == JsonToken.END_ARRAY) {
+            state = State.FINISHED;
+            feeder.endOfInput();
+            return;
+        }
+
+        if (depth == 0) {
+            element = new TokenBuffer(objectMapper, false);
+        }
+        element.copyCurrentEvent(parser);
+
+        if (token.isStructStart()) {
+            depth++;
+        } else if (token.isStructEnd()) {
+            depth--;
+        }
+
+        if (depth == 0) {
+            try (JsonParser elementParser = element.asParser(objectMapper)) {
+                completed.add(objectMapper.readValue(elementParser, elementType));
+            }
+            element = null;
+        }
+    }
+}
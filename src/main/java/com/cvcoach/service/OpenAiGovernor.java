@@ -0,0 +1,508 @@
+package com.cvcoach.service;
+
+import com.cvcoach.config.CvCoachProperties;
+import com.cvcoach.metrics.CvMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.metadata.RateLimit;
+import org.springframework.ai.chat.metadata.Usage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.retry.NonTransientAiException;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Client-side governor shared by all OpenAI calls.
+ *
+ * Calls wait in one queue, interactive before batch and first come first served within a
+ * priority, until a concurrency slot and enough of the requests-per-minute and
+ * tokens-per-minute budgets are free. The budgets refill continuously, follow the
+ * x-ratelimit-remaining headers and slow down after a 429. A call rejected with 429 is
+ * queued again after a backoff instead of failing.
+ */
+@Component
+@Slf4j
+public class OpenAiGovernor {
+
+    /** Lowest share of the configured budgets used after repeated 429s */
+    private static final double MIN_RATE = 0.1;
+
+    /** Share of the configured budgets regained per successful call */
+    private static final double RATE_RECOVERY_STEP = 0.05;
+
+    /**
+     * Queue order of a call
+     */
+    public enum Priority {
+        /** A user is waiting for the result (uploads, job searches) */
+        INTERACTIVE,
+        /** Bulk ingestion */
+        BATCH
+    }
+
+    private final CvCoachProperties.Ai properties;
+    private final TokenCounter tokenCounter;
+    private final CvMetrics cvMetrics;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private final PriorityQueue<Ticket> waiting = new PriorityQueue<>(
+            Comparator.comparing((Ticket ticket) -> ticket.priority).thenComparingLong(ticket -> ticket.sequence));
+    private final Budget requests;
+    private final Budget tokens;
+
+    private long sequence;
+    private int inFlight;
+    private long pausedUntil = System.nanoTime();
+    private double rate = 1.0;
+    private int consecutiveRateLimits;
+
+    public OpenAiGovernor(CvCoachProperties properties, TokenCounter tokenCounter, CvMetrics cvMetrics) {
+        this.properties = properties.getAi();
+        this.tokenCounter = tokenCounter;
+        this.cvMetrics = cvMetrics;
+        this.requests = new Budget(this.properties.getRequestsPerMinute());
+        this.tokens = new Budget(this.properties.getTokensPerMinute());
+
+        cvMetrics.gauge("cvcoach.llm.queued", "OpenAI calls waiting in the governor queue",
+                this, OpenAiGovernor::getQueued);
+        cvMetrics.gauge("cvcoach.llm.in_flight", "OpenAI calls in progress",
+                this, OpenAiGovernor::getInFlight);
+    }
+
+    /**
+     * Run a blocking OpenAI call once the budgets allow it
+     *
+     * @param priority Queue order
+     * @param operation Metrics tag of the call
+     * @param prompt Prompt sent by the call, used to estimate its tokens
+     * @param call The call itself
+     * @return Response of the call
+     */
+    public ChatResponse call(Priority priority, String operation, Prompt prompt, Supplier<ChatResponse> call) {
+        return call(priority, operation, promptTokens(prompt), call);
+    }
+
+    /**
+     * Run a blocking OpenAI call once the budgets allow it
+     *
+     * @param priority Queue order
+     * @param operation Metrics tag of the call
+     * @param promptTokens Tokens of the prompt sent by the call, as counted by the caller
+     * @param call The call itself
+     * @return Response of the call
+     */
+    public ChatResponse call(Priority priority, String operation, int promptTokens, Supplier<ChatResponse> call) {
+        Ticket ticket = ticket(priority, estimateTokens(promptTokens));
+
+        for (int attempt = 0; ; attempt++) {
+            acquire(ticket, operation);
+
+            ChatResponse response;
+            try {
+                response = call.get();
+            } catch (RuntimeException e) {
+                if (!releaseFailed(ticket, operation, e) || attempt >= properties.getMaxRateLimitRetries()) {
+                    throw e;
+                }
+                log.warn("OpenAI rate limit hit by {}, queued again (attempt {})", operation, attempt + 1);
+                continue;
+            }
+
+            release(ticket, totalTokens(response), response.getMetadata().getRateLimit());
+            return response;
+        }
+    }
+
+    /**
+     * Subscribe to a streaming OpenAI call once the budgets allow it.
+     * The queue wait runs on the bounded elastic scheduler.
+     *
+     * @param priority Queue order
+     * @param operation Metrics tag of the call
+     * @param promptTokens Tokens of the prompt sent by the call, as counted by the caller
+     * @param call Creates the streaming call
+     * @return Stream of response chunks
+     */
+    public Flux<ChatResponse> stream(Priority priority, String operation, int promptTokens,
+                                     Supplier<Flux<ChatResponse>> call) {
+        return Flux.defer(() -> {
+            Ticket ticket = ticket(priority, estimateTokens(promptTokens));
+
+            return Flux.defer(() -> governedStream(ticket, operation, call))
+                    .retryWhen(Retry.max(properties.getMaxRateLimitRetries())
+                            .filter(error -> rateLimitDelay(error).isPresent())
+                            .onRetryExhaustedThrow((spec, signal) -> signal.failure()));
+        });
+    }
+
+    private Flux<ChatResponse> governedStream(Ticket ticket, String operation, Supplier<Flux<ChatResponse>> call) {
+        AtomicLong usedTokens = new AtomicLong();
+        AtomicReference<RateLimit> rateLimit = new AtomicReference<>();
+
+        return Mono.fromRunnable(() -> acquire(ticket, operation))
+                .subscribeOn(Schedulers.boundedElastic())
+                .thenMany(Flux.defer(call))
+                .doOnNext(response -> {
+                    usedTokens.accumulateAndGet(totalTokens(response), Math::max);
+                    if (response.getMetadata().getRateLimit() != null) {
+                        rateLimit.set(response.getMetadata().getRateLimit());
+                    }
+                })
+                .doOnError(error -> releaseFailed(ticket, operation, error))
+                .doFinally(signal -> release(ticket, usedTokens.get(), rateLimit.get()));
+    }
+
+    public int getQueued() {
+        lock.lock();
+        try {
+            return waiting.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Count the tokens of a prompt once, so retries and hedged attempts of a call do not count them again
+     *
+     * @param prompt Prompt of a call
+     * @return Tokens of its messages
+     */
+    public int promptTokens(Prompt prompt) {
+        String contents = prompt.getContents();
+        return contents != null ? tokenCounter.count(contents) : 0;
+    }
+
+    /**
+     * @return Tokens reserved for a call: its prompt tokens plus the expected completion
+     */
+    long estimateTokens(int promptTokens) {
+        return promptTokens + properties.getExpectedCompletionTokens();
+    }
+
+    private Ticket ticket(Priority priority, long estimatedTokens) {
+        lock.lock();
+        try {
+            return new Ticket(priority, sequence++, estimatedTokens);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Wait until the ticket is at the head of the queue and the budgets allow it, then take its share
+     */
+    private void acquire(Ticket ticket, String operation) {
+        long start = System.nanoTime();
+        long deadline = start + properties.getMaxQueueWait().toNanos();
+
+        lock.lock();
+        try {
+            ticket.state = TicketState.QUEUED;
+            waiting.add(ticket);
+
+            while (true) {
+                if (ticket.state == TicketState.ABANDONED) {
+                    throw new CancellationException("OpenAI call cancelled while queued");
+                }
+
+                long now = System.nanoTime();
+                long delay = waiting.peek() == ticket ? admissionDelay(ticket, now) : Long.MAX_VALUE;
+                if (delay == 0) {
+                    admit(ticket);
+                    break;
+                }
+
+                long remaining = deadline - now;
+                if (remaining <= 0) {
+                    leaveQueue(ticket, TicketState.DONE);
+                    throw new IllegalStateException("Timed out waiting for an OpenAI call slot");
+                }
+                changed.awaitNanos(Math.min(delay, remaining));
+            }
+        } catch (InterruptedException e) {
+            leaveQueue(ticket, TicketState.DONE);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for an OpenAI call slot", e);
+        } finally {
+            lock.unlock();
+        }
+
+        cvMetrics.record(CvMetrics.Stage.LLM_QUEUE, operation, System.nanoTime() - start);
+    }
+
+    /**
+     * @return 0 if the ticket may start now, otherwise nanoseconds until it might
+     */
+    private long admissionDelay(Ticket ticket, long now) {
+        if (inFlight >= properties.getMaxConcurrentCalls()) {
+            return Long.MAX_VALUE;
+        }
+
+        long delay = Math.max(0, pausedUntil - now);
+        delay = Math.max(delay, requests.delay(1, now, rate));
+        delay = Math.max(delay, tokens.delay(ticket.tokens, now, rate));
+        return delay;
+    }
+
+    private void admit(Ticket ticket) {
+        waiting.poll();
+        requests.take(1);
+        tokens.take(ticket.tokens);
+        inFlight++;
+        ticket.state = TicketState.ADMITTED;
+        changed.signalAll();
+    }
+
+    private void leaveQueue(Ticket ticket, TicketState state) {
+        waiting.remove(ticket);
+        ticket.state = state;
+        changed.signalAll();
+    }
+
+    /**
+     * Return the ticket's slot after a call that did not hit a rate limit.
+     * A ticket still waiting in the queue (stream cancelled early) is abandoned.
+     */
+    private void release(Ticket ticket, long usedTokens, RateLimit rateLimit) {
+        lock.lock();
+        try {
+            if (ticket.state == TicketState.QUEUED) {
+                leaveQueue(ticket, TicketState.ABANDONED);
+                return;
+            }
+            if (ticket.state != TicketState.ADMITTED) {
+                return;
+            }
+
+            long now = System.nanoTime();
+            finish(ticket);
+            if (usedTokens > 0) {
+                tokens.refill(now, rate);
+                tokens.refund(ticket.tokens - usedTokens);
+            }
+            if (rateLimit != null) {
+                observe(rateLimit, now);
+            }
+            consecutiveRateLimits = 0;
+            setRate(now, Math.min(1.0, rate + RATE_RECOVERY_STEP));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Return the ticket's slot after a failed call and back off if it was rate limited
+     *
+     * @return true if the call was rejected with 429
+     */
+    private boolean releaseFailed(Ticket ticket, String operation, Throwable error) {
+        Optional<Duration> retryAfter = rateLimitDelay(error);
+
+        lock.lock();
+        try {
+            if (ticket.state != TicketState.ADMITTED) {
+                return retryAfter.isPresent();
+            }
+
+            finish(ticket);
+            if (retryAfter.isEmpty()) {
+                return false;
+            }
+
+            long now = System.nanoTime();
+            consecutiveRateLimits++;
+            Duration backoff = retryAfter.get().isZero() ? exponentialBackoff() : retryAfter.get();
+            if (backoff.compareTo(properties.getMaxRateLimitBackoff()) > 0) {
+                backoff = properties.getMaxRateLimitBackoff();
+            }
+            pausedUntil = Math.max(pausedUntil - now, backoff.toNanos()) + now;
+            setRate(now, Math.max(MIN_RATE, rate / 2));
+            log.warn("OpenAI returned 429, pausing calls for {} ms at {}% of the configured budgets",
+                    backoff.toMillis(), Math.round(rate * 100));
+        } finally {
+            lock.unlock();
+        }
+
+        cvMetrics.recordRateLimited(operation);
+        return true;
+    }
+
+    private void finish(Ticket ticket) {
+        ticket.state = TicketState.DONE;
+        inFlight--;
+        changed.signalAll();
+    }
+
+    /**
+     * Lower the budgets to what the rate limit headers report and pause when one is used up
+     */
+    private void observe(RateLimit rateLimit, long now) {
+        if (isPresent(rateLimit.getRequestsLimit()) && rateLimit.getRequestsRemaining() != null) {
+            requests.refill(now, rate);
+            requests.limitTo(rateLimit.getRequestsRemaining());
+            if (rateLimit.getRequestsRemaining() == 0) {
+                pauseFor(rateLimit.getRequestsReset(), now);
+            }
+        }
+        if (isPresent(rateLimit.getTokensLimit()) && rateLimit.getTokensRemaining() != null) {
+            tokens.refill(now, rate);
+            tokens.limitTo(rateLimit.getTokensRemaining());
+            if (rateLimit.getTokensRemaining() == 0) {
+                pauseFor(rateLimit.getTokensReset(), now);
+            }
+        }
+    }
+
+    /** Empty rate limit metadata reports a limit of 0 */
+    private static boolean isPresent(Long limit) {
+        return limit != null && limit > 0;
+    }
+
+    private void pauseFor(Duration reset, long now) {
+        if (reset != null && !reset.isNegative()) {
+            pausedUntil = Math.max(pausedUntil - now, reset.toNanos()) + now;
+        }
+    }
+
+    private void setRate(long now, double newRate) {
+        requests.refill(now, rate);
+        tokens.refill(now, rate);
+        rate = newRate;
+    }
+
+    /**
+     * Doubling backoff with jitter, so queued calls do not retry in lockstep
+     */
+    private Duration exponentialBackoff() {
+        long base = properties.getRateLimitBackoff().toMillis() << Math.min(consecutiveRateLimits - 1, 16);
+        long capped = Math.min(base, properties.getMaxRateLimitBackoff().toMillis());
+        return Duration.ofMillis(capped / 2 + ThreadLocalRandom.current().nextLong(capped / 2 + 1));
+    }
+
+    /**
+     * @return Wait time requested by a 429 (zero if not given), or empty if the error is not a rate limit
+     */
+    static Optional<Duration> rateLimitDelay(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof OpenAiRateLimitException rateLimited) {
+                return Optional.of(Optional.ofNullable(rateLimited.getRetryAfter()).orElse(Duration.ZERO));
+            }
+            if (cause instanceof WebClientResponseException.TooManyRequests tooManyRequests) {
+                Duration retryAfter = OpenAiRateLimitException.retryAfter(tooManyRequests.getHeaders());
+                return Optional.of(retryAfter != null ? retryAfter : Duration.ZERO);
+            }
+            if (cause instanceof NonTransientAiException && cause.getMessage() != null
+                    && cause.getMessage().startsWith("429")) {
+                return Optional.of(Duration.ZERO);
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static long totalTokens(ChatResponse response) {
+        Usage usage = response.getMetadata().getUsage();
+        if (usage == null || usage.getTotalTokens() == null) {
+            return 0;
+        }
+        return usage.getTotalTokens();
+    }
+
+    private enum TicketState {
+        NEW,
+        QUEUED,
+        ADMITTED,
+        DONE,
+        ABANDONED
+    }
+
+    /**
+     * One call, kept across its rate limit retries so it keeps its place in the queue
+     */
+    private static final class Ticket {
+
+        private final Priority priority;
+        private final long sequence;
+        private final long tokens;
+        private TicketState state = TicketState.NEW;
+
+        private Ticket(Priority priority, long sequence, long tokens) {
+            this.priority = priority;
+            this.sequence = sequence;
+            this.tokens = tokens;
+        }
+    }
+
+    /**
+     * Continuously refilling budget holding at most one second of the per-minute limit,
+     * which matches how the API enforces its limits over short windows
+     */
+    private static final class Budget {
+
+        private final double capacity;
+        private final double perNano;
+        private double available;
+        private long updatedAt = System.nanoTime();
+
+        private Budget(int perMinute) {
+            if (perMinute <= 0) {
+                throw new IllegalArgumentException("Per-minute budget must be positive: " + perMinute);
+            }
+            this.capacity = Math.max(1, perMinute / 60.0);
+            this.perNano = perMinute / 60e9;
+            this.available = capacity;
+        }
+
+        private void refill(long now, double rate) {
+            available = Math.min(capacity, available + (now - updatedAt) * perNano * rate);
+            updatedAt = now;
+        }
+
+        /**
+         * @return Nanoseconds until the amount is available; amounts above the capacity only wait for a full budget
+         */
+        private long delay(long amount, long now, double rate) {
+            refill(now, rate);
+            double missing = Math.min(amount, capacity) - available;
+            return missing <= 0 ? 0 : (long) Math.ceil(missing / (perNano * rate));
+        }
+
+        /** May go below zero; later calls then wait until the debt is paid back */
+        private void take(long amount) {
+            available -= amount;
+        }
+
+        private void refund(long amount) {
+            available = Math.min(capacity, available + amount);
+        }
+
+        private void limitTo(long remaining) {
+            available = Math.min(available, remaining);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.cvcoach.service;
+
+import org.springframework.ai.retry.NonTransientAiException;
+import org.springframework.http.HttpHeaders;
+
+import java.time.Duration;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * OpenAI answered 429 Too Many Requests. Carries the wait time the API asked for, if any.
+ * Not transient for Spring AI's own retry, because {@link OpenAiGovernor} queues the call again.
+ */
+public class OpenAiRateLimitException extends NonTransientAiException {
+
+    private static final Pattern DURATION_PART = Pattern.compile("(\\d+(?:\\.\\d+)?)(ms|h|m|s)");
+
+    private final Duration retryAfter;
+
+    public OpenAiRateLimitException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * @return Wait time requested by the API, or null if the response did not say
+     */
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+
+    /**
+     * Read the wait time from retry-after-ms, retry-after (seconds) or the
+     * x-ratelimit-reset-* headers (e.g. "1s", "6m0s", "250ms"), preferring the longest reset
+     *
+     * @return Wait time, or null if none of the headers is present
+     */
+    public static Duration retryAfter(HttpHeaders headers) {
+        try {
+            String millis = headers.getFirst("retry-after-ms");
+            if (millis != null) {
+                return Duration.ofMillis(Math.round(Double.parseDouble(millis)));
+            }
+            String seconds = headers.getFirst("retry-after");
+            if (seconds != null) {
+                return Duration.ofMillis(Math.round(Double.parseDouble(seconds) * 1000));
+            }
+        } catch (NumberFormatException e) {
+            // Fall back to the reset headers
+        }
+
+        Duration requestsReset = parseReset(headers.getFirst("x-ratelimit-reset-requests"));
+        Duration tokensReset = parseReset(headers.getFirst("x-ratelimit-reset-tokens"));
+        if (requestsReset == null) {
+            return tokensReset;
+        }
+        return tokensReset == null || requestsReset.compareTo(tokensReset) >= 0 ? requestsReset : tokensReset;
+    }
+
+    /**
+     * Parse a reset header value such as "1m30s" or "250ms"
+     *
+     * @return Duration, or null if the value is missing or malformed
+     */
+    static Duration parseReset(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+
+        Matcher matcher = DURATION_PART.matcher(value.trim());
+        double millis = 0;
+        int end = 0;
+        while (matcher.find() && matcher.start() == end) {
+            double amount = Double.parseDouble(matcher.group(1));
+            millis += switch (matcher.group(2)) {
+                case "h" -> amount * 3_600_000;
+                case "m" -> amount * 60_000;
+                case "s" -> amount * 1000;
+                default -> amount;
+            };
+            end = matcher.end();
+        }
+        return end == value.trim().length() ? Duration.ofMillis(Math.round(millis)) : null;
+    }
+}
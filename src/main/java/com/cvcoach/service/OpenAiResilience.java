@@ -0,0 +1,364 @@
+package com.cvcoach.service;
+
+import com.cvcoach.config.CvCoachProperties;
+import com.cvcoach.metrics.CvMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.retry.TransientAiException;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.util.retry.Retry;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Retries, hedged requests and a circuit breaker around OpenAI calls.
+ * Every attempt, including a hedged one, goes through the {@link OpenAiGovernor}.
+ *
+ * - Transient errors (I/O, timeouts, 5xx) are retried with jittered exponential backoff
+ *   until the attempts or the call deadline run out.
+ * - An interactive call still running after the recent p95 latency of its operation gets
+ *   a second, hedged request; the first successful response wins and the other is cancelled.
+ * - While the failure rate is high the circuit breaker rejects calls right away with
+ *   {@link OpenAiUnavailableException}, so callers can serve cached results.
+ */
+@Component
+@Slf4j
+public class OpenAiResilience {
+
+    private static final int LATENCY_SAMPLES = 256;
+
+    private final OpenAiGovernor governor;
+    private final CvMetrics cvMetrics;
+    private final CvCoachProperties.Resilience properties;
+
+    private final CircuitBreaker circuitBreaker;
+    private final ExecutorService hedgeExecutor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("openai-hedge-", 0).factory());
+    private final Map<String, LatencyWindow> latencies = new ConcurrentHashMap<>();
+
+    public OpenAiResilience(OpenAiGovernor governor, CvMetrics cvMetrics, CvCoachProperties properties) {
+        this.governor = governor;
+        this.cvMetrics = cvMetrics;
+        this.properties = properties.getAi().getResilience();
+        this.circuitBreaker = new CircuitBreaker(
+                this.properties.getSlidingWindowSize(),
+                this.properties.getMinimumCalls(),
+                this.properties.getFailureRateThreshold(),
+                this.properties.getOpenDuration(),
+                this.properties.getHalfOpenCalls());
+
+        cvMetrics.gauge("cvcoach.llm.circuit_open", "1 while the OpenAI circuit breaker rejects calls",
+                circuitBreaker, breaker -> breaker.getState() == CircuitBreaker.State.OPEN ? 1 : 0);
+    }
+
+    /**
+     * Make a blocking OpenAI call with retries, hedging and the circuit breaker
+     *
+     * @param priority Queue order in the governor
+     * @param operation Metrics tag of the call
+     * @param prompt Prompt sent by the call
+     * @param call One attempt of the call
+     * @return Response of the first successful attempt
+     * @throws OpenAiUnavailableException if the breaker is open or all attempts failed
+     */
+    public ChatResponse call(OpenAiGovernor.Priority priority, String operation, Prompt prompt,
+                             Supplier<ChatResponse> call) {
+        return call(priority, operation, governor.promptTokens(prompt), call);
+    }
+
+    /**
+     * Make a blocking OpenAI call with retries, hedging and the circuit breaker
+     *
+     * @param priority Queue order in the governor
+     * @param operation Metrics tag of the call
+     * @param promptTokens Tokens of the prompt sent by the call, counted once for all attempts
+     * @param call One attempt of the call
+     * @return Response of the first successful attempt
+     * @throws OpenAiUnavailableException if the breaker is open or all attempts failed
+     */
+    public ChatResponse call(OpenAiGovernor.Priority priority, String operation, int promptTokens,
+                             Supplier<ChatResponse> call) {
+        if (!circuitBreaker.tryAcquire()) {
+            cvMetrics.recordResilienceEvent(operation, "short_circuit");
+            throw new OpenAiUnavailableException("OpenAI is temporarily unavailable",
+                    circuitBreaker.getRemainingOpenTime(), null);
+        }
+
+        long deadline = System.nanoTime() + properties.getCallDeadline().toNanos();
+        Supplier<ChatResponse> attempt = () -> {
+            long start = System.nanoTime();
+            ChatResponse response = governor.call(priority, operation, promptTokens, call);
+            latencies(operation).record(System.nanoTime() - start);
+            return response;
+        };
+
+        for (int attemptNumber = 1; ; attemptNumber++) {
+            try {
+                ChatResponse response = priority == OpenAiGovernor.Priority.INTERACTIVE
+                        ? hedged(operation, attempt, deadline)
+                        : attempt.get();
+                circuitBreaker.onSuccess();
+                return response;
+            } catch (RuntimeException e) {
+                if (!isUnhealthy(e)) {
+                    circuitBreaker.onIgnored();
+                    throw e;
+                }
+
+                long backoff = backoffNanos(attemptNumber);
+                if (!isTransient(e) || attemptNumber >= properties.getMaxAttempts()
+                        || System.nanoTime() + backoff >= deadline) {
+                    circuitBreaker.onFailure();
+                    throw new OpenAiUnavailableException("OpenAI did not answer after " + attemptNumber
+                            + " attempts: " + e.getMessage(), properties.getInitialBackoff(), e);
+                }
+
+                log.warn("OpenAI {} attempt {} failed, retrying in {} ms: {}",
+                        operation, attemptNumber, TimeUnit.NANOSECONDS.toMillis(backoff), e.getMessage());
+                cvMetrics.recordResilienceEvent(operation, "retry");
+                sleep(backoff);
+            }
+        }
+    }
+
+    /**
+     * Subscribe to a streaming OpenAI call with the circuit breaker. Transient errors are
+     * retried only before the first chunk arrived; streams are not hedged.
+     *
+     * @param priority Queue order in the governor
+     * @param operation Metrics tag of the call
+     * @param prompt Prompt sent by the call
+     * @param call Creates the streaming call
+     * @return Stream of response chunks
+     */
+    public Flux<ChatResponse> stream(OpenAiGovernor.Priority priority, String operation, Prompt prompt,
+                                     Supplier<Flux<ChatResponse>> call) {
+        return Flux.defer(() -> {
+            if (!circuitBreaker.tryAcquire()) {
+                cvMetrics.recordResilienceEvent(operation, "short_circuit");
+                return Flux.error(new OpenAiUnavailableException("OpenAI is temporarily unavailable",
+                        circuitBreaker.getRemainingOpenTime(), null));
+            }
+
+            AtomicBoolean received = new AtomicBoolean();
+            AtomicBoolean finished = new AtomicBoolean();
+            // Counted once, retries resubscribe to the governed stream
+            int promptTokens = governor.promptTokens(prompt);
+
+            return governor.stream(priority, operation, promptTokens, call)
+                    .doOnNext(chunk -> received.set(true))
+                    .retryWhen(Retry.backoff(Math.max(0, properties.getMaxAttempts() - 1), properties.getInitialBackoff())
+                            .maxBackoff(properties.getMaxBackoff())
+                            .jitter(0.5)
+                            .filter(error -> !received.get() && isTransient(error))
+                            .doBeforeRetry(signal -> cvMetrics.recordResilienceEvent(operation, "retry"))
+                            .onRetryExhaustedThrow((spec, signal) -> signal.failure()))
+                    .doOnComplete(() -> {
+                        if (finished.compareAndSet(false, true)) {
+                            circuitBreaker.onSuccess();
+                        }
+                    })
+                    .doOnError(error -> {
+                        if (finished.compareAndSet(false, true)) {
+                            if (isUnhealthy(error)) {
+                                circuitBreaker.onFailure();
+                            } else {
+                                circuitBreaker.onIgnored();
+                            }
+                        }
+                    })
+                    .doOnCancel(() -> {
+                        if (finished.compareAndSet(false, true)) {
+                            circuitBreaker.onIgnored();
+                        }
+                    })
+                    .onErrorMap(OpenAiResilience::isUnhealthy, error -> new OpenAiUnavailableException(
+                            "OpenAI stream failed: " + error.getMessage(), properties.getInitialBackoff(), error));
+        });
+    }
+
+    public CircuitBreaker.State getCircuitState() {
+        return circuitBreaker.getState();
+    }
+
+    /**
+     * Run one attempt and, once enough latencies are known, a hedged second request
+     * if the first is still running after the hedge delay
+     */
+    private ChatResponse hedged(String operation, Supplier<ChatResponse> attempt, long deadline) {
+        long hedgeDelay = hedgeDelayNanos(operation);
+        if (hedgeDelay < 0) {
+            return attempt.get();
+        }
+
+        CompletableFuture<ChatResponse> winner = new CompletableFuture<>();
+        AtomicInteger running = new AtomicInteger(1);
+        List<Future<?>> started = new CopyOnWriteArrayList<>();
+
+        try {
+            started.add(start(attempt, winner, running));
+            try {
+                return winner.get(Math.min(hedgeDelay, remaining(deadline)), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                // Slower than usual: fire the hedged request below
+            }
+
+            if (!winner.isDone() && remaining(deadline) > 0) {
+                running.incrementAndGet();
+                cvMetrics.recordResilienceEvent(operation, "hedge");
+                started.add(start(attempt, winner, running));
+            }
+            return winner.get(remaining(deadline), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException runtime ? runtime : new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new OpenAiUnavailableException("OpenAI did not answer before the deadline",
+                    properties.getInitialBackoff(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for OpenAI", e);
+        } finally {
+            started.forEach(future -> future.cancel(true));
+        }
+    }
+
+    private Future<?> start(Supplier<ChatResponse> attempt, CompletableFuture<ChatResponse> winner,
+                            AtomicInteger running) {
+        return hedgeExecutor.submit(() -> {
+            try {
+                winner.complete(attempt.get());
+            } catch (RuntimeException e) {
+                if (running.decrementAndGet() == 0) {
+                    winner.completeExceptionally(e);
+                }
+            }
+        });
+    }
+
+    /**
+     * @return Delay before a hedged request, or -1 if hedging is off or there are too few samples
+     */
+    private long hedgeDelayNanos(String operation) {
+        if (!properties.isHedging()) {
+            return -1;
+        }
+        long percentile = latencies(operation).percentile(properties.getHedgePercentile(), properties.getHedgeMinSamples());
+        if (percentile < 0) {
+            return -1;
+        }
+        return Math.max(percentile, properties.getMinHedgeDelay().toNanos());
+    }
+
+    /**
+     * Doubling backoff with full jitter between half and the whole delay
+     */
+    private long backoffNanos(int attemptNumber) {
+        long base = properties.getInitialBackoff().toNanos() << Math.min(attemptNumber - 1, 20);
+        long capped = Math.min(base, properties.getMaxBackoff().toNanos());
+        return capped / 2 + ThreadLocalRandom.current().nextLong(capped / 2 + 1);
+    }
+
+    private LatencyWindow latencies(String operation) {
+        return latencies.computeIfAbsent(operation, key -> new LatencyWindow());
+    }
+
+    /**
+     * Errors that count against the provider's health: transient errors, and rate limits
+     * that the governor already retried
+     */
+    static boolean isUnhealthy(Throwable error) {
+        return isTransient(error) || OpenAiGovernor.rateLimitDelay(error).isPresent();
+    }
+
+    /**
+     * Errors worth another attempt: I/O problems, timeouts and server errors
+     */
+    static boolean isTransient(Throwable error) {
+        if (OpenAiGovernor.rateLimitDelay(error).isPresent()) {
+            return false;
+        }
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TransientAiException
+                    || cause instanceof ResourceAccessException
+                    || cause instanceof WebClientRequestException
+                    || cause instanceof IOException
+                    || cause instanceof TimeoutException) {
+                return true;
+            }
+            if (cause instanceof WebClientResponseException response && response.getStatusCode().is5xxServerError()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long remaining(long deadline) {
+        return Math.max(0, deadline - System.nanoTime());
+    }
+
+    private static void sleep(long nanos) {
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting to retry an OpenAI call", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hedgeExecutor.shutdownNow();
+    }
+
+    /**
+     * Latencies of the most recent successful attempts of one operation
+     */
+    private static final class LatencyWindow {
+
+        private final long[] samples = new long[LATENCY_SAMPLES];
+        private int count;
+        private int next;
+
+        synchronized void record(long nanos) {
+            samples[next] = nanos;
+            next = (next + 1) % samples.length;
+            count = Math.min(count + 1, samples.length);
+        }
+
+        /**
+         * @return Latency percentile in nanoseconds, or -1 with fewer than minSamples samples
+         */
+        synchronized long percentile(double percentile, int minSamples) {
+            if (count == 0 || count < minSamples) {
+                return -1;
+            }
+            long[] sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(percentile / 100.0 * count) - 1;
+            return sorted[Math.max(0, Math.min(index, count - 1))];
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.cvcoach.service;
+
+import java.time.Duration;
+
+/**
+ * OpenAI could not answer: the circuit breaker is open, or retries and the deadline ran out.
+ * Callers fall back to cached results where they have them.
+ */
+public class OpenAiUnavailableException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public OpenAiUnavailableException(String message, Duration retryAfter, Throwable cause) {
+        super(message, cause);
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * @return Suggested wait before trying again, never null
+     */
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
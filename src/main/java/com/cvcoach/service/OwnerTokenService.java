@@ -0,0 +1,89 @@
+package com.cvcoach.service;
+
+import com.cvcoach.config.CvCoachProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Issues and checks the owner IDs CVs are saved under.
+ * An owner ID is 16 random bytes followed by the first 16 bytes of their HMAC-SHA256
+ * under a server secret, so it cannot be guessed and clients cannot pick their own.
+ * This is not authentication: whoever holds an owner ID can read and overwrite that owner's CVs.
+ */
+@Service
+@Slf4j
+public class OwnerTokenService {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int RANDOM_BYTES = 16;
+    private static final int MAC_BYTES = 16;
+
+    private final SecureRandom random = new SecureRandom();
+    private final SecretKeySpec key;
+
+    public OwnerTokenService(CvCoachProperties properties) {
+        String secret = properties.getOwner().getTokenSecret();
+        byte[] keyBytes;
+        if (secret == null || secret.isBlank()) {
+            log.warn("cvcoach.owner.token-secret is not set; owner IDs issued now stop working after a restart");
+            keyBytes = new byte[32];
+            random.nextBytes(keyBytes);
+        } else {
+            keyBytes = secret.getBytes(StandardCharsets.UTF_8);
+        }
+        this.key = new SecretKeySpec(keyBytes, ALGORITHM);
+    }
+
+    /**
+     * @return New owner ID, URL safe
+     */
+    public String issue() {
+        byte[] token = new byte[RANDOM_BYTES + MAC_BYTES];
+        random.nextBytes(token);
+        System.arraycopy(mac(token), 0, token, RANDOM_BYTES, MAC_BYTES);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token);
+    }
+
+    /**
+     * @param ownerId Owner ID sent by a client
+     * @return Whether this server issued the ID
+     */
+    public boolean isIssued(String ownerId) {
+        if (ownerId == null) {
+            return false;
+        }
+
+        byte[] token;
+        try {
+            token = Base64.getUrlDecoder().decode(ownerId);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        if (token.length != RANDOM_BYTES + MAC_BYTES) {
+            return false;
+        }
+
+        byte[] expected = Arrays.copyOf(mac(token), MAC_BYTES);
+        return MessageDigest.isEqual(expected, Arrays.copyOfRange(token, RANDOM_BYTES, token.length));
+    }
+
+    private byte[] mac(byte[] token) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            mac.update(token, 0, RANDOM_BYTES);
+            return mac.doFinal();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 is not available", e);
+        }
+    }
+}
@@ -1,22 +1,136 @@
 package com.cvcoach.service;
 
+import com.cvcoach.config.CvCoachProperties;
+import com.cvcoach.metrics.CvMetrics;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.io.RandomAccessRead;
+import org.apache.pdfbox.io.RandomAccessReadBuffer;
+import org.apache.pdfbox.io.RandomAccessReadBufferedFile;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.text.PDFTextStripper;
 import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
 /**
  * Service for parsing PDF files and extracting text content
  * Images are ignored - only text is extracted
+ *
+ * In file-backed mode (the default) documents are read from disk through a buffered
+ * random access file and PDFBox keeps at most the configured amount of decoded stream
+ * data per document on the heap, spilling the rest to scratch files.
  */
 @Service
 @Slf4j
 public class PdfParserService {
 
+    private final CvCoachProperties.Pdf properties;
+    private final CvMetrics cvMetrics;
+    private final ForkJoinPool extractionPool;
+
+    public PdfParserService(CvCoachProperties properties, CvMetrics cvMetrics) {
+        this.properties = properties.getPdf();
+        this.cvMetrics = cvMetrics;
+        this.extractionPool = new ForkJoinPool(this.properties.getParallelism());
+    }
+
+    /**
+     * Extract text from an uploaded PDF.
+     * In file-backed mode the multipart content is moved to a scratch file and parsed from there;
+     * uploads over spring.servlet.multipart.file-size-threshold are already on disk, so that is a rename.
+     *
+     * @param file Uploaded PDF file
+     * @return Extracted text content
+     * @throws IOException if PDF parsing fails
+     */
+    public String extractText(MultipartFile file) throws IOException {
+        if (!properties.isFileBacked()) {
+            try (InputStream inputStream = file.getInputStream()) {
+                return extractText(inputStream);
+            }
+        }
+
+        Path pdf = spool(file);
+        try {
+            return extractText(pdf);
+        } finally {
+            Files.deleteIfExists(pdf);
+        }
+    }
+
+    /**
+     * Move an uploaded PDF to a scratch file that outlives the request.
+     * transferTo(File) lets the container move its multipart temp file into place instead of copying it,
+     * transferTo(Path) would copy it through the input stream.
+     * The caller is responsible for deleting it.
+     *
+     * @param file Uploaded PDF file
+     * @return Path of the scratch file
+     * @throws IOException if the file cannot be written
+     */
+    public Path spool(MultipartFile file) throws IOException {
+        Path pdf = Files.createTempFile(scratchDirectory(), "cv-upload-", ".pdf");
+        try {
+            // Absolute, a relative path would be resolved against the container's multipart location
+            file.transferTo(pdf.toAbsolutePath().toFile());
+            return pdf;
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(pdf);
+            throw e;
+        }
+    }
+
+    /**
+     * Copy PDF content, e.g. a ZIP entry, to a scratch file that outlives the request.
+     * The caller is responsible for deleting it.
+     *
+     * @param content PDF content, read to its end
+     * @param maxSize Largest accepted content in bytes
+     * @return Path of the scratch file
+     * @throws IOException if the content is larger than maxSize or cannot be written
+     */
+    public Path spool(InputStream content, long maxSize) throws IOException {
+        Path pdf = Files.createTempFile(scratchDirectory(), "cv-upload-", ".pdf");
+        try (OutputStream out = Files.newOutputStream(pdf)) {
+            byte[] buffer = new byte[8192];
+            long size = 0;
+            for (int read; (read = content.read(buffer)) >= 0; ) {
+                size += read;
+                if (size > maxSize) {
+                    throw new IOException("File size exceeds " + DataSize.ofBytes(maxSize).toMegabytes() + "MB limit");
+                }
+                out.write(buffer, 0, read);
+            }
+            return pdf;
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(pdf);
+            throw e;
+        }
+    }
+
+    /**
+     * Extract text from a PDF file on disk without loading it onto the heap
+     *
+     * @param pdf Path of the PDF file
+     * @return Extracted text content
+     * @throws IOException if PDF parsing fails
+     */
+    public String extractText(Path pdf) throws IOException {
+        return extractText(() -> new RandomAccessReadBufferedFile(pdf.toFile()));
+    }
+
     /**
      * Extract text from PDF InputStream
      *
@@ -25,36 +139,38 @@ public class PdfParserService {
      * @throws IOException if PDF parsing fails
      */
     public String extractText(InputStream inputStream) throws IOException {
-        log.info("Starting PDF text extraction");
+        byte[] content = inputStream.readAllBytes();
+        return extractText(() -> new RandomAccessReadBuffer(content));
+    }
 
-        try (PDDocument document = Loader.loadPDF(inputStream.readAllBytes())) {
+    private String extractText(PdfSource source) throws IOException {
+        return cvMetrics.timeChecked(CvMetrics.Stage.EXTRACT_TEXT, CvMetrics.UPLOAD, () -> extractTimed(source));
+    }
+
+    private String extractTimed(PdfSource source) throws IOException {
+        log.info("Starting PDF text extraction");
 
-            // Handle encrypted PDFs
-            if (document.isEncrypted()) {
-                log.warn("PDF is encrypted, attempting to decrypt");
-                try {
-                    document.setAllSecurityToBeRemoved(true);
-                } catch (Exception e) {
-                    log.error("Failed to decrypt PDF", e);
-                    throw new IOException("PDF is password-protected and cannot be decrypted");
+        try {
+            int pages;
+            String text = null;
+            try (PDDocument document = load(source)) {
+                pages = document.getNumberOfPages();
+                if (pages < properties.getParallelPageThreshold()) {
+                    text = stripPages(document, 1, pages);
                 }
             }
 
-            // Extract text
-            PDFTextStripper stripper = new PDFTextStripper();
-
-            // Configure text extraction
-            stripper.setSortByPosition(true);
-            stripper.setStartPage(1);
-            stripper.setEndPage(document.getNumberOfPages());
-
-            String text = stripper.getText(document);
+            // Long documents are split into page ranges and extracted on the fork-join pool. The
+            // document above is closed first, so its stream cache is not held next to the tasks' copies.
+            if (text == null) {
+                text = extractPagesInParallel(source, pages);
+            }
 
             // Clean up text
-            text = cleanText(text);
+            text = TextNormalizer.normalize(text);
 
-            log.info("Successfully extracted {} characters from PDF ({} pages)",
-                    text.length(), document.getNumberOfPages());
+            log.info("Successfully extracted {} characters from PDF ({} pages)", text.length(), pages);
+            cvMetrics.recordDocument(pages, text.length());
 
             return text;
 
@@ -64,6 +180,94 @@ public class PdfParserService {
         }
     }
 
+    private PDDocument load(PdfSource source) throws IOException {
+        PDDocument document = Loader.loadPDF(source.open(), null, null, null, streamCache().streamCache);
+
+        // Handle encrypted PDFs
+        if (document.isEncrypted()) {
+            log.warn("PDF is encrypted, attempting to decrypt");
+            try {
+                document.setAllSecurityToBeRemoved(true);
+            } catch (Exception e) {
+                log.error("Failed to decrypt PDF", e);
+                document.close();
+                throw new IOException("PDF is password-protected and cannot be decrypted");
+            }
+        }
+        return document;
+    }
+
+    /**
+     * Extract text of pages startPage..endPage (1-based, inclusive)
+     */
+    private static String stripPages(PDDocument document, int startPage, int endPage) throws IOException {
+        PDFTextStripper stripper = new PDFTextStripper();
+
+        // Configure text extraction
+        stripper.setSortByPosition(true);
+        stripper.setStartPage(startPage);
+        stripper.setEndPage(endPage);
+
+        return stripper.getText(document);
+    }
+
+    /**
+     * PDDocument is not thread-safe, so every page range task loads its own instance and closes
+     * it as soon as its range is stripped, so documents are open only for running tasks.
+     * Loading only reads the cross-reference table; page content is parsed lazily.
+     */
+    private String extractPagesInParallel(PdfSource source, int pages) throws IOException {
+        log.debug("Extracting {} pages in parallel, {} pages per task", pages, properties.getPagesPerTask());
+
+        try {
+            return extractionPool.invoke(new PageRangeTask(source, 1, pages));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Splits a page range in halves until it is small enough, then strips it.
+     * Results are joined left to right, so page order is preserved.
+     */
+    private class PageRangeTask extends RecursiveTask<String> {
+
+        private final PdfSource source;
+        private final int startPage;
+        private final int endPage;
+
+        PageRangeTask(PdfSource source, int startPage, int endPage) {
+            this.source = source;
+            this.startPage = startPage;
+            this.endPage = endPage;
+        }
+
+        @Override
+        protected String compute() {
+            if (endPage - startPage + 1 <= properties.getPagesPerTask()) {
+                try (PDDocument document = load(source)) {
+                    return stripPages(document, startPage, endPage);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            int middle = (startPage + endPage) >>> 1;
+            PageRangeTask right = new PageRangeTask(source, middle + 1, endPage);
+            right.fork();
+            String left = new PageRangeTask(source, startPage, middle).compute();
+            return left + right.join();
+        }
+    }
+
+    /**
+     * Opens a fresh read-only view of the PDF for each document instance
+     */
+    @FunctionalInterface
+    private interface PdfSource {
+        RandomAccessRead open() throws IOException;
+    }
+
     /**
      * Extract text from CV PDF file (alias for backward compatibility)
      *
@@ -76,18 +280,24 @@ public class PdfParserService {
     }
 
     /**
-     * Clean extracted text - remove excessive whitespace and special characters
+     * Stream cache for decoded PDF objects: heap up to the per-document cap, scratch files beyond it
      */
-    private String cleanText(String text) {
-        if (text == null || text.isEmpty()) {
-            return "";
+    private MemoryUsageSetting streamCache() {
+        if (!properties.isFileBacked()) {
+            return MemoryUsageSetting.setupMainMemoryOnly();
         }
+        return MemoryUsageSetting.setupMixed(properties.getMaxHeapPerDocument().toBytes())
+                .setTempDir(scratchDirectory().toFile());
+    }
+
+    private Path scratchDirectory() {
+        return properties.getScratchDirectory() != null
+                ? Path.of(properties.getScratchDirectory())
+                : Path.of(System.getProperty("java.io.tmpdir"));
+    }
 
-        return text
-                .replaceAll("\\r\\n", "\n")     // Normalize line endings
-                .replaceAll("\\r", "\n")        // Normalize line endings
-                .replaceAll("\\n{3,}", "\n\n")  // Max 2 consecutive newlines
-                .replaceAll("[ \\t]{2,}", " ")  // Max 1 consecutive space
-                .trim();
+    @PreDestroy
+    public void shutdown() {
+        extractionPool.shutdown();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,97 @@
+package com.cvcoach.service;
+
+import com.cvcoach.config.CvCoachProperties;
+import com.cvcoach.metrics.CvMetrics;
+import com.cvcoach.skills.SkillDictionary;
+import com.cvcoach.skills.SkillExtraction;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Finds hard skills, soft skills and the job branch in extracted CV text with the skill dictionary.
+ *
+ * The dictionary file is checked for changes at most once per reload interval, by the first
+ * extraction after the interval has passed; other extractions keep using the current dictionary
+ * meanwhile. A dictionary that fails to load is logged and the previous one stays in use.
+ */
+@Component
+@Slf4j
+public class SkillExtractor {
+
+    private final CvCoachProperties.Skills properties;
+    private final CvMetrics cvMetrics;
+    private final Resource resource;
+    private final ReentrantLock reloadLock = new ReentrantLock();
+
+    private volatile SkillDictionary dictionary = SkillDictionary.empty();
+    private volatile long loadedModified = -1;
+    private volatile long nextCheck;
+
+    public SkillExtractor(CvCoachProperties properties, CvMetrics cvMetrics) {
+        this.properties = properties.getSkills();
+        this.cvMetrics = cvMetrics;
+        this.resource = new DefaultResourceLoader().getResource(this.properties.getDictionary());
+        reload();
+    }
+
+    /**
+     * @param cvText Normalized text extracted from the CV
+     * @return Dictionary skills and job branch found in the text
+     */
+    public SkillExtraction extract(String cvText) {
+        reloadIfChanged();
+        SkillDictionary current = dictionary;
+        return cvMetrics.time(CvMetrics.Stage.EXTRACT_SKILLS, CvMetrics.ANALYSIS, () -> current.extract(cvText));
+    }
+
+    public SkillDictionary getDictionary() {
+        reloadIfChanged();
+        return dictionary;
+    }
+
+    private void reloadIfChanged() {
+        if (!properties.isHotReload() || System.nanoTime() - nextCheck < 0 || !reloadLock.tryLock()) {
+            return;
+        }
+        try {
+            if (lastModified() != loadedModified) {
+                reload();
+            }
+            nextCheck = System.nanoTime() + properties.getReloadInterval().toNanos();
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    private void reload() {
+        long modified = lastModified();
+        try (Reader reader = new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8)) {
+            SkillDictionary loaded = SkillDictionary.parse(reader);
+            dictionary = loaded;
+            log.info("Loaded skill dictionary {}: {} entries, {} spellings",
+                    resource.getDescription(), loaded.size(), loaded.patternCount());
+        } catch (IOException | IllegalArgumentException e) {
+            log.error("Failed to load skill dictionary {}, keeping {} entries",
+                    resource.getDescription(), dictionary.size(), e);
+        }
+        // A broken file is not retried until it changes again
+        loadedModified = modified;
+        nextCheck = System.nanoTime() + properties.getReloadInterval().toNanos();
+    }
+
+    private long lastModified() {
+        try {
+            return resource.lastModified();
+        } catch (IOException e) {
+            return loadedModified;
+        }
+    }
+}
@@ -0,0 +1,366 @@
+package com.cvcoach.service;
+
+import com.cvcoach.config.CvCoachProperties;
+import com.cvcoach.metrics.CvMetrics;
+import com.cvcoach.model.CvData;
+import com.cvcoach.model.CvDataEntity;
+import com.cvcoach.model.CvDataSavedEvent;
+import com.cvcoach.model.CvDataSkillEntity;
+import com.cvcoach.model.JobPosting;
+import com.cvcoach.model.SkillEntity;
+import com.cvcoach.model.SkillOverlap;
+import com.cvcoach.model.SkillSearchResult;
+import com.cvcoach.repository.CvDataSkillRepository;
+import com.cvcoach.repository.SkillLink;
+import com.cvcoach.repository.SkillRepository;
+import com.cvcoach.skills.CvSkillIndex;
+import com.cvcoach.skills.SkillExtraction;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Normalizes the skills of saved CVs into the interned skill table and answers skill
+ * queries from the in-memory {@link CvSkillIndex}.
+ *
+ * Skill names are interned by their normalized form, so "Spring Boot" and "spring  boot"
+ * are one skill. A saved CV is linked to its skills once its transaction has committed.
+ * At startup the index is built from the links, and rows without links (saved before the
+ * skill table existed, or whose linking failed) are linked in batches. CVs and skills
+ * saved by other instances are picked up at the next start.
+ */
+@Service
+@Slf4j
+public class SkillIndexService {
+
+    private static final Pattern SEPARATOR = Pattern.compile(";");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final SkillRepository skillRepository;
+    private final CvDataSkillRepository cvDataSkillRepository;
+    private final SkillExtractor skillExtractor;
+    private final CvCoachProperties.Skills properties;
+    private final CvMetrics cvMetrics;
+    private final TransactionTemplate newTransaction;
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final CvSkillIndex index = new CvSkillIndex();
+    private final Map<String, Integer> idsByName = new ConcurrentHashMap<>();
+    private final Map<Integer, String> namesById = new ConcurrentHashMap<>();
+
+    private volatile boolean ready;
+
+    public SkillIndexService(SkillRepository skillRepository, CvDataSkillRepository cvDataSkillRepository,
+                             SkillExtractor skillExtractor, PlatformTransactionManager transactionManager,
+                             CvCoachProperties properties, CvMetrics cvMetrics) {
+        this.skillRepository = skillRepository;
+        this.cvDataSkillRepository = cvDataSkillRepository;
+        this.skillExtractor = skillExtractor;
+        this.properties = properties.getSkills();
+        this.cvMetrics = cvMetrics;
+
+        // Links are written after the CV's own transaction has committed, which needs a new one
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        try {
+            long start = System.nanoTime();
+            skillRepository.findAll().forEach(this::remember);
+            int indexed = loadLinks();
+            int backfilled = backfill();
+            ready = true;
+            cvMetrics.gauge("cvcoach.skills.indexed_cvs", "CVs in the in-memory skill index", index,
+                    CvSkillIndex::size);
+            log.info("Indexed skills of {} CVs ({} linked now, {} distinct skills) in {} ms",
+                    index.size(), backfilled, namesById.size(), (System.nanoTime() - start) / 1_000_000);
+            log.debug("Loaded {} CVs from skill links", indexed);
+        } catch (DataAccessException e) {
+            log.error("Failed to load the skill index, skill queries are unavailable", e);
+        }
+    }
+
+    @TransactionalEventListener
+    public void onCvDataSaved(CvDataSavedEvent event) {
+        try {
+            Map<Long, CvData> saved = new LinkedHashMap<>();
+            saved.put(event.id(), event.cvData());
+            link(saved);
+        } catch (DataAccessException e) {
+            log.warn("Failed to link skills of CV {}, they are linked at the next start", event.id(), e);
+        }
+    }
+
+    /**
+     * @return true once the index has been loaded and can answer queries
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Find saved CVs that have at least a number of the given skills
+     *
+     * @param skills Skill names; items may also be semicolon-separated lists
+     * @param min Minimum number of the skills a CV must have; null for all of them
+     * @param limit Maximum number of CVs, capped at cvcoach.skills.max-search-results
+     */
+    public SkillSearchResult search(List<String> skills, Integer min, int limit) {
+        Map<String, String> names = skillNames(skills.toArray(String[]::new));
+        Resolved query = resolve(names);
+        int minMatched = min != null ? min : Math.max(1, names.size());
+        List<CvSkillIndex.Match> matches = query.known().size() < minMatched
+                ? List.of()
+                : index.withAtLeast(query.bits(), minMatched, Math.min(limit, properties.getMaxSearchResults()));
+        return new SkillSearchResult(query.known(), query.unknown(), minMatched, matches);
+    }
+
+    /**
+     * Compare the skills of a CV with the skills a catalog posting asks for
+     *
+     * @param cvId CV data row ID
+     * @param cvData CV data, used if the CV is not indexed yet
+     * @param posting Posting whose requirements are scanned with the skill dictionary
+     */
+    public SkillOverlap overlap(Long cvId, CvData cvData, JobPosting posting) {
+        SkillExtraction required = skillExtractor.getDictionary().extract(posting.getRequirements());
+        return overlap(cvId, cvData, posting.getId(),
+                skillNames(required.hardSkillsText(), required.softSkillsText()));
+    }
+
+    /**
+     * Compare the skills of a CV with a list of job skills
+     *
+     * @param cvId CV data row ID
+     * @param cvData CV data, used if the CV is not indexed yet
+     * @param jobSkills Skill names; items may also be semicolon-separated lists
+     */
+    public SkillOverlap overlap(Long cvId, CvData cvData, List<String> jobSkills) {
+        return overlap(cvId, cvData, null, skillNames(jobSkills.toArray(String[]::new)));
+    }
+
+    private SkillOverlap overlap(Long cvId, CvData cvData, String jobId, Map<String, String> jobSkillNames) {
+        long[] cvSkills = cvId == null ? null : index.get(cvId);
+        if (cvSkills == null) {
+            cvSkills = resolve(skillNames(cvData.getHardSkills(), cvData.getSoftSkills())).bits();
+        }
+        Resolved job = resolve(jobSkillNames);
+
+        List<String> common = names(CvSkillIndex.common(cvSkills, job.bits()));
+        // Skills no CV has are missing from this one too
+        List<String> missing = names(CvSkillIndex.difference(job.bits(), cvSkills));
+        missing.addAll(job.unknown());
+
+        int jobSkillCount = job.known().size() + job.unknown().size();
+        double coverage = jobSkillCount == 0 ? 0 : (double) common.size() / jobSkillCount;
+        return new SkillOverlap(cvId, jobId, CvSkillIndex.count(cvSkills), jobSkillCount, common, missing, coverage);
+    }
+
+    /**
+     * Split semicolon-separated skill lists into distinct skills
+     *
+     * @return Display names (stripped, whitespace collapsed) by normalized name, in order of appearance
+     */
+    static Map<String, String> skillNames(String... lists) {
+        Map<String, String> names = new LinkedHashMap<>();
+        for (String list : lists) {
+            if (list == null) {
+                continue;
+            }
+            for (String item : SEPARATOR.split(list)) {
+                String name = WHITESPACE.matcher(item.strip()).replaceAll(" ");
+                if (!name.isEmpty() && name.length() <= SkillEntity.MAX_NAME_LENGTH) {
+                    names.putIfAbsent(normalize(name), name);
+                }
+            }
+        }
+        return names;
+    }
+
+    static String normalize(String name) {
+        return WHITESPACE.matcher(name.strip()).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Build the index from the stored links, which arrive grouped by CV
+     *
+     * @return Number of CVs loaded
+     */
+    private int loadLinks() {
+        Integer loaded = readOnlyTransaction.execute(status -> {
+            try (Stream<SkillLink> links = cvDataSkillRepository.streamAllLinks()) {
+                int cvs = 0;
+                Long cvId = null;
+                int[] skillIds = new int[64];
+                int count = 0;
+
+                Iterator<SkillLink> iterator = links.iterator();
+                while (iterator.hasNext()) {
+                    SkillLink link = iterator.next();
+                    if (!link.cvDataId().equals(cvId)) {
+                        if (cvId != null) {
+                            index.put(cvId, Arrays.copyOf(skillIds, count));
+                            cvs++;
+                        }
+                        cvId = link.cvDataId();
+                        count = 0;
+                    }
+                    if (count == skillIds.length) {
+                        skillIds = Arrays.copyOf(skillIds, count * 2);
+                    }
+                    skillIds[count++] = link.skillId();
+                }
+                if (cvId != null) {
+                    index.put(cvId, Arrays.copyOf(skillIds, count));
+                    cvs++;
+                }
+                return cvs;
+            }
+        });
+        return loaded == null ? 0 : loaded;
+    }
+
+    /**
+     * Link CV rows that have no skill links yet, in pages by ascending ID
+     *
+     * @return Number of rows linked
+     */
+    private int backfill() {
+        int batchSize = properties.getBackfillBatchSize();
+        int linked = 0;
+        long afterId = 0;
+
+        List<CvDataEntity> rows;
+        do {
+            rows = cvDataSkillRepository.findUnlinked(afterId, PageRequest.of(0, batchSize));
+            Map<Long, CvData> batch = new LinkedHashMap<>();
+            for (CvDataEntity row : rows) {
+                batch.put(row.getId(), row.toDto());
+                afterId = row.getId();
+            }
+            link(batch);
+            linked += rows.size();
+        } while (rows.size() == batchSize);
+
+        return linked;
+    }
+
+    /**
+     * Intern the skills of CVs, store their links in one transaction and add them to the index
+     */
+    private void link(Map<Long, CvData> cvs) {
+        if (cvs.isEmpty()) {
+            return;
+        }
+
+        Map<Long, int[]> skillIds = new LinkedHashMap<>();
+        List<CvDataSkillEntity> links = new ArrayList<>();
+        cvs.forEach((cvId, cvData) -> {
+            int[] ids = intern(skillNames(cvData.getHardSkills(), cvData.getSoftSkills()));
+            skillIds.put(cvId, ids);
+            for (int skillId : ids) {
+                links.add(new CvDataSkillEntity(cvId, skillId));
+            }
+        });
+
+        if (!links.isEmpty()) {
+            try {
+                newTransaction.executeWithoutResult(status -> cvDataSkillRepository.saveAll(links));
+            } catch (DataIntegrityViolationException e) {
+                if (cvs.size() > 1) {
+                    // Some rows were linked concurrently, e.g. saved during the backfill; retry one by one
+                    cvs.forEach((cvId, cvData) -> link(Map.of(cvId, cvData)));
+                    return;
+                }
+                log.debug("Skills of CV {} are already linked", cvs.keySet());
+            }
+        }
+        skillIds.forEach(index::put);
+    }
+
+    private int[] intern(Map<String, String> names) {
+        int[] ids = new int[names.size()];
+        int count = 0;
+        for (Map.Entry<String, String> name : names.entrySet()) {
+            Integer id = idsByName.get(name.getKey());
+            ids[count++] = id != null ? id : insert(name.getKey(), name.getValue());
+        }
+        return ids;
+    }
+
+    private int insert(String normalizedName, String name) {
+        try {
+            SkillEntity saved = newTransaction.execute(status -> skillRepository.save(
+                    SkillEntity.builder().name(name).normalizedName(normalizedName).build()));
+            remember(saved);
+            return saved.getId();
+        } catch (DataIntegrityViolationException e) {
+            // Interned meanwhile by another thread or instance, or a name the database collation treats as equal
+            SkillEntity existing = skillRepository.findByNormalizedName(normalizedName).orElseThrow(() -> e);
+            remember(existing);
+            idsByName.put(normalizedName, existing.getId());
+            return existing.getId();
+        }
+    }
+
+    private void remember(SkillEntity skill) {
+        idsByName.put(skill.getNormalizedName(), skill.getId());
+        namesById.put(skill.getId(), skill.getName());
+    }
+
+    /**
+     * Look up interned skills without adding new ones
+     */
+    private Resolved resolve(Map<String, String> names) {
+        List<String> known = new ArrayList<>();
+        List<String> unknown = new ArrayList<>();
+        int[] ids = new int[names.size()];
+        int count = 0;
+        for (Map.Entry<String, String> name : names.entrySet()) {
+            Integer id = idsByName.get(name.getKey());
+            if (id == null) {
+                unknown.add(name.getValue());
+            } else {
+                known.add(namesById.get(id));
+                ids[count++] = id;
+            }
+        }
+        return new Resolved(CvSkillIndex.bitset(Arrays.copyOf(ids, count)), known, unknown);
+    }
+
+    private List<String> names(int[] skillIds) {
+        List<String> names = new ArrayList<>(skillIds.length);
+        for (int id : skillIds) {
+            names.add(namesById.get(id));
+        }
+        return names;
+    }
+
+    /**
+     * Skill names split into interned skills, as a bitset, and names no CV has
+     */
+    private record Resolved(long[] bits, List<String> known, List<String> unknown) {}
+}
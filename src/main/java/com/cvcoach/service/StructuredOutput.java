@@ -0,0 +1,313 @@
+package com.cvcoach.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.openai.OpenAiChatOptions;
+import org.springframework.ai.openai.api.OpenAiApi.ChatCompletionRequest.ResponseFormat;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * JSON schema of an LLM response plus a decoder for it.
+ *
+ * The schema is generated once from the Jackson view of the target type and sent as
+ * OpenAI's json_schema response format, so the model cannot answer with anything else.
+ * Decoding streams tokens from the response text without trimming or cutting out
+ * substrings, and tolerates what models without structured output still produce:
+ * a markdown fence or prose around the JSON, trailing commas and a truncated tail.
+ * Those are fixed by {@link #repair} before the caller gives up on the response.
+ *
+ * @param <T> decoded type
+ */
+@Slf4j
+public final class StructuredOutput<T> {
+
+    private static final ObjectMapper SCHEMA_MAPPER = new ObjectMapper();
+
+    private final String name;
+    private final JavaType type;
+    private final String wrapperProperty;
+    private final String schema;
+    private final OpenAiChatOptions options;
+
+    private StructuredOutput(String name, JavaType type, String wrapperProperty, ObjectNode schema) {
+        this.name = name;
+        this.type = type;
+        this.wrapperProperty = wrapperProperty;
+        this.schema = schema.toString();
+        this.options = OpenAiChatOptions.builder()
+                .withResponseFormat(new ResponseFormat(ResponseFormat.Type.JSON_SCHEMA, this.schema))
+                .build();
+    }
+
+    /**
+     * Response that is a single JSON object
+     *
+     * @param name Name of the output, used in logs
+     * @param type Bean the object is decoded into
+     */
+    public static <T> StructuredOutput<T> of(String name, Class<T> type) {
+        JavaType javaType = SCHEMA_MAPPER.constructType(type);
+        return new StructuredOutput<>(name, javaType, null, objectSchema(javaType));
+    }
+
+    /**
+     * Response that is a JSON array. Structured output needs an object at the root, so the
+     * schema wraps the array in one property; a bare array is still accepted when decoding.
+     *
+     * @param name Name of the output, used in logs
+     * @param property Property of the root object holding the array
+     * @param elementType Bean each element is decoded into
+     */
+    public static <E> StructuredOutput<List<E>> listOf(String name, String property, Class<E> elementType) {
+        JavaType listType = SCHEMA_MAPPER.getTypeFactory().constructCollectionType(List.class, elementType);
+
+        ObjectNode root = SCHEMA_MAPPER.createObjectNode();
+        root.put("type", "object");
+        root.putObject("properties").set(property, schemaOf(listType));
+        root.putArray("required").add(property);
+        root.put("additionalProperties", false);
+
+        return new StructuredOutput<>(name, listType, property, root);
+    }
+
+    /**
+     * @return JSON schema of the response, as sent to OpenAI
+     */
+    public String getSchema() {
+        return schema;
+    }
+
+    /**
+     * @return Chat options requesting the schema as response format
+     */
+    public OpenAiChatOptions getOptions() {
+        return options;
+    }
+
+    /**
+     * Decode a response, repairing it if it is not valid JSON as is
+     *
+     * @param objectMapper Mapper used for the target type
+     * @param content Response text
+     * @return Decoded value
+     * @throws AiResponseParseException if the response cannot be decoded even after repair
+     */
+    public T decode(ObjectMapper objectMapper, String content) {
+        if (content == null) {
+            throw new AiResponseParseException("Empty " + name + " response", null);
+        }
+        try {
+            return read(objectMapper, content);
+        } catch (IOException e) {
+            String repaired = repair(content);
+            if (repaired == null) {
+                throw new AiResponseParseException("No JSON in " + name + " response", e);
+            }
+            try {
+                T value = read(objectMapper, repaired);
+                log.warn("Repaired malformed {} response: {}", name, e.getOriginalMessage());
+                return value;
+            } catch (IOException repairFailed) {
+                log.error("Failed to parse {} response as JSON: {}", name, content, e);
+                throw new AiResponseParseException("Failed to parse " + name + " response: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    private T read(ObjectMapper objectMapper, String content) throws IOException {
+        int start = jsonStart(content);
+        if (start < 0) {
+            throw new IOException("No JSON value found");
+        }
+
+        StringReader reader = new StringReader(content);
+        reader.skip(start);
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(reader)) {
+            JsonToken token = parser.nextToken();
+            if (wrapperProperty != null && token == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.currentName();
+                    parser.nextToken();
+                    if (wrapperProperty.equals(field)) {
+                        return objectMapper.readValue(parser, type);
+                    }
+                    parser.skipChildren();
+                }
+                throw new IOException("Missing \"" + wrapperProperty + "\" property");
+            }
+            return objectMapper.readValue(parser, type);
+        }
+    }
+
+    /**
+     * Cheap fix-up of almost valid JSON: drop text around the value and trailing commas,
+     * and close a truncated string, object or array
+     *
+     * @return Repaired JSON, or null if the text contains no JSON value
+     */
+    static String repair(String content) {
+        int start = jsonStart(content);
+        if (start < 0) {
+            return null;
+        }
+
+        StringBuilder json = new StringBuilder(content.length() - start + 8);
+        Deque<Character> closers = new ArrayDeque<>();
+        boolean inString = false;
+        boolean escaped = false;
+
+        for (int i = start; i < content.length(); i++) {
+            char c = content.charAt(i);
+            if (inString) {
+                json.append(c);
+                if (escaped) {
+                    escaped = false;
+                } else if (c == '\\') {
+                    escaped = true;
+                } else if (c == '"') {
+                    inString = false;
+                }
+                continue;
+            }
+            switch (c) {
+                case '"' -> {
+                    inString = true;
+                    json.append(c);
+                }
+                case '{' -> {
+                    closers.push('}');
+                    json.append(c);
+                }
+                case '[' -> {
+                    closers.push(']');
+                    json.append(c);
+                }
+                case '}', ']' -> {
+                    dropTrailingComma(json);
+                    if (!closers.isEmpty()) {
+                        json.append(closers.pop());
+                    }
+                }
+                default -> json.append(c);
+            }
+            if (closers.isEmpty()) {
+                // Root value is complete; the rest is a fence or prose
+                return json.toString();
+            }
+        }
+
+        if (escaped) {
+            json.setLength(json.length() - 1);
+        }
+        if (inString) {
+            json.append('"');
+        }
+        dropTrailingComma(json);
+        if (lastNonWhitespace(json) == ':') {
+            json.append("null");
+        }
+        while (!closers.isEmpty()) {
+            json.append(closers.pop());
+        }
+        return json.toString();
+    }
+
+    private static void dropTrailingComma(StringBuilder json) {
+        int last = json.length() - 1;
+        while (last >= 0 && Character.isWhitespace(json.charAt(last))) {
+            last--;
+        }
+        if (last >= 0 && json.charAt(last) == ',') {
+            json.setLength(last);
+        }
+    }
+
+    private static char lastNonWhitespace(StringBuilder json) {
+        for (int i = json.length() - 1; i >= 0; i--) {
+            if (!Character.isWhitespace(json.charAt(i))) {
+                return json.charAt(i);
+            }
+        }
+        return 0;
+    }
+
+    private static int jsonStart(String content) {
+        for (int i = 0; i < content.length(); i++) {
+            char c = content.charAt(i);
+            if (c == '{' || c == '[') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Strict-mode object schema: every property required, no additional properties
+     */
+    private static ObjectNode objectSchema(JavaType type) {
+        ObjectNode schema = SCHEMA_MAPPER.createObjectNode();
+        schema.put("type", "object");
+        ObjectNode properties = schema.putObject("properties");
+        ArrayNode required = schema.putArray("required");
+
+        List<BeanPropertyDefinition> definitions =
+                SCHEMA_MAPPER.getDeserializationConfig().introspect(type).findProperties();
+        for (BeanPropertyDefinition definition : definitions) {
+            properties.set(definition.getName(), schemaOf(definition.getPrimaryType()));
+            required.add(definition.getName());
+        }
+        schema.put("additionalProperties", false);
+        return schema;
+    }
+
+    private static ObjectNode schemaOf(JavaType type) {
+        if (type.isCollectionLikeType() || type.isArrayType()) {
+            ObjectNode schema = SCHEMA_MAPPER.createObjectNode();
+            schema.put("type", "array");
+            schema.set("items", schemaOf(type.getContentType()));
+            return schema;
+        }
+
+        String scalar = scalarType(type.getRawClass());
+        if (scalar == null) {
+            return objectSchema(type);
+        }
+        ObjectNode schema = SCHEMA_MAPPER.createObjectNode();
+        if (type.isPrimitive()) {
+            schema.put("type", scalar);
+        } else {
+            // Non-primitive values may be unknown, e.g. years of experience missing from the CV
+            schema.putArray("type").add(scalar).add("null");
+        }
+        return schema;
+    }
+
+    private static String scalarType(Class<?> type) {
+        if (CharSequence.class.isAssignableFrom(type) || type.isEnum()) {
+            return "string";
+        }
+        if (type == Boolean.class || type == boolean.class) {
+            return "boolean";
+        }
+        if (type == Integer.class || type == int.class || type == Long.class || type == long.class
+                || type == Short.class || type == short.class) {
+            return "integer";
+        }
+        if (Number.class.isAssignableFrom(type) || type == double.class || type == float.class) {
+            return "number";
+        }
+        return null;
+    }
+}
@@ -0,0 +1,98 @@
+package com.cvcoach.service;
+
+/**
+ * Single-pass cleanup of text extracted from PDFs.
+ *
+ * Produces the same result as the former regex chain
+ * (CRLF/CR to LF, at most 2 consecutive newlines, runs of 2+ spaces/tabs to one space, trim)
+ * and additionally drops control characters and expands typographic ligatures (U+FB00-U+FB06)
+ * that PDF fonts often map to a single glyph.
+ */
+public final class TextNormalizer {
+
+    private TextNormalizer() {
+    }
+
+    /**
+     * Normalize extracted text
+     *
+     * @param text Raw extracted text, may be null
+     * @return Normalized text, never null
+     */
+    public static String normalize(String text) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+
+        int length = text.length();
+        StringBuilder out = new StringBuilder(length);
+
+        int newlines = 0;      // consecutive newlines in the current run
+        int blanks = 0;        // pending spaces/tabs not yet written
+        char firstBlank = ' ';
+
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+
+            if (c == '\r') {
+                if (i + 1 < length && text.charAt(i + 1) == '\n') {
+                    i++;
+                }
+                c = '\n';
+            }
+
+            if (c == '\n') {
+                if (out.length() == 0) {
+                    continue;
+                }
+                blanks = flushBlanks(out, blanks, firstBlank);
+                if (++newlines <= 2) {
+                    out.append('\n');
+                }
+            } else if (c == ' ' || c == '\t') {
+                if (out.length() == 0) {
+                    continue;
+                }
+                if (blanks++ == 0) {
+                    firstBlank = c;
+                }
+                newlines = 0;
+            } else if (Character.isISOControl(c)) {
+                // Dropped without ending the current whitespace run
+            } else {
+                blanks = flushBlanks(out, blanks, firstBlank);
+                newlines = 0;
+                appendExpanded(out, c);
+            }
+        }
+
+        // Trailing blanks are never flushed; trailing newlines are trimmed here
+        int end = out.length();
+        while (end > 0 && out.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        out.setLength(end);
+        return out.toString();
+    }
+
+    private static int flushBlanks(StringBuilder out, int blanks, char firstBlank) {
+        if (blanks == 1) {
+            out.append(firstBlank);
+        } else if (blanks > 1) {
+            out.append(' ');
+        }
+        return 0;
+    }
+
+    private static void appendExpanded(StringBuilder out, char c) {
+        switch (c) {
+            case '\uFB00' -> out.append("ff");
+            case '\uFB01' -> out.append("fi");
+            case '\uFB02' -> out.append("fl");
+            case '\uFB03' -> out.append("ffi");
+            case '\uFB04' -> out.append("ffl");
+            case '\uFB05', '\uFB06' -> out.append("st");
+            default -> out.append(c);
+        }
+    }
+}
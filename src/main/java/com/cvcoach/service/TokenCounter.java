@@ -0,0 +1,28 @@
+package com.cvcoach.service;
+
+import com.cvcoach.config.CvCoachProperties;
+import com.knuddels.jtokkit.Encodings;
+import com.knuddels.jtokkit.api.Encoding;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts tokens locally with the tokenizer of the chat model.
+ * Shared by the governor's tokens-per-minute budget and CV text compaction.
+ */
+@Component
+public class TokenCounter {
+
+    private final Encoding encoding;
+
+    public TokenCounter(CvCoachProperties properties) {
+        this.encoding = Encodings.newLazyEncodingRegistry().getEncoding(properties.getAi().getEncoding());
+    }
+
+    /**
+     * @param text Any text
+     * @return Tokens of the text
+     */
+    public int count(String text) {
+        return encoding.countTokens(text);
+    }
+}
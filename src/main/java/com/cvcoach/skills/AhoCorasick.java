@@ -0,0 +1,193 @@
+package com.cvcoach.skills;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Aho-Corasick automaton: finds every occurrence of any of a set of patterns in one
+ * pass over the text, in time linear in the text length plus the number of matches.
+ *
+ * Matching ignores case, and every whitespace character matches a space, so a pattern
+ * "spring boot" also finds "Spring\nBoot". Immutable and safe to share between threads.
+ */
+public final class AhoCorasick {
+
+    /**
+     * Receives matches in order of their end position
+     */
+    @FunctionalInterface
+    public interface MatchHandler {
+
+        /**
+         * @param pattern Index of the pattern in the list the automaton was built from
+         * @param start Index of the first matched character
+         * @param end Index after the last matched character
+         */
+        void onMatch(int pattern, int start, int end);
+    }
+
+    private static final int ROOT = 0;
+
+    private static final char[] ASCII_FOLD = new char[128];
+
+    static {
+        for (char c = 0; c < 128; c++) {
+            ASCII_FOLD[c] = Character.isWhitespace(c) ? ' ' : Character.toLowerCase(c);
+        }
+    }
+
+    /** Per node: transition characters in ascending order, and the target node of each */
+    private final char[][] transitionChars;
+    private final int[][] transitionTargets;
+    private final int[] failure;
+    /** Pattern ending at the node, or -1 */
+    private final int[] output;
+    /** Closest node on the failure chain that ends a pattern, or -1 */
+    private final int[] outputLink;
+    private final int[] patternLengths;
+    /** Transitions of the root for ASCII characters, -1 where there is none; most text never leaves the root */
+    private final int[] rootAscii = new int[128];
+
+    /**
+     * @param patterns Patterns to search for; empty patterns never match, and a pattern equal
+     *                 to an earlier one apart from case is reported as the earlier one
+     */
+    public AhoCorasick(List<String> patterns) {
+        List<TreeMap<Character, Integer>> trie = new ArrayList<>();
+        List<Integer> ends = new ArrayList<>();
+        trie.add(new TreeMap<>());
+        ends.add(-1);
+
+        patternLengths = new int[patterns.size()];
+        for (int pattern = 0; pattern < patterns.size(); pattern++) {
+            String text = patterns.get(pattern);
+            patternLengths[pattern] = text.length();
+            if (text.isEmpty()) {
+                continue;
+            }
+            int node = ROOT;
+            for (int i = 0; i < text.length(); i++) {
+                char c = fold(text.charAt(i));
+                Integer next = trie.get(node).get(c);
+                if (next == null) {
+                    next = trie.size();
+                    trie.add(new TreeMap<>());
+                    ends.add(-1);
+                    trie.get(node).put(c, next);
+                }
+                node = next;
+            }
+            if (ends.get(node) < 0) {
+                ends.set(node, pattern);
+            }
+        }
+
+        int nodes = trie.size();
+        transitionChars = new char[nodes][];
+        transitionTargets = new int[nodes][];
+        output = new int[nodes];
+        for (int node = 0; node < nodes; node++) {
+            TreeMap<Character, Integer> edges = trie.get(node);
+            transitionChars[node] = new char[edges.size()];
+            transitionTargets[node] = new int[edges.size()];
+            int i = 0;
+            for (Map.Entry<Character, Integer> edge : edges.entrySet()) {
+                transitionChars[node][i] = edge.getKey();
+                transitionTargets[node][i] = edge.getValue();
+                i++;
+            }
+            output[node] = ends.get(node);
+        }
+
+        for (char c = 0; c < 128; c++) {
+            rootAscii[c] = search(ROOT, c);
+        }
+
+        failure = new int[nodes];
+        outputLink = new int[nodes];
+        Arrays.fill(outputLink, -1);
+        linkFailures();
+    }
+
+    /**
+     * Breadth-first over the trie: a node's failure link is the longest proper suffix of
+     * its path that is also a path from the root
+     */
+    private void linkFailures() {
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int child : transitionTargets[ROOT]) {
+            failure[child] = ROOT;
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+            for (int i = 0; i < transitionChars[node].length; i++) {
+                char c = transitionChars[node][i];
+                int child = transitionTargets[node][i];
+
+                int fallback = failure[node];
+                int target = next(fallback, c);
+                while (target < 0 && fallback != ROOT) {
+                    fallback = failure[fallback];
+                    target = next(fallback, c);
+                }
+                failure[child] = target < 0 ? ROOT : target;
+
+                int suffix = failure[child];
+                outputLink[child] = output[suffix] >= 0 ? suffix : outputLink[suffix];
+                queue.add(child);
+            }
+        }
+    }
+
+    /**
+     * Report every occurrence of every pattern, overlapping ones included
+     */
+    public void scan(CharSequence text, MatchHandler handler) {
+        int node = ROOT;
+        for (int i = 0; i < text.length(); i++) {
+            char c = fold(text.charAt(i));
+
+            int target = next(node, c);
+            while (target < 0 && node != ROOT) {
+                node = failure[node];
+                target = next(node, c);
+            }
+            node = target < 0 ? ROOT : target;
+
+            for (int match = output[node] >= 0 ? node : outputLink[node]; match >= 0; match = outputLink[match]) {
+                int pattern = output[match];
+                handler.onMatch(pattern, i + 1 - patternLengths[pattern], i + 1);
+            }
+        }
+    }
+
+    public int nodeCount() {
+        return failure.length;
+    }
+
+    private int next(int node, char c) {
+        if (node == ROOT && c < 128) {
+            return rootAscii[c];
+        }
+        return search(node, c);
+    }
+
+    private int search(int node, char c) {
+        char[] chars = transitionChars[node];
+        int index = Arrays.binarySearch(chars, c);
+        return index >= 0 ? transitionTargets[node][index] : -1;
+    }
+
+    private static char fold(char c) {
+        if (c < 128) {
+            return ASCII_FOLD[c];
+        }
+        return Character.isWhitespace(c) || Character.isSpaceChar(c) ? ' ' : Character.toLowerCase(c);
+    }
+}
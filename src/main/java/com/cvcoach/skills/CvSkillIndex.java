@@ -0,0 +1,363 @@
+package com.cvcoach.skills;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory map from CV data rows to their skills, held as bitsets of interned skill IDs.
+ *
+ * Bit i of a CV's bitset is set if the CV has the skill with ID i. Bitsets end at the
+ * CV's highest skill ID, and IDs are handed out in first-seen order, so common skills
+ * have low IDs and most bitsets are a few words long. Overlap of two skill sets is an
+ * AND and a popcount per word.
+ *
+ * Searches across all CVs use the transposed view: per skill, the CVs that have it, as a
+ * bitset over CV slots for common skills and a sorted slot list for rare ones (whichever
+ * is smaller). The postings of the searched skills are summed with bit-sliced counters,
+ * 64 CVs per word operation, and a bitwise comparison against the minimum picks the CVs
+ * with enough skills.
+ *
+ * A CV put again gets a new bitset and its slot is moved between postings. Searches
+ * share a read lock and updates take the write lock.
+ */
+public final class CvSkillIndex {
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final long[] EMPTY = new long[0];
+
+    /**
+     * CV found by a skill search
+     *
+     * @param cvId CV data row ID
+     * @param matched Number of the searched skills the CV has
+     */
+    public record Match(long cvId, int matched) {}
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Integer> slots = new HashMap<>();
+    private long[] cvIds = new long[INITIAL_CAPACITY];
+    private long[][] skills = new long[INITIAL_CAPACITY][];
+    private Posting[] postings = new Posting[64];
+    private int size;
+
+    /**
+     * Add a CV or replace its skills
+     *
+     * @param cvId CV data row ID
+     * @param skillIds Interned skill IDs, in any order and with repeats
+     */
+    public void put(long cvId, int[] skillIds) {
+        long[] bits = bitset(skillIds);
+        lock.writeLock().lock();
+        try {
+            Integer slot = slots.get(cvId);
+            if (slot == null) {
+                if (size == cvIds.length) {
+                    cvIds = Arrays.copyOf(cvIds, size * 2);
+                    skills = Arrays.copyOf(skills, size * 2);
+                }
+                slot = size++;
+                slots.put(cvId, slot);
+                cvIds[slot] = cvId;
+            } else {
+                for (int skillId : ids(skills[slot])) {
+                    postings[skillId].remove(slot);
+                }
+            }
+            skills[slot] = bits;
+
+            int[] distinct = ids(bits);
+            if (distinct.length > 0 && distinct[distinct.length - 1] >= postings.length) {
+                postings = Arrays.copyOf(postings, Math.max(postings.length * 2, distinct[distinct.length - 1] + 1));
+            }
+            for (int skillId : distinct) {
+                if (postings[skillId] == null) {
+                    postings[skillId] = new Posting();
+                }
+                postings[skillId].add(slot, cvIds.length);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @param cvId CV data row ID
+     * @return Skill bitset of the CV, or null if the CV is not indexed
+     */
+    public long[] get(long cvId) {
+        lock.readLock().lock();
+        try {
+            Integer slot = slots.get(cvId);
+            return slot == null ? null : skills[slot].clone();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return Number of indexed CVs
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Find CVs that have at least a number of the given skills
+     *
+     * @param query Bitset of the searched skill IDs
+     * @param min Minimum number of searched skills a CV must have, at least 1
+     * @param limit Maximum number of results
+     * @return CVs with the most matched skills first; among equals, the CVs indexed last first
+     */
+    public List<Match> withAtLeast(long[] query, int min, int limit) {
+        if (min < 1 || limit < 1) {
+            throw new IllegalArgumentException("min and limit must be positive");
+        }
+        int[] queryIds = ids(query);
+        if (queryIds.length < min) {
+            return List.of();
+        }
+
+        List<Match> matches = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            int words = (size + 63) >>> 6;
+            int slices = 32 - Integer.numberOfLeadingZeros(queryIds.length);
+            // counters[w * slices + s]: bit s of the number of searched skills of the 64 CVs in word w
+            long[] counters = new long[words * slices];
+            for (int skillId : queryIds) {
+                if (skillId < postings.length && postings[skillId] != null) {
+                    postings[skillId].addTo(counters, slices, words);
+                }
+            }
+
+            long[] eligible = new long[words];
+            for (int w = 0; w < words; w++) {
+                eligible[w] = atLeast(counters, w * slices, slices, min);
+            }
+
+            // Highest count first; within a count, the CVs indexed last first
+            for (int matched = queryIds.length; matched >= min && matches.size() < limit; matched--) {
+                for (int w = words - 1; w >= 0 && matches.size() < limit; w--) {
+                    if (eligible[w] == 0) {
+                        continue;
+                    }
+                    long lanes = eligible[w] & exactly(counters, w * slices, slices, matched);
+                    while (lanes != 0 && matches.size() < limit) {
+                        int lane = 63 - Long.numberOfLeadingZeros(lanes);
+                        lanes &= ~(1L << lane);
+                        matches.add(new Match(cvIds[(w << 6) + lane], matched));
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return matches;
+    }
+
+    /**
+     * Lanes of a counter word whose count is at least min, compared bit by bit from the top
+     */
+    private static long atLeast(long[] counters, int offset, int slices, int min) {
+        if (min >>> slices != 0) {
+            return 0;
+        }
+        long greater = 0;
+        long equal = -1L;
+        for (int s = slices - 1; s >= 0; s--) {
+            long bit = counters[offset + s];
+            if ((min >>> s & 1) == 1) {
+                equal &= bit;
+            } else {
+                greater |= equal & bit;
+                equal &= ~bit;
+            }
+        }
+        return greater | equal;
+    }
+
+    /**
+     * Lanes of a counter word whose count equals a value
+     */
+    private static long exactly(long[] counters, int offset, int slices, int value) {
+        long equal = -1L;
+        for (int s = 0; s < slices; s++) {
+            long bit = counters[offset + s];
+            equal &= (value >>> s & 1) == 1 ? bit : ~bit;
+        }
+        return equal;
+    }
+
+    /**
+     * CV slots that have one skill: a sorted slot list while it is smaller than a bitset over all slots
+     */
+    private static final class Posting {
+
+        private int[] slots = new int[4];
+        private int count;
+        private long[] bits;
+
+        void add(int slot, int capacity) {
+            if (bits != null) {
+                if (slot >>> 6 >= bits.length) {
+                    bits = Arrays.copyOf(bits, (capacity + 63) >>> 6);
+                }
+                bits[slot >>> 6] |= 1L << slot;
+                return;
+            }
+
+            // New CVs get the highest slot, so this appends except when a CV is replaced
+            int at = count;
+            while (at > 0 && slots[at - 1] > slot) {
+                at--;
+            }
+            if (count == slots.length) {
+                slots = Arrays.copyOf(slots, count * 2);
+            }
+            System.arraycopy(slots, at, slots, at + 1, count - at);
+            slots[at] = slot;
+            count++;
+
+            int words = (capacity + 63) >>> 6;
+            if (count * Integer.BYTES > words * Long.BYTES) {
+                bits = new long[words];
+                for (int i = 0; i < count; i++) {
+                    bits[slots[i] >>> 6] |= 1L << slots[i];
+                }
+                slots = null;
+            }
+        }
+
+        void remove(int slot) {
+            if (bits != null) {
+                bits[slot >>> 6] &= ~(1L << slot);
+                return;
+            }
+            int at = Arrays.binarySearch(slots, 0, count, slot);
+            if (at >= 0) {
+                System.arraycopy(slots, at + 1, slots, at, count - at - 1);
+                count--;
+            }
+        }
+
+        /**
+         * Add one to the counters of every CV with the skill (ripple-carry over the bit slices)
+         */
+        void addTo(long[] counters, int slices, int words) {
+            if (bits != null) {
+                int end = Math.min(words, bits.length);
+                for (int w = 0; w < end; w++) {
+                    add(counters, w * slices, slices, bits[w]);
+                }
+                return;
+            }
+            for (int i = 0; i < count; i++) {
+                add(counters, (slots[i] >>> 6) * slices, slices, 1L << slots[i]);
+            }
+        }
+
+        private static void add(long[] counters, int offset, int slices, long carry) {
+            for (int i = offset, end = offset + slices; i < end && carry != 0; i++) {
+                long sum = counters[i] ^ carry;
+                carry &= counters[i];
+                counters[i] = sum;
+            }
+        }
+    }
+
+    /**
+     * @param skillIds Skill IDs, in any order and with repeats; negative IDs are not allowed
+     * @return Bitset ending at the word of the highest ID
+     */
+    public static long[] bitset(int[] skillIds) {
+        int max = -1;
+        for (int id : skillIds) {
+            if (id < 0) {
+                throw new IllegalArgumentException("Negative skill ID " + id);
+            }
+            max = Math.max(max, id);
+        }
+        if (max < 0) {
+            return EMPTY;
+        }
+        long[] bits = new long[(max >>> 6) + 1];
+        for (int id : skillIds) {
+            bits[id >>> 6] |= 1L << id;
+        }
+        return bits;
+    }
+
+    /**
+     * @return Number of skills two bitsets have in common
+     */
+    public static int overlap(long[] a, long[] b) {
+        int words = Math.min(a.length, b.length);
+        int common = 0;
+        for (int w = 0; w < words; w++) {
+            common += Long.bitCount(a[w] & b[w]);
+        }
+        return common;
+    }
+
+    /**
+     * @return Number of skills in a bitset
+     */
+    public static int count(long[] bits) {
+        int count = 0;
+        for (long word : bits) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * @return Skill IDs of the bits set in both bitsets, ascending
+     */
+    public static int[] common(long[] a, long[] b) {
+        int words = Math.min(a.length, b.length);
+        long[] and = new long[words];
+        for (int w = 0; w < words; w++) {
+            and[w] = a[w] & b[w];
+        }
+        return ids(and);
+    }
+
+    /**
+     * @return Skill IDs of the bits set in the first bitset but not in the second, ascending
+     */
+    public static int[] difference(long[] a, long[] b) {
+        long[] andNot = a.clone();
+        int words = Math.min(a.length, b.length);
+        for (int w = 0; w < words; w++) {
+            andNot[w] &= ~b[w];
+        }
+        return ids(andNot);
+    }
+
+    /**
+     * @return Skill IDs of the bits set in a bitset, ascending
+     */
+    public static int[] ids(long[] bits) {
+        int[] ids = new int[count(bits)];
+        int next = 0;
+        for (int w = 0; w < bits.length; w++) {
+            long word = bits[w];
+            while (word != 0) {
+                ids[next++] = (w << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+            }
+        }
+        return ids;
+    }
+}
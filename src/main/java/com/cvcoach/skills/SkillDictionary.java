@@ -0,0 +1,282 @@
+package com.cvcoach.skills;
+
+import com.opencsv.bean.CsvToBeanBuilder;
+
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Compiled skill dictionary: canonical skill names with their aliases in one Aho-Corasick
+ * automaton, so a CV text is scanned for all of them in a single pass.
+ *
+ * A match counts only at word boundaries ("Java" is not found in "JavaScript"), and where
+ * skill matches overlap the leftmost and then longest one wins ("React Native" is not also
+ * reported as "React"). Job titles are resolved separately, so "Java Developer"
+ * still yields the skill "Java".
+ * The job branch is the one pointed to by most distinct hard skills and job titles, a job
+ * title weighing as much as {@value #ROLE_WEIGHT} skills. Immutable and safe to share.
+ */
+public final class SkillDictionary {
+
+    static final int ROLE_WEIGHT = 3;
+
+    /** Branch evidence needed before a branch is reported, e.g. two skills or one job title */
+    static final int MIN_BRANCH_SCORE = 2;
+
+    private record Skill(String name, SkillType type, List<String> branches) {
+    }
+
+    private record Spelling(String text, int skill, boolean caseSensitive) {
+    }
+
+    private final List<Skill> skills;
+    /** Patterns as written, ordered longest first, so a lower index means a longer match */
+    private final String[] patterns;
+    private final int[] patternSkills;
+    private final boolean[] caseSensitive;
+    private final AhoCorasick automaton;
+
+    private SkillDictionary(List<SkillEntry> entries) {
+        skills = new ArrayList<>(entries.size());
+        List<Spelling> all = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        Map<String, Integer> byName = new HashMap<>();
+
+        for (SkillEntry entry : entries) {
+            if (isBlank(entry.getName()) || isBlank(entry.getType())) {
+                continue;
+            }
+            SkillType type = SkillType.valueOf(entry.getType().strip().toUpperCase(Locale.ROOT));
+            List<String> branches = split(entry.getBranch());
+
+            // Rows repeating a name add spellings, e.g. case-sensitive "React" and case-insensitive "reactjs"
+            String name = entry.getName().strip();
+            Integer existing = byName.get(name.toLowerCase(Locale.ROOT));
+            int skill = existing != null ? existing : skills.size();
+            if (existing == null) {
+                byName.put(name.toLowerCase(Locale.ROOT), skill);
+                skills.add(new Skill(name, type, branches));
+            } else if (!branches.isEmpty()) {
+                Skill known = skills.get(skill);
+                Set<String> merged = new LinkedHashSet<>(known.branches());
+                merged.addAll(branches);
+                skills.set(skill, new Skill(known.name(), known.type(), List.copyOf(merged)));
+            }
+
+            boolean exactCase = Boolean.TRUE.equals(entry.getCaseSensitive());
+            List<String> texts = new ArrayList<>(split(entry.getAliases()));
+            texts.add(0, name);
+            for (String text : texts) {
+                // The first entry claiming a spelling keeps it
+                if (seen.add(text.toLowerCase(Locale.ROOT))) {
+                    all.add(new Spelling(text, skill, exactCase));
+                }
+            }
+        }
+
+        all.sort(Comparator.comparingInt((Spelling spelling) -> spelling.text().length()).reversed());
+        patterns = new String[all.size()];
+        patternSkills = new int[all.size()];
+        caseSensitive = new boolean[all.size()];
+        for (int i = 0; i < all.size(); i++) {
+            patterns[i] = all.get(i).text();
+            patternSkills[i] = all.get(i).skill();
+            caseSensitive[i] = all.get(i).caseSensitive();
+        }
+        automaton = new AhoCorasick(Arrays.asList(patterns));
+    }
+
+    public static SkillDictionary of(List<SkillEntry> entries) {
+        return new SkillDictionary(entries);
+    }
+
+    /**
+     * Read a dictionary in CSV form with the columns name, type, branch, aliases, case_sensitive
+     *
+     * @throws IllegalArgumentException if a row is malformed or has an unknown type
+     */
+    public static SkillDictionary parse(Reader reader) {
+        try {
+            List<SkillEntry> entries = new CsvToBeanBuilder<SkillEntry>(reader)
+                    .withType(SkillEntry.class)
+                    .withIgnoreEmptyLine(true)
+                    .withIgnoreLeadingWhiteSpace(true)
+                    .build()
+                    .parse();
+            return new SkillDictionary(entries);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid skill dictionary: " + e.getMessage(), e);
+        }
+    }
+
+    public static SkillDictionary empty() {
+        return new SkillDictionary(List.of());
+    }
+
+    /**
+     * @return Number of skills and job titles
+     */
+    public int size() {
+        return skills.size();
+    }
+
+    /**
+     * @return Number of names and aliases searched for
+     */
+    public int patternCount() {
+        return patterns.length;
+    }
+
+    /**
+     * @return Names and aliases searched for, longest first
+     */
+    List<String> spellings() {
+        return List.of(patterns);
+    }
+
+    /**
+     * Scan a CV text for dictionary skills and job titles
+     */
+    public SkillExtraction extract(CharSequence text) {
+        if (patterns.length == 0) {
+            return SkillExtraction.EMPTY;
+        }
+
+        MatchBuffer matches = new MatchBuffer();
+        automaton.scan(text, (pattern, start, end) -> {
+            if (isWordBoundary(text, start, end) && hasCase(text, pattern, start)) {
+                matches.add(start, pattern);
+            }
+        });
+
+        // Leftmost-longest: at equal starts the lower pattern index is the longer match
+        long[] sorted = matches.sorted();
+        List<Integer> found = new ArrayList<>();
+        boolean[] seen = new boolean[skills.size()];
+        int skillEnd = 0;
+        int roleEnd = 0;
+        for (long match : sorted) {
+            int start = (int) (match >>> 32);
+            int pattern = (int) match;
+            int skill = patternSkills[pattern];
+            int end = start + patterns[pattern].length();
+            if (skills.get(skill).type() == SkillType.ROLE) {
+                if (start < roleEnd) {
+                    continue;
+                }
+                roleEnd = end;
+            } else {
+                if (start < skillEnd) {
+                    continue;
+                }
+                skillEnd = end;
+            }
+            if (!seen[skill]) {
+                seen[skill] = true;
+                found.add(skill);
+            }
+        }
+
+        return summarize(found);
+    }
+
+    private SkillExtraction summarize(List<Integer> found) {
+        List<String> hard = new ArrayList<>();
+        List<String> soft = new ArrayList<>();
+        Map<String, Integer> branchScores = new LinkedHashMap<>();
+
+        for (int index : found) {
+            Skill skill = skills.get(index);
+            int weight = switch (skill.type()) {
+                case HARD -> {
+                    hard.add(skill.name());
+                    yield 1;
+                }
+                case SOFT -> {
+                    soft.add(skill.name());
+                    yield 0;
+                }
+                case ROLE -> ROLE_WEIGHT;
+            };
+            if (weight > 0) {
+                skill.branches().forEach(branch -> branchScores.merge(branch, weight, Integer::sum));
+            }
+        }
+
+        String branch = null;
+        int best = MIN_BRANCH_SCORE - 1;
+        for (Map.Entry<String, Integer> entry : branchScores.entrySet()) {
+            if (entry.getValue() > best) {
+                best = entry.getValue();
+                branch = entry.getKey();
+            }
+        }
+        return new SkillExtraction(List.copyOf(hard), List.copyOf(soft), branch);
+    }
+
+    private static boolean isWordBoundary(CharSequence text, int start, int end) {
+        return (start == 0 || !Character.isLetterOrDigit(text.charAt(start - 1)))
+                && (end == text.length() || !Character.isLetterOrDigit(text.charAt(end)));
+    }
+
+    private boolean hasCase(CharSequence text, int pattern, int start) {
+        if (!caseSensitive[pattern]) {
+            return true;
+        }
+        String expected = patterns[pattern];
+        for (int i = 0; i < expected.length(); i++) {
+            char c = text.charAt(start + i);
+            if (c != expected.charAt(i) && !(Character.isWhitespace(c) && expected.charAt(i) == ' ')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static List<String> split(String values) {
+        if (isBlank(values)) {
+            return List.of();
+        }
+        return Arrays.stream(values.split(";"))
+                .map(String::strip)
+                .filter(value -> !value.isEmpty())
+                .toList();
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    /**
+     * Matches encoded as start position (high half) and pattern index (low half), so that
+     * sorting the longs orders them by start and then by length
+     */
+    private static final class MatchBuffer {
+
+        private long[] matches = new long[64];
+        private int size;
+
+        void add(int start, int pattern) {
+            if (size == matches.length) {
+                matches = Arrays.copyOf(matches, size * 2);
+            }
+            matches[size++] = ((long) start << 32) | pattern;
+        }
+
+        long[] sorted() {
+            long[] sorted = Arrays.copyOf(matches, size);
+            Arrays.sort(sorted);
+            return sorted;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.cvcoach.skills;
+
+import com.opencsv.bean.CsvBindByName;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Row of the skill dictionary file
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SkillEntry {
+
+    /** Canonical name reported in CvData, e.g. "Kubernetes" */
+    @CsvBindByName(column = "name", required = true)
+    private String name;
+
+    /** hard, soft or role */
+    @CsvBindByName(column = "type", required = true)
+    private String type;
+
+    /** Job branches the entry points to, separated by semicolons */
+    @CsvBindByName(column = "branch")
+    private String branch;
+
+    /** Other spellings, separated by semicolons, e.g. "k8s;kube" */
+    @CsvBindByName(column = "aliases")
+    private String aliases;
+
+    /** Match name and aliases only with the exact case, for short names such as "Go" or "R" */
+    @CsvBindByName(column = "case_sensitive")
+    private Boolean caseSensitive;
+}
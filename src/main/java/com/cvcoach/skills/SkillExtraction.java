@@ -0,0 +1,29 @@
+package com.cvcoach.skills;
+
+import java.util.List;
+
+/**
+ * Skills and job branch found in a CV text by the skill dictionary
+ *
+ * @param hardSkills Canonical names of the technical skills, in order of first appearance
+ * @param softSkills Canonical names of the soft skills, in order of first appearance
+ * @param jobBranch Branch most of the skills and job titles point to, or null if the evidence is too thin
+ */
+public record SkillExtraction(List<String> hardSkills, List<String> softSkills, String jobBranch) {
+
+    public static final SkillExtraction EMPTY = new SkillExtraction(List.of(), List.of(), null);
+
+    /**
+     * @return Hard skills in the semicolon-separated form of CvData
+     */
+    public String hardSkillsText() {
+        return String.join("; ", hardSkills);
+    }
+
+    /**
+     * @return Soft skills in the semicolon-separated form of CvData
+     */
+    public String softSkillsText() {
+        return String.join("; ", softSkills);
+    }
+}
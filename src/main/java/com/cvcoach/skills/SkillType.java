@@ -0,0 +1,16 @@
+package com.cvcoach.skills;
+
+/**
+ * Kind of a skill dictionary entry
+ */
+public enum SkillType {
+
+    /** Technical skill, goes into hardSkills */
+    HARD,
+
+    /** Soft skill, goes into softSkills */
+    SOFT,
+
+    /** Job title; not a skill, but a strong hint for the job branch */
+    ROLE
+}
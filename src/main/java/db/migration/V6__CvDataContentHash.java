@@ -0,0 +1,68 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Adds the content_hash column of the analysis cache and its index.
+ *
+ * Databases baselined at V1 may or may not have them already: the column was first
+ * created by ddl-auto=update, after the schema V1 describes. Java rather than SQL because
+ * MySQL has no ADD COLUMN IF NOT EXISTS, so the schema is checked first.
+ */
+public class V6__CvDataContentHash extends BaseJavaMigration {
+
+    private static final String TABLE = "cv_data";
+    private static final String COLUMN = "content_hash";
+    private static final String INDEX = "idx_cv_data_content_hash";
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection connection = context.getConnection();
+        DatabaseMetaData metaData = connection.getMetaData();
+        String table = identifier(metaData, TABLE);
+
+        try (Statement statement = connection.createStatement()) {
+            if (!hasColumn(connection, metaData, table)) {
+                statement.execute("ALTER TABLE cv_data ADD COLUMN content_hash VARCHAR(64)");
+            }
+            if (!hasIndex(connection, metaData, table)) {
+                statement.execute("CREATE INDEX idx_cv_data_content_hash ON cv_data (content_hash)");
+            }
+        }
+    }
+
+    private static boolean hasColumn(Connection connection, DatabaseMetaData metaData, String table)
+            throws SQLException {
+        try (ResultSet columns = metaData.getColumns(connection.getCatalog(), connection.getSchema(), table,
+                identifier(metaData, COLUMN))) {
+            return columns.next();
+        }
+    }
+
+    private static boolean hasIndex(Connection connection, DatabaseMetaData metaData, String table)
+            throws SQLException {
+        try (ResultSet indexes = metaData.getIndexInfo(connection.getCatalog(), connection.getSchema(), table,
+                false, false)) {
+            while (indexes.next()) {
+                if (INDEX.equalsIgnoreCase(indexes.getString("INDEX_NAME"))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Unquoted name as the database stores it in its metadata
+     */
+    private static String identifier(DatabaseMetaData metaData, String name) throws SQLException {
+        return metaData.storesUpperCaseIdentifiers() ? name.toUpperCase() : name;
+    }
+}
@@ -0,0 +1,27 @@
+-- Schema of a new database: cv_data with IDs from the pooled cv_data_seq generator.
+-- This is not what spring.jpa.hibernate.ddl-auto=update created earlier: that table had an
+-- AUTO_INCREMENT id (GenerationType.IDENTITY) and no cv_data_seq. Existing databases skip
+-- this script (spring.flyway.baseline-version=1); V2 creates and seeds cv_data_seq for them.
+-- Columns added to the entity since then belong in later migrations that tolerate them
+-- already existing.
+
+CREATE TABLE cv_data (
+    id                      BIGINT       NOT NULL,
+    location                VARCHAR(500) NOT NULL,
+    hard_skills             TEXT         NOT NULL,
+    soft_skills             TEXT         NOT NULL,
+    education               VARCHAR(500) NOT NULL,
+    total_experience_years  INT          NOT NULL,
+    job_branch              VARCHAR(200) NOT NULL,
+    branch_experience_years INT          NOT NULL,
+    created_at              DATETIME(6)  NOT NULL,
+    updated_at              DATETIME(6)  NOT NULL,
+    PRIMARY KEY (id)
+);
+
+-- Table-based emulation of the cv_data_seq sequence (MySQL has no sequences)
+CREATE TABLE cv_data_seq (
+    next_val BIGINT
+);
+
+INSERT INTO cv_data_seq (next_val) VALUES (1);
@@ -0,0 +1,16 @@
+-- Indexes for latest-CV lookups (ORDER BY created_at DESC LIMIT 1) and updated_at scans
+CREATE INDEX idx_cv_data_created_at ON cv_data (created_at);
+CREATE INDEX idx_cv_data_updated_at ON cv_data (updated_at);
+
+-- Databases that used IDENTITY IDs before the sequence generator: make sure the
+-- pooled optimizer (blocks of 50) starts above every existing ID
+CREATE TABLE IF NOT EXISTS cv_data_seq (
+    next_val BIGINT
+);
+
+INSERT INTO cv_data_seq (next_val)
+SELECT 1 FROM (SELECT 1 AS one) seed
+WHERE NOT EXISTS (SELECT 1 FROM cv_data_seq);
+
+UPDATE cv_data_seq
+SET next_val = GREATEST(next_val, (SELECT COALESCE(MAX(id), 0) + 51 FROM cv_data));
@@ -0,0 +1,5 @@
+-- Per-user ownership: reads look up the latest CV of one user instead of the whole table.
+-- Rows saved before this migration have no owner and are no longer returned by the API.
+ALTER TABLE cv_data ADD COLUMN owner_id VARCHAR(64);
+
+CREATE INDEX idx_cv_data_owner_created_at ON cv_data (owner_id, created_at);
@@ -0,0 +1,22 @@
+-- Normalized skills: every distinct skill name is stored once and CVs reference it by ID.
+-- IDs are small integers handed out in first-seen order, so they double as bit positions
+-- in the in-memory skill bitsets (common skills get low IDs and keep the bitsets short).
+CREATE TABLE skill (
+    id              INT          NOT NULL AUTO_INCREMENT,
+    name            VARCHAR(100) NOT NULL,
+    normalized_name VARCHAR(100) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_skill_normalized_name UNIQUE (normalized_name)
+);
+
+CREATE TABLE cv_data_skill (
+    cv_data_id BIGINT NOT NULL,
+    skill_id   INT    NOT NULL,
+    PRIMARY KEY (cv_data_id, skill_id),
+    CONSTRAINT fk_cv_data_skill_cv_data FOREIGN KEY (cv_data_id) REFERENCES cv_data (id) ON DELETE CASCADE,
+    CONSTRAINT fk_cv_data_skill_skill FOREIGN KEY (skill_id) REFERENCES skill (id)
+);
+
+CREATE INDEX idx_cv_data_skill_skill_id ON cv_data_skill (skill_id);
+
+-- Rows saved before this migration are linked by the application on its next start
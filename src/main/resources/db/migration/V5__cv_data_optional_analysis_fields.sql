@@ -0,0 +1,6 @@
+-- Fast-mode analysis (cvcoach.skills.analysis-mode=FAST) reads only skills and job branch
+-- from the skill dictionary, so the fields only OpenAI can extract may be missing
+ALTER TABLE cv_data MODIFY COLUMN location VARCHAR(500) NULL;
+ALTER TABLE cv_data MODIFY COLUMN education VARCHAR(500) NULL;
+ALTER TABLE cv_data MODIFY COLUMN total_experience_years INT NULL;
+ALTER TABLE cv_data MODIFY COLUMN branch_experience_years INT NULL;
@@ -0,0 +1,3 @@
+-- Rows saved before per-user ownership (V3) have no owner. They are assigned to the
+-- "legacy" user, so they stay reachable at /api/cv/legacy/... instead of being orphaned.
+UPDATE cv_data SET owner_id = 'legacy' WHERE owner_id IS NULL;
@@ -24,6 +24,23 @@ let selectedFile = null;
 // API Base URL (change for production)
 const API_BASE = window.location.origin;
 
+// Owner ID issued by the server on first upload, kept per browser; it is sent only
+// in the X-User-Id header, as anyone who has it can read this user's CV
+const USER_ID_KEY = 'cvcoachUserId';
+let userId = localStorage.getItem(USER_ID_KEY);
+
+function userHeaders() {
+    return userId ? { 'X-User-Id': userId } : {};
+}
+
+function rememberUserId(response) {
+    const assigned = response.headers.get('X-User-Id');
+    if (assigned && assigned !== userId) {
+        userId = assigned;
+        localStorage.setItem(USER_ID_KEY, userId);
+    }
+}
+
 // ============================================
 // Drag & Drop Handlers
 // ============================================
@@ -140,6 +157,7 @@ cvUploadForm.addEventListener('submit', async (e) => {
         // Upload PDF
         const response = await fetch(`${API_BASE}/api/cv/upload`, {
             method: 'POST',
+            headers: userHeaders(),
             body: formData
         });
 
@@ -148,6 +166,7 @@ cvUploadForm.addEventListener('submit', async (e) => {
             throw new Error(error.message || 'Błąd podczas analizy CV');
         }
 
+        rememberUserId(response);
         const cvData = await response.json();
 
         // Display results
@@ -173,11 +192,11 @@ cvUploadForm.addEventListener('submit', async (e) => {
 function displayCvData(data) {
     cvDataResult.innerHTML = `
         <h3>✨ Wyniki analizy AI</h3>
-        <p><strong>📍 Lokalizacja:</strong> ${escapeHtml(data.location)}</p>
+        <p><strong>📍 Lokalizacja:</strong> ${escapeHtml(data.location ?? NO_DATA)}</p>
         <p><strong>💼 Branża:</strong> ${escapeHtml(data.jobBranch)}</p>
-        <p><strong>🎓 Wykształcenie:</strong> ${escapeHtml(data.education)}</p>
-        <p><strong>⏱️ Doświadczenie:</strong> ${data.totalExperienceYears} ${pluralize(data.totalExperienceYears, 'rok', 'lata', 'lat')}
-           (w tym ${data.branchExperienceYears} ${pluralize(data.branchExperienceYears, 'rok', 'lata', 'lat')} w branży)</p>
+        <p><strong>🎓 Wykształcenie:</strong> ${escapeHtml(data.education ?? NO_DATA)}</p>
+        <p><strong>⏱️ Doświadczenie:</strong> ${formatYears(data.totalExperienceYears)}
+           (w tym ${formatYears(data.branchExperienceYears)} w branży)</p>
         <p><strong>🔧 Hard Skills:</strong> ${escapeHtml(data.hardSkills)}</p>
         <p><strong>💡 Soft Skills:</strong> ${escapeHtml(data.softSkills)}</p>
     `;
@@ -189,40 +208,68 @@ function displayCvData(data) {
 
 // Find matching jobs
 findMatchingBtn.addEventListener('click', async () => {
-    await fetchJobs('/api/cv/jobs/matching', '🎯 Dopasowane oferty pracy dla Ciebie');
+    await streamUserJobs('matching', '🎯 Dopasowane oferty pracy dla Ciebie');
 });
 
 // Find alternative jobs
 findAlternativeBtn.addEventListener('click', async () => {
-    await fetchJobs('/api/cv/jobs/alternative', '🔄 Alternatywne ścieżki kariery');
+    await streamUserJobs('alternative', '🔄 Alternatywne ścieżki kariery');
 });
 
-// Fetch jobs from API
-async function fetchJobs(endpoint, title) {
+// Jobs are searched for the latest CV of the user the upload was saved under
+async function streamUserJobs(mode, title) {
+    if (!userId) {
+        showError('Najpierw prześlij swoje CV.');
+        return;
+    }
+    await streamJobs(`/api/cv/jobs/${mode}/stream`, title);
+}
+
+// Stream jobs from API (NDJSON) - each card is shown as soon as it arrives
+async function streamJobs(endpoint, title) {
+    let count = 0;
+
     try {
         loader.classList.remove('hidden');
         jobsResult.classList.add('hidden');
         hideError();
 
-        const response = await fetch(`${API_BASE}${endpoint}`);
+        const response = await fetch(`${API_BASE}${endpoint}`, { headers: userHeaders() });
 
         if (!response.ok) {
             const error = await response.json();
             throw new Error(error.message || 'Nie znaleziono danych CV');
         }
 
-        const jobs = await response.json();
+        const reader = response.body.getReader();
+        const decoder = new TextDecoder();
+        let buffer = '';
+
+        const showJob = (line) => {
+            if (!line.trim()) return;
+            if (count === 0) {
+                startJobsList(title);
+                loader.classList.add('hidden');
+                jobsResult.scrollIntoView({ behavior: 'smooth', block: 'start' });
+            }
+            appendJobCard(JSON.parse(line), count++);
+        };
+
+        while (true) {
+            const { done, value } = await reader.read();
+            if (done) break;
+
+            buffer += decoder.decode(value, { stream: true });
+            const lines = buffer.split('\n');
+            buffer = lines.pop();
+            lines.forEach(showJob);
+        }
+        showJob(buffer);
 
-        if (!jobs || jobs.length === 0) {
+        if (count === 0) {
             showError('Nie znaleziono ofert pracy. Spróbuj ponownie później.');
-            return;
         }
 
-        displayJobs(jobs, title);
-
-        // Smooth scroll to jobs
-        jobsResult.scrollIntoView({ behavior: 'smooth', block: 'start' });
-
     } catch (error) {
         console.error('Error:', error);
         showError(error.message || 'Wystąpił błąd podczas wyszukiwania ofert pracy');
@@ -235,33 +282,32 @@ async function fetchJobs(endpoint, title) {
 // Display Jobs
 // ============================================
 
-function displayJobs(jobs, title) {
+function startJobsList(title) {
     jobsTitle.textContent = title;
     jobsList.innerHTML = '';
+    jobsResult.classList.remove('hidden');
+}
 
-    jobs.forEach((job, index) => {
-        const jobCard = document.createElement('div');
-        jobCard.className = 'job-card';
-        jobCard.innerHTML = `
-            <h3>${index + 1}. ${escapeHtml(job.position)}</h3>
-            <p class="company">🏢 ${escapeHtml(job.company)}</p>
-            <div class="requirements">
-                <strong>📋 Wymagania:</strong>
-                <p>${escapeHtml(job.requirements)}</p>
-            </div>
-            <div class="match-reason">
-                <strong>✨ Dlaczego pasuje:</strong>
-                <p>${escapeHtml(job.matchReason)}</p>
-            </div>
-        `;
-
-        // Add animation delay
-        jobCard.style.animation = `fadeIn 0.5s ease ${index * 0.1}s both`;
-
-        jobsList.appendChild(jobCard);
-    });
+function appendJobCard(job, index) {
+    const jobCard = document.createElement('div');
+    jobCard.className = 'job-card';
+    jobCard.innerHTML = `
+        <h3>${index + 1}. ${escapeHtml(job.position)}</h3>
+        <p class="company">🏢 ${escapeHtml(job.company)}</p>
+        <div class="requirements">
+            <strong>📋 Wymagania:</strong>
+            <p>${escapeHtml(job.requirements)}</p>
+        </div>
+        <div class="match-reason">
+            <strong>✨ Dlaczego pasuje:</strong>
+            <p>${escapeHtml(job.matchReason)}</p>
+        </div>
+    `;
 
-    jobsResult.classList.remove('hidden');
+    // Add animation delay
+    jobCard.style.animation = `fadeIn 0.5s ease ${index * 0.1}s both`;
+
+    jobsList.appendChild(jobCard);
 }
 
 // ============================================
@@ -295,6 +341,14 @@ function escapeHtml(text) {
     return div.innerHTML;
 }
 
+// Shown for fields a fast-mode analysis (skill dictionary only) leaves empty
+const NO_DATA = 'brak danych';
+
+function formatYears(years) {
+    if (years === null || years === undefined) return NO_DATA;
+    return `${years} ${pluralize(years, 'rok', 'lata', 'lat')}`;
+}
+
 function pluralize(number, singular, few, many) {
     if (number === 1) return singular;
     if (number % 10 >= 2 && number % 10 <= 4 && (number % 100 < 10 || number % 100 >= 20)) {
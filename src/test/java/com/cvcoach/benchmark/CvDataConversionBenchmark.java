@@ -0,0 +1,46 @@
+package com.cvcoach.benchmark;
+
+import com.cvcoach.model.CvData;
+import com.cvcoach.model.CvDataEntity;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DTO/entity mapping done on every save and every latest-CV load
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CvDataConversionBenchmark {
+
+    private CvData cvData;
+    private CvDataEntity entity;
+
+    @Setup
+    public void setUp() {
+        cvData = CvData.builder()
+                .location("Warsaw, Poland")
+                .hardSkills("Java; Spring Boot; Hibernate; Kubernetes; Kafka; PostgreSQL; AWS")
+                .softSkills("Leadership; Communication; Mentoring; Problem solving")
+                .education("MSc Computer Science")
+                .totalExperienceYears(9)
+                .jobBranch("Software Development")
+                .branchExperienceYears(8)
+                .build();
+        entity = CvDataEntity.fromDto(cvData);
+    }
+
+    @Benchmark
+    public CvDataEntity fromDto() {
+        return CvDataEntity.fromDto(cvData);
+    }
+
+    @Benchmark
+    public CvData toDto() {
+        return entity.toDto();
+    }
+}
@@ -0,0 +1,32 @@
+package com.cvcoach.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Collection;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs all JMH benchmarks (classes named *Benchmark under com.cvcoach): mvn test -Pbenchmark -Dtest=JmhBenchmarkTest
+ * Select benchmarks with -Djmh.include=&lt;regex&gt;, e.g. -Djmh.include=TextNormalizer
+ */
+@Tag("benchmark")
+public class JmhBenchmarkTest {
+
+    @Test
+    public void testRunBenchmarks() throws Exception {
+        Options options = new OptionsBuilder()
+                .include(System.getProperty("jmh.include", "com\\.cvcoach\\..*Benchmark"))
+                .shouldFailOnError(true)
+                .build();
+
+        Collection<RunResult> results = new Runner(options).run();
+
+        assertFalse(results.isEmpty(), "no benchmarks matched");
+    }
+}
@@ -0,0 +1,50 @@
+package com.cvcoach.benchmark;
+
+import com.cvcoach.config.CvCoachProperties;
+import com.cvcoach.metrics.CvMetrics;
+import com.cvcoach.service.PdfParserService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Text extraction from the sample CV in cv/, from disk and from an in-memory upload
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PdfExtractionBenchmark {
+
+    private static final Path SAMPLE_CV = Path.of("cv", "John_Peterson_CV.pdf");
+
+    private PdfParserService pdfParserService;
+    private byte[] content;
+
+    @Setup
+    public void setUp() throws Exception {
+        pdfParserService = new PdfParserService(new CvCoachProperties(), new CvMetrics(new SimpleMeterRegistry()));
+        content = Files.readAllBytes(SAMPLE_CV);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pdfParserService.shutdown();
+    }
+
+    @Benchmark
+    public String extractFromFile() throws Exception {
+        return pdfParserService.extractText(SAMPLE_CV);
+    }
+
+    @Benchmark
+    public String extractFromStream() throws Exception {
+        return pdfParserService.extractText(new ByteArrayInputStream(content));
+    }
+}
@@ -0,0 +1,46 @@
+package com.cvcoach.benchmark;
+
+import com.cvcoach.service.TextNormalizer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single-pass normalizer vs the former four-step regex chain on a ~30k character CV text
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TextNormalizerBenchmark {
+
+    private String text;
+
+    @Setup
+    public void setUp() {
+        StringBuilder raw = new StringBuilder();
+        for (int i = 0; i < 300; i++) {
+            raw.append("Senior Java Developer  \t  Warsaw, Poland\r\n")
+                    .append("Spring Boot,   Kubernetes,\tKafka\r\n\r\n\r\n")
+                    .append("  Led a team of 6 engineers \n\n\n\n");
+        }
+        text = raw.toString();
+    }
+
+    @Benchmark
+    public String regexChain() {
+        return text
+                .replaceAll("\\r\\n", "\n")
+                .replaceAll("\\r", "\n")
+                .replaceAll("\\n{3,}", "\n\n")
+                .replaceAll("[ \\t]{2,}", " ")
+                .trim();
+    }
+
+    @Benchmark
+    public String singlePass() {
+        return TextNormalizer.normalize(text);
+    }
+}
@@ -0,0 +1,92 @@
+package com.cvcoach.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BoundedCacheTest {
+
+    @Test
+    public void testLeastRecentlyUsedEntryIsEvicted() {
+        BoundedCache<String, String> cache = new BoundedCache<>(2, Duration.ofMinutes(5), false);
+
+        cache.put("a", "1");
+        cache.put("b", "2");
+        cache.get("a");        // "b" becomes the least recently used
+        cache.put("c", "3");
+
+        assertTrue(cache.get("a").isPresent());
+        assertTrue(cache.get("b").isEmpty());
+        assertTrue(cache.get("c").isPresent());
+        assertEquals(1, cache.evictionCount());
+    }
+
+    @Test
+    public void testEntriesExpireAfterTtl() {
+        MutableClock clock = new MutableClock();
+        BoundedCache<String, String> cache = new BoundedCache<>(10, Duration.ofSeconds(30), false, clock);
+
+        cache.put("a", "1");
+        clock.advance(Duration.ofSeconds(29));
+        assertEquals("1", cache.get("a").orElseThrow());
+
+        clock.advance(Duration.ofSeconds(1));
+        assertTrue(cache.get("a").isEmpty());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testHitAndMissCounters() {
+        BoundedCache<String, String> cache = new BoundedCache<>(10, Duration.ofMinutes(5), true);
+
+        cache.get("a");
+        cache.put("a", "1");
+        cache.get("a");
+        cache.get("a");
+
+        assertEquals(2, cache.hitCount());
+        assertEquals(1, cache.missCount());
+    }
+
+    @Test
+    public void testInvalidateAll() {
+        BoundedCache<String, String> cache = new BoundedCache<>(10, Duration.ofMinutes(5), false);
+
+        cache.put("a", "1");
+        cache.put("b", "2");
+        cache.invalidateAll();
+
+        assertEquals(0, cache.size());
+        assertTrue(cache.get("a").isEmpty());
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
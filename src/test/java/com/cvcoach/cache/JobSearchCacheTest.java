@@ -0,0 +1,47 @@
+package com.cvcoach.cache;
+
+import com.cvcoach.config.CvCoachProperties;
+import com.cvcoach.model.CvData;
+import com.cvcoach.model.CvDataSavedEvent;
+import com.cvcoach.model.JobPosition;
+import com.cvcoach.model.JobSearchMode;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JobSearchCacheTest {
+
+    private final JobSearchCache cache = new JobSearchCache(new CvCoachProperties());
+
+    @Test
+    public void testSavedCvClearsOnlyItsOwnProfile() {
+        CvData saved = cvData("Warsaw, Poland", "Java; Spring Boot");
+        CvData other = cvData("Berlin, Germany", "Python");
+        List<JobPosition> jobs = List.of(JobPosition.builder().position("Java Developer").build());
+        cache.put(saved, JobSearchMode.MATCHING, jobs);
+        cache.put(saved, JobSearchMode.ALTERNATIVE, jobs);
+        cache.put(other, JobSearchMode.MATCHING, jobs);
+
+        cache.onCvDataSaved(new CvDataSavedEvent(1L, "user-1", cvData("warsaw, poland ", "Java; Spring Boot")));
+
+        assertTrue(cache.get(saved, JobSearchMode.MATCHING).isEmpty());
+        assertTrue(cache.get(saved, JobSearchMode.ALTERNATIVE).isEmpty());
+        assertEquals(jobs, cache.get(other, JobSearchMode.MATCHING).orElseThrow());
+        // Still served while OpenAI is unavailable
+        assertEquals(jobs, cache.getFallback(saved, JobSearchMode.MATCHING).orElseThrow());
+    }
+
+    private static CvData cvData(String location, String hardSkills) {
+        return CvData.builder()
+                .location(location)
+                .hardSkills(hardSkills)
+                .softSkills("Communication")
+                .education("MSc")
+                .totalExperienceYears(5)
+                .jobBranch("IT")
+                .branchExperienceYears(4)
+                .build();
+    }
+}
@@ -0,0 +1,73 @@
+package com.cvcoach.catalog;
+
+import com.cvcoach.model.CvData;
+import com.cvcoach.model.JobPosting;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ranking a CV profile against 20k postings: full hybrid search, and the vector part
+ * with the IVF index against an exact scan of every vector
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JobCatalogBenchmark {
+
+    private static final int POSTINGS = 20_000;
+
+    private JobCatalog catalog;
+    private VectorIndex vectorIndex;
+    private CvData cvData;
+    private float[] query;
+
+    @Setup
+    public void setUp() {
+        EmbeddingProvider embedding = new HashingEmbeddingProvider(256);
+        List<String> texts = JobCatalogTest.syntheticPostings(POSTINGS, new Random(42));
+
+        List<JobPosting> postings = new ArrayList<>(POSTINGS);
+        float[][] vectors = new float[POSTINGS][];
+        for (int i = 0; i < POSTINGS; i++) {
+            String[] parts = texts.get(i).split("\n", 2);
+            postings.add(JobPosting.builder()
+                    .id(String.valueOf(i))
+                    .position(parts[0])
+                    .requirements(parts[1])
+                    .location(i % 3 == 0 ? "Remote" : "Warsaw, Poland")
+                    .build());
+            vectors[i] = embedding.embed(texts.get(i));
+        }
+        catalog = JobCatalog.build(postings, embedding, 8);
+        vectorIndex = new VectorIndex(vectors, embedding.dimensions(), 8);
+
+        cvData = CvData.builder()
+                .location("Warsaw, Poland")
+                .hardSkills("Java; Spring Boot; Kafka; Kubernetes; PostgreSQL")
+                .jobBranch("Software Development")
+                .build();
+        query = embedding.embed(cvData.getHardSkills() + "\n" + cvData.getJobBranch());
+    }
+
+    @Benchmark
+    public List<JobCatalog.Match> hybridSearch() {
+        return catalog.search(cvData, 3, 50);
+    }
+
+    @Benchmark
+    public List<Hit> vectorIvf() {
+        return vectorIndex.search(query, 50);
+    }
+
+    @Benchmark
+    public List<Hit> vectorExact() {
+        return vectorIndex.exactSearch(query, 50);
+    }
+}
@@ -0,0 +1,129 @@
+package com.cvcoach.catalog;
+
+import com.cvcoach.model.CvData;
+import com.cvcoach.model.JobPosting;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JobCatalogTest {
+
+    private static final EmbeddingProvider EMBEDDING = new HashingEmbeddingProvider(256);
+
+    @Test
+    public void testSampleCatalogRanksPostingsBySkills() throws Exception {
+        List<JobPosting> postings = new JobCatalogLoader(new ObjectMapper())
+                .load(List.of("classpath*:catalog/*.csv"));
+        JobCatalog catalog = JobCatalog.build(postings, EMBEDDING, 8);
+
+        List<JobCatalog.Match> java = catalog.search(profile("Java; Spring Boot; Hibernate; Kafka", "Warsaw"), 3, 50);
+        assertEquals(3, java.size());
+        java.forEach(match -> assertTrue(match.posting().getRequirements().contains("Java"), match.toString()));
+        JobCatalog.Match senior = java.stream()
+                .filter(match -> match.posting().getPosition().equals("Senior Java Developer"))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(List.of("Java", "Spring Boot", "Kafka"), senior.matchedSkills());
+
+        List<JobCatalog.Match> data = catalog.search(profile("Python, pandas, SQL, scikit-learn", "Kraków"), 3, 50);
+        assertEquals("Data Scientist", data.get(0).posting().getPosition());
+    }
+
+    @Test
+    public void testUnrelatedProfileHasNoMatches() {
+        JobCatalog catalog = JobCatalog.build(List.of(
+                posting("1", "Senior Java Developer", "Java, Spring Boot, Kafka", "Warsaw"),
+                posting("2", "UX Designer", "Figma, user research", "Remote")), EMBEDDING, 8);
+
+        assertTrue(catalog.search(profile("Underwater basket weaving", "Gdynia"), 3, 50).isEmpty());
+        assertTrue(catalog.search(profile(null, null), 3, 50).isEmpty());
+    }
+
+    @Test
+    public void testLocationBreaksTies() {
+        JobCatalog catalog = JobCatalog.build(List.of(
+                posting("berlin", "Java Developer", "Java, Spring Boot", "Berlin, Germany"),
+                posting("warsaw", "Java Developer", "Java, Spring Boot", "Warsaw, Poland")), EMBEDDING, 8);
+
+        List<JobCatalog.Match> matches = catalog.search(profile("Java, Spring Boot", "Warsaw"), 2, 50);
+
+        assertEquals("warsaw", matches.get(0).posting().getId());
+        assertTrue(matches.get(0).score() > matches.get(1).score());
+    }
+
+    @Test
+    public void testVectorIndexRecallAgainstExactSearch() {
+        List<String> texts = syntheticPostings(2000, new Random(42));
+        float[][] vectors = new float[texts.size()][];
+        for (int i = 0; i < texts.size(); i++) {
+            vectors[i] = EMBEDDING.embed(texts.get(i));
+        }
+        VectorIndex index = new VectorIndex(vectors, EMBEDDING.dimensions(), 8);
+        assertTrue(index.listCount() > 8, "index should be clustered");
+
+        Random random = new Random(7);
+        double recall = 0;
+        int queries = 100;
+        for (int q = 0; q < queries; q++) {
+            float[] query = EMBEDDING.embed(syntheticPostings(1, random).get(0));
+            Set<Integer> exact = new HashSet<>();
+            index.exactSearch(query, 10).forEach(hit -> exact.add(hit.doc()));
+            long found = index.search(query, 10).stream().filter(hit -> exact.contains(hit.doc())).count();
+            recall += (double) found / exact.size();
+        }
+
+        assertTrue(recall / queries >= 0.9, "recall@10 was " + recall / queries);
+    }
+
+    @Test
+    public void testKeywordIndexPrefersRareTerms() {
+        KeywordIndex index = new KeywordIndex(List.of(
+                List.of("java", "spring"),
+                List.of("java", "kafka"),
+                List.of("java", "sql")));
+
+        List<Hit> hits = index.search(List.of("java", "kafka"), 3);
+
+        assertEquals(3, hits.size());
+        assertEquals(1, hits.get(0).doc());
+    }
+
+    /**
+     * Postings built from a title and five skills out of an overlapping window of a skill list,
+     * so that postings form loose clusters like real listings do
+     */
+    static List<String> syntheticPostings(int count, Random random) {
+        String[] skills = {"java", "spring boot", "kafka", "python", "django", "react", "typescript", "kubernetes",
+                "aws", "terraform", "go", "rust", "c++", "sql", "postgresql", "figma", "scrum", "excel", "sap",
+                "swift", "kotlin", "android", "docker", "linux", "pandas", "pytorch", "spark", "airflow", "azure",
+                "c#", ".net", "php", "ruby", "scala", "jenkins", "ansible", "selenium", "jira", "oracle", "redis"};
+        String[] roles = {"Backend Developer", "Data Engineer", "Frontend Developer", "DevOps Engineer",
+                "Mobile Developer", "QA Engineer", "Designer", "Analyst"};
+
+        List<String> postings = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            StringBuilder text = new StringBuilder(roles[random.nextInt(roles.length)]).append('\n');
+            int base = random.nextInt(skills.length);
+            for (int skill = 0; skill < 5; skill++) {
+                text.append(skills[(base + random.nextInt(8)) % skills.length]).append(", ");
+            }
+            postings.add(text.toString());
+        }
+        return postings;
+    }
+
+    private static CvData profile(String hardSkills, String location) {
+        return CvData.builder().hardSkills(hardSkills).location(location).build();
+    }
+
+    private static JobPosting posting(String id, String position, String requirements, String location) {
+        return JobPosting.builder().id(id).position(position).requirements(requirements).location(location).build();
+    }
+}
@@ -0,0 +1,227 @@
+package com.cvcoach.loadtest;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * End-to-end load test of the upload and job endpoints against {@link MockOpenAiServer}.
+ * Each virtual user uploads the sample CV and then runs the job searches for it.
+ *
+ * Tune with system properties, e.g.
+ * mvn test -Pbenchmark -Dtest=CvCoachLoadTest -Dloadtest.users=50 -Dloadtest.latency-ms=1500 -Dloadtest.rate-limit-rate=0.02
+ * Compare tail latency with and without hedged requests via -Dloadtest.hedging=false.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:loadtest;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.flyway.enabled=false",
+        "spring.ai.openai.api-key=mock-key",
+        "spring.servlet.multipart.max-file-size=5MB",
+        "spring.servlet.multipart.max-request-size=5MB"
+})
+public class CvCoachLoadTest {
+
+    private static final Path SAMPLE_CV = Path.of("cv", "John_Peterson_CV.pdf");
+
+    private static final int USERS = Integer.getInteger("loadtest.users", 20);
+    private static final int ITERATIONS = Integer.getInteger("loadtest.iterations", 5);
+
+    private static MockOpenAiServer mockOpenAi;
+
+    @LocalServerPort
+    private int port;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private final LatencyRecorder recorder = new LatencyRecorder();
+
+    @DynamicPropertySource
+    static void mockOpenAiProperties(DynamicPropertyRegistry registry) throws IOException {
+        MockOpenAiServer.Behavior behavior = new MockOpenAiServer.Behavior(
+                Long.getLong("loadtest.latency-ms", 800),
+                Double.parseDouble(System.getProperty("loadtest.latency-sigma", "0.5")),
+                Double.parseDouble(System.getProperty("loadtest.unauthorized-rate", "0")),
+                Double.parseDouble(System.getProperty("loadtest.rate-limit-rate", "0")),
+                Double.parseDouble(System.getProperty("loadtest.timeout-rate", "0")),
+                120_000,
+                5);
+        mockOpenAi = new MockOpenAiServer(0, behavior);
+        registry.add("spring.ai.openai.base-url", mockOpenAi::getBaseUrl);
+        registry.add("cvcoach.ai.resilience.hedging", () -> System.getProperty("loadtest.hedging", "true"));
+    }
+
+    @AfterAll
+    static void stopMockOpenAi() {
+        mockOpenAi.close();
+    }
+
+    @Test
+    public void testUploadAndJobSearchUnderLoad() throws Exception {
+        byte[] pdf = Files.readAllBytes(SAMPLE_CV);
+        ExecutorService users = Executors.newVirtualThreadPerTaskExecutor();
+
+        long start = System.nanoTime();
+        List<Future<?>> sessions = new ArrayList<>();
+        for (int user = 0; user < USERS; user++) {
+            sessions.add(users.submit(() -> runSession(pdf)));
+        }
+        for (Future<?> session : sessions) {
+            session.get();
+        }
+        long elapsed = System.nanoTime() - start;
+        users.shutdown();
+
+        System.out.printf("%d users x %d iterations in %.1f s, mock OpenAI: %d requests %s over %d connections%n%s",
+                USERS, ITERATIONS, elapsed / 1e9, mockOpenAi.getRequestCount(), mockOpenAi.getResponseCounts(),
+                mockOpenAi.getConnectionCount(), recorder.report(elapsed));
+
+        assertTrue(recorder.successCount("1 upload") > 0, "no upload succeeded");
+        if (mockOpenAi.getResponseCounts().keySet().stream().allMatch(status -> status == 200)) {
+            assertEquals(0, recorder.failureCount("1 upload"));
+        }
+    }
+
+    private Void runSession(byte[] pdf) {
+        // Issued by the server on the first upload
+        String userId = null;
+
+        for (int i = 0; i < ITERATIONS; i++) {
+            String assigned = timedUpload(userId, pdf);
+            if (assigned == null) {
+                continue;
+            }
+            userId = assigned;
+            timed("2 jobs matching", get("/api/cv/jobs/matching", userId));
+            timed("3 jobs alternative", get("/api/cv/jobs/alternative", userId));
+            streamJobs("/api/cv/jobs/matching/stream", userId);
+        }
+        return null;
+    }
+
+    /**
+     * Upload the CV and record its latency
+     *
+     * @return Owner ID from the X-User-Id response header, or null if the upload failed
+     */
+    private String timedUpload(String userId, byte[] pdf) {
+        long start = System.nanoTime();
+        try {
+            HttpResponse<Void> response = httpClient.send(upload(userId, pdf), HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() / 100 == 2) {
+                recorder.record("1 upload", System.nanoTime() - start);
+                return response.headers().firstValue("X-User-Id").orElse(userId);
+            }
+        } catch (IOException e) {
+            // Counted as a failure below
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        recorder.fail("1 upload");
+        return null;
+    }
+
+    /**
+     * Send a request and record its latency under the stage name
+     *
+     * @return true if the response was 2xx
+     */
+    private boolean timed(String stage, HttpRequest request) {
+        long start = System.nanoTime();
+        try {
+            HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() / 100 == 2) {
+                recorder.record(stage, System.nanoTime() - start);
+                return true;
+            }
+        } catch (IOException e) {
+            // Counted as a failure below
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        recorder.fail(stage);
+        return false;
+    }
+
+    /**
+     * Read an NDJSON job stream, recording the time to the first position and to the end of the stream
+     */
+    private void streamJobs(String path, String userId) {
+        long start = System.nanoTime();
+        try {
+            HttpResponse<Stream<String>> response = httpClient.send(get(path, userId), HttpResponse.BodyHandlers.ofLines());
+            if (response.statusCode() != 200) {
+                recorder.fail("4 jobs stream first");
+                return;
+            }
+            try (Stream<String> lines = response.body()) {
+                Iterator<String> iterator = lines.iterator();
+                if (iterator.hasNext()) {
+                    iterator.next();
+                    recorder.record("4 jobs stream first", System.nanoTime() - start);
+                }
+                iterator.forEachRemaining(line -> { });
+            }
+            recorder.record("5 jobs stream total", System.nanoTime() - start);
+        } catch (IOException e) {
+            recorder.fail("5 jobs stream total");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private HttpRequest get(String path, String userId) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .timeout(Duration.ofMinutes(2))
+                .header("X-User-Id", userId)
+                .GET()
+                .build();
+    }
+
+    private HttpRequest upload(String userId, byte[] pdf) {
+        String boundary = "cvcoach-" + UUID.randomUUID();
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        body.writeBytes(("--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"cv.pdf\"\r\n"
+                + "Content-Type: application/pdf\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        body.writeBytes(pdf);
+        body.writeBytes(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/cv/upload?bypassCache=true"))
+                .timeout(Duration.ofMinutes(2))
+                .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body.toByteArray()));
+        if (userId != null) {
+            request.header("X-User-Id", userId);
+        }
+        return request.build();
+    }
+}
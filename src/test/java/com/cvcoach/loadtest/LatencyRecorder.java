@@ -0,0 +1,77 @@
+package com.cvcoach.loadtest;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Thread-safe collector of per-stage latencies and failures for load tests
+ */
+public class LatencyRecorder {
+
+    private final Map<String, Queue<Long>> latencies = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> failures = new ConcurrentHashMap<>();
+
+    public void record(String stage, long nanos) {
+        latencies.computeIfAbsent(stage, key -> new ConcurrentLinkedQueue<>()).add(nanos);
+    }
+
+    public void fail(String stage) {
+        failures.computeIfAbsent(stage, key -> new AtomicLong()).incrementAndGet();
+    }
+
+    public long successCount(String stage) {
+        return latencies.getOrDefault(stage, new ConcurrentLinkedQueue<>()).size();
+    }
+
+    public long failureCount(String stage) {
+        return failures.getOrDefault(stage, new AtomicLong()).get();
+    }
+
+    /**
+     * @return Latency percentile of a stage in milliseconds, 0 if nothing was recorded
+     */
+    public double percentileMillis(String stage, int percentile) {
+        long[] sorted = latencies.getOrDefault(stage, new ConcurrentLinkedQueue<>()).stream()
+                .mapToLong(Long::longValue)
+                .sorted()
+                .toArray();
+        return percentile(sorted, percentile);
+    }
+
+    /**
+     * Format throughput and latency percentiles of every stage
+     *
+     * @param elapsedNanos Wall-clock duration of the run
+     */
+    public String report(long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        StringBuilder report = new StringBuilder(String.format("%-22s %8s %8s %10s %10s %10s %10s%n",
+                "stage", "ok", "failed", "req/s", "p50 ms", "p95 ms", "p99 ms"));
+
+        TreeSet<String> stages = new TreeSet<>(latencies.keySet());
+        stages.addAll(failures.keySet());
+
+        stages.forEach(stage -> {
+            long[] sorted = latencies.getOrDefault(stage, new ConcurrentLinkedQueue<>()).stream()
+                    .mapToLong(Long::longValue)
+                    .sorted()
+                    .toArray();
+            report.append(String.format("%-22s %8d %8d %10.1f %10.1f %10.1f %10.1f%n",
+                    stage, sorted.length, failureCount(stage), sorted.length / seconds,
+                    percentile(sorted, 50), percentile(sorted, 95), percentile(sorted, 99)));
+        });
+        return report.toString();
+    }
+
+    private static double percentile(long[] sorted, int percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+}
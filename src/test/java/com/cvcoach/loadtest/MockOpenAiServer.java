@@ -0,0 +1,353 @@
+package com.cvcoach.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local stand-in for the OpenAI chat completions API (POST /v1/chat/completions),
+ * for load tests that must not spend API quota. Point the application at it with
+ * spring.ai.openai.base-url=http://localhost:&lt;port&gt; and any API key.
+ *
+ * Answers CV analysis prompts with CvData JSON, job search prompts with a
+ * JobPosition array (wrapped in {"jobs": ...} when a json_schema response format is requested)
+ * and catalog match reason prompts with one reason per listed posting,
+ * as a single response or as SSE chunks when "stream" is set.
+ * Latency is sampled from a log-normal distribution, and a share of requests can
+ * fail with 401, 429 or hang past the client timeout. {@link #limitRequests} adds a hard
+ * per-second request limit with x-ratelimit headers, like the real API.
+ *
+ * Standalone: run main with optional arguments
+ * port, median latency ms, sigma, 401 rate, 429 rate, timeout rate (e.g. "8089 800 0.5 0 0.02 0").
+ */
+@Slf4j
+public class MockOpenAiServer implements AutoCloseable {
+
+    private static final String COMPLETIONS_PATH = "/v1/chat/completions";
+    private static final int CHUNK_SIZE = 16;
+
+    private static final String CANNED_JOBS = """
+            [
+              {"position": "Senior Java Developer", "company": "Allegro", "requirements": "Java 17, Spring Boot, Kafka", "matchReason": "Strong Spring Boot and Kafka background"},
+              {"position": "Backend Tech Lead", "company": "Revolut", "requirements": "JVM, distributed systems, leadership", "matchReason": "Led teams building microservices"},
+              {"position": "Platform Engineer", "company": "ING Tech Poland", "requirements": "Kubernetes, AWS, Java", "matchReason": "Kubernetes and AWS experience"}
+            ]
+            """;
+
+    private final Behavior behavior;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpServer server;
+
+    private final AtomicLong requests = new AtomicLong();
+    private final Map<Integer, AtomicLong> responses = new ConcurrentHashMap<>();
+    private final Set<SocketAddress> connections = ConcurrentHashMap.newKeySet();
+
+    private volatile int requestsPerSecond;
+    private long windowSecond;
+    private int windowRequests;
+
+    /**
+     * Simulated API behavior
+     *
+     * @param medianLatencyMillis Median time until the response (or first chunk) is sent
+     * @param latencySigma Log-normal shape; 0 gives a fixed latency, 0.5 a p99 of about 3x the median
+     * @param unauthorizedRate Share of requests answered with 401
+     * @param rateLimitRate Share of requests answered with 429
+     * @param timeoutRate Share of requests that hang for timeoutMillis before answering
+     * @param timeoutMillis How long a "timed out" request hangs
+     * @param chunkDelayMillis Delay between streamed chunks
+     */
+    public record Behavior(long medianLatencyMillis,
+                           double latencySigma,
+                           double unauthorizedRate,
+                           double rateLimitRate,
+                           double timeoutRate,
+                           long timeoutMillis,
+                           long chunkDelayMillis) {
+
+        public static Behavior realistic() {
+            return new Behavior(800, 0.5, 0, 0, 0, 120_000, 5);
+        }
+
+        public Behavior withErrors(double unauthorizedRate, double rateLimitRate, double timeoutRate) {
+            return new Behavior(medianLatencyMillis, latencySigma, unauthorizedRate, rateLimitRate,
+                    timeoutRate, timeoutMillis, chunkDelayMillis);
+        }
+    }
+
+    public MockOpenAiServer(int port, Behavior behavior) throws IOException {
+        this.behavior = behavior;
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 1024);
+        this.server.createContext(COMPLETIONS_PATH, this::handle);
+        this.server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        this.server.start();
+        log.info("Mock OpenAI server listening on {}", getBaseUrl());
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8089;
+        Behavior defaults = Behavior.realistic();
+        Behavior behavior = new Behavior(
+                args.length > 1 ? Long.parseLong(args[1]) : defaults.medianLatencyMillis(),
+                args.length > 2 ? Double.parseDouble(args[2]) : defaults.latencySigma(),
+                args.length > 3 ? Double.parseDouble(args[3]) : 0,
+                args.length > 4 ? Double.parseDouble(args[4]) : 0,
+                args.length > 5 ? Double.parseDouble(args[5]) : 0,
+                defaults.timeoutMillis(),
+                defaults.chunkDelayMillis());
+        new MockOpenAiServer(port, behavior);
+    }
+
+    public String getBaseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public long getRequestCount() {
+        return requests.get();
+    }
+
+    /**
+     * @return Number of responses sent per HTTP status
+     */
+    public Map<Integer, Long> getResponseCounts() {
+        Map<Integer, Long> counts = new ConcurrentHashMap<>();
+        responses.forEach((status, count) -> counts.put(status, count.get()));
+        return counts;
+    }
+
+    /**
+     * @return Number of distinct client connections (remote address and port) seen so far
+     */
+    public int getConnectionCount() {
+        return connections.size();
+    }
+
+    /**
+     * Answer requests beyond the given number per wall-clock second with 429.
+     * The API enforces its per-minute limits over such short windows as well.
+     *
+     * @param requestsPerSecond Limit, or 0 for none
+     */
+    public void limitRequests(int requestsPerSecond) {
+        this.requestsPerSecond = requestsPerSecond;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            requests.incrementAndGet();
+            connections.add(exchange.getRemoteAddress());
+
+            JsonNode request = objectMapper.readTree(exchange.getRequestBody());
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            double roll = random.nextDouble();
+
+            int limit = requestsPerSecond;
+            if (limit > 0) {
+                long now = System.currentTimeMillis();
+                int remaining = limit - takeWindowSlot(now / 1000);
+                String reset = (1000 - now % 1000) + "ms";
+                exchange.getResponseHeaders().add("x-ratelimit-limit-requests", String.valueOf(limit * 60));
+                exchange.getResponseHeaders().add("x-ratelimit-remaining-requests", String.valueOf(Math.max(0, remaining)));
+                exchange.getResponseHeaders().add("x-ratelimit-reset-requests", reset);
+                if (remaining < 0) {
+                    exchange.getResponseHeaders().add("retry-after-ms", String.valueOf(1000 - now % 1000));
+                    sendError(exchange, 429, "rate_limit_exceeded", "Rate limit reached for requests");
+                    return;
+                }
+            }
+
+            if (roll < behavior.unauthorizedRate()) {
+                sendError(exchange, 401, "invalid_api_key", "Incorrect API key provided");
+                return;
+            }
+            roll -= behavior.unauthorizedRate();
+            if (roll < behavior.rateLimitRate()) {
+                exchange.getResponseHeaders().add("retry-after", "1");
+                exchange.getResponseHeaders().add("x-ratelimit-remaining-requests", "0");
+                exchange.getResponseHeaders().add("x-ratelimit-reset-requests", "1s");
+                sendError(exchange, 429, "rate_limit_exceeded", "Rate limit reached for requests");
+                return;
+            }
+            roll -= behavior.rateLimitRate();
+            sleep(roll < behavior.timeoutRate() ? behavior.timeoutMillis() : sampleLatency(random));
+
+            String prompt = request.path("messages").toString();
+            String content = prompt.contains("CV Content:") ? cannedAnalysis()
+                    : prompt.contains("Job postings:") ? cannedMatchReasons(prompt)
+                    : CANNED_JOBS;
+            if ("json_schema".equals(request.path("response_format").path("type").asText())
+                    && content.equals(CANNED_JOBS)) {
+                // Structured output needs an object root, the schema wraps the array
+                content = "{\"jobs\": " + content + "}";
+            }
+            int promptTokens = prompt.length() / 4;
+            int completionTokens = content.length() / 4;
+
+            if (request.path("stream").asBoolean(false)) {
+                stream(exchange, content, promptTokens, completionTokens);
+            } else {
+                send(exchange, content, promptTokens, completionTokens);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void send(HttpExchange exchange, String content, int promptTokens, int completionTokens) throws IOException {
+        ObjectNode body = completion("chat.completion");
+        ObjectNode choice = body.putArray("choices").addObject();
+        choice.put("index", 0);
+        choice.putObject("message").put("role", "assistant").put("content", content);
+        choice.put("finish_reason", "stop");
+        body.set("usage", usage(promptTokens, completionTokens));
+
+        byte[] bytes = objectMapper.writeValueAsBytes(body);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        exchange.getResponseBody().write(bytes);
+        count(200);
+    }
+
+    private void stream(HttpExchange exchange, String content, int promptTokens, int completionTokens)
+            throws IOException, InterruptedException {
+        exchange.getResponseHeaders().add("Content-Type", "text/event-stream");
+        exchange.sendResponseHeaders(200, 0);
+        OutputStream out = exchange.getResponseBody();
+
+        for (int start = 0; start < content.length(); start += CHUNK_SIZE) {
+            String piece = content.substring(start, Math.min(content.length(), start + CHUNK_SIZE));
+            writeEvent(out, chunk(piece, null));
+            sleep(behavior.chunkDelayMillis());
+        }
+
+        ObjectNode last = chunk(null, "stop");
+        last.set("usage", usage(promptTokens, completionTokens));
+        writeEvent(out, last);
+        out.write("data: [DONE]\n\n".getBytes(StandardCharsets.UTF_8));
+        out.flush();
+        count(200);
+    }
+
+    private ObjectNode chunk(String content, String finishReason) {
+        ObjectNode chunk = completion("chat.completion.chunk");
+        ObjectNode choice = chunk.putArray("choices").addObject();
+        choice.put("index", 0);
+        ObjectNode delta = choice.putObject("delta");
+        if (content != null) {
+            delta.put("content", content);
+        }
+        choice.put("finish_reason", finishReason);
+        return chunk;
+    }
+
+    private void writeEvent(OutputStream out, ObjectNode event) throws IOException {
+        out.write(("data: " + objectMapper.writeValueAsString(event) + "\n\n").getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+    private ObjectNode completion(String object) {
+        ObjectNode body = objectMapper.createObjectNode();
+        body.put("id", "chatcmpl-mock-" + requests.get());
+        body.put("object", object);
+        body.put("created", System.currentTimeMillis() / 1000);
+        body.put("model", "gpt-4o-mini");
+        return body;
+    }
+
+    private ObjectNode usage(int promptTokens, int completionTokens) {
+        ObjectNode usage = objectMapper.createObjectNode();
+        usage.put("prompt_tokens", promptTokens);
+        usage.put("completion_tokens", completionTokens);
+        usage.put("total_tokens", promptTokens + completionTokens);
+        return usage;
+    }
+
+    private void sendError(HttpExchange exchange, int status, String code, String message) throws IOException {
+        ObjectNode body = objectMapper.createObjectNode();
+        body.putObject("error")
+                .put("message", message)
+                .put("type", "invalid_request_error")
+                .put("code", code);
+
+        byte[] bytes = objectMapper.writeValueAsBytes(body);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+        count(status);
+    }
+
+    private long sampleLatency(ThreadLocalRandom random) {
+        return Math.round(behavior.medianLatencyMillis() * Math.exp(behavior.latencySigma() * random.nextGaussian()));
+    }
+
+    /**
+     * @return Requests seen in the given second, including this one
+     */
+    private synchronized int takeWindowSlot(long second) {
+        if (second != windowSecond) {
+            windowSecond = second;
+            windowRequests = 0;
+        }
+        return ++windowRequests;
+    }
+
+    private void count(int status) {
+        responses.computeIfAbsent(status, key -> new AtomicLong()).incrementAndGet();
+    }
+
+    private static void sleep(long millis) throws InterruptedException {
+        if (millis > 0) {
+            Thread.sleep(millis);
+        }
+    }
+
+    /**
+     * One reason per posting of a match reason prompt
+     */
+    private String cannedMatchReasons(String prompt) {
+        ObjectNode root = objectMapper.createObjectNode();
+        ArrayNode reasons = root.putArray("reasons");
+        String marker = " - requirements: ";
+        for (int at = prompt.indexOf(marker); at >= 0; at = prompt.indexOf(marker, at + 1)) {
+            reasons.add("Your Java and Spring Boot experience fits posting " + (reasons.size() + 1));
+        }
+        return root.toString();
+    }
+
+    /**
+     * Analysis with a unique skill per request, so job searches for different uploads
+     * do not share a job search cache entry
+     */
+    private String cannedAnalysis() {
+        return """
+                {"location": "Warsaw, Poland",
+                 "hardSkills": "Java; Spring Boot; Hibernate; Kubernetes; Kafka; Skill-%d",
+                 "softSkills": "Leadership; Communication; Mentoring",
+                 "education": "MSc Computer Science",
+                 "totalExperienceYears": 9,
+                 "jobBranch": "Software Development",
+                 "branchExperienceYears": 8}
+                """.formatted(requests.get());
+    }
+}
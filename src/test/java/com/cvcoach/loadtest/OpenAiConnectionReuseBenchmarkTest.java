@@ -0,0 +1,98 @@
+package com.cvcoach.loadtest;
+
+import com.cvcoach.config.AiConfiguration;
+import com.cvcoach.config.CvCoachProperties;
+import com.cvcoach.config.OpenAiRequestFactory;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.openai.OpenAiChatModel;
+import org.springframework.ai.openai.api.OpenAiApi;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Connections opened and per-request latency for concurrent OpenAI calls against
+ * {@link MockOpenAiServer}: a ChatClient built per call on the default RestClient
+ * transport (HttpURLConnection keeps at most 5 idle connections per host) vs. the
+ * shared ChatClient on the pooled HTTP client from {@link AiConfiguration}.
+ * Over TLS every new connection is a handshake.
+ */
+@Tag("benchmark")
+public class OpenAiConnectionReuseBenchmarkTest {
+
+    private static final int CALLS = 400;
+    private static final int CONCURRENCY = 32;
+    private static final long LATENCY_MILLIS = 20;
+
+    @Test
+    public void testSharedClientReusesConnections() throws Exception {
+        CvCoachProperties properties = new CvCoachProperties();
+        OpenAiRequestFactory pooled = new OpenAiRequestFactory(
+                new AiConfiguration().openAiHttpClient(properties), properties.getAi().getReadTimeout());
+
+        Result perCall = run(new SimpleClientHttpRequestFactory(), false);
+        Result shared = run(pooled, true);
+
+        System.out.printf("Client built per call, default transport: %d connections%n%s",
+                perCall.connections(), perCall.report());
+        System.out.printf("Shared client, pooled HTTP client: %d connections%n%s",
+                shared.connections(), shared.report());
+
+        assertTrue(shared.connections() <= CONCURRENCY, "pooled client opened " + shared.connections() + " connections");
+        assertTrue(shared.connections() < perCall.connections());
+    }
+
+    private static Result run(ClientHttpRequestFactory requestFactory, boolean shareClient) throws Exception {
+        MockOpenAiServer.Behavior behavior = new MockOpenAiServer.Behavior(LATENCY_MILLIS, 0, 0, 0, 0, 0, 0);
+
+        try (MockOpenAiServer server = new MockOpenAiServer(0, behavior)) {
+            OpenAiApi openAiApi = new OpenAiApi(server.getBaseUrl(), "mock-key",
+                    RestClient.builder().requestFactory(requestFactory), WebClient.builder());
+            ChatClient.Builder chatClientBuilder = ChatClient.builder(new OpenAiChatModel(openAiApi));
+            ChatClient sharedClient = chatClientBuilder.build();
+            Supplier<ChatClient> client = shareClient ? () -> sharedClient : chatClientBuilder::build;
+
+            LatencyRecorder recorder = new LatencyRecorder();
+            Semaphore inFlight = new Semaphore(CONCURRENCY);
+            ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+            List<Future<?>> calls = new ArrayList<>();
+
+            long start = System.nanoTime();
+            for (int i = 0; i < CALLS; i++) {
+                inFlight.acquire();
+                calls.add(executor.submit(() -> {
+                    try {
+                        long callStart = System.nanoTime();
+                        client.get().prompt().user("Suggest jobs for a Java developer").call().content();
+                        recorder.record("call", System.nanoTime() - callStart);
+                    } finally {
+                        inFlight.release();
+                    }
+                }));
+            }
+            for (Future<?> call : calls) {
+                call.get();
+            }
+            long elapsed = System.nanoTime() - start;
+            executor.shutdown();
+
+            assertEquals(CALLS, recorder.successCount("call"));
+            return new Result(server.getConnectionCount(), recorder.report(elapsed));
+        }
+    }
+
+    private record Result(int connections, String report) {}
+}
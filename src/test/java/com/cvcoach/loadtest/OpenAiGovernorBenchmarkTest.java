@@ -0,0 +1,112 @@
+package com.cvcoach.loadtest;
+
+import com.cvcoach.config.CvCoachProperties;
+import com.cvcoach.config.OpenAiErrorHandler;
+import com.cvcoach.metrics.CvMetrics;
+import com.cvcoach.service.OpenAiGovernor;
+import com.cvcoach.service.TokenCounter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.openai.OpenAiChatModel;
+import org.springframework.ai.openai.api.OpenAiApi;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Burst of concurrent OpenAI calls against {@link MockOpenAiServer} with a hard
+ * per-second request limit, sent directly vs. through {@link OpenAiGovernor}.
+ * Direct calls mostly fail with 429; governed calls should all succeed at close
+ * to the provider limit.
+ */
+@Tag("benchmark")
+public class OpenAiGovernorBenchmarkTest {
+
+    private static final int CALLS = 300;
+    private static final int CONCURRENCY = 64;
+    private static final int PROVIDER_REQUESTS_PER_SECOND = 20;
+    private static final Prompt PROMPT = new Prompt("Suggest jobs for a Java developer");
+
+    @Test
+    public void testGovernorKeepsThroughputAtProviderLimit() throws Exception {
+        Result direct = run(false);
+        Result governed = run(true);
+
+        System.out.printf("Provider limit: %d req/s%n", PROVIDER_REQUESTS_PER_SECOND);
+        System.out.printf("Direct:   %d ok, %d failed, %.1f ok/s%n%s",
+                direct.succeeded(), direct.failed(), direct.throughput(), direct.report());
+        System.out.printf("Governed: %d ok, %d failed, %.1f ok/s%n%s",
+                governed.succeeded(), governed.failed(), governed.throughput(), governed.report());
+
+        assertTrue(direct.failed() > 0, "burst did not exceed the provider limit");
+        assertEquals(0, governed.failed());
+    }
+
+    private static Result run(boolean governed) throws Exception {
+        MockOpenAiServer.Behavior behavior = new MockOpenAiServer.Behavior(50, 0, 0, 0, 0, 0, 0);
+
+        try (MockOpenAiServer server = new MockOpenAiServer(0, behavior)) {
+            server.limitRequests(PROVIDER_REQUESTS_PER_SECOND);
+
+            OpenAiApi openAiApi = new OpenAiApi(server.getBaseUrl(), "mock-key",
+                    RestClient.builder(), WebClient.builder(), new OpenAiErrorHandler());
+            ChatClient chatClient = ChatClient.builder(new OpenAiChatModel(openAiApi)).build();
+
+            CvCoachProperties properties = new CvCoachProperties();
+            properties.getAi().setRequestsPerMinute(PROVIDER_REQUESTS_PER_SECOND * 60);
+            properties.getAi().setTokensPerMinute(10_000_000);
+            properties.getAi().setMaxConcurrentCalls(CONCURRENCY);
+            properties.getAi().setMaxRateLimitRetries(10);
+            CvMetrics cvMetrics = new CvMetrics(new SimpleMeterRegistry());
+            OpenAiGovernor governor = new OpenAiGovernor(properties, new TokenCounter(properties), cvMetrics);
+
+            LatencyRecorder recorder = new LatencyRecorder();
+            Semaphore inFlight = new Semaphore(CONCURRENCY);
+            ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+            List<Future<?>> calls = new ArrayList<>();
+
+            long start = System.nanoTime();
+            for (int i = 0; i < CALLS; i++) {
+                inFlight.acquire();
+                calls.add(executor.submit(() -> {
+                    long callStart = System.nanoTime();
+                    try {
+                        if (governed) {
+                            governor.call(OpenAiGovernor.Priority.INTERACTIVE, "benchmark", PROMPT,
+                                    () -> chatClient.prompt(PROMPT).call().chatResponse());
+                        } else {
+                            chatClient.prompt(PROMPT).call().chatResponse();
+                        }
+                        recorder.record("call", System.nanoTime() - callStart);
+                    } catch (RuntimeException e) {
+                        recorder.fail("call");
+                    } finally {
+                        inFlight.release();
+                    }
+                }));
+            }
+            for (Future<?> call : calls) {
+                call.get();
+            }
+            long elapsed = System.nanoTime() - start;
+            executor.shutdown();
+
+            long succeeded = recorder.successCount("call");
+            return new Result(succeeded, recorder.failureCount("call"), succeeded / (elapsed / 1e9),
+                    recorder.report(elapsed) + "mock OpenAI responses: " + server.getResponseCounts() + "\n");
+        }
+    }
+
+    private record Result(long succeeded, long failed, double throughput, String report) {}
+}
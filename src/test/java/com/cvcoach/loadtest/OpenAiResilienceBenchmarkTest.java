@@ -0,0 +1,127 @@
+package com.cvcoach.loadtest;
+
+import com.cvcoach.config.AiConfiguration;
+import com.cvcoach.config.CvCoachProperties;
+import com.cvcoach.config.OpenAiErrorHandler;
+import com.cvcoach.config.OpenAiRequestFactory;
+import com.cvcoach.metrics.CvMetrics;
+import com.cvcoach.service.OpenAiGovernor;
+import com.cvcoach.service.OpenAiResilience;
+import com.cvcoach.service.TokenCounter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.openai.OpenAiChatModel;
+import org.springframework.ai.openai.OpenAiChatOptions;
+import org.springframework.ai.openai.api.OpenAiApi;
+import org.springframework.retry.support.RetryTemplate;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * OpenAI calls against a {@link MockOpenAiServer} with a heavy latency tail and a share
+ * of hanging requests, made through the governor alone vs. through {@link OpenAiResilience}.
+ * Hanging requests fail at the read timeout without resilience; with it they are retried,
+ * and slow calls are hedged after the p95, so the p99 over all calls should drop clearly.
+ */
+@Tag("benchmark")
+public class OpenAiResilienceBenchmarkTest {
+
+    private static final int CALLS = 400;
+    private static final int CONCURRENCY = 16;
+    private static final Duration READ_TIMEOUT = Duration.ofSeconds(3);
+    private static final Prompt PROMPT = new Prompt("Suggest jobs for a Java developer");
+
+    @Test
+    public void testResilienceCutsTailLatency() throws Exception {
+        Result plain = run(false);
+        Result resilient = run(true);
+
+        System.out.printf("Governor only:%n%s", plain.report());
+        System.out.printf("With retries and hedging:%n%s", resilient.report());
+
+        assertTrue(resilient.failed() < plain.failed() || plain.failed() == 0,
+                "retries did not recover failed calls");
+        assertTrue(resilient.p99Millis() < plain.p99Millis() * 0.75,
+                "p99 " + resilient.p99Millis() + " ms is not clearly below " + plain.p99Millis() + " ms");
+    }
+
+    private static Result run(boolean resilient) throws Exception {
+        MockOpenAiServer.Behavior behavior = new MockOpenAiServer.Behavior(200, 0.8, 0, 0, 0.03, 10_000, 0);
+
+        try (MockOpenAiServer server = new MockOpenAiServer(0, behavior)) {
+            CvCoachProperties properties = new CvCoachProperties();
+            properties.getAi().setRequestsPerMinute(Integer.MAX_VALUE);
+            properties.getAi().setTokensPerMinute(Integer.MAX_VALUE);
+            CvCoachProperties.Resilience settings = properties.getAi().getResilience();
+            settings.setInitialBackoff(Duration.ofMillis(50));
+            settings.setMinHedgeDelay(Duration.ofMillis(100));
+            // The injected hangs are part of the scenario, not an outage
+            settings.setFailureRateThreshold(100);
+
+            OpenAiRequestFactory requestFactory =
+                    new OpenAiRequestFactory(new AiConfiguration().openAiHttpClient(properties), READ_TIMEOUT);
+            OpenAiApi openAiApi = new OpenAiApi(server.getBaseUrl(), "mock-key",
+                    RestClient.builder().requestFactory(requestFactory), WebClient.builder(), new OpenAiErrorHandler());
+            OpenAiChatModel chatModel = new OpenAiChatModel(openAiApi,
+                    OpenAiChatOptions.builder().withModel("gpt-4o-mini").build(), null,
+                    new AiConfiguration().openAiRetryTemplate());
+            ChatClient chatClient = ChatClient.builder(chatModel).build();
+
+            CvMetrics cvMetrics = new CvMetrics(new SimpleMeterRegistry());
+            OpenAiGovernor governor = new OpenAiGovernor(properties, new TokenCounter(properties), cvMetrics);
+            OpenAiResilience resilience = new OpenAiResilience(governor, cvMetrics, properties);
+
+            LatencyRecorder recorder = new LatencyRecorder();
+            Semaphore inFlight = new Semaphore(CONCURRENCY);
+            ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+            List<Future<?>> calls = new ArrayList<>();
+
+            long start = System.nanoTime();
+            for (int i = 0; i < CALLS; i++) {
+                inFlight.acquire();
+                calls.add(executor.submit(() -> {
+                    long callStart = System.nanoTime();
+                    try {
+                        if (resilient) {
+                            resilience.call(OpenAiGovernor.Priority.INTERACTIVE, "benchmark", PROMPT,
+                                    () -> chatClient.prompt(PROMPT).call().chatResponse());
+                        } else {
+                            governor.call(OpenAiGovernor.Priority.INTERACTIVE, "benchmark", PROMPT,
+                                    () -> chatClient.prompt(PROMPT).call().chatResponse());
+                        }
+                    } catch (RuntimeException e) {
+                        recorder.fail("failed_call");
+                    } finally {
+                        // A failed call is as slow for the user as the time it took to fail
+                        recorder.record("call", System.nanoTime() - callStart);
+                        inFlight.release();
+                    }
+                }));
+            }
+            for (Future<?> call : calls) {
+                call.get();
+            }
+            long elapsed = System.nanoTime() - start;
+            executor.shutdown();
+            resilience.shutdown();
+
+            return new Result(recorder.failureCount("failed_call"), recorder.percentileMillis("call", 99),
+                    recorder.report(elapsed) + "mock OpenAI requests: " + server.getRequestCount() + "\n");
+        }
+    }
+
+    private record Result(long failed, double p99Millis, String report) {}
+}
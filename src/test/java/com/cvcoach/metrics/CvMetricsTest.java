@@ -0,0 +1,62 @@
+package com.cvcoach.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.metadata.Usage;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CvMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final CvMetrics cvMetrics = new CvMetrics(registry);
+
+    @Test
+    public void testStageTimerTaggedWithStageAndOperation() {
+        String result = cvMetrics.time(CvMetrics.Stage.JSON_PARSE, CvMetrics.ANALYSIS, () -> "parsed");
+
+        assertEquals("parsed", result);
+        assertEquals(1, registry.get("cvcoach.stage")
+                .tag("stage", "json_parse")
+                .tag("operation", "analysis")
+                .timer()
+                .count());
+    }
+
+    @Test
+    public void testStageTimedWhenWorkFails() {
+        assertThrows(IOException.class, () -> cvMetrics.timeChecked(
+                CvMetrics.Stage.EXTRACT_TEXT, CvMetrics.UPLOAD, () -> {
+                    throw new IOException("broken PDF");
+                }));
+
+        assertEquals(1, registry.get("cvcoach.stage").tag("stage", "extract_text").timer().count());
+    }
+
+    @Test
+    public void testTokenUsageRecorded() {
+        cvMetrics.recordTokens(CvMetrics.ANALYSIS, new Usage() {
+            @Override
+            public Long getPromptTokens() {
+                return 1200L;
+            }
+
+            @Override
+            public Long getGenerationTokens() {
+                return 150L;
+            }
+        });
+
+        assertEquals(1200, registry.get("cvcoach.llm.tokens").tag("type", "prompt").summary().totalAmount());
+        assertEquals(150, registry.get("cvcoach.llm.tokens").tag("type", "completion").summary().totalAmount());
+    }
+
+    @Test
+    public void testMissingTokenCountsSkipped() {
+        cvMetrics.recordTokens(CvMetrics.ANALYSIS, null);
+
+        assertTrue(registry.find("cvcoach.llm.tokens").summaries().isEmpty());
+    }
+}
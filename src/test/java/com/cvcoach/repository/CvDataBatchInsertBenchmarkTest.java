@@ -0,0 +1,76 @@
+package com.cvcoach.repository;
+
+import com.cvcoach.model.CvDataEntity;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Insert throughput of one save per row (the upload path) against batched inserts,
+ * on an in-memory H2 database standing in for MySQL
+ */
+@Tag("benchmark")
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+        "spring.jpa.properties.hibernate.order_inserts=true",
+        "spring.jpa.show-sql=false",
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class CvDataBatchInsertBenchmarkTest {
+
+    private static final int ROWS = 5_000;
+
+    @Autowired
+    private CvDataRepository cvDataRepository;
+
+    @Test
+    public void testBatchedInsertsAgainstSingleSaves() {
+        // Warm up Hibernate and the database
+        cvDataRepository.saveAllInBatches(createEntities(500));
+        createEntities(500).forEach(cvDataRepository::save);
+        cvDataRepository.deleteAllInBatch();
+
+        long start = System.nanoTime();
+        createEntities(ROWS).forEach(cvDataRepository::save);
+        long singleNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        List<CvDataEntity> saved = cvDataRepository.saveAllInBatches(createEntities(ROWS));
+        long batchedNanos = System.nanoTime() - start;
+
+        System.out.printf("single save: %.0f rows/s, batched inserts: %.0f rows/s (%.1fx)%n",
+                ROWS / (singleNanos / 1e9),
+                ROWS / (batchedNanos / 1e9),
+                (double) singleNanos / batchedNanos);
+
+        assertEquals(2 * ROWS, cvDataRepository.count());
+        assertTrue(saved.stream().allMatch(entity -> entity.getId() != null));
+        assertEquals(ROWS, saved.stream().map(CvDataEntity::getId).distinct().count());
+    }
+
+    private static List<CvDataEntity> createEntities(int count) {
+        List<CvDataEntity> entities = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            entities.add(CvDataEntity.builder()
+                    .location("Warsaw, Poland")
+                    .hardSkills("Java; Spring Boot; MySQL; Docker")
+                    .softSkills("Communication; Teamwork")
+                    .education("MSc Computer Science")
+                    .totalExperienceYears(i % 20)
+                    .jobBranch("IT")
+                    .branchExperienceYears(i % 10)
+                    .build());
+        }
+        return entities;
+    }
+}
@@ -0,0 +1,65 @@
+package com.cvcoach.repository;
+
+import com.cvcoach.cache.CvAnalysisCache;
+import com.cvcoach.config.CvCoachProperties;
+import com.cvcoach.metrics.CvMetrics;
+import com.cvcoach.model.CvData;
+import com.cvcoach.model.CvDataEntity;
+import com.cvcoach.service.CvAnalysisService;
+import com.cvcoach.service.CvTextCompactor;
+import com.cvcoach.service.OpenAiResilience;
+import com.cvcoach.service.SkillExtractor;
+import com.cvcoach.service.TokenCounter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+public class CvDataRepositoryTest {
+
+    private static final String CV_TEXT = """
+            Jan Kowalski
+            Senior Java Developer
+            Built microservices with Java, Spring Boot and Kafka, deployed on Kubernetes.
+            Led a team of five developers.
+            """;
+
+    @Autowired
+    private CvDataRepository cvDataRepository;
+
+    @Test
+    public void testSavesFastModeAnalysis() {
+        CvCoachProperties properties = new CvCoachProperties();
+        properties.getSkills().setAnalysisMode(CvCoachProperties.AnalysisMode.FAST);
+        CvMetrics cvMetrics = new CvMetrics(new SimpleMeterRegistry());
+        ChatClient chatClient = mock(ChatClient.class);
+        CvAnalysisService analysisService = new CvAnalysisService(chatClient, mock(OpenAiResilience.class),
+                new CvTextCompactor(properties, new TokenCounter(properties), cvMetrics), new SkillExtractor(properties, cvMetrics),
+                new ObjectMapper(), new CvAnalysisCache(cvDataRepository, properties), properties, cvMetrics);
+
+        CvData cvData = analysisService.analyzeCv(CV_TEXT, false);
+        CvDataEntity entity = CvDataEntity.fromDto(cvData);
+        entity.setContentHash(CvAnalysisCache.contentHash(CV_TEXT));
+        entity.setOwnerId("user-1");
+        Long id = cvDataRepository.saveAndFlush(entity).getId();
+
+        verifyNoInteractions(chatClient);
+        CvDataEntity saved = cvDataRepository.findById(id).orElseThrow();
+        assertTrue(saved.getHardSkills().contains("Spring Boot"), saved.getHardSkills());
+        assertEquals("Software Development", saved.getJobBranch());
+        assertNull(saved.getLocation());
+        assertNull(saved.getEducation());
+        assertNull(saved.getTotalExperienceYears());
+        assertNull(saved.getBranchExperienceYears());
+    }
+}
@@ -0,0 +1,132 @@
+package com.cvcoach.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Flyway migrations on an in-memory H2 database in MySQL mode, from an empty database and
+ * from the schemas ddl-auto=update left behind before Flyway managed it
+ */
+public class SchemaMigrationTest {
+
+    /** cv_data as ddl-auto=update created it before the series: IDENTITY IDs, no content hash */
+    private static final String PRE_SERIES_SCHEMA = """
+            CREATE TABLE cv_data (
+                id BIGINT NOT NULL AUTO_INCREMENT,
+                branch_experience_years INTEGER NOT NULL,
+                created_at DATETIME(6) NOT NULL,
+                education VARCHAR(500) NOT NULL,
+                hard_skills TEXT NOT NULL,
+                job_branch VARCHAR(200) NOT NULL,
+                location VARCHAR(500) NOT NULL,
+                soft_skills TEXT NOT NULL,
+                total_experience_years INTEGER NOT NULL,
+                updated_at DATETIME(6) NOT NULL,
+                PRIMARY KEY (id)
+            )
+            """;
+
+    private final String url = "jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1";
+
+    @Test
+    public void testMigratesEmptyDatabase() throws SQLException {
+        migrate();
+
+        try (Connection connection = connect()) {
+            assertTrue(hasColumn(connection, "content_hash"));
+            assertTrue(hasIndex(connection, "idx_cv_data_content_hash"));
+            assertTrue(hasColumn(connection, "owner_id"));
+        }
+    }
+
+    @Test
+    public void testMigratesPreSeriesSchema() throws SQLException {
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            statement.execute(PRE_SERIES_SCHEMA);
+            statement.execute("INSERT INTO cv_data (id, location, hard_skills, soft_skills, education, "
+                    + "total_experience_years, job_branch, branch_experience_years, created_at, updated_at) "
+                    + "VALUES (7, 'Warsaw', 'Java', 'Teamwork', 'MSc', 5, 'IT', 4, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)");
+        }
+
+        migrate();
+
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            assertTrue(hasColumn(connection, "content_hash"));
+            assertTrue(hasIndex(connection, "idx_cv_data_content_hash"));
+            assertTrue(hasColumn(connection, "owner_id"));
+            assertEquals(58, queryLong(statement, "SELECT next_val FROM cv_data_seq"));
+            assertEquals(1, queryLong(statement, "SELECT COUNT(*) FROM cv_data WHERE owner_id = 'legacy'"));
+
+            // Fast-mode rows have no location (V5)
+            statement.execute("INSERT INTO cv_data (id, hard_skills, soft_skills, job_branch, created_at, updated_at) "
+                    + "VALUES (100, 'Java', 'Teamwork', 'IT', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)");
+            assertEquals(2, queryLong(statement, "SELECT COUNT(*) FROM cv_data"));
+        }
+    }
+
+    @Test
+    public void testMigratesSchemaThatAlreadyHasContentHash() throws SQLException {
+        // Databases updated by ddl-auto=update after the analysis cache was added
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            statement.execute(PRE_SERIES_SCHEMA);
+            statement.execute("ALTER TABLE cv_data ADD COLUMN content_hash VARCHAR(64)");
+            statement.execute("CREATE INDEX idx_cv_data_content_hash ON cv_data (content_hash)");
+        }
+
+        migrate();
+
+        try (Connection connection = connect()) {
+            assertTrue(hasColumn(connection, "content_hash"));
+            assertTrue(hasIndex(connection, "idx_cv_data_content_hash"));
+        }
+    }
+
+    private void migrate() {
+        Flyway flyway = Flyway.configure()
+                .dataSource(url, "sa", "")
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .load();
+        flyway.migrate();
+        assertEquals(0, flyway.info().pending().length);
+    }
+
+    private Connection connect() throws SQLException {
+        return DriverManager.getConnection(url, "sa", "");
+    }
+
+    private static long queryLong(Statement statement, String sql) throws SQLException {
+        try (ResultSet result = statement.executeQuery(sql)) {
+            assertTrue(result.next());
+            return result.getLong(1);
+        }
+    }
+
+    private static boolean hasColumn(Connection connection, String column) throws SQLException {
+        try (ResultSet columns = connection.getMetaData().getColumns(null, null, "CV_DATA", column.toUpperCase())) {
+            return columns.next();
+        }
+    }
+
+    private static boolean hasIndex(Connection connection, String index) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        try (ResultSet indexes = metaData.getIndexInfo(null, null, "CV_DATA", false, false)) {
+            while (indexes.next()) {
+                if (index.equalsIgnoreCase(indexes.getString("INDEX_NAME"))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
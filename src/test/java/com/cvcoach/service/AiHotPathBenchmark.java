@@ -0,0 +1,112 @@
+package com.cvcoach.service;
+
+import com.cvcoach.cache.CvAnalysisCache;
+import com.cvcoach.cache.JobSearchCache;
+import com.cvcoach.catalog.HashingEmbeddingProvider;
+import com.cvcoach.config.CvCoachProperties;
+import com.cvcoach.metrics.CvMetrics;
+import com.cvcoach.model.CvData;
+import com.cvcoach.model.JobPosition;
+import com.cvcoach.model.JobSearchMode;
+import com.cvcoach.repository.CvDataRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.prompt.Prompt;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Non-network overhead of the OpenAI calls: prompt rendering, response decoding,
+ * and complete analyze/search round trips against {@link StubChatModel}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AiHotPathBenchmark {
+
+    private CvAnalysisService cvAnalysisService;
+    private JobSearchService jobSearchService;
+    private ExecutorService aiCallExecutor;
+
+    private String cvText;
+    private String cvContent;
+    private CvData cvData;
+
+    @Setup
+    public void setUp() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        CvCoachProperties properties = new CvCoachProperties();
+        ChatClient chatClient = ChatClient.builder(new StubChatModel()).build();
+        aiCallExecutor = Executors.newSingleThreadExecutor();
+        CvMetrics cvMetrics = new CvMetrics(new SimpleMeterRegistry());
+
+        // The stub answers the full analysis prompt, not the one prefilled from the skill dictionary
+        properties.getSkills().setAnalysisMode(CvCoachProperties.AnalysisMode.LLM);
+        // Budgets far above what the stub can serve, so only the governor's bookkeeping is measured
+        properties.getAi().setRequestsPerMinute(Integer.MAX_VALUE);
+        properties.getAi().setTokensPerMinute(Integer.MAX_VALUE);
+        TokenCounter tokenCounter = new TokenCounter(properties);
+        CvTextCompactor cvTextCompactor = new CvTextCompactor(properties, tokenCounter, cvMetrics);
+        OpenAiResilience resilience = new OpenAiResilience(new OpenAiGovernor(properties, tokenCounter, cvMetrics),
+                cvMetrics, properties);
+
+        cvAnalysisService = new CvAnalysisService(chatClient, resilience,
+                cvTextCompactor, new SkillExtractor(properties, cvMetrics), objectMapper,
+                new CvAnalysisCache(mock(CvDataRepository.class), properties), properties, cvMetrics);
+        // The catalog is never loaded, so matching searches measure the OpenAI path
+        JobCatalogService jobCatalogService = new JobCatalogService(properties,
+                new HashingEmbeddingProvider(properties.getCatalog().getEmbeddingDimensions()), objectMapper, cvMetrics);
+        jobSearchService = new JobSearchService(chatClient, resilience, objectMapper,
+                new JobSearchCache(properties), jobCatalogService, aiCallExecutor, properties, cvMetrics);
+
+        cvText = new PdfParserService(properties, cvMetrics).extractText(Path.of("cv", "John_Peterson_CV.pdf"));
+        cvContent = cvTextCompactor.compact(cvText);
+        cvData = objectMapper.readValue(StubChatModel.ANALYSIS_RESPONSE, CvData.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        aiCallExecutor.shutdown();
+    }
+
+    @Benchmark
+    public Prompt renderAnalysisPrompt() {
+        return cvAnalysisService.createPrompt(cvContent);
+    }
+
+    @Benchmark
+    public Prompt renderMatchingJobsPrompt() {
+        return jobSearchService.createPrompt(cvData, JobSearchMode.MATCHING);
+    }
+
+    @Benchmark
+    public CvData decodeAnalysisResponse() {
+        return cvAnalysisService.parseAiResponse(StubChatModel.ANALYSIS_RESPONSE);
+    }
+
+    @Benchmark
+    public List<JobPosition> decodeJobsResponse() {
+        return jobSearchService.parseJobsResponse(StubChatModel.JOBS_RESPONSE);
+    }
+
+    @Benchmark
+    public CvData analyzeCvAgainstStub() {
+        return cvAnalysisService.analyzeCv(cvText);
+    }
+
+    @Benchmark
+    public List<JobPosition> searchJobsAgainstStub() {
+        return jobSearchService.searchJobs(cvData, JobSearchMode.MATCHING);
+    }
+}
@@ -0,0 +1,201 @@
+package com.cvcoach.service;
+
+import com.cvcoach.config.CvCoachProperties;
+import com.cvcoach.metrics.CvMetrics;
+import com.cvcoach.model.BatchItemResult;
+import com.cvcoach.model.BatchSummary;
+import com.cvcoach.model.CvData;
+import com.cvcoach.model.CvDataEntity;
+import com.cvcoach.repository.CvDataRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class BatchIngestionServiceTest {
+
+    private static final int FILES = 20;
+
+    private final CvCoachProperties properties = new CvCoachProperties();
+    private final CvAnalysisService cvAnalysisService = mock(CvAnalysisService.class);
+    private final CvDataRepository cvDataRepository = mock(CvDataRepository.class);
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicInteger maxRunning = new AtomicInteger();
+    private final AtomicInteger analyses = new AtomicInteger();
+    private final AtomicInteger savedRows = new AtomicInteger();
+    private BatchIngestionService batchIngestionService;
+
+    @TempDir
+    private Path scratchDirectory;
+
+    private void createService(int maxConcurrentAnalyses, int saveBatchSize) throws IOException {
+        properties.getBatch().setMaxConcurrentAnalyses(maxConcurrentAnalyses);
+        properties.getBatch().setSaveBatchSize(saveBatchSize);
+
+        PdfParserService pdfParserService = mock(PdfParserService.class);
+        when(pdfParserService.extractText(any(Path.class))).thenReturn("Java developer");
+        when(cvAnalysisService.analyzeCv(anyString(), anyBoolean(), any())).thenAnswer(invocation -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            analyses.incrementAndGet();
+            Thread.sleep(20);
+            running.decrementAndGet();
+            return CvData.builder().hardSkills("Java").jobBranch("IT").build();
+        });
+        AtomicLong ids = new AtomicLong();
+        when(cvDataRepository.saveAllInBatches(anyList())).thenAnswer(invocation -> {
+            List<CvDataEntity> entities = invocation.getArgument(0);
+            entities.forEach(entity -> entity.setId(ids.incrementAndGet()));
+            savedRows.addAndGet(entities.size());
+            return entities;
+        });
+
+        batchIngestionService = new BatchIngestionService(pdfParserService, cvAnalysisService, cvDataRepository,
+                new CvMetrics(new SimpleMeterRegistry()), properties);
+    }
+
+    @AfterEach
+    public void shutdown() {
+        batchIngestionService.shutdown();
+    }
+
+    @Test
+    public void testLimitsConcurrentAnalyses() throws IOException {
+        createService(2, 5);
+        List<BatchItemResult> results = new ArrayList<>();
+
+        List<BatchIngestionService.BatchFile> files = files();
+
+        BatchSummary summary = batchIngestionService.ingest(files, "user-1", false, results::add);
+
+        assertEquals(FILES, summary.saved());
+        assertEquals(FILES, results.size());
+        assertTrue(maxRunning.get() <= 2, "at most two analyses at once, was " + maxRunning.get());
+        assertTrue(files.stream().noneMatch(file -> Files.exists(file.path())), "scratch files are deleted");
+    }
+
+    @Test
+    public void testFailingReportCancelsRemainingFiles() throws IOException {
+        createService(1, 1);
+
+        List<BatchIngestionService.BatchFile> files = files();
+
+        // The first reported file fails, as writing to a disconnected client does
+        assertThrows(UncheckedIOException.class, () -> batchIngestionService.ingest(files, "user-1", false,
+                result -> {
+                    throw new UncheckedIOException(new IOException("Broken pipe"));
+                }));
+
+        int analyzed = analyses.get();
+        assertTrue(analyzed < FILES, "remaining files are not analyzed, " + analyzed + " were");
+        assertTrue(savedRows.get() >= 1);
+        assertTrue(files.stream().noneMatch(file -> Files.exists(file.path())), "scratch files are deleted");
+    }
+
+    @Test
+    public void testUnpacksZipToScratchFiles() throws IOException {
+        createUnpackingService();
+        MockMultipartFile zip = zip("cvs.zip", Map.of("a.pdf", 1024, "b.pdf", 2048, "notes.txt", 10));
+
+        List<BatchIngestionService.BatchFile> files = batchIngestionService.unpack(
+                List.of(zip, new MockMultipartFile("files", "c.pdf", "application/pdf", new byte[512])));
+
+        assertEquals(List.of("cvs.zip/a.pdf", "cvs.zip/b.pdf", "c.pdf"),
+                files.stream().map(BatchIngestionService.BatchFile::name).sorted().toList());
+        long totalSize = 0;
+        for (BatchIngestionService.BatchFile file : files) {
+            assertTrue(file.path().startsWith(scratchDirectory));
+            totalSize += Files.size(file.path());
+        }
+        assertEquals(1024 + 2048 + 512, totalSize);
+
+        batchIngestionService.discard(files);
+        assertEquals(0, scratchFiles());
+    }
+
+    @Test
+    public void testRejectsOversizedZipEntry() throws IOException {
+        createUnpackingService();
+        // 6MB of zeros compress to a few KB
+        MockMultipartFile zip = zip("bomb.zip", Map.of("a.pdf", 1024, "z.pdf", 6 * 1024 * 1024));
+
+        IOException e = assertThrows(IOException.class, () -> batchIngestionService.unpack(List.of(zip)));
+
+        assertFalse(e instanceof BatchTooLargeException);
+        assertTrue(e.getMessage().contains("exceeds 5MB limit"), e.getMessage());
+        assertEquals(0, scratchFiles());
+    }
+
+    @Test
+    public void testRejectsBatchOverUnpackedSize() throws IOException {
+        properties.getBatch().setMaxUnpackedSize(DataSize.ofMegabytes(8));
+        createUnpackingService();
+        Map<String, Integer> entries = new HashMap<>();
+        for (int i = 0; i < 5; i++) {
+            entries.put("cv-" + i + ".pdf", 4 * 1024 * 1024);
+        }
+
+        assertThrows(BatchTooLargeException.class,
+                () -> batchIngestionService.unpack(List.of(zip("bomb.zip", entries))));
+        assertEquals(0, scratchFiles());
+    }
+
+    private void createUnpackingService() {
+        properties.getPdf().setScratchDirectory(scratchDirectory.toString());
+        CvMetrics cvMetrics = new CvMetrics(new SimpleMeterRegistry());
+        batchIngestionService = new BatchIngestionService(new PdfParserService(properties, cvMetrics),
+                cvAnalysisService, cvDataRepository, cvMetrics, properties);
+    }
+
+    private long scratchFiles() throws IOException {
+        try (Stream<Path> files = Files.list(scratchDirectory)) {
+            return files.count();
+        }
+    }
+
+    private static MockMultipartFile zip(String name, Map<String, Integer> entries) throws IOException {
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(content)) {
+            for (Map.Entry<String, Integer> entry : new TreeMap<>(entries).entrySet()) {
+                zip.putNextEntry(new ZipEntry(entry.getKey()));
+                zip.write(new byte[entry.getValue()]);
+                zip.closeEntry();
+            }
+        }
+        return new MockMultipartFile("files", name, "application/zip", content.toByteArray());
+    }
+
+    private List<BatchIngestionService.BatchFile> files() throws IOException {
+        List<BatchIngestionService.BatchFile> files = new ArrayList<>();
+        for (int i = 0; i < FILES; i++) {
+            Path pdf = Files.write(scratchDirectory.resolve("cv-" + i + ".pdf"), new byte[]{1});
+            files.add(new BatchIngestionService.BatchFile("cv-" + i + ".pdf", pdf));
+        }
+        return files;
+    }
+}
@@ -0,0 +1,68 @@
+package com.cvcoach.service;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.chat.prompt.PromptTemplate;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request client overhead against {@link StubChatModel}: building a ChatClient
+ * and parsing the prompt template on every call vs. sharing pre-built instances
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChatClientReuseBenchmark {
+
+    private static final String TEMPLATE = """
+            Analyze the following CV and extract information in JSON format.
+            
+            CV Content:
+            {cvContent}
+            
+            Respond ONLY with valid JSON, no additional text or markdown formatting.
+            """;
+
+    private static final Map<String, Object> MODEL = Map.of("cvContent",
+            "John Peterson, Senior Java Developer, Warsaw. Java, Spring Boot, Kafka, Kubernetes.");
+
+    private ChatClient.Builder chatClientBuilder;
+    private ChatClient sharedChatClient;
+    private CompiledPromptTemplate compiledTemplate;
+
+    @Setup
+    public void setUp() {
+        chatClientBuilder = ChatClient.builder(new StubChatModel());
+        sharedChatClient = chatClientBuilder.build();
+        compiledTemplate = new CompiledPromptTemplate(TEMPLATE);
+    }
+
+    @Benchmark
+    public ChatResponse buildClientAndTemplatePerCall() {
+        Prompt prompt = new PromptTemplate(TEMPLATE).create(MODEL);
+        return chatClientBuilder.build().prompt(prompt).call().chatResponse();
+    }
+
+    @Benchmark
+    public ChatResponse sharedClientAndCompiledTemplate() {
+        Prompt prompt = compiledTemplate.create(MODEL);
+        return sharedChatClient.prompt(prompt).call().chatResponse();
+    }
+
+    @Benchmark
+    public Prompt renderWithPromptTemplate() {
+        return new PromptTemplate(TEMPLATE).create(MODEL);
+    }
+
+    @Benchmark
+    public Prompt renderWithCompiledTemplate() {
+        return compiledTemplate.create(MODEL);
+    }
+}
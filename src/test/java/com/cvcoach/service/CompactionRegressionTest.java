@@ -0,0 +1,79 @@
+package com.cvcoach.service;
+
+import com.cvcoach.cache.CvAnalysisCache;
+import com.cvcoach.config.CvCoachProperties;
+import com.cvcoach.metrics.CvMetrics;
+import com.cvcoach.model.CvData;
+import com.cvcoach.repository.CvDataRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.openai.OpenAiChatModel;
+import org.springframework.ai.openai.OpenAiChatOptions;
+import org.springframework.ai.openai.api.OpenAiApi;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Analyzes the sample CV with the real OpenAI API, once from the full text and once
+ * from the compacted text, and checks the extracted profile is the same.
+ * Spends API quota, so it only runs with -Pbenchmark and OPENAI_API_KEY set.
+ */
+@Tag("benchmark")
+@EnabledIfEnvironmentVariable(named = "OPENAI_API_KEY", matches = ".+")
+public class CompactionRegressionTest {
+
+    @Test
+    public void testCompactionKeepsExtractedFields() throws Exception {
+        CvCoachProperties properties = new CvCoachProperties();
+        CvMetrics cvMetrics = new CvMetrics(new SimpleMeterRegistry());
+        String cvText = new PdfParserService(properties, cvMetrics).extractText(Path.of("cv", "John_Peterson_CV.pdf"));
+
+        CvData full = analyze(cvText, false);
+        CvData compacted = analyze(cvText, true);
+
+        System.out.printf("Full:      %s%nCompacted: %s%n", full, compacted);
+        assertEquals(full.getLocation(), compacted.getLocation());
+        assertEquals(full.getTotalExperienceYears(), compacted.getTotalExperienceYears());
+        assertEquals(full.getBranchExperienceYears(), compacted.getBranchExperienceYears());
+        assertEquals(skills(full.getHardSkills()), skills(compacted.getHardSkills()));
+    }
+
+    private static CvData analyze(String cvText, boolean compaction) {
+        CvCoachProperties properties = new CvCoachProperties();
+        properties.getCompaction().setEnabled(compaction);
+        properties.getSkills().setAnalysisMode(CvCoachProperties.AnalysisMode.LLM);
+        CvMetrics cvMetrics = new CvMetrics(new SimpleMeterRegistry());
+
+        OpenAiChatModel chatModel = new OpenAiChatModel(new OpenAiApi(System.getenv("OPENAI_API_KEY")),
+                OpenAiChatOptions.builder().withModel("gpt-4o-mini").withTemperature(0.0).build());
+        TokenCounter tokenCounter = new TokenCounter(properties);
+        OpenAiResilience resilience = new OpenAiResilience(new OpenAiGovernor(properties, tokenCounter, cvMetrics),
+                cvMetrics, properties);
+
+        CvAnalysisService service = new CvAnalysisService(ChatClient.builder(chatModel).build(), resilience,
+                new CvTextCompactor(properties, tokenCounter, cvMetrics), new SkillExtractor(properties, cvMetrics), new ObjectMapper(),
+                new CvAnalysisCache(mock(CvDataRepository.class), properties), properties, cvMetrics);
+        try {
+            return service.analyzeCv(cvText);
+        } finally {
+            resilience.shutdown();
+        }
+    }
+
+    private static Set<String> skills(String skills) {
+        return Arrays.stream(skills.split(";"))
+                .map(skill -> skill.strip().toLowerCase(Locale.ROOT))
+                .collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,50 @@
+package com.cvcoach.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.chat.prompt.PromptTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompiledPromptTemplateTest {
+
+    private static final String TEMPLATE = "Location: {location}\nSkills: {skills}\n";
+
+    @Test
+    public void testRendersLikePromptTemplate() {
+        Map<String, Object> model = Map.of("location", "Warsaw, Poland", "skills", "Java; Spring Boot");
+
+        Prompt expected = new PromptTemplate(TEMPLATE).create(model);
+        Prompt actual = new CompiledPromptTemplate(TEMPLATE).create(model);
+
+        assertEquals(expected.getContents(), actual.getContents());
+    }
+
+    @Test
+    public void testConcurrentRendersDoNotShareValues() throws Exception {
+        CompiledPromptTemplate template = new CompiledPromptTemplate(TEMPLATE);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < 500; i++) {
+                String location = "City-" + i;
+                results.add(executor.submit(() -> template.create(Map.of("location", location, "skills", "Java"))
+                        .getContents()
+                        .equals("Location: " + location + "\nSkills: Java\n")));
+            }
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
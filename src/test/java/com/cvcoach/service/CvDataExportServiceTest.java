@@ -0,0 +1,168 @@
+package com.cvcoach.service;
+
+import com.cvcoach.config.CvCoachProperties;
+import com.cvcoach.metrics.CvMetrics;
+import com.cvcoach.model.CvDataEntity;
+import com.cvcoach.model.ExportFormat;
+import com.cvcoach.repository.CvDataRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class CvDataExportServiceTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    private final List<CvDataEntity> table = new ArrayList<>();
+    /** Rows whose transactions commit while the next page is read */
+    private final List<CvDataEntity> committing = new ArrayList<>();
+    private final CvDataRepository repository = mock(CvDataRepository.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final CvDataExportService exportService;
+
+    public CvDataExportServiceTest() {
+        CvCoachProperties properties = new CvCoachProperties();
+        properties.getExport().setPageSize(2);
+        exportService = new CvDataExportService(repository,
+                new ObjectMapper().registerModule(new JavaTimeModule()), properties, new CvMetrics(registry));
+
+        // Same keyset condition and order as the JPQL query
+        when(repository.findExportPage(any(), anyLong(), any(), any())).thenAnswer(invocation -> {
+            LocalDateTime since = invocation.getArgument(0);
+            long afterId = invocation.getArgument(1);
+            LocalDateTime until = invocation.getArgument(2);
+            Pageable page = invocation.getArgument(3);
+            List<CvDataEntity> rows = table.stream()
+                    .filter(row -> !row.getUpdatedAt().isBefore(since) && !row.getUpdatedAt().isAfter(until))
+                    .filter(row -> row.getUpdatedAt().isAfter(since) || row.getId() > afterId)
+                    .sorted(Comparator.comparing(CvDataEntity::getUpdatedAt).thenComparing(CvDataEntity::getId))
+                    .limit(page.getPageSize())
+                    .toList();
+            table.addAll(committing);
+            committing.clear();
+            return rows;
+        });
+
+        table.add(row(1, T0.plusMinutes(5), "Berlin, Germany", "Java;Spring Boot"));
+        table.add(row(2, T0, "Warsaw", "Python"));
+        table.add(row(3, T0.plusMinutes(5), "Prague", "Go; \"Kubernetes\""));
+        table.add(row(4, T0.plusMinutes(9), "Vienna", "SQL"));
+        table.add(row(5, T0.plusMinutes(20), "Madrid", "Rust"));
+    }
+
+    @Test
+    public void testCsvExportStreamsAllPagesInKeysetOrder() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rows = exportService.export(ExportFormat.CSV, null, null, T0.plusHours(1), false, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(5, rows);
+        assertEquals(6, lines.length);
+        assertTrue(lines[0].startsWith("Id,Location,Hard Skills"));
+        assertTrue(lines[1].startsWith("2,Warsaw,Python"));
+        assertTrue(lines[2].startsWith("1,\"Berlin, Germany\",Java;Spring Boot"));
+        assertTrue(lines[3].startsWith("3,Prague,\"Go; \"\"Kubernetes\"\"\""));
+        assertTrue(lines[5].startsWith("5,"));
+        // Five rows in pages of two: the last page is short and ends the export
+        verify(repository, times(3)).findExportPage(any(), anyLong(), any(), any());
+        assertEquals(5, registry.get("cvcoach.export.rows").tag("format", "csv").counter().count());
+    }
+
+    @Test
+    public void testIncrementalExportResumesAfterRow() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Rows 1 and 3 share an update time; row 1 was the last one received
+        long rows = exportService.export(ExportFormat.NDJSON, T0.plusMinutes(5), 1L, T0.plusMinutes(10), false, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, rows);
+        JsonNode first = new ObjectMapper().readTree(lines[0]);
+        assertEquals(3, first.get("id").asLong());
+        assertEquals("Prague", first.get("location").asText());
+        assertEquals(4, new ObjectMapper().readTree(lines[1]).get("id").asLong());
+    }
+
+    @Test
+    public void testGzipExport() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.export(ExportFormat.CSV, T0.plusMinutes(9), null, T0.plusHours(1), true, out);
+
+        try (GZIPInputStream input = new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            String[] lines = new String(input.readAllBytes(), StandardCharsets.UTF_8).split("\n");
+            assertEquals(3, lines.length);
+            assertTrue(lines[1].startsWith("4,"));
+            assertTrue(lines[2].startsWith("5,"));
+        }
+    }
+
+    @Test
+    public void testRowCommittedDuringExportIsInNextExport() throws IOException {
+        LocalDateTime now = LocalDateTime.now();
+        table.clear();
+        table.add(row(1, now.minusHours(2), "Warsaw", "Java"));
+        table.add(row(2, now.minusHours(1), "Prague", "Go"));
+        table.add(row(3, now.minusMinutes(30), "Vienna", "SQL"));
+        // Stamped before the export started, committed while its first page is sent,
+        // with a lower ID than rows already exported
+        committing.add(row(0, now.minusSeconds(10), "Berlin", "Kotlin"));
+
+        LocalDateTime until = exportService.until(null);
+        ByteArrayOutputStream first = new ByteArrayOutputStream();
+        long firstRows = exportService.export(ExportFormat.NDJSON, null, null, until, false, first);
+
+        ByteArrayOutputStream next = new ByteArrayOutputStream();
+        long nextRows = exportService.export(ExportFormat.NDJSON, until, null, now.plusMinutes(5), false, next);
+
+        assertTrue(until.isBefore(now.minusSeconds(10)));
+        assertEquals(3, firstRows);
+        assertEquals(1, nextRows);
+        assertEquals(0, new ObjectMapper().readTree(next.toString(StandardCharsets.UTF_8)).get("id").asLong());
+    }
+
+    @Test
+    public void testUntilIsNotBeforeSince() {
+        LocalDateTime since = LocalDateTime.now().minusSeconds(5);
+
+        assertEquals(since, exportService.until(since));
+    }
+
+    private static CvDataEntity row(long id, LocalDateTime updatedAt, String location, String hardSkills) {
+        return CvDataEntity.builder()
+                .id(id)
+                .ownerId("user-" + id)
+                .location(location)
+                .hardSkills(hardSkills)
+                .softSkills("Communication")
+                .education("MSc")
+                .totalExperienceYears(5)
+                .jobBranch("IT")
+                .branchExperienceYears(4)
+                .createdAt(updatedAt.minusDays(1))
+                .updatedAt(updatedAt)
+                .build();
+    }
+}
@@ -0,0 +1,220 @@
+package com.cvcoach.service;
+
+import com.cvcoach.config.CvCoachProperties;
+import com.cvcoach.metrics.CvMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Regression set in src/test/resources/compaction: each CV text comes with the lines that carry
+ * its CvData fields (keep), boilerplate that must go (drop) and page headers kept exactly once (once).
+ */
+public class CvTextCompactorTest {
+
+    private static final List<String> REGRESSION_SET = List.of("english-two-pages", "polish-consent");
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final CvCoachProperties properties = new CvCoachProperties();
+
+    @Test
+    public void testRegressionSetKeepsProfileLines() throws IOException {
+        for (String name : REGRESSION_SET) {
+            String cvText = TextNormalizer.normalize(resource(name + ".txt"));
+            String compacted = compactor().compact(cvText);
+
+            for (String expectation : resource(name + ".expected").split("\n")) {
+                if (expectation.isBlank() || expectation.startsWith("#")) {
+                    continue;
+                }
+                String kind = expectation.substring(0, expectation.indexOf('='));
+                String line = expectation.substring(expectation.indexOf('=') + 1);
+                switch (kind) {
+                    case "keep" -> assertTrue(compacted.contains(line), name + " lost: " + line);
+                    case "drop" -> assertFalse(compacted.contains(line), name + " kept: " + line);
+                    case "once" -> assertEquals(1, occurrences(compacted, line), name + " repeats: " + line);
+                    default -> fail("Unknown expectation " + expectation);
+                }
+            }
+            assertTrue(compacted.length() < cvText.length());
+        }
+    }
+
+    @Test
+    public void testTrimsLowPrioritySectionsFirst() {
+        StringBuilder cv = new StringBuilder("""
+                John Peterson
+                Warsaw, Poland
+                Work Experience
+                Senior Java Developer - Allegro, 03/2019 - present
+                Java Developer - Asseco Poland, 06/2015 - 02/2019
+                Skills
+                Java; Spring Boot; Kafka; Kubernetes
+                Education
+                MSc Computer Science, Warsaw University of Technology
+                Publications
+                """);
+        for (int i = 1; i <= 80; i++) {
+            cv.append("Paper ").append(i).append(": Scaling event-driven systems on the JVM, JavaConf ").append(i).append('\n');
+        }
+        cv.append("Interests\n");
+        for (int i = 1; i <= 40; i++) {
+            cv.append("Hobby ").append(i).append(": hiking, chess and amateur astronomy\n");
+        }
+        properties.getCompaction().setTokenBudget(300);
+        CvTextCompactor compactor = compactor();
+
+        String compacted = compactor.compact(cv.toString());
+
+        assertTrue(compactor.countTokens(compacted) <= 300);
+        assertFalse(compacted.contains("Hobby"));
+        assertTrue(compacted.contains("Paper 1:"), "publications are only trimmed as far as needed");
+        assertFalse(compacted.contains("Paper 80:"));
+        assertTrue(compacted.contains("Java Developer - Asseco Poland, 06/2015 - 02/2019"));
+        assertTrue(compacted.contains("Java; Spring Boot; Kafka; Kubernetes"));
+        assertTrue(compacted.contains("Warsaw, Poland"));
+
+        double saved = registry.get("cvcoach.compaction.tokens_saved").counter().count();
+        assertEquals(compactor.countTokens(cv.toString()) - compactor.countTokens(compacted), saved, 0.1);
+    }
+
+    @Test
+    public void testTrimsSectionsByPriorityNotPosition() {
+        List<String> kept = List.of(
+                "Anna Nowak",
+                "Kraków, Poland",
+                "Summary",
+                "Backend developer focused on payment systems",
+                "Work Experience",
+                "Backend Developer - PayU, 01/2020 - present",
+                "Junior Developer - Comarch, 07/2017 - 12/2019",
+                "Education",
+                "BSc Computer Science, AGH University of Science and Technology",
+                "Languages",
+                "Polish (native), English (C1)",
+                "Certifications",
+                "Oracle Certified Professional Java SE 17",
+                "AWS Certified Developer Associate");
+        List<String> trimmed = List.of(
+                "Interests",
+                "Climbing in the Tatra mountains",
+                "Board games and specialty coffee",
+                "Projects",
+                "Open source contributions to a Kafka connector",
+                "Home automation with a Raspberry Pi");
+        // Low-priority sections in the middle of the CV, certifications after them
+        List<String> cv = new ArrayList<>(kept.subList(0, 11));
+        cv.addAll(trimmed);
+        cv.addAll(kept.subList(11, kept.size()));
+        cv.addAll(List.of("References", "Available upon request"));
+
+        CvTextCompactor compactor = compactor();
+        // Exactly what the kept lines need, so interests and projects must go and nothing else
+        properties.getCompaction().setTokenBudget(kept.stream().mapToInt(line -> compactor.countTokens(line) + 1).sum());
+
+        String compacted = compactor.compact(String.join("\n", cv));
+
+        assertEquals(String.join("\n", kept), compacted);
+    }
+
+    @Test
+    public void testKeepsHeaderWhenOverBudget() {
+        String cv = """
+                John Peterson
+                Senior Java Developer with ten years in fintech and e-commerce
+                Warsaw, Poland
+                Skills
+                Java; Spring Boot; Kafka; Kubernetes
+                Interests
+                Sailing and chess""";
+        properties.getCompaction().setTokenBudget(1);
+
+        String compacted = compactor().compact(cv);
+
+        // Every section goes, the text before the first heading stays even though it is over the budget
+        assertEquals("""
+                John Peterson
+                Senior Java Developer with ten years in fintech and e-commerce
+                Warsaw, Poland""", compacted);
+    }
+
+    @Test
+    public void testDropsPageFurnitureAndConsentWithinBudget() {
+        String cv = """
+                John Peterson | john.peterson@example.com | +48 600 100 200
+                Work Experience
+                Senior Java Developer - Allegro, 03/2019 - present
+                Built the checkout service
+                Confidential
+                Page 1 of 3
+
+                John Peterson | john.peterson@example.com | +48 600 100 200
+                Java Developer - Asseco Poland, 06/2015 - 02/2019
+                Built the checkout service
+                Confidential
+                Page 2 of 3
+
+                John Peterson | john.peterson@example.com | +48 600 100 200
+                Skills
+                Java; Spring Boot; Kafka
+                I hereby agree to the processing of my personal data
+                for the purposes of this recruitment process.
+
+                References
+                Available upon request
+                Confidential
+                - 3 -""";
+        CvTextCompactor compactor = compactor();
+        assertTrue(compactor.countTokens(cv) < properties.getCompaction().getTokenBudget());
+
+        String compacted = compactor.compact(cv);
+
+        // Short lines repeated below the threshold are content, not furniture
+        assertEquals("""
+                John Peterson | john.peterson@example.com | +48 600 100 200
+                Work Experience
+                Senior Java Developer - Allegro, 03/2019 - present
+                Built the checkout service
+                Confidential
+
+                Java Developer - Asseco Poland, 06/2015 - 02/2019
+                Built the checkout service
+
+                Skills
+                Java; Spring Boot; Kafka""", compacted);
+    }
+
+    @Test
+    public void testDisabledCompactionKeepsText() throws IOException {
+        properties.getCompaction().setEnabled(false);
+        String cvText = resource("english-two-pages.txt");
+
+        assertSame(cvText, compactor().compact(cvText));
+    }
+
+    private CvTextCompactor compactor() {
+        return new CvTextCompactor(properties, new TokenCounter(properties), new CvMetrics(registry));
+    }
+
+    private static int occurrences(String text, String line) {
+        int count = 0;
+        for (int i = text.indexOf(line); i >= 0; i = text.indexOf(line, i + line.length())) {
+            count++;
+        }
+        return count;
+    }
+
+    private String resource(String name) throws IOException {
+        try (InputStream in = getClass().getResourceAsStream("/compaction/" + name)) {
+            assertNotNull(in, "missing test resource " + name);
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
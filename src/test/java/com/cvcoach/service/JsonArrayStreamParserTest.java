@@ -0,0 +1,91 @@
+package com.cvcoach.service;
+
+import com.cvcoach.model.JobPosition;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JsonArrayStreamParserTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void testElementsAreEmittedAsSoonAsTheyClose() {
+        JsonArrayStreamParser<JobPosition> parser = new JsonArrayStreamParser<>(objectMapper, JobPosition.class);
+
+        assertTrue(parser.feed("```json\n[{\"position\": \"Java Dev").isEmpty());
+        List<JobPosition> first = parser.feed("eloper\", \"company\": \"Tech\"}, {\"posi");
+
+        assertEquals(1, first.size());
+        assertEquals("Java Developer", first.get(0).getPosition());
+        assertEquals("Tech", first.get(0).getCompany());
+
+        List<JobPosition> second = parser.feed("tion\": \"Architect\"}]\n```");
+        assertEquals(1, second.size());
+        assertEquals("Architect", second.get(0).getPosition());
+        assertTrue(parser.isFinished());
+    }
+
+    @Test
+    public void testSingleCharacterChunks() {
+        String json = "[{\"position\":\"A\",\"requirements\":\"Java, [Spring]\"},{\"position\":\"Zażółć\"}]";
+        JsonArrayStreamParser<JobPosition> parser = new JsonArrayStreamParser<>(objectMapper, JobPosition.class);
+
+        List<JobPosition> jobs = new ArrayList<>();
+        for (char c : json.toCharArray()) {
+            jobs.addAll(parser.feed(String.valueOf(c)));
+        }
+
+        assertEquals(2, jobs.size());
+        assertEquals("Java, [Spring]", jobs.get(0).getRequirements());
+        assertEquals("Zażółć", jobs.get(1).getPosition());
+        assertTrue(parser.isFinished());
+    }
+
+    @Test
+    public void testIncompleteArrayIsNotFinished() {
+        JsonArrayStreamParser<JobPosition> parser = new JsonArrayStreamParser<>(objectMapper, JobPosition.class);
+
+        List<JobPosition> jobs = parser.feed("[{\"position\":\"A\"},{\"position\":");
+
+        assertEquals(1, jobs.size());
+        assertFalse(parser.isFinished());
+    }
+
+    @Test
+    public void testArrayInsideWrapperProperty() {
+        String json = "{\"note\": {\"jobs\": [1]}, \"count\": 2, \"jobs\": [{\"position\":\"A\"},{\"position\":\"B\"}], \"x\": 1}";
+        JsonArrayStreamParser<JobPosition> parser = new JsonArrayStreamParser<>(objectMapper, JobPosition.class, "jobs");
+
+        List<JobPosition> jobs = new ArrayList<>();
+        for (int i = 0; i < json.length(); i += 3) {
+            jobs.addAll(parser.feed(json.substring(i, Math.min(json.length(), i + 3))));
+        }
+
+        assertEquals(List.of("A", "B"), jobs.stream().map(JobPosition::getPosition).toList());
+        assertTrue(parser.isFinished());
+    }
+
+    @Test
+    public void testBareArrayIsAcceptedWithWrapperProperty() {
+        JsonArrayStreamParser<JobPosition> parser = new JsonArrayStreamParser<>(objectMapper, JobPosition.class, "jobs");
+
+        List<JobPosition> jobs = parser.feed("```json\n[{\"position\":\"A\"}]\n```");
+
+        assertEquals(1, jobs.size());
+        assertTrue(parser.isFinished());
+    }
+
+    @Test
+    public void testMissingWrapperPropertyFails() {
+        JsonArrayStreamParser<JobPosition> parser = new JsonArrayStreamParser<>(objectMapper, JobPosition.class, "jobs");
+
+        RuntimeException error = assertThrows(RuntimeException.class,
+                () -> parser.feed("{\"positions\": [{\"position\":\"A\"}]}"));
+        assertTrue(error.getMessage().contains("\"jobs\""), error.getMessage());
+    }
+}
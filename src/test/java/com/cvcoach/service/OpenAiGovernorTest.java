@@ -0,0 +1,168 @@
+package com.cvcoach.service;
+
+import com.cvcoach.config.CvCoachProperties;
+import com.cvcoach.metrics.CvMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.http.HttpHeaders;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OpenAiGovernorTest {
+
+    private static final Prompt PROMPT = new Prompt("Suggest jobs");
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    public void testInteractiveCallsOvertakeQueuedBatchCalls() throws Exception {
+        CvCoachProperties properties = new CvCoachProperties();
+        properties.getAi().setMaxConcurrentCalls(1);
+        OpenAiGovernor governor = create(properties);
+
+        CountDownLatch firstCallRunning = new CountDownLatch(1);
+        CountDownLatch finishFirstCall = new CountDownLatch(1);
+        List<String> order = new CopyOnWriteArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+
+        try {
+            Future<?> first = executor.submit(() -> governor.call(OpenAiGovernor.Priority.BATCH, "test", PROMPT, () -> {
+                firstCallRunning.countDown();
+                await(finishFirstCall);
+                return response();
+            }));
+            firstCallRunning.await();
+
+            Future<?> batch = executor.submit(() -> governor.call(OpenAiGovernor.Priority.BATCH, "test", PROMPT,
+                    () -> record(order, "batch")));
+            waitForQueued(governor, 1);
+            Future<?> interactive = executor.submit(() -> governor.call(OpenAiGovernor.Priority.INTERACTIVE, "test",
+                    PROMPT, () -> record(order, "interactive")));
+            waitForQueued(governor, 2);
+
+            finishFirstCall.countDown();
+            first.get();
+            batch.get();
+            interactive.get();
+
+            assertEquals(List.of("interactive", "batch"), order);
+            assertEquals(0, governor.getInFlight());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testRateLimitedCallIsQueuedAgain() {
+        CvCoachProperties properties = new CvCoachProperties();
+        properties.getAi().setRateLimitBackoff(Duration.ofMillis(10));
+        OpenAiGovernor governor = create(properties);
+        AtomicInteger attempts = new AtomicInteger();
+
+        ChatResponse response = governor.call(OpenAiGovernor.Priority.INTERACTIVE, "test", PROMPT, () -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new OpenAiRateLimitException("429 - Rate limit reached", Duration.ofMillis(20));
+            }
+            return response();
+        });
+
+        assertNotNull(response);
+        assertEquals(3, attempts.get());
+        assertEquals(2, registry.get("cvcoach.llm.rate_limited").counter().count());
+    }
+
+    @Test
+    public void testRateLimitErrorReturnedAfterRetries() {
+        CvCoachProperties properties = new CvCoachProperties();
+        properties.getAi().setMaxRateLimitRetries(1);
+        OpenAiGovernor governor = create(properties);
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(OpenAiRateLimitException.class, () -> governor.call(OpenAiGovernor.Priority.BATCH, "test", PROMPT,
+                () -> {
+                    attempts.incrementAndGet();
+                    throw new OpenAiRateLimitException("429 - Rate limit reached", Duration.ofMillis(5));
+                }));
+        assertEquals(2, attempts.get());
+        assertEquals(0, governor.getInFlight());
+    }
+
+    @Test
+    public void testOtherErrorsAreNotRetried() {
+        OpenAiGovernor governor = create(new CvCoachProperties());
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(IllegalStateException.class, () -> governor.call(OpenAiGovernor.Priority.INTERACTIVE, "test",
+                PROMPT, () -> {
+                    attempts.incrementAndGet();
+                    throw new IllegalStateException("500 - Internal error");
+                }));
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    public void testEstimateCountsPromptTokens() {
+        CvCoachProperties properties = new CvCoachProperties();
+        TokenCounter tokenCounter = new TokenCounter(properties);
+        OpenAiGovernor governor = new OpenAiGovernor(properties, tokenCounter, new CvMetrics(registry));
+        String text = "Doświadczenie: Java, Spring Boot, Kubernetes; 5 lat w zespołach rozproszonych.";
+
+        int promptTokens = governor.promptTokens(new Prompt(text));
+
+        assertEquals(tokenCounter.count(text), promptTokens);
+        assertEquals(promptTokens + properties.getAi().getExpectedCompletionTokens(), governor.estimateTokens(promptTokens));
+    }
+
+    @Test
+    public void testRetryAfterReadFromHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.add("x-ratelimit-reset-requests", "1m30s");
+        headers.add("x-ratelimit-reset-tokens", "250ms");
+        assertEquals(Duration.ofSeconds(90), OpenAiRateLimitException.retryAfter(headers));
+
+        headers.add("retry-after", "2");
+        assertEquals(Duration.ofSeconds(2), OpenAiRateLimitException.retryAfter(headers));
+
+        assertNull(OpenAiRateLimitException.retryAfter(new HttpHeaders()));
+        assertNull(OpenAiRateLimitException.parseReset("soon"));
+    }
+
+    private OpenAiGovernor create(CvCoachProperties properties) {
+        return new OpenAiGovernor(properties, new TokenCounter(properties), new CvMetrics(registry));
+    }
+
+    private static ChatResponse record(List<String> order, String call) {
+        order.add(call);
+        return response();
+    }
+
+    private static ChatResponse response() {
+        return new ChatResponse(List.of(new Generation("[]")));
+    }
+
+    private static void waitForQueued(OpenAiGovernor governor, int queued) throws InterruptedException {
+        while (governor.getQueued() < queued) {
+            Thread.sleep(1);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.cvcoach.service;
+
+import com.cvcoach.config.CvCoachProperties;
+import com.cvcoach.metrics.CvMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.retry.NonTransientAiException;
+import org.springframework.ai.retry.TransientAiException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OpenAiResilienceTest {
+
+    private static final Prompt PROMPT = new Prompt("Suggest jobs");
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final CvCoachProperties properties = new CvCoachProperties();
+    private OpenAiResilience resilience;
+
+    @AfterEach
+    public void tearDown() {
+        if (resilience != null) {
+            resilience.shutdown();
+        }
+    }
+
+    @Test
+    public void testTransientErrorsAreRetried() {
+        properties.getAi().getResilience().setInitialBackoff(Duration.ofMillis(1));
+        resilience = create();
+        AtomicInteger attempts = new AtomicInteger();
+
+        ChatResponse response = resilience.call(OpenAiGovernor.Priority.BATCH, "test", PROMPT, () -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new TransientAiException("503 - Service unavailable");
+            }
+            return response();
+        });
+
+        assertNotNull(response);
+        assertEquals(3, attempts.get());
+        assertEquals(2, registry.get("cvcoach.llm.resilience").tag("event", "retry").counter().count());
+    }
+
+    @Test
+    public void testClientErrorsAreNotRetried() {
+        resilience = create();
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(NonTransientAiException.class, () -> resilience.call(OpenAiGovernor.Priority.BATCH, "test",
+                PROMPT, () -> {
+                    attempts.incrementAndGet();
+                    throw new NonTransientAiException("400 - Bad request");
+                }));
+        assertEquals(1, attempts.get());
+        assertEquals(CircuitBreaker.State.CLOSED, resilience.getCircuitState());
+    }
+
+    @Test
+    public void testOpenCircuitRejectsCallsWithoutCallingOpenAi() {
+        CvCoachProperties.Resilience settings = properties.getAi().getResilience();
+        settings.setMaxAttempts(1);
+        settings.setMinimumCalls(2);
+        settings.setSlidingWindowSize(2);
+        resilience = create();
+        AtomicInteger attempts = new AtomicInteger();
+
+        for (int i = 0; i < 2; i++) {
+            assertThrows(OpenAiUnavailableException.class, () -> resilience.call(OpenAiGovernor.Priority.BATCH,
+                    "test", PROMPT, () -> {
+                        attempts.incrementAndGet();
+                        throw new TransientAiException("502 - Bad gateway");
+                    }));
+        }
+        assertEquals(CircuitBreaker.State.OPEN, resilience.getCircuitState());
+
+        OpenAiUnavailableException rejected = assertThrows(OpenAiUnavailableException.class,
+                () -> resilience.call(OpenAiGovernor.Priority.BATCH, "test", PROMPT, () -> {
+                    attempts.incrementAndGet();
+                    return response();
+                }));
+        assertEquals(2, attempts.get());
+        assertTrue(rejected.getRetryAfter().compareTo(Duration.ZERO) > 0);
+    }
+
+    @Test
+    public void testSlowCallIsHedged() {
+        CvCoachProperties.Resilience settings = properties.getAi().getResilience();
+        settings.setHedgeMinSamples(5);
+        settings.setMinHedgeDelay(Duration.ofMillis(20));
+        resilience = create();
+
+        for (int i = 0; i < 5; i++) {
+            resilience.call(OpenAiGovernor.Priority.INTERACTIVE, "test", PROMPT, OpenAiResilienceTest::response);
+        }
+
+        AtomicInteger attempts = new AtomicInteger();
+        long start = System.nanoTime();
+        ChatResponse response = resilience.call(OpenAiGovernor.Priority.INTERACTIVE, "test", PROMPT, () -> {
+            if (attempts.incrementAndGet() == 1) {
+                sleep(5_000);
+            }
+            return response();
+        });
+
+        assertNotNull(response);
+        assertEquals(2, attempts.get());
+        assertTrue(System.nanoTime() - start < Duration.ofSeconds(2).toNanos(), "hedged request did not win");
+        assertEquals(1, registry.get("cvcoach.llm.resilience").tag("event", "hedge").counter().count());
+    }
+
+    private OpenAiResilience create() {
+        CvMetrics cvMetrics = new CvMetrics(registry);
+        return new OpenAiResilience(new OpenAiGovernor(properties, new TokenCounter(properties), cvMetrics), cvMetrics, properties);
+    }
+
+    private static ChatResponse response() {
+        return new ChatResponse(List.of(new Generation("[]")));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.cvcoach.service;
+
+import com.cvcoach.config.CvCoachProperties;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OwnerTokenServiceTest {
+
+    @Test
+    public void testAcceptsIssuedIds() {
+        OwnerTokenService service = create("secret");
+
+        String ownerId = service.issue();
+
+        assertTrue(ownerId.matches("[A-Za-z0-9_-]{43}"));
+        assertTrue(service.isIssued(ownerId));
+        assertNotEquals(ownerId, service.issue());
+    }
+
+    @Test
+    public void testRejectsIdsChosenByClients() {
+        OwnerTokenService service = create("secret");
+
+        assertFalse(service.isIssued(null));
+        assertFalse(service.isIssued("alice"));
+        assertFalse(service.isIssued("legacy"));
+        assertFalse(service.isIssued("not base64!"));
+
+        String ownerId = service.issue();
+        char last = ownerId.charAt(0) == 'A' ? 'B' : 'A';
+        assertFalse(service.isIssued(last + ownerId.substring(1)));
+    }
+
+    @Test
+    public void testIdsSurviveRestartWithSameSecret() {
+        String ownerId = create("secret").issue();
+
+        assertTrue(create("secret").isIssued(ownerId));
+        assertFalse(create("other").isIssued(ownerId));
+    }
+
+    private static OwnerTokenService create(String secret) {
+        CvCoachProperties properties = new CvCoachProperties();
+        properties.getOwner().setTokenSecret(secret);
+        return new OwnerTokenService(properties);
+    }
+}
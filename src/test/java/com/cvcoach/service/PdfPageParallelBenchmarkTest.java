@@ -0,0 +1,77 @@
+package com.cvcoach.service;
+
+import com.cvcoach.config.CvCoachProperties;
+import com.cvcoach.metrics.CvMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Latency and CPU time of single-threaded vs page-parallel extraction for synthetic
+ * 1-100 page PDFs. CPU time is the process total, so it includes the pool threads.
+ */
+@Tag("benchmark")
+public class PdfPageParallelBenchmarkTest {
+
+    private static final int[] PAGE_COUNTS = {1, 5, 10, 20, 50, 100};
+    private static final int WARMUP_RUNS = 3;
+    private static final int MEASURED_RUNS = 10;
+
+    @Test
+    public void testPageParallelExtraction() throws Exception {
+        PdfParserService sequential = parser(Integer.MAX_VALUE);
+        PdfParserService parallel = parser(20);
+
+        System.out.printf("%6s | %14s %14s | %14s %14s%n",
+                "pages", "seq p50 ms", "seq cpu ms", "par p50 ms", "par cpu ms");
+
+        for (int pages : PAGE_COUNTS) {
+            byte[] pdf = SyntheticPdfs.cv(pages);
+            assertEquals(sequential.extractText(new ByteArrayInputStream(pdf)),
+                    parallel.extractText(new ByteArrayInputStream(pdf)));
+
+            Result seq = measure(sequential, pdf);
+            Result par = measure(parallel, pdf);
+            System.out.printf("%6d | %14.1f %14.1f | %14.1f %14.1f%n",
+                    pages, seq.p50Millis(), seq.cpuMillis(), par.p50Millis(), par.cpuMillis());
+        }
+
+        sequential.shutdown();
+        parallel.shutdown();
+    }
+
+    private static Result measure(PdfParserService service, byte[] pdf) throws Exception {
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            service.extractText(new ByteArrayInputStream(pdf));
+        }
+
+        com.sun.management.OperatingSystemMXBean os =
+                (com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+        long[] latencies = new long[MEASURED_RUNS];
+        long cpuBefore = os.getProcessCpuTime();
+
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            long start = System.nanoTime();
+            service.extractText(new ByteArrayInputStream(pdf));
+            latencies[i] = System.nanoTime() - start;
+        }
+
+        long cpuPerRun = (os.getProcessCpuTime() - cpuBefore) / MEASURED_RUNS;
+        Arrays.sort(latencies);
+        return new Result(latencies[MEASURED_RUNS / 2] / 1e6, cpuPerRun / 1e6);
+    }
+
+    private static PdfParserService parser(int parallelPageThreshold) {
+        CvCoachProperties properties = new CvCoachProperties();
+        properties.getPdf().setParallelPageThreshold(parallelPageThreshold);
+        return new PdfParserService(properties, new CvMetrics(new SimpleMeterRegistry()));
+    }
+
+    private record Result(double p50Millis, double cpuMillis) {}
+}
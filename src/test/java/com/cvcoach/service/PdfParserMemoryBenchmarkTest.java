@@ -0,0 +1,162 @@
+package com.cvcoach.service;
+
+import com.cvcoach.config.CvCoachProperties;
+import com.cvcoach.metrics.CvMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.cos.COSStream;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Heap held by 50 concurrent 4MB uploads. Each PDF carries an incompressible 4MB stream that
+ * text extraction never decodes, so file-backed parses in flight should hold a small fraction
+ * of the file size each, while heap-copy parses hold at least the file.
+ *
+ * The heap is measured on all threads: a sampler forces a GC and reads the used heap while the
+ * uploads run, so garbage is not counted and the page extraction pool would be. The single-page
+ * PDF stays below parallel-page-threshold anyway.
+ */
+@Tag("benchmark")
+public class PdfParserMemoryBenchmarkTest {
+
+    private static final int UPLOADS = 50;
+    private static final int ROUNDS = 10;
+    private static final int FILLER_BYTES = 4 * 1024 * 1024;
+
+    @TempDir
+    static Path tempDir;
+
+    private static Path pdf;
+
+    @BeforeAll
+    public static void createPdf() throws Exception {
+        pdf = tempDir.resolve("cv.pdf");
+
+        try (PDDocument document = new PDDocument()) {
+            PDPage page = new PDPage();
+            document.addPage(page);
+
+            try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                content.beginText();
+                content.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA), 12);
+                content.newLineAtOffset(50, 700);
+                content.showText("John Peterson - Senior Java Developer, Warsaw");
+                content.endText();
+            }
+
+            byte[] filler = new byte[FILLER_BYTES];
+            new Random(42).nextBytes(filler);
+            COSStream stream = document.getDocument().createCOSStream();
+            try (OutputStream out = stream.createRawOutputStream()) {
+                out.write(filler);
+            }
+            page.getCOSObject().setItem(COSName.getPDFName("Filler"), stream);
+
+            document.save(pdf.toFile());
+        }
+    }
+
+    @Test
+    public void testFileBackedParsingHoldsFractionOfFileSize() throws Exception {
+        long peak = measurePeakHeap(true);
+        long fileSize = Files.size(pdf);
+
+        System.out.printf("File-backed: %d KB peak heap for %d concurrent %d KB uploads%n",
+                peak / 1024, UPLOADS, fileSize / 1024);
+        assertTrue(peak < UPLOADS * fileSize / 2,
+                "file-backed parsing held " + peak + " bytes for " + UPLOADS + " uploads");
+    }
+
+    @Test
+    public void testHeapCopyParsingHoldsWholeFiles() throws Exception {
+        long peak = measurePeakHeap(false);
+        long fileSize = Files.size(pdf);
+
+        System.out.printf("Heap copy: %d KB peak heap for %d concurrent %d KB uploads%n",
+                peak / 1024, UPLOADS, fileSize / 1024);
+        assertTrue(peak >= UPLOADS * fileSize / 2);
+    }
+
+    /**
+     * Parse the PDF on UPLOADS threads at once, ROUNDS times each, and return the largest
+     * heap growth over the idle heap seen while they run
+     */
+    private long measurePeakHeap(boolean fileBacked) throws Exception {
+        CvCoachProperties properties = new CvCoachProperties();
+        properties.getPdf().setFileBacked(fileBacked);
+        properties.getPdf().setScratchDirectory(tempDir.toString());
+        PdfParserService service = new PdfParserService(properties, new CvMetrics(new SimpleMeterRegistry()));
+        assertTrue(properties.getPdf().getParallelPageThreshold() > 1);
+
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long idle = usedHeapAfterGc(memory);
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicLong peak = new AtomicLong(idle);
+        Thread sampler = Thread.ofPlatform().start(() -> {
+            while (running.get()) {
+                peak.accumulateAndGet(usedHeapAfterGc(memory), Math::max);
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+            }
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(UPLOADS);
+        CyclicBarrier start = new CyclicBarrier(UPLOADS);
+        try {
+            List<Future<?>> uploads = new ArrayList<>();
+            for (int i = 0; i < UPLOADS; i++) {
+                uploads.add(executor.submit(() -> {
+                    start.await();
+                    for (int round = 0; round < ROUNDS; round++) {
+                        String text = fileBacked
+                                ? service.extractText(pdf)
+                                : service.extractText(new ByteArrayInputStream(Files.readAllBytes(pdf)));
+                        assertTrue(text.contains("Java Developer"));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> upload : uploads) {
+                upload.get();
+            }
+        } finally {
+            running.set(false);
+            sampler.join();
+            executor.shutdown();
+            service.shutdown();
+        }
+        return peak.get() - idle;
+    }
+
+    private static long usedHeapAfterGc(MemoryMXBean memory) {
+        System.gc();
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,42 @@
+package com.cvcoach.service;
+
+import com.cvcoach.config.CvCoachProperties;
+import com.cvcoach.metrics.CvMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PdfParserServiceTest {
+
+    @Test
+    public void testParallelExtractionMatchesSinglePass() throws Exception {
+        byte[] pdf = SyntheticPdfs.cv(30);
+
+        String sequential = parser(Integer.MAX_VALUE).extractText(new ByteArrayInputStream(pdf));
+        String parallel = parser(2).extractText(new ByteArrayInputStream(pdf));
+
+        assertEquals(sequential, parallel);
+    }
+
+    @Test
+    public void testParallelExtractionKeepsPageOrder() throws Exception {
+        String text = parser(2).extractText(new ByteArrayInputStream(SyntheticPdfs.cv(25)));
+
+        int previous = -1;
+        for (int page = 1; page <= 25; page++) {
+            int index = text.indexOf("Page " + page + " line 1:");
+            assertTrue(index > previous, "page " + page + " out of order");
+            previous = index;
+        }
+    }
+
+    private static PdfParserService parser(int parallelPageThreshold) {
+        CvCoachProperties properties = new CvCoachProperties();
+        properties.getPdf().setParallelPageThreshold(parallelPageThreshold);
+        properties.getPdf().setPagesPerTask(3);
+        return new PdfParserService(properties, new CvMetrics(new SimpleMeterRegistry()));
+    }
+}
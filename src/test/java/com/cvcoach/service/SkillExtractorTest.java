@@ -0,0 +1,85 @@
+package com.cvcoach.service;
+
+import com.cvcoach.config.CvCoachProperties;
+import com.cvcoach.metrics.CvMetrics;
+import com.cvcoach.skills.SkillExtraction;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SkillExtractorTest {
+
+    private final CvCoachProperties properties = new CvCoachProperties();
+    private final CvMetrics cvMetrics = new CvMetrics(new SimpleMeterRegistry());
+
+    @Test
+    public void testBundledDictionaryFindsSkillsAndBranch() throws IOException {
+        SkillExtraction extraction = new SkillExtractor(properties, cvMetrics).extract(resource("english-two-pages.txt"));
+
+        assertTrue(extraction.hardSkills().containsAll(List.of("Java", "Spring Boot", "Kafka", "Kubernetes")),
+                extraction.toString());
+        assertEquals("Software Development", extraction.jobBranch());
+        assertTrue(extraction.softSkills().contains("Leadership"));
+    }
+
+    @Test
+    public void testAliasesBoundariesAndCase() {
+        SkillExtraction extraction = new SkillExtractor(properties, cvMetrics).extract("""
+                Senior Java Developer. Ran services on k8s, wrote C++ and some JavaScript.
+                Spring
+                Boot, React Native. The rest of the team used golang.
+                """);
+
+        assertEquals(List.of("Java", "Kubernetes", "C++", "JavaScript", "Spring Boot", "React Native", "Go"),
+                extraction.hardSkills());
+        assertFalse(extraction.hardSkills().contains("REST"), "lower-case \\"rest\\" is not the REST skill");
+    }
+
+    @Test
+    public void testReloadsChangedDictionaryFile(@TempDir Path directory) throws IOException {
+        Path dictionary = directory.resolve("skills.csv");
+        Files.writeString(dictionary, """
+                name,type,branch,aliases,case_sensitive
+                Kubernetes,hard,DevOps,k8s,
+                """);
+        properties.getSkills().setDictionary(dictionary.toUri().toString());
+        properties.getSkills().setReloadInterval(Duration.ZERO);
+        SkillExtractor extractor = new SkillExtractor(properties, cvMetrics);
+
+        assertEquals(List.of("Kubernetes"), extractor.extract("k8s and Terraform").hardSkills());
+
+        Files.writeString(dictionary, """
+                name,type,branch,aliases,case_sensitive
+                Kubernetes,hard,DevOps,k8s,
+                Terraform,hard,DevOps,tf,
+                """);
+        Files.setLastModifiedTime(dictionary, FileTime.from(Instant.now().plusSeconds(10)));
+
+        SkillExtraction reloaded = extractor.extract("k8s and Terraform");
+        assertEquals(List.of("Kubernetes", "Terraform"), reloaded.hardSkills());
+        assertEquals("DevOps", reloaded.jobBranch());
+
+        Files.writeString(dictionary, "name,type\nBroken,unknown-type\n");
+        Files.setLastModifiedTime(dictionary, FileTime.from(Instant.now().plusSeconds(20)));
+
+        assertEquals(2, extractor.getDictionary().size(), "a broken file keeps the previous dictionary");
+    }
+
+    private static String resource(String name) throws IOException {
+        try (InputStream input = SkillExtractorTest.class.getResourceAsStream("/compaction/" + name)) {
+            return TextNormalizer.normalize(new String(input.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+}
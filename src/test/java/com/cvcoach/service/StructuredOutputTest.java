@@ -0,0 +1,70 @@
+package com.cvcoach.service;
+
+import com.cvcoach.model.CvData;
+import com.cvcoach.model.JobPosition;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StructuredOutputTest {
+
+    private static final StructuredOutput<CvData> CV_OUTPUT = StructuredOutput.of("cv_analysis", CvData.class);
+    private static final StructuredOutput<List<JobPosition>> JOBS_OUTPUT =
+            StructuredOutput.listOf("job_positions", "jobs", JobPosition.class);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void testSchemaIsStrict() throws Exception {
+        JsonNode schema = objectMapper.readTree(CV_OUTPUT.getSchema());
+
+        assertEquals("object", schema.path("type").asText());
+        assertFalse(schema.path("additionalProperties").asBoolean(true));
+        assertEquals(7, schema.path("required").size());
+        assertEquals("integer", schema.path("properties").path("totalExperienceYears").path("type").get(0).asText());
+
+        JsonNode jobs = objectMapper.readTree(JOBS_OUTPUT.getSchema()).path("properties").path("jobs");
+        assertEquals("array", jobs.path("type").asText());
+        assertEquals(4, jobs.path("items").path("required").size());
+    }
+
+    @Test
+    public void testDecodesPlainAndFencedJson() {
+        String json = "{\"location\": \"Warsaw\", \"totalExperienceYears\": 9}";
+
+        assertEquals("Warsaw", CV_OUTPUT.decode(objectMapper, json).getLocation());
+        assertEquals(9, CV_OUTPUT.decode(objectMapper, "```json\n" + json + "\n```").getTotalExperienceYears());
+        assertEquals("Warsaw", CV_OUTPUT.decode(objectMapper, "Here is the result:\n" + json).getLocation());
+    }
+
+    @Test
+    public void testDecodesWrappedAndBareArrays() {
+        String job = "{\"position\": \"Java Developer\", \"company\": \"Allegro\"}";
+
+        assertEquals(1, JOBS_OUTPUT.decode(objectMapper, "{\"jobs\": [" + job + "]}").size());
+        assertEquals(2, JOBS_OUTPUT.decode(objectMapper, "```json\n[" + job + ", " + job + "]\n```").size());
+    }
+
+    @Test
+    public void testRepairsTrailingCommasAndTruncatedOutput() {
+        List<JobPosition> jobs = JOBS_OUTPUT.decode(objectMapper,
+                "[{\"position\": \"Java Developer\", \"company\": \"Allegro\",}, {\"position\": \"Tech Le");
+
+        assertEquals(2, jobs.size());
+        assertEquals("Allegro", jobs.get(0).getCompany());
+        assertEquals("Tech Le", jobs.get(1).getPosition());
+
+        assertEquals("{\"a\": null}", StructuredOutput.repair("{\"a\": "));
+        assertEquals("[1, 2]", StructuredOutput.repair("```json\n[1, 2,]\n```"));
+    }
+
+    @Test
+    public void testUnrepairableResponseFails() {
+        assertThrows(AiResponseParseException.class, () -> CV_OUTPUT.decode(objectMapper, "I cannot help with that."));
+        assertThrows(AiResponseParseException.class, () -> CV_OUTPUT.decode(objectMapper, "{\"location\": Warsaw}"));
+    }
+}
@@ -0,0 +1,52 @@
+package com.cvcoach.service;
+
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+
+/**
+ * Local stand-in for OpenAI that answers instantly with canned, realistic responses:
+ * CV analysis JSON for analysis prompts and a markdown-fenced job array otherwise
+ */
+class StubChatModel implements ChatModel {
+
+    static final String ANALYSIS_RESPONSE = """
+            {
+              "location": "Warsaw, Poland",
+              "hardSkills": "Java; Spring Boot; Hibernate; Kubernetes; Kafka; PostgreSQL; AWS",
+              "softSkills": "Leadership; Communication; Mentoring; Problem solving",
+              "education": "MSc Computer Science",
+              "totalExperienceYears": 9,
+              "jobBranch": "Software Development",
+              "branchExperienceYears": 8
+            }
+            """;
+
+    static final String JOBS_RESPONSE = """
+            ```json
+            [
+              {"position": "Senior Java Developer", "company": "Allegro", "requirements": "Java 17, Spring Boot, Kafka, 5+ years", "matchReason": "Strong Spring Boot and Kafka background"},
+              {"position": "Backend Tech Lead", "company": "Revolut", "requirements": "JVM, distributed systems, leadership", "matchReason": "Led teams and built microservices"},
+              {"position": "Platform Engineer", "company": "ING Tech Poland", "requirements": "Kubernetes, AWS, Java", "matchReason": "Kubernetes and AWS experience"}
+            ]
+            ```
+            """;
+
+    @Override
+    public ChatResponse call(Prompt prompt) {
+        return new ChatResponse(List.of(new Generation(respond(prompt))));
+    }
+
+    @Override
+    public Flux<ChatResponse> stream(Prompt prompt) {
+        return Flux.just(call(prompt));
+    }
+
+    private static String respond(Prompt prompt) {
+        return prompt.getContents().contains("CV Content:") ? ANALYSIS_RESPONSE : JOBS_RESPONSE;
+    }
+}
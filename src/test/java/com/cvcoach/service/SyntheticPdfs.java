@@ -0,0 +1,53 @@
+package com.cvcoach.service;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+/**
+ * Generates text-only CV-like PDFs with a given number of pages for tests and benchmarks
+ */
+final class SyntheticPdfs {
+
+    private static final int LINES_PER_PAGE = 40;
+
+    private SyntheticPdfs() {
+    }
+
+    /**
+     * @param pages Number of pages
+     * @return PDF content; each line states its page and line number
+     */
+    static byte[] cv(int pages) throws IOException {
+        try (PDDocument document = new PDDocument()) {
+            PDType1Font font = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+
+            for (int page = 1; page <= pages; page++) {
+                PDPage pdPage = new PDPage();
+                document.addPage(pdPage);
+
+                try (PDPageContentStream content = new PDPageContentStream(document, pdPage)) {
+                    content.beginText();
+                    content.setFont(font, 10);
+                    content.setLeading(14);
+                    content.newLineAtOffset(50, 740);
+                    for (int line = 1; line <= LINES_PER_PAGE; line++) {
+                        content.showText("Page " + page + " line " + line
+                                + ": Senior Java Developer, Spring Boot, Kubernetes, team lead, Warsaw");
+                        content.newLine();
+                    }
+                    content.endText();
+                }
+            }
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            document.save(out);
+            return out.toByteArray();
+        }
+    }
+}
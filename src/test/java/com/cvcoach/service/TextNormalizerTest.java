@@ -0,0 +1,71 @@
+package com.cvcoach.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TextNormalizerTest {
+
+    /**
+     * The regex chain TextNormalizer replaced
+     */
+    static String legacyCleanText(String text) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+
+        return text
+                .replaceAll("\\r\\n", "\n")
+                .replaceAll("\\r", "\n")
+                .replaceAll("\\n{3,}", "\n\n")
+                .replaceAll("[ \\t]{2,}", " ")
+                .trim();
+    }
+
+    @Test
+    public void testMatchesLegacyCleanTextOnRandomInput() {
+        char[] alphabet = {'a', 'b', ' ', '\t', '\n', '\r'};
+        Random random = new Random(42);
+
+        for (int i = 0; i < 100_000; i++) {
+            StringBuilder input = new StringBuilder();
+            int length = random.nextInt(24);
+            for (int j = 0; j < length; j++) {
+                input.append(alphabet[random.nextInt(alphabet.length)]);
+            }
+
+            String text = input.toString();
+            assertEquals(legacyCleanText(text), TextNormalizer.normalize(text), () -> "input: " + escape(text));
+        }
+    }
+
+    @Test
+    public void testMatchesLegacyCleanTextOnExtractedCv() {
+        String raw = "  John Peterson\r\n\r\n\r\n\r\nSenior   Java Developer\t\tWarsaw\n\n\n\nSkills:\tJava, Spring \n ";
+
+        assertEquals(legacyCleanText(raw), TextNormalizer.normalize(raw));
+    }
+
+    @Test
+    public void testNullAndEmpty() {
+        assertEquals("", TextNormalizer.normalize(null));
+        assertEquals("", TextNormalizer.normalize(""));
+        assertEquals("", TextNormalizer.normalize(" \r\n\t "));
+    }
+
+    @Test
+    public void testStripsControlCharacters() {
+        assertEquals("Java Developer", TextNormalizer.normalize("\u0000Java\u0007 Developer\f"));
+    }
+
+    @Test
+    public void testExpandsLigatures() {
+        assertEquals("efficient office staff", TextNormalizer.normalize("e\uFB03cient of\uFB01ce sta\uFB00"));
+    }
+
+    private static String escape(String text) {
+        return text.replace("\r", "\\r").replace("\n", "\\n").replace("\t", "\\t");
+    }
+}
@@ -0,0 +1,115 @@
+package com.cvcoach.service;
+
+import com.cvcoach.config.CvCoachProperties;
+import com.cvcoach.metrics.CvMetrics;
+import com.cvcoach.model.AnalysisStage;
+import com.cvcoach.model.AnalysisStatus;
+import com.cvcoach.model.CvData;
+import com.cvcoach.model.CvDataEntity;
+import com.cvcoach.repository.CvDataRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Load test for virtual-thread execution mode: thousands of analyses blocked on a
+ * simulated one-second OpenAI call run concurrently without adding platform threads.
+ */
+@Tag("benchmark")
+public class VirtualThreadLoadTest {
+
+    private static final int ANALYSES = 5_000;
+    private static final long LLM_LATENCY_MS = 1_000;
+
+    @Test
+    public void testThousandsOfInFlightAnalysesOnVirtualThreads() throws Exception {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger peakInFlight = new AtomicInteger();
+
+        PdfParserService pdfParserService = mock(PdfParserService.class);
+        when(pdfParserService.extractText(any(Path.class))).thenReturn("John Peterson, Java Developer");
+
+        CvAnalysisService cvAnalysisService = mock(CvAnalysisService.class);
+        when(cvAnalysisService.analyzeCv(anyString(), anyBoolean())).thenAnswer(invocation -> {
+            peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(LLM_LATENCY_MS);
+            } finally {
+                inFlight.decrementAndGet();
+            }
+            return CvData.builder().location("Warsaw, Poland").jobBranch("IT").build();
+        });
+
+        CvDataRepository cvDataRepository = mock(CvDataRepository.class);
+        AtomicInteger saved = new AtomicInteger();
+        when(cvDataRepository.save(any(CvDataEntity.class))).thenAnswer(invocation -> {
+            saved.incrementAndGet();
+            CvDataEntity entity = invocation.getArgument(0);
+            entity.setId(1L);
+            return entity;
+        });
+
+        CvCoachProperties properties = new CvCoachProperties();
+        properties.getExecution().setVirtualMaxConcurrency(ANALYSES);
+        properties.getAsync().setQueueCapacity(ANALYSES);
+
+        AsyncAnalysisService service = new AsyncAnalysisService(
+                pdfParserService, cvAnalysisService, cvDataRepository,
+                new CvMetrics(new SimpleMeterRegistry()), properties, true);
+
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        int platformThreadsBefore = threads.getThreadCount();
+
+        long start = System.nanoTime();
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < ANALYSES; i++) {
+            ids.add(service.submit(Path.of("load-test.pdf"), "load-test", false));
+        }
+
+        // More analyses are in flight than finished statuses are retained, none may be evicted
+        assertTrue(ids.stream().allMatch(id -> service.getStatus(id).isPresent()), "in-flight analysis evicted");
+
+        // A missing status belongs to an analysis that finished and was evicted since
+        int retainedJobs = properties.getAsync().getRetainedJobs();
+        int peakPlatformThreads = platformThreadsBefore;
+        while (retainedStages(service, ids).size() > retainedJobs
+                || retainedStages(service, ids).stream().anyMatch(stage -> !stage.isTerminal())) {
+            peakPlatformThreads = Math.max(peakPlatformThreads, threads.getThreadCount());
+            Thread.sleep(50);
+        }
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        service.shutdown();
+
+        System.out.printf("%d analyses in %d ms, peak in-flight %d, platform threads %d -> %d%n",
+                ANALYSES, elapsedMs, peakInFlight.get(), platformThreadsBefore, peakPlatformThreads);
+
+        List<AnalysisStage> retained = retainedStages(service, ids);
+        assertEquals(ANALYSES, saved.get());
+        assertEquals(retainedJobs, retained.size());
+        assertTrue(retained.stream().allMatch(stage -> stage == AnalysisStage.COMPLETED));
+        assertTrue(peakInFlight.get() >= 1_000, "expected thousands of concurrent analyses");
+        assertTrue(peakPlatformThreads - platformThreadsBefore < 64, "platform thread count grew");
+        assertTrue(elapsedMs < ANALYSES * LLM_LATENCY_MS / 100, "analyses did not overlap");
+    }
+
+    private static List<AnalysisStage> retainedStages(AsyncAnalysisService service, List<String> ids) {
+        return ids.stream()
+                .flatMap(id -> service.getStatus(id).stream())
+                .map(AnalysisStatus::stage)
+                .toList();
+    }
+}
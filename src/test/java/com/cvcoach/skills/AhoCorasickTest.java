@@ -0,0 +1,53 @@
+package com.cvcoach.skills;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AhoCorasickTest {
+
+    @Test
+    public void testFindsOverlappingPatterns() {
+        AhoCorasick automaton = new AhoCorasick(List.of("he", "she", "his", "hers"));
+
+        List<String> matches = new ArrayList<>();
+        automaton.scan("ushers", (pattern, start, end) -> matches.add(pattern + "@" + start + "-" + end));
+
+        // "she" and its suffix "he" end at the same position, then "hers"
+        assertEquals(List.of("1@1-4", "0@2-4", "3@2-6"), matches);
+    }
+
+    @Test
+    public void testIgnoresCaseAndWhitespaceKind() {
+        AhoCorasick automaton = new AhoCorasick(List.of("spring boot", "c++"));
+
+        List<Integer> matches = new ArrayList<>();
+        automaton.scan("SPRING\nBoot and C++", (pattern, start, end) -> matches.add(pattern));
+
+        assertEquals(List.of(0, 1), matches);
+    }
+
+    @Test
+    public void testMatchesMatchBruteForce() {
+        List<String> patterns = List.of("a", "ab", "bab", "bc", "bca", "c", "caa", "abcab");
+        AhoCorasick automaton = new AhoCorasick(patterns);
+        String text = "abccabbcaabcabbab";
+
+        List<String> expected = new ArrayList<>();
+        for (int end = 1; end <= text.length(); end++) {
+            for (int pattern = 0; pattern < patterns.size(); pattern++) {
+                int start = end - patterns.get(pattern).length();
+                if (start >= 0 && text.startsWith(patterns.get(pattern), start)) {
+                    expected.add(pattern + "@" + start);
+                }
+            }
+        }
+        List<String> actual = new ArrayList<>();
+        automaton.scan(text, (pattern, start, end) -> actual.add(pattern + "@" + start));
+
+        assertEquals(expected.stream().sorted().toList(), actual.stream().sorted().toList());
+    }
+}
@@ -0,0 +1,89 @@
+package com.cvcoach.skills;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Skill queries over many CVs: bitsets of interned skill IDs against splitting and comparing
+ * the semicolon-separated skill strings stored in cv_data, the only option without the index.
+ * Skill popularity is skewed like in real CVs, so common skills get low IDs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CvSkillIndexBenchmark {
+
+    private static final int SKILLS = 3000;
+    private static final int SKILLS_PER_CV = 15;
+
+    @Param({"10000", "300000"})
+    public int cvCount;
+
+    private CvSkillIndex index;
+    private String[] skillStrings;
+    private long[] cvSkills;
+    private long[] query;
+    private Set<String> queryNames;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        index = new CvSkillIndex();
+        skillStrings = new String[cvCount];
+        for (int cv = 0; cv < cvCount; cv++) {
+            int[] ids = new int[SKILLS_PER_CV];
+            StringBuilder text = new StringBuilder();
+            for (int i = 0; i < ids.length; i++) {
+                // Zipf-like: low IDs are far more common
+                ids[i] = (int) Math.min(SKILLS - 1, Math.floor(Math.pow(SKILLS, random.nextDouble())) - 1);
+                text.append(i == 0 ? "" : "; ").append("Skill ").append(ids[i]);
+            }
+            index.put(cv, ids);
+            skillStrings[cv] = text.toString();
+        }
+
+        int[] queryIds = {3, 10, 42, 150, 900};
+        query = CvSkillIndex.bitset(queryIds);
+        queryNames = new HashSet<>();
+        for (int id : queryIds) {
+            queryNames.add("skill " + id);
+        }
+        cvSkills = index.get(0);
+    }
+
+    @Benchmark
+    public List<CvSkillIndex.Match> bitsetSearch() {
+        return index.withAtLeast(query, 2, 100);
+    }
+
+    @Benchmark
+    public int stringSearch() {
+        int found = 0;
+        for (String skills : skillStrings) {
+            int matched = 0;
+            for (String skill : skills.split(";")) {
+                if (queryNames.contains(skill.strip().toLowerCase(Locale.ROOT))) {
+                    matched++;
+                }
+            }
+            if (matched >= 2) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    public int bitsetOverlap() {
+        return CvSkillIndex.overlap(cvSkills, query);
+    }
+}
@@ -0,0 +1,86 @@
+package com.cvcoach.skills;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CvSkillIndexTest {
+
+    @Test
+    public void testBitsetOperations() {
+        long[] cv = CvSkillIndex.bitset(new int[]{1, 5, 64, 200, 5});
+        long[] job = CvSkillIndex.bitset(new int[]{5, 64, 65, 300});
+
+        assertEquals(4, cv.length);
+        assertEquals(4, CvSkillIndex.count(cv));
+        assertEquals(2, CvSkillIndex.overlap(cv, job));
+        assertArrayEquals(new int[]{5, 64}, CvSkillIndex.common(cv, job));
+        assertArrayEquals(new int[]{65, 300}, CvSkillIndex.difference(job, cv));
+        assertArrayEquals(new int[]{1, 5, 64, 200}, CvSkillIndex.ids(cv));
+        assertEquals(0, CvSkillIndex.bitset(new int[0]).length);
+    }
+
+    @Test
+    public void testFindsCvsWithAtLeastMinSkills() {
+        CvSkillIndex index = new CvSkillIndex();
+        index.put(1, new int[]{1, 2, 3});
+        index.put(2, new int[]{1, 2});
+        index.put(3, new int[]{1, 70, 130});
+        index.put(4, new int[]{});
+
+        long[] query = CvSkillIndex.bitset(new int[]{1, 2, 130});
+
+        assertEquals(List.of(new CvSkillIndex.Match(1, 2), new CvSkillIndex.Match(2, 2), new CvSkillIndex.Match(3, 2)),
+                index.withAtLeast(query, 2, 10).stream()
+                        .sorted((a, b) -> Long.compare(a.cvId(), b.cvId()))
+                        .toList());
+        // Equal matches are returned most recently indexed first
+        assertEquals(List.of(new CvSkillIndex.Match(3, 2), new CvSkillIndex.Match(2, 2)),
+                index.withAtLeast(query, 2, 2));
+        assertEquals(List.of(), index.withAtLeast(query, 4, 10));
+    }
+
+    @Test
+    public void testPutReplacesSkillsOfCv() {
+        CvSkillIndex index = new CvSkillIndex();
+        index.put(7, new int[]{1});
+        index.put(7, new int[]{2, 3});
+
+        assertEquals(1, index.size());
+        assertArrayEquals(new int[]{2, 3}, CvSkillIndex.ids(index.get(7)));
+        assertNull(index.get(8));
+    }
+
+    @Test
+    public void testSearchMatchesBruteForce() {
+        Random random = new Random(7);
+        CvSkillIndex index = new CvSkillIndex();
+        int[][] cvs = new int[3000][];
+        for (int cv = 0; cv < cvs.length; cv++) {
+            cvs[cv] = random.ints(random.nextInt(20), 0, 500).toArray();
+            index.put(cv, cvs[cv]);
+        }
+        int[] query = {3, 17, 64, 128, 255, 499};
+
+        List<CvSkillIndex.Match> matches = index.withAtLeast(CvSkillIndex.bitset(query), 2, cvs.length);
+
+        int expected = 0;
+        for (int[] skills : cvs) {
+            long matched = Arrays.stream(query)
+                    .filter(q -> Arrays.stream(skills).anyMatch(s -> s == q))
+                    .count();
+            if (matched >= 2) {
+                expected++;
+            }
+        }
+        assertEquals(expected, matches.size());
+        for (CvSkillIndex.Match match : matches) {
+            assertEquals(match.matched(), CvSkillIndex.overlap(CvSkillIndex.bitset(cvs[(int) match.cvId()]),
+                    CvSkillIndex.bitset(query)));
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.cvcoach.skills;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Skill dictionary scan over large text corpora: the Aho-Corasick automaton against one
+ * case-insensitive regex alternation of all spellings, the usual alternative.
+ * Divide the corpus size by the average time for the throughput in MB/s.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SkillExtractionBenchmark {
+
+    /** Corpus size in characters: about one CV, and a batch of a few thousand CVs */
+    @Param({"4000", "16000000"})
+    public int corpusSize;
+
+    private SkillDictionary dictionary;
+    private Pattern alternation;
+    private String corpus;
+
+    @Setup
+    public void setUp() throws IOException {
+        try (InputStream input = getClass().getResourceAsStream("/skills/skills.csv")) {
+            dictionary = SkillDictionary.parse(new InputStreamReader(input, StandardCharsets.UTF_8));
+        }
+        alternation = Pattern.compile(dictionary.spellings().stream()
+                        .map(Pattern::quote)
+                        .collect(Collectors.joining("|", "(?<![\\p{L}\\p{N}])(?:", ")(?![\\p{L}\\p{N}])")),
+                Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+
+        String cv = resource("/compaction/english-two-pages.txt") + resource("/compaction/polish-consent.txt");
+        String[] filler = {"delivered", "the", "project", "team", "clients", "across", "Europe", "with", "weekly",
+                "releases", "improving", "latency", "by", "40%", "and", "reducing", "costs"};
+        Random random = new Random(42);
+        StringBuilder text = new StringBuilder(corpusSize + cv.length());
+        while (text.length() < corpusSize) {
+            text.append(cv);
+            for (int i = 0; i < 2000; i++) {
+                text.append(filler[random.nextInt(filler.length)]).append(i % 12 == 11 ? ".\n" : " ");
+            }
+        }
+        corpus = text.substring(0, corpusSize);
+    }
+
+    @Benchmark
+    public SkillExtraction dictionaryScan() {
+        return dictionary.extract(corpus);
+    }
+
+    @Benchmark
+    public Set<String> regexAlternation() {
+        Set<String> found = new LinkedHashSet<>();
+        Matcher matcher = alternation.matcher(corpus);
+        while (matcher.find()) {
+            found.add(matcher.group().toLowerCase());
+        }
+        return found;
+    }
+
+    private static String resource(String name) throws IOException {
+        try (InputStream input = SkillExtractionBenchmark.class.getResourceAsStream(name)) {
+            return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}